@@ -0,0 +1,61 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.*;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of the first scrape in a fresh JVM, class loading and initialization included, with the wire encoder used by
+ * {@link ProtobufFormatter} and with the generated {@link Metrics} messages. Every fork measures a single call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class FirstScrapeBenchmark {
+  private final @NotNull CollectorRegistry registry = new CollectorRegistry();
+
+  @Setup
+  public void setUp() {
+    final Counter counter = Counter.build("requests_total", "help").labelNames("path").register(registry);
+    final Histogram histogram = Histogram.build("latency_seconds", "help").labelNames("path").register(registry);
+    for (int i = 0; i < 10; i++) {
+      counter.labels("/" + i).inc(i);
+      histogram.labels("/" + i).observe(i / 10.0);
+    }
+  }
+
+  @Benchmark
+  public int encoder() throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(registry.metricFamilySamples()).write(output);
+    return output.size();
+  }
+
+  @Benchmark
+  public int generated() throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    for (Collector.MetricFamilySamples family : Collections.list(registry.metricFamilySamples())) {
+      final Metrics.MetricFamily.Builder builder = Metrics.MetricFamily.newBuilder()
+          .setName(family.name)
+          .setHelp(family.help)
+          .setType(family.type == Collector.Type.COUNTER ? Metrics.MetricType.COUNTER : Metrics.MetricType.HISTOGRAM);
+      for (Collector.MetricFamilySamples.Sample sample : family.samples) {
+        final Metrics.Metric.Builder metric = Metrics.Metric.newBuilder();
+        for (int i = 0; i < sample.labelNames.size(); i++) {
+          metric.addLabel(Metrics.LabelPair.newBuilder().setName(sample.labelNames.get(i)).setValue(sample.labelValues.get(i)));
+        }
+        builder.addMetric(metric.setUntyped(Metrics.Untyped.newBuilder().setValue(sample.value)));
+      }
+      builder.build().writeDelimitedTo(output);
+    }
+    return output.size();
+  }
+}
@@ -0,0 +1,58 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Gauge;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses an encoded payload of about 10 MB with the JDK {@link GZIPOutputStream} and with
+ * {@link ParallelGzipOutputStream} on the common pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GzipBenchmark {
+  private final @NotNull ByteArrayOutputStream output = new ByteArrayOutputStream(4 << 20);
+  private byte[] payload;
+
+  @Setup
+  public void setUp() throws IOException {
+    final CollectorRegistry registry = new CollectorRegistry();
+    for (int i = 0; i < 1000; i++) {
+      final Gauge gauge = Gauge.build("connection_pool_size_" + i, "Connections in the pool.").labelNames("host", "pool").register(registry);
+      for (int j = 0; j < 200; j++) {
+        gauge.labels("host-" + j % 20 + ".example.com", "pool-" + j).set(j);
+      }
+    }
+    final ByteArrayOutputStream encoded = new ByteArrayOutputStream(16 << 20);
+    new ProtobufFormatter(registry.metricFamilySamples()).write(encoded);
+    payload = encoded.toByteArray();
+  }
+
+  @Benchmark
+  public int jdk() throws IOException {
+    output.reset();
+    try (final GZIPOutputStream gzip = new GZIPOutputStream(output, 8192)) {
+      gzip.write(payload);
+    }
+    return output.size();
+  }
+
+  @Benchmark
+  public int parallel() throws IOException {
+    output.reset();
+    try (final ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(output)) {
+      gzip.write(payload);
+    }
+    return output.size();
+  }
+}
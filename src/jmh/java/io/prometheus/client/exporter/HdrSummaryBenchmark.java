@@ -0,0 +1,37 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Summary;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records latencies from several threads into a simpleclient summary with quantiles and into {@link HdrSummary}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class HdrSummaryBenchmark {
+  private final @NotNull Summary.Child ckms = Summary.build("ckms", "help")
+      .quantile(0.5, 0.01).quantile(0.99, 0.001)
+      .create().labels();
+  private final @NotNull HdrSummary.Child hdr = HdrSummary.build("hdr", "help")
+      .quantile(0.5).quantile(0.99)
+      .create().labels();
+
+  @Benchmark
+  public void ckms() {
+    ckms.observe(ThreadLocalRandom.current().nextDouble());
+  }
+
+  @Benchmark
+  public void hdr() {
+    hdr.observe(ThreadLocalRandom.current().nextDouble());
+  }
+}
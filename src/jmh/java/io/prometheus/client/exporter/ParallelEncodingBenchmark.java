@@ -0,0 +1,50 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Gauge;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes a registry of a thousand families with 200 series each, about 10 MB, on the calling thread and with
+ * {@link ParallelEncoding} on the common pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelEncodingBenchmark {
+  private final @NotNull CollectorRegistry registry = new CollectorRegistry();
+  private final @NotNull ParallelEncoding parallel = new ParallelEncoding(0);
+  private final @NotNull ByteArrayOutputStream output = new ByteArrayOutputStream(16 << 20);
+
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < 1000; i++) {
+      final Gauge gauge = Gauge.build("connection_pool_size_" + i, "Connections in the pool.").labelNames("host", "pool").register(registry);
+      for (int j = 0; j < 200; j++) {
+        gauge.labels("host-" + j % 20 + ".example.com", "pool-" + j).set(j);
+      }
+    }
+  }
+
+  @Benchmark
+  public int sequential() throws IOException {
+    output.reset();
+    new ProtobufFormatter(registry.metricFamilySamples()).write(output);
+    return output.size();
+  }
+
+  @Benchmark
+  public int parallel() throws IOException {
+    output.reset();
+    new ProtobufFormatter(registry.metricFamilySamples(), null, parallel).write(output);
+    return output.size();
+  }
+}
@@ -0,0 +1,73 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes the same gauge and histogram families given as samples and as columnar batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SampleBatchBenchmark {
+  private static final double[] BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, Double.POSITIVE_INFINITY};
+
+  @Param({"100", "10000"})
+  public int series;
+
+  private final @NotNull ByteArrayOutputStream output = new ByteArrayOutputStream(1 << 20);
+  private @NotNull List<Collector.MetricFamilySamples> samples = Collections.emptyList();
+  private @NotNull List<Collector.MetricFamilySamples> batches = Collections.emptyList();
+
+  @Setup
+  public void setUp() {
+    final LabelSet[] dictionary = new LabelSet[series];
+    for (int i = 0; i < series; i++) {
+      dictionary[i] = LabelSet.of(new String[]{"path", "method"}, new String[]{"/path/" + i, i % 2 == 0 ? "GET" : "POST"});
+    }
+    final SampleBatch gauge = new SampleBatch("gauge", Collector.Type.GAUGE, "help", dictionary);
+    final SampleBatch histogram = new SampleBatch("histogram", Collector.Type.HISTOGRAM, "help", dictionary);
+    for (int i = 0; i < series; i++) {
+      gauge.value(i, i);
+      for (int j = 0; j < BUCKETS.length; j++) {
+        histogram.bucket(i, BUCKETS[j], j + i);
+      }
+      histogram.count(i, BUCKETS.length - 1 + i);
+      histogram.sum(i, i * 0.5);
+    }
+    batches = new ArrayList<>();
+    batches.add(gauge);
+    batches.add(histogram);
+    samples = new ArrayList<>();
+    for (Collector.MetricFamilySamples batch : batches) {
+      samples.add(new Collector.MetricFamilySamples(batch.name, batch.type, batch.help, new ArrayList<>(batch.samples)));
+    }
+  }
+
+  @Benchmark
+  public int samples() throws IOException {
+    return write(samples);
+  }
+
+  @Benchmark
+  public int batches() throws IOException {
+    return write(batches);
+  }
+
+  private int write(@NotNull List<Collector.MetricFamilySamples> families) throws IOException {
+    output.reset();
+    new ProtobufFormatter(Collections.enumeration(families)).write(output);
+    return output.size();
+  }
+}
@@ -0,0 +1,48 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records log-normal latencies into a {@link SketchSummary} and takes the merged window snapshot a scrape needs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SketchSummaryBenchmark {
+
+  @Param({"0.01", "0.001"})
+  public double accuracy;
+
+  private @NotNull SketchSummary.Child child = SketchSummary.build("latency", "help").create().labels();
+
+  @Setup
+  public void setUp() {
+    child = SketchSummary.build("latency", "help").relativeAccuracy(accuracy).create().labels();
+    final Random random = new Random(1);
+    for (int i = 0; i < 1_000_000; i++) {
+      child.observe(latency(random.nextGaussian()));
+    }
+  }
+
+  @Benchmark
+  public void observe() {
+    child.observe(latency(ThreadLocalRandom.current().nextGaussian()));
+  }
+
+  @Benchmark
+  public double scrape() {
+    return child.snapshot().quantile(0.99);
+  }
+
+  private static double latency(double gaussian) {
+    return Math.exp(gaussian * 2 - 5);
+  }
+}
@@ -1400,6 +1400,32 @@ public final class Metrics {
      * <code>optional double value = 1;</code>
      */
     double getValue();
+
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+     */
+    boolean hasExemplar();
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+     */
+    io.prometheus.client.Metrics.Exemplar getExemplar();
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+     */
+    io.prometheus.client.Metrics.ExemplarOrBuilder getExemplarOrBuilder();
+
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+     */
+    boolean hasCreatedTimestamp();
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+     */
+    com.google.protobuf.Timestamp getCreatedTimestamp();
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+     */
+    com.google.protobuf.TimestampOrBuilder getCreatedTimestampOrBuilder();
   }
   /**
    * Protobuf type {@code io.prometheus.client.Counter}
@@ -1446,6 +1472,32 @@ public final class Metrics {
               value_ = input.readDouble();
               break;
             }
+            case 18: {
+              io.prometheus.client.Metrics.Exemplar.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000002) == 0x00000002)) {
+                subBuilder = exemplar_.toBuilder();
+              }
+              exemplar_ = input.readMessage(io.prometheus.client.Metrics.Exemplar.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(exemplar_);
+                exemplar_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000002;
+              break;
+            }
+            case 26: {
+              com.google.protobuf.Timestamp.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000004) == 0x00000004)) {
+                subBuilder = createdTimestamp_.toBuilder();
+              }
+              createdTimestamp_ = input.readMessage(com.google.protobuf.Timestamp.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(createdTimestamp_);
+                createdTimestamp_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000004;
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -1494,6 +1546,48 @@ public final class Metrics {
       return value_;
     }
 
+    public static final int EXEMPLAR_FIELD_NUMBER = 2;
+    private io.prometheus.client.Metrics.Exemplar exemplar_;
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+     */
+    public boolean hasExemplar() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+     */
+    public io.prometheus.client.Metrics.Exemplar getExemplar() {
+      return exemplar_ == null ? io.prometheus.client.Metrics.Exemplar.getDefaultInstance() : exemplar_;
+    }
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+     */
+    public io.prometheus.client.Metrics.ExemplarOrBuilder getExemplarOrBuilder() {
+      return exemplar_ == null ? io.prometheus.client.Metrics.Exemplar.getDefaultInstance() : exemplar_;
+    }
+
+    public static final int CREATED_TIMESTAMP_FIELD_NUMBER = 3;
+    private com.google.protobuf.Timestamp createdTimestamp_;
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+     */
+    public boolean hasCreatedTimestamp() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+     */
+    public com.google.protobuf.Timestamp getCreatedTimestamp() {
+      return createdTimestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+    }
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+     */
+    public com.google.protobuf.TimestampOrBuilder getCreatedTimestampOrBuilder() {
+      return createdTimestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -1511,6 +1605,12 @@ public final class Metrics {
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         output.writeDouble(1, value_);
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeMessage(2, getExemplar());
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeMessage(3, getCreatedTimestamp());
+      }
       unknownFields.writeTo(output);
     }
 
@@ -1524,6 +1624,14 @@ public final class Metrics {
         size += com.google.protobuf.CodedOutputStream
           .computeDoubleSize(1, value_);
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(2, getExemplar());
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(3, getCreatedTimestamp());
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -1547,6 +1655,16 @@ public final class Metrics {
             == java.lang.Double.doubleToLongBits(
                 other.getValue()));
       }
+      result = result && (hasExemplar() == other.hasExemplar());
+      if (hasExemplar()) {
+        result = result && getExemplar()
+            .equals(other.getExemplar());
+      }
+      result = result && (hasCreatedTimestamp() == other.hasCreatedTimestamp());
+      if (hasCreatedTimestamp()) {
+        result = result && getCreatedTimestamp()
+            .equals(other.getCreatedTimestamp());
+      }
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -1563,6 +1681,14 @@ public final class Metrics {
         hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
             java.lang.Double.doubleToLongBits(getValue()));
       }
+      if (hasExemplar()) {
+        hash = (37 * hash) + EXEMPLAR_FIELD_NUMBER;
+        hash = (53 * hash) + getExemplar().hashCode();
+      }
+      if (hasCreatedTimestamp()) {
+        hash = (37 * hash) + CREATED_TIMESTAMP_FIELD_NUMBER;
+        hash = (53 * hash) + getCreatedTimestamp().hashCode();
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -1691,6 +1817,8 @@ public final class Metrics {
       private void maybeForceBuilderInitialization() {
         if (com.google.protobuf.GeneratedMessageV3
                 .alwaysUseFieldBuilders) {
+          getExemplarFieldBuilder();
+          getCreatedTimestampFieldBuilder();
         }
       }
       @java.lang.Override
@@ -1698,6 +1826,18 @@ public final class Metrics {
         super.clear();
         value_ = 0D;
         bitField0_ = (bitField0_ & ~0x00000001);
+        if (exemplarBuilder_ == null) {
+          exemplar_ = null;
+        } else {
+          exemplarBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000002);
+        if (createdTimestampBuilder_ == null) {
+          createdTimestamp_ = null;
+        } else {
+          createdTimestampBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -1730,6 +1870,22 @@ public final class Metrics {
           to_bitField0_ |= 0x00000001;
         }
         result.value_ = value_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        if (exemplarBuilder_ == null) {
+          result.exemplar_ = exemplar_;
+        } else {
+          result.exemplar_ = exemplarBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        if (createdTimestampBuilder_ == null) {
+          result.createdTimestamp_ = createdTimestamp_;
+        } else {
+          result.createdTimestamp_ = createdTimestampBuilder_.build();
+        }
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -1782,6 +1938,12 @@ public final class Metrics {
         if (other.hasValue()) {
           setValue(other.getValue());
         }
+        if (other.hasExemplar()) {
+          mergeExemplar(other.getExemplar());
+        }
+        if (other.hasCreatedTimestamp()) {
+          mergeCreatedTimestamp(other.getCreatedTimestamp());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -1843,6 +2005,242 @@ public final class Metrics {
         onChanged();
         return this;
       }
+
+      private io.prometheus.client.Metrics.Exemplar exemplar_ = null;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          io.prometheus.client.Metrics.Exemplar, io.prometheus.client.Metrics.Exemplar.Builder, io.prometheus.client.Metrics.ExemplarOrBuilder> exemplarBuilder_;
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+       */
+      public boolean hasExemplar() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+       */
+      public io.prometheus.client.Metrics.Exemplar getExemplar() {
+        if (exemplarBuilder_ == null) {
+          return exemplar_ == null ? io.prometheus.client.Metrics.Exemplar.getDefaultInstance() : exemplar_;
+        } else {
+          return exemplarBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+       */
+      public Builder setExemplar(io.prometheus.client.Metrics.Exemplar value) {
+        if (exemplarBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          exemplar_ = value;
+          onChanged();
+        } else {
+          exemplarBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000002;
+        return this;
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+       */
+      public Builder setExemplar(
+          io.prometheus.client.Metrics.Exemplar.Builder builderForValue) {
+        if (exemplarBuilder_ == null) {
+          exemplar_ = builderForValue.build();
+          onChanged();
+        } else {
+          exemplarBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000002;
+        return this;
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+       */
+      public Builder mergeExemplar(io.prometheus.client.Metrics.Exemplar value) {
+        if (exemplarBuilder_ == null) {
+          if (((bitField0_ & 0x00000002) == 0x00000002) &&
+              exemplar_ != null &&
+              exemplar_ != io.prometheus.client.Metrics.Exemplar.getDefaultInstance()) {
+            exemplar_ =
+              io.prometheus.client.Metrics.Exemplar.newBuilder(exemplar_).mergeFrom(value).buildPartial();
+          } else {
+            exemplar_ = value;
+          }
+          onChanged();
+        } else {
+          exemplarBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000002;
+        return this;
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+       */
+      public Builder clearExemplar() {
+        if (exemplarBuilder_ == null) {
+          exemplar_ = null;
+          onChanged();
+        } else {
+          exemplarBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000002);
+        return this;
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+       */
+      public io.prometheus.client.Metrics.Exemplar.Builder getExemplarBuilder() {
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return getExemplarFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+       */
+      public io.prometheus.client.Metrics.ExemplarOrBuilder getExemplarOrBuilder() {
+        if (exemplarBuilder_ != null) {
+          return exemplarBuilder_.getMessageOrBuilder();
+        } else {
+          return exemplar_ == null ?
+              io.prometheus.client.Metrics.Exemplar.getDefaultInstance() : exemplar_;
+        }
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 2;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          io.prometheus.client.Metrics.Exemplar, io.prometheus.client.Metrics.Exemplar.Builder, io.prometheus.client.Metrics.ExemplarOrBuilder> 
+          getExemplarFieldBuilder() {
+        if (exemplarBuilder_ == null) {
+          exemplarBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              io.prometheus.client.Metrics.Exemplar, io.prometheus.client.Metrics.Exemplar.Builder, io.prometheus.client.Metrics.ExemplarOrBuilder>(
+                  getExemplar(),
+                  getParentForChildren(),
+                  isClean());
+          exemplar_ = null;
+        }
+        return exemplarBuilder_;
+      }
+
+      private com.google.protobuf.Timestamp createdTimestamp_ = null;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder> createdTimestampBuilder_;
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+       */
+      public boolean hasCreatedTimestamp() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+       */
+      public com.google.protobuf.Timestamp getCreatedTimestamp() {
+        if (createdTimestampBuilder_ == null) {
+          return createdTimestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+        } else {
+          return createdTimestampBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+       */
+      public Builder setCreatedTimestamp(com.google.protobuf.Timestamp value) {
+        if (createdTimestampBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          createdTimestamp_ = value;
+          onChanged();
+        } else {
+          createdTimestampBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000004;
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+       */
+      public Builder setCreatedTimestamp(
+          com.google.protobuf.Timestamp.Builder builderForValue) {
+        if (createdTimestampBuilder_ == null) {
+          createdTimestamp_ = builderForValue.build();
+          onChanged();
+        } else {
+          createdTimestampBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000004;
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+       */
+      public Builder mergeCreatedTimestamp(com.google.protobuf.Timestamp value) {
+        if (createdTimestampBuilder_ == null) {
+          if (((bitField0_ & 0x00000004) == 0x00000004) &&
+              createdTimestamp_ != null &&
+              createdTimestamp_ != com.google.protobuf.Timestamp.getDefaultInstance()) {
+            createdTimestamp_ =
+              com.google.protobuf.Timestamp.newBuilder(createdTimestamp_).mergeFrom(value).buildPartial();
+          } else {
+            createdTimestamp_ = value;
+          }
+          onChanged();
+        } else {
+          createdTimestampBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000004;
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+       */
+      public Builder clearCreatedTimestamp() {
+        if (createdTimestampBuilder_ == null) {
+          createdTimestamp_ = null;
+          onChanged();
+        } else {
+          createdTimestampBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+       */
+      public com.google.protobuf.Timestamp.Builder getCreatedTimestampBuilder() {
+        bitField0_ |= 0x00000004;
+        onChanged();
+        return getCreatedTimestampFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+       */
+      public com.google.protobuf.TimestampOrBuilder getCreatedTimestampOrBuilder() {
+        if (createdTimestampBuilder_ != null) {
+          return createdTimestampBuilder_.getMessageOrBuilder();
+        } else {
+          return createdTimestamp_ == null ?
+              com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+        }
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 3;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder> 
+          getCreatedTimestampFieldBuilder() {
+        if (createdTimestampBuilder_ == null) {
+          createdTimestampBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder>(
+                  getCreatedTimestamp(),
+                  getParentForChildren(),
+                  isClean());
+          createdTimestamp_ = null;
+        }
+        return createdTimestampBuilder_;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -2539,6 +2937,19 @@ public final class Metrics {
      */
     io.prometheus.client.Metrics.QuantileOrBuilder getQuantileOrBuilder(
         int index);
+
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+     */
+    boolean hasCreatedTimestamp();
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+     */
+    com.google.protobuf.Timestamp getCreatedTimestamp();
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+     */
+    com.google.protobuf.TimestampOrBuilder getCreatedTimestampOrBuilder();
   }
   /**
    * Protobuf type {@code io.prometheus.client.Summary}
@@ -2601,6 +3012,19 @@ public final class Metrics {
                   input.readMessage(io.prometheus.client.Metrics.Quantile.PARSER, extensionRegistry));
               break;
             }
+            case 34: {
+              com.google.protobuf.Timestamp.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000004) == 0x00000004)) {
+                subBuilder = createdTimestamp_.toBuilder();
+              }
+              createdTimestamp_ = input.readMessage(com.google.protobuf.Timestamp.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(createdTimestamp_);
+                createdTimestamp_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000004;
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -2702,6 +3126,27 @@ public final class Metrics {
       return quantile_.get(index);
     }
 
+    public static final int CREATED_TIMESTAMP_FIELD_NUMBER = 4;
+    private com.google.protobuf.Timestamp createdTimestamp_;
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+     */
+    public boolean hasCreatedTimestamp() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+     */
+    public com.google.protobuf.Timestamp getCreatedTimestamp() {
+      return createdTimestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+    }
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+     */
+    public com.google.protobuf.TimestampOrBuilder getCreatedTimestampOrBuilder() {
+      return createdTimestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -2725,6 +3170,9 @@ public final class Metrics {
       for (int i = 0; i < quantile_.size(); i++) {
         output.writeMessage(3, quantile_.get(i));
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeMessage(4, getCreatedTimestamp());
+      }
       unknownFields.writeTo(output);
     }
 
@@ -2746,6 +3194,10 @@ public final class Metrics {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(3, quantile_.get(i));
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(4, getCreatedTimestamp());
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -2776,6 +3228,11 @@ public final class Metrics {
       }
       result = result && getQuantileList()
           .equals(other.getQuantileList());
+      result = result && (hasCreatedTimestamp() == other.hasCreatedTimestamp());
+      if (hasCreatedTimestamp()) {
+        result = result && getCreatedTimestamp()
+            .equals(other.getCreatedTimestamp());
+      }
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -2801,6 +3258,10 @@ public final class Metrics {
         hash = (37 * hash) + QUANTILE_FIELD_NUMBER;
         hash = (53 * hash) + getQuantileList().hashCode();
       }
+      if (hasCreatedTimestamp()) {
+        hash = (37 * hash) + CREATED_TIMESTAMP_FIELD_NUMBER;
+        hash = (53 * hash) + getCreatedTimestamp().hashCode();
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -2930,6 +3391,7 @@ public final class Metrics {
         if (com.google.protobuf.GeneratedMessageV3
                 .alwaysUseFieldBuilders) {
           getQuantileFieldBuilder();
+          getCreatedTimestampFieldBuilder();
         }
       }
       @java.lang.Override
@@ -2945,6 +3407,12 @@ public final class Metrics {
         } else {
           quantileBuilder_.clear();
         }
+        if (createdTimestampBuilder_ == null) {
+          createdTimestamp_ = null;
+        } else {
+          createdTimestampBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
 
@@ -2990,10 +3458,18 @@ public final class Metrics {
         } else {
           result.quantile_ = quantileBuilder_.build();
         }
-        result.bitField0_ = to_bitField0_;
-        onBuilt();
-        return result;
-      }
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        if (createdTimestampBuilder_ == null) {
+          result.createdTimestamp_ = createdTimestamp_;
+        } else {
+          result.createdTimestamp_ = createdTimestampBuilder_.build();
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
 
       @java.lang.Override
       public Builder clone() {
@@ -3071,6 +3547,9 @@ public final class Metrics {
             }
           }
         }
+        if (other.hasCreatedTimestamp()) {
+          mergeCreatedTimestamp(other.getCreatedTimestamp());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -3404,6 +3883,124 @@ public final class Metrics {
         }
         return quantileBuilder_;
       }
+
+      private com.google.protobuf.Timestamp createdTimestamp_ = null;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder> createdTimestampBuilder_;
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+       */
+      public boolean hasCreatedTimestamp() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+       */
+      public com.google.protobuf.Timestamp getCreatedTimestamp() {
+        if (createdTimestampBuilder_ == null) {
+          return createdTimestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+        } else {
+          return createdTimestampBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+       */
+      public Builder setCreatedTimestamp(com.google.protobuf.Timestamp value) {
+        if (createdTimestampBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          createdTimestamp_ = value;
+          onChanged();
+        } else {
+          createdTimestampBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000008;
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+       */
+      public Builder setCreatedTimestamp(
+          com.google.protobuf.Timestamp.Builder builderForValue) {
+        if (createdTimestampBuilder_ == null) {
+          createdTimestamp_ = builderForValue.build();
+          onChanged();
+        } else {
+          createdTimestampBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000008;
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+       */
+      public Builder mergeCreatedTimestamp(com.google.protobuf.Timestamp value) {
+        if (createdTimestampBuilder_ == null) {
+          if (((bitField0_ & 0x00000008) == 0x00000008) &&
+              createdTimestamp_ != null &&
+              createdTimestamp_ != com.google.protobuf.Timestamp.getDefaultInstance()) {
+            createdTimestamp_ =
+              com.google.protobuf.Timestamp.newBuilder(createdTimestamp_).mergeFrom(value).buildPartial();
+          } else {
+            createdTimestamp_ = value;
+          }
+          onChanged();
+        } else {
+          createdTimestampBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000008;
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+       */
+      public Builder clearCreatedTimestamp() {
+        if (createdTimestampBuilder_ == null) {
+          createdTimestamp_ = null;
+          onChanged();
+        } else {
+          createdTimestampBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000008);
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+       */
+      public com.google.protobuf.Timestamp.Builder getCreatedTimestampBuilder() {
+        bitField0_ |= 0x00000008;
+        onChanged();
+        return getCreatedTimestampFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+       */
+      public com.google.protobuf.TimestampOrBuilder getCreatedTimestampOrBuilder() {
+        if (createdTimestampBuilder_ != null) {
+          return createdTimestampBuilder_.getMessageOrBuilder();
+        } else {
+          return createdTimestamp_ == null ?
+              com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+        }
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 4;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder> 
+          getCreatedTimestampFieldBuilder() {
+        if (createdTimestampBuilder_ == null) {
+          createdTimestampBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder>(
+                  getCreatedTimestamp(),
+                  getParentForChildren(),
+                  isClean());
+          createdTimestamp_ = null;
+        }
+        return createdTimestampBuilder_;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -3978,6 +4575,23 @@ public final class Metrics {
      */
     long getSampleCount();
 
+    /**
+     * <pre>
+     * Overrides sample_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double sample_count_float = 4;</code>
+     */
+    boolean hasSampleCountFloat();
+    /**
+     * <pre>
+     * Overrides sample_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double sample_count_float = 4;</code>
+     */
+    double getSampleCountFloat();
+
     /**
      * <code>optional double sample_sum = 2;</code>
      */
@@ -3989,7 +4603,7 @@ public final class Metrics {
 
     /**
      * <pre>
-     * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+     * Buckets for the conventional histogram.
      * </pre>
      *
      * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
@@ -3998,7 +4612,7 @@ public final class Metrics {
         getBucketList();
     /**
      * <pre>
-     * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+     * Buckets for the conventional histogram.
      * </pre>
      *
      * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
@@ -4006,7 +4620,7 @@ public final class Metrics {
     io.prometheus.client.Metrics.Bucket getBucket(int index);
     /**
      * <pre>
-     * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+     * Buckets for the conventional histogram.
      * </pre>
      *
      * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
@@ -4014,7 +4628,7 @@ public final class Metrics {
     int getBucketCount();
     /**
      * <pre>
-     * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+     * Buckets for the conventional histogram.
      * </pre>
      *
      * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
@@ -4023,196 +4637,5345 @@ public final class Metrics {
         getBucketOrBuilderList();
     /**
      * <pre>
-     * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+     * Buckets for the conventional histogram.
      * </pre>
      *
      * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
      */
     io.prometheus.client.Metrics.BucketOrBuilder getBucketOrBuilder(
         int index);
-  }
-  /**
-   * Protobuf type {@code io.prometheus.client.Histogram}
-   */
-  public  static final class Histogram extends
-      com.google.protobuf.GeneratedMessageV3 implements
-      // @@protoc_insertion_point(message_implements:io.prometheus.client.Histogram)
-      HistogramOrBuilder {
-  private static final long serialVersionUID = 0L;
-    // Use Histogram.newBuilder() to construct.
-    private Histogram(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
-      super(builder);
-    }
-    private Histogram() {
-      sampleCount_ = 0L;
-      sampleSum_ = 0D;
-      bucket_ = java.util.Collections.emptyList();
-    }
 
-    @java.lang.Override
-    public final com.google.protobuf.UnknownFieldSet
-    getUnknownFields() {
-      return this.unknownFields;
-    }
-    private Histogram(
-        com.google.protobuf.CodedInputStream input,
-        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-        throws com.google.protobuf.InvalidProtocolBufferException {
-      this();
-      if (extensionRegistry == null) {
-        throw new java.lang.NullPointerException();
-      }
-      int mutable_bitField0_ = 0;
-      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
-          com.google.protobuf.UnknownFieldSet.newBuilder();
-      try {
-        boolean done = false;
-        while (!done) {
-          int tag = input.readTag();
-          switch (tag) {
-            case 0:
-              done = true;
-              break;
-            case 8: {
-              bitField0_ |= 0x00000001;
-              sampleCount_ = input.readUInt64();
-              break;
-            }
-            case 17: {
-              bitField0_ |= 0x00000002;
-              sampleSum_ = input.readDouble();
-              break;
-            }
-            case 26: {
-              if (!((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
-                bucket_ = new java.util.ArrayList<io.prometheus.client.Metrics.Bucket>();
-                mutable_bitField0_ |= 0x00000004;
-              }
-              bucket_.add(
-                  input.readMessage(io.prometheus.client.Metrics.Bucket.PARSER, extensionRegistry));
-              break;
-            }
-            default: {
-              if (!parseUnknownField(
-                  input, unknownFields, extensionRegistry, tag)) {
-                done = true;
-              }
-              break;
-            }
-          }
-        }
-      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-        throw e.setUnfinishedMessage(this);
-      } catch (java.io.IOException e) {
-        throw new com.google.protobuf.InvalidProtocolBufferException(
-            e).setUnfinishedMessage(this);
-      } finally {
-        if (((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
-          bucket_ = java.util.Collections.unmodifiableList(bucket_);
-        }
-        this.unknownFields = unknownFields.build();
-        makeExtensionsImmutable();
-      }
-    }
-    public static final com.google.protobuf.Descriptors.Descriptor
-        getDescriptor() {
-      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Histogram_descriptor;
-    }
+    /**
+     * <pre>
+     * schema defines the bucket schema. Currently, valid numbers are -4 &lt;= n &lt;= 8.
+     * They are all for base-2 bucket schemas, where 1 is a bucket boundary in each case, and
+     * then each power of two is divided into 2^n logarithmic buckets.
+     * Or in other words, each bucket boundary is the previous boundary times 2^(2^-n).
+     * In the future, more bucket schemas may be added using numbers &lt; -4 or &gt; 8.
+     * </pre>
+     *
+     * <code>optional sint32 schema = 5;</code>
+     */
+    boolean hasSchema();
+    /**
+     * <pre>
+     * schema defines the bucket schema. Currently, valid numbers are -4 &lt;= n &lt;= 8.
+     * They are all for base-2 bucket schemas, where 1 is a bucket boundary in each case, and
+     * then each power of two is divided into 2^n logarithmic buckets.
+     * Or in other words, each bucket boundary is the previous boundary times 2^(2^-n).
+     * In the future, more bucket schemas may be added using numbers &lt; -4 or &gt; 8.
+     * </pre>
+     *
+     * <code>optional sint32 schema = 5;</code>
+     */
+    int getSchema();
 
-    @java.lang.Override
-    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-        internalGetFieldAccessorTable() {
-      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Histogram_fieldAccessorTable
-          .ensureFieldAccessorsInitialized(
-              io.prometheus.client.Metrics.Histogram.class, io.prometheus.client.Metrics.Histogram.Builder.class);
-    }
+    /**
+     * <pre>
+     * Breadth of the zero bucket.
+     * </pre>
+     *
+     * <code>optional double zero_threshold = 6;</code>
+     */
+    boolean hasZeroThreshold();
+    /**
+     * <pre>
+     * Breadth of the zero bucket.
+     * </pre>
+     *
+     * <code>optional double zero_threshold = 6;</code>
+     */
+    double getZeroThreshold();
 
-    private int bitField0_;
-    public static final int SAMPLE_COUNT_FIELD_NUMBER = 1;
-    private long sampleCount_;
     /**
-     * <code>optional uint64 sample_count = 1;</code>
+     * <pre>
+     * Count in zero bucket.
+     * </pre>
+     *
+     * <code>optional uint64 zero_count = 7;</code>
      */
-    public boolean hasSampleCount() {
-      return ((bitField0_ & 0x00000001) == 0x00000001);
-    }
+    boolean hasZeroCount();
     /**
-     * <code>optional uint64 sample_count = 1;</code>
+     * <pre>
+     * Count in zero bucket.
+     * </pre>
+     *
+     * <code>optional uint64 zero_count = 7;</code>
      */
-    public long getSampleCount() {
-      return sampleCount_;
-    }
+    long getZeroCount();
 
-    public static final int SAMPLE_SUM_FIELD_NUMBER = 2;
-    private double sampleSum_;
     /**
-     * <code>optional double sample_sum = 2;</code>
+     * <pre>
+     * Overrides sb_zero_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double zero_count_float = 8;</code>
      */
-    public boolean hasSampleSum() {
-      return ((bitField0_ & 0x00000002) == 0x00000002);
-    }
+    boolean hasZeroCountFloat();
     /**
-     * <code>optional double sample_sum = 2;</code>
+     * <pre>
+     * Overrides sb_zero_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double zero_count_float = 8;</code>
      */
-    public double getSampleSum() {
-      return sampleSum_;
-    }
+    double getZeroCountFloat();
 
-    public static final int BUCKET_FIELD_NUMBER = 3;
-    private java.util.List<io.prometheus.client.Metrics.Bucket> bucket_;
     /**
      * <pre>
-     * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+     * Negative buckets for the native histogram.
      * </pre>
      *
-     * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+     * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
      */
-    public java.util.List<io.prometheus.client.Metrics.Bucket> getBucketList() {
-      return bucket_;
-    }
+    java.util.List<io.prometheus.client.Metrics.BucketSpan> 
+        getNegativeSpanList();
     /**
      * <pre>
-     * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+     * Negative buckets for the native histogram.
      * </pre>
      *
-     * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+     * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
      */
-    public java.util.List<? extends io.prometheus.client.Metrics.BucketOrBuilder> 
-        getBucketOrBuilderList() {
-      return bucket_;
-    }
+    io.prometheus.client.Metrics.BucketSpan getNegativeSpan(int index);
     /**
      * <pre>
-     * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+     * Negative buckets for the native histogram.
      * </pre>
      *
-     * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+     * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
      */
-    public int getBucketCount() {
-      return bucket_.size();
-    }
+    int getNegativeSpanCount();
     /**
      * <pre>
-     * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+     * Negative buckets for the native histogram.
      * </pre>
      *
-     * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+     * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
      */
-    public io.prometheus.client.Metrics.Bucket getBucket(int index) {
-      return bucket_.get(index);
-    }
+    java.util.List<? extends io.prometheus.client.Metrics.BucketSpanOrBuilder> 
+        getNegativeSpanOrBuilderList();
     /**
      * <pre>
-     * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+     * Negative buckets for the native histogram.
      * </pre>
      *
-     * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+     * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
      */
-    public io.prometheus.client.Metrics.BucketOrBuilder getBucketOrBuilder(
-        int index) {
+    io.prometheus.client.Metrics.BucketSpanOrBuilder getNegativeSpanOrBuilder(
+        int index);
+
+    /**
+     * <pre>
+     * Use either "negative_delta" or "negative_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 negative_delta = 10;</code>
+     */
+    java.util.List<java.lang.Long> getNegativeDeltaList();
+    /**
+     * <pre>
+     * Use either "negative_delta" or "negative_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 negative_delta = 10;</code>
+     */
+    int getNegativeDeltaCount();
+    /**
+     * <pre>
+     * Use either "negative_delta" or "negative_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 negative_delta = 10;</code>
+     */
+    long getNegativeDelta(int index);
+
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double negative_count = 11;</code>
+     */
+    java.util.List<java.lang.Double> getNegativeCountList();
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double negative_count = 11;</code>
+     */
+    int getNegativeCountCount();
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double negative_count = 11;</code>
+     */
+    double getNegativeCount(int index);
+
+    /**
+     * <pre>
+     * Positive buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+     */
+    java.util.List<io.prometheus.client.Metrics.BucketSpan> 
+        getPositiveSpanList();
+    /**
+     * <pre>
+     * Positive buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+     */
+    io.prometheus.client.Metrics.BucketSpan getPositiveSpan(int index);
+    /**
+     * <pre>
+     * Positive buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+     */
+    int getPositiveSpanCount();
+    /**
+     * <pre>
+     * Positive buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+     */
+    java.util.List<? extends io.prometheus.client.Metrics.BucketSpanOrBuilder> 
+        getPositiveSpanOrBuilderList();
+    /**
+     * <pre>
+     * Positive buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+     */
+    io.prometheus.client.Metrics.BucketSpanOrBuilder getPositiveSpanOrBuilder(
+        int index);
+
+    /**
+     * <pre>
+     * Use either "positive_delta" or "positive_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 positive_delta = 13;</code>
+     */
+    java.util.List<java.lang.Long> getPositiveDeltaList();
+    /**
+     * <pre>
+     * Use either "positive_delta" or "positive_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 positive_delta = 13;</code>
+     */
+    int getPositiveDeltaCount();
+    /**
+     * <pre>
+     * Use either "positive_delta" or "positive_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 positive_delta = 13;</code>
+     */
+    long getPositiveDelta(int index);
+
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double positive_count = 14;</code>
+     */
+    java.util.List<java.lang.Double> getPositiveCountList();
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double positive_count = 14;</code>
+     */
+    int getPositiveCountCount();
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double positive_count = 14;</code>
+     */
+    double getPositiveCount(int index);
+
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+     */
+    boolean hasCreatedTimestamp();
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+     */
+    com.google.protobuf.Timestamp getCreatedTimestamp();
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+     */
+    com.google.protobuf.TimestampOrBuilder getCreatedTimestampOrBuilder();
+
+    /**
+     * <pre>
+     * Only used for native histograms. These exemplars MUST have a timestamp.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+     */
+    java.util.List<io.prometheus.client.Metrics.Exemplar> 
+        getExemplarsList();
+    /**
+     * <pre>
+     * Only used for native histograms. These exemplars MUST have a timestamp.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+     */
+    io.prometheus.client.Metrics.Exemplar getExemplars(int index);
+    /**
+     * <pre>
+     * Only used for native histograms. These exemplars MUST have a timestamp.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+     */
+    int getExemplarsCount();
+    /**
+     * <pre>
+     * Only used for native histograms. These exemplars MUST have a timestamp.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+     */
+    java.util.List<? extends io.prometheus.client.Metrics.ExemplarOrBuilder> 
+        getExemplarsOrBuilderList();
+    /**
+     * <pre>
+     * Only used for native histograms. These exemplars MUST have a timestamp.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+     */
+    io.prometheus.client.Metrics.ExemplarOrBuilder getExemplarsOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code io.prometheus.client.Histogram}
+   */
+  public  static final class Histogram extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:io.prometheus.client.Histogram)
+      HistogramOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use Histogram.newBuilder() to construct.
+    private Histogram(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private Histogram() {
+      sampleCount_ = 0L;
+      sampleCountFloat_ = 0D;
+      sampleSum_ = 0D;
+      bucket_ = java.util.Collections.emptyList();
+      schema_ = 0;
+      zeroThreshold_ = 0D;
+      zeroCount_ = 0L;
+      zeroCountFloat_ = 0D;
+      negativeSpan_ = java.util.Collections.emptyList();
+      negativeDelta_ = java.util.Collections.emptyList();
+      negativeCount_ = java.util.Collections.emptyList();
+      positiveSpan_ = java.util.Collections.emptyList();
+      positiveDelta_ = java.util.Collections.emptyList();
+      positiveCount_ = java.util.Collections.emptyList();
+      exemplars_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private Histogram(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 8: {
+              bitField0_ |= 0x00000001;
+              sampleCount_ = input.readUInt64();
+              break;
+            }
+            case 17: {
+              bitField0_ |= 0x00000004;
+              sampleSum_ = input.readDouble();
+              break;
+            }
+            case 26: {
+              if (!((mutable_bitField0_ & 0x00000008) == 0x00000008)) {
+                bucket_ = new java.util.ArrayList<io.prometheus.client.Metrics.Bucket>();
+                mutable_bitField0_ |= 0x00000008;
+              }
+              bucket_.add(
+                  input.readMessage(io.prometheus.client.Metrics.Bucket.PARSER, extensionRegistry));
+              break;
+            }
+            case 33: {
+              bitField0_ |= 0x00000002;
+              sampleCountFloat_ = input.readDouble();
+              break;
+            }
+            case 40: {
+              bitField0_ |= 0x00000008;
+              schema_ = input.readSInt32();
+              break;
+            }
+            case 49: {
+              bitField0_ |= 0x00000010;
+              zeroThreshold_ = input.readDouble();
+              break;
+            }
+            case 56: {
+              bitField0_ |= 0x00000020;
+              zeroCount_ = input.readUInt64();
+              break;
+            }
+            case 65: {
+              bitField0_ |= 0x00000040;
+              zeroCountFloat_ = input.readDouble();
+              break;
+            }
+            case 74: {
+              if (!((mutable_bitField0_ & 0x00000100) == 0x00000100)) {
+                negativeSpan_ = new java.util.ArrayList<io.prometheus.client.Metrics.BucketSpan>();
+                mutable_bitField0_ |= 0x00000100;
+              }
+              negativeSpan_.add(
+                  input.readMessage(io.prometheus.client.Metrics.BucketSpan.PARSER, extensionRegistry));
+              break;
+            }
+            case 80: {
+              if (!((mutable_bitField0_ & 0x00000200) == 0x00000200)) {
+                negativeDelta_ = new java.util.ArrayList<java.lang.Long>();
+                mutable_bitField0_ |= 0x00000200;
+              }
+              negativeDelta_.add(input.readSInt64());
+              break;
+            }
+            case 82: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000200) == 0x00000200) && input.getBytesUntilLimit() > 0) {
+                negativeDelta_ = new java.util.ArrayList<java.lang.Long>();
+                mutable_bitField0_ |= 0x00000200;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                negativeDelta_.add(input.readSInt64());
+              }
+              input.popLimit(limit);
+              break;
+            }
+            case 89: {
+              if (!((mutable_bitField0_ & 0x00000400) == 0x00000400)) {
+                negativeCount_ = new java.util.ArrayList<java.lang.Double>();
+                mutable_bitField0_ |= 0x00000400;
+              }
+              negativeCount_.add(input.readDouble());
+              break;
+            }
+            case 90: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000400) == 0x00000400) && input.getBytesUntilLimit() > 0) {
+                negativeCount_ = new java.util.ArrayList<java.lang.Double>();
+                mutable_bitField0_ |= 0x00000400;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                negativeCount_.add(input.readDouble());
+              }
+              input.popLimit(limit);
+              break;
+            }
+            case 98: {
+              if (!((mutable_bitField0_ & 0x00000800) == 0x00000800)) {
+                positiveSpan_ = new java.util.ArrayList<io.prometheus.client.Metrics.BucketSpan>();
+                mutable_bitField0_ |= 0x00000800;
+              }
+              positiveSpan_.add(
+                  input.readMessage(io.prometheus.client.Metrics.BucketSpan.PARSER, extensionRegistry));
+              break;
+            }
+            case 104: {
+              if (!((mutable_bitField0_ & 0x00001000) == 0x00001000)) {
+                positiveDelta_ = new java.util.ArrayList<java.lang.Long>();
+                mutable_bitField0_ |= 0x00001000;
+              }
+              positiveDelta_.add(input.readSInt64());
+              break;
+            }
+            case 106: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00001000) == 0x00001000) && input.getBytesUntilLimit() > 0) {
+                positiveDelta_ = new java.util.ArrayList<java.lang.Long>();
+                mutable_bitField0_ |= 0x00001000;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                positiveDelta_.add(input.readSInt64());
+              }
+              input.popLimit(limit);
+              break;
+            }
+            case 113: {
+              if (!((mutable_bitField0_ & 0x00002000) == 0x00002000)) {
+                positiveCount_ = new java.util.ArrayList<java.lang.Double>();
+                mutable_bitField0_ |= 0x00002000;
+              }
+              positiveCount_.add(input.readDouble());
+              break;
+            }
+            case 114: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00002000) == 0x00002000) && input.getBytesUntilLimit() > 0) {
+                positiveCount_ = new java.util.ArrayList<java.lang.Double>();
+                mutable_bitField0_ |= 0x00002000;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                positiveCount_.add(input.readDouble());
+              }
+              input.popLimit(limit);
+              break;
+            }
+            case 122: {
+              com.google.protobuf.Timestamp.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000080) == 0x00000080)) {
+                subBuilder = createdTimestamp_.toBuilder();
+              }
+              createdTimestamp_ = input.readMessage(com.google.protobuf.Timestamp.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(createdTimestamp_);
+                createdTimestamp_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000080;
+              break;
+            }
+            case 130: {
+              if (!((mutable_bitField0_ & 0x00008000) == 0x00008000)) {
+                exemplars_ = new java.util.ArrayList<io.prometheus.client.Metrics.Exemplar>();
+                mutable_bitField0_ |= 0x00008000;
+              }
+              exemplars_.add(
+                  input.readMessage(io.prometheus.client.Metrics.Exemplar.PARSER, extensionRegistry));
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000008) == 0x00000008)) {
+          bucket_ = java.util.Collections.unmodifiableList(bucket_);
+        }
+        if (((mutable_bitField0_ & 0x00000100) == 0x00000100)) {
+          negativeSpan_ = java.util.Collections.unmodifiableList(negativeSpan_);
+        }
+        if (((mutable_bitField0_ & 0x00000200) == 0x00000200)) {
+          negativeDelta_ = java.util.Collections.unmodifiableList(negativeDelta_);
+        }
+        if (((mutable_bitField0_ & 0x00000400) == 0x00000400)) {
+          negativeCount_ = java.util.Collections.unmodifiableList(negativeCount_);
+        }
+        if (((mutable_bitField0_ & 0x00000800) == 0x00000800)) {
+          positiveSpan_ = java.util.Collections.unmodifiableList(positiveSpan_);
+        }
+        if (((mutable_bitField0_ & 0x00001000) == 0x00001000)) {
+          positiveDelta_ = java.util.Collections.unmodifiableList(positiveDelta_);
+        }
+        if (((mutable_bitField0_ & 0x00002000) == 0x00002000)) {
+          positiveCount_ = java.util.Collections.unmodifiableList(positiveCount_);
+        }
+        if (((mutable_bitField0_ & 0x00008000) == 0x00008000)) {
+          exemplars_ = java.util.Collections.unmodifiableList(exemplars_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Histogram_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Histogram_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              io.prometheus.client.Metrics.Histogram.class, io.prometheus.client.Metrics.Histogram.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int SAMPLE_COUNT_FIELD_NUMBER = 1;
+    private long sampleCount_;
+    /**
+     * <code>optional uint64 sample_count = 1;</code>
+     */
+    public boolean hasSampleCount() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional uint64 sample_count = 1;</code>
+     */
+    public long getSampleCount() {
+      return sampleCount_;
+    }
+
+    public static final int SAMPLE_COUNT_FLOAT_FIELD_NUMBER = 4;
+    private double sampleCountFloat_;
+    /**
+     * <pre>
+     * Overrides sample_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double sample_count_float = 4;</code>
+     */
+    public boolean hasSampleCountFloat() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <pre>
+     * Overrides sample_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double sample_count_float = 4;</code>
+     */
+    public double getSampleCountFloat() {
+      return sampleCountFloat_;
+    }
+
+    public static final int SAMPLE_SUM_FIELD_NUMBER = 2;
+    private double sampleSum_;
+    /**
+     * <code>optional double sample_sum = 2;</code>
+     */
+    public boolean hasSampleSum() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional double sample_sum = 2;</code>
+     */
+    public double getSampleSum() {
+      return sampleSum_;
+    }
+
+    public static final int BUCKET_FIELD_NUMBER = 3;
+    private java.util.List<io.prometheus.client.Metrics.Bucket> bucket_;
+    /**
+     * <pre>
+     * Buckets for the conventional histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+     */
+    public java.util.List<io.prometheus.client.Metrics.Bucket> getBucketList() {
+      return bucket_;
+    }
+    /**
+     * <pre>
+     * Buckets for the conventional histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+     */
+    public java.util.List<? extends io.prometheus.client.Metrics.BucketOrBuilder> 
+        getBucketOrBuilderList() {
+      return bucket_;
+    }
+    /**
+     * <pre>
+     * Buckets for the conventional histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+     */
+    public int getBucketCount() {
+      return bucket_.size();
+    }
+    /**
+     * <pre>
+     * Buckets for the conventional histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+     */
+    public io.prometheus.client.Metrics.Bucket getBucket(int index) {
+      return bucket_.get(index);
+    }
+    /**
+     * <pre>
+     * Buckets for the conventional histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+     */
+    public io.prometheus.client.Metrics.BucketOrBuilder getBucketOrBuilder(
+        int index) {
       return bucket_.get(index);
     }
 
+    public static final int SCHEMA_FIELD_NUMBER = 5;
+    private int schema_;
+    /**
+     * <pre>
+     * schema defines the bucket schema. Currently, valid numbers are -4 &lt;= n &lt;= 8.
+     * They are all for base-2 bucket schemas, where 1 is a bucket boundary in each case, and
+     * then each power of two is divided into 2^n logarithmic buckets.
+     * Or in other words, each bucket boundary is the previous boundary times 2^(2^-n).
+     * In the future, more bucket schemas may be added using numbers &lt; -4 or &gt; 8.
+     * </pre>
+     *
+     * <code>optional sint32 schema = 5;</code>
+     */
+    public boolean hasSchema() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <pre>
+     * schema defines the bucket schema. Currently, valid numbers are -4 &lt;= n &lt;= 8.
+     * They are all for base-2 bucket schemas, where 1 is a bucket boundary in each case, and
+     * then each power of two is divided into 2^n logarithmic buckets.
+     * Or in other words, each bucket boundary is the previous boundary times 2^(2^-n).
+     * In the future, more bucket schemas may be added using numbers &lt; -4 or &gt; 8.
+     * </pre>
+     *
+     * <code>optional sint32 schema = 5;</code>
+     */
+    public int getSchema() {
+      return schema_;
+    }
+
+    public static final int ZERO_THRESHOLD_FIELD_NUMBER = 6;
+    private double zeroThreshold_;
+    /**
+     * <pre>
+     * Breadth of the zero bucket.
+     * </pre>
+     *
+     * <code>optional double zero_threshold = 6;</code>
+     */
+    public boolean hasZeroThreshold() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <pre>
+     * Breadth of the zero bucket.
+     * </pre>
+     *
+     * <code>optional double zero_threshold = 6;</code>
+     */
+    public double getZeroThreshold() {
+      return zeroThreshold_;
+    }
+
+    public static final int ZERO_COUNT_FIELD_NUMBER = 7;
+    private long zeroCount_;
+    /**
+     * <pre>
+     * Count in zero bucket.
+     * </pre>
+     *
+     * <code>optional uint64 zero_count = 7;</code>
+     */
+    public boolean hasZeroCount() {
+      return ((bitField0_ & 0x00000020) == 0x00000020);
+    }
+    /**
+     * <pre>
+     * Count in zero bucket.
+     * </pre>
+     *
+     * <code>optional uint64 zero_count = 7;</code>
+     */
+    public long getZeroCount() {
+      return zeroCount_;
+    }
+
+    public static final int ZERO_COUNT_FLOAT_FIELD_NUMBER = 8;
+    private double zeroCountFloat_;
+    /**
+     * <pre>
+     * Overrides sb_zero_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double zero_count_float = 8;</code>
+     */
+    public boolean hasZeroCountFloat() {
+      return ((bitField0_ & 0x00000040) == 0x00000040);
+    }
+    /**
+     * <pre>
+     * Overrides sb_zero_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double zero_count_float = 8;</code>
+     */
+    public double getZeroCountFloat() {
+      return zeroCountFloat_;
+    }
+
+    public static final int NEGATIVE_SPAN_FIELD_NUMBER = 9;
+    private java.util.List<io.prometheus.client.Metrics.BucketSpan> negativeSpan_;
+    /**
+     * <pre>
+     * Negative buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+     */
+    public java.util.List<io.prometheus.client.Metrics.BucketSpan> getNegativeSpanList() {
+      return negativeSpan_;
+    }
+    /**
+     * <pre>
+     * Negative buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+     */
+    public java.util.List<? extends io.prometheus.client.Metrics.BucketSpanOrBuilder> 
+        getNegativeSpanOrBuilderList() {
+      return negativeSpan_;
+    }
+    /**
+     * <pre>
+     * Negative buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+     */
+    public int getNegativeSpanCount() {
+      return negativeSpan_.size();
+    }
+    /**
+     * <pre>
+     * Negative buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+     */
+    public io.prometheus.client.Metrics.BucketSpan getNegativeSpan(int index) {
+      return negativeSpan_.get(index);
+    }
+    /**
+     * <pre>
+     * Negative buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+     */
+    public io.prometheus.client.Metrics.BucketSpanOrBuilder getNegativeSpanOrBuilder(
+        int index) {
+      return negativeSpan_.get(index);
+    }
+
+    public static final int NEGATIVE_DELTA_FIELD_NUMBER = 10;
+    private java.util.List<java.lang.Long> negativeDelta_;
+    /**
+     * <pre>
+     * Use either "negative_delta" or "negative_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 negative_delta = 10;</code>
+     */
+    public java.util.List<java.lang.Long>
+        getNegativeDeltaList() {
+      return negativeDelta_;
+    }
+    /**
+     * <pre>
+     * Use either "negative_delta" or "negative_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 negative_delta = 10;</code>
+     */
+    public int getNegativeDeltaCount() {
+      return negativeDelta_.size();
+    }
+    /**
+     * <pre>
+     * Use either "negative_delta" or "negative_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 negative_delta = 10;</code>
+     */
+    public long getNegativeDelta(int index) {
+      return negativeDelta_.get(index);
+    }
+
+    public static final int NEGATIVE_COUNT_FIELD_NUMBER = 11;
+    private java.util.List<java.lang.Double> negativeCount_;
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double negative_count = 11;</code>
+     */
+    public java.util.List<java.lang.Double>
+        getNegativeCountList() {
+      return negativeCount_;
+    }
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double negative_count = 11;</code>
+     */
+    public int getNegativeCountCount() {
+      return negativeCount_.size();
+    }
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double negative_count = 11;</code>
+     */
+    public double getNegativeCount(int index) {
+      return negativeCount_.get(index);
+    }
+
+    public static final int POSITIVE_SPAN_FIELD_NUMBER = 12;
+    private java.util.List<io.prometheus.client.Metrics.BucketSpan> positiveSpan_;
+    /**
+     * <pre>
+     * Positive buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+     */
+    public java.util.List<io.prometheus.client.Metrics.BucketSpan> getPositiveSpanList() {
+      return positiveSpan_;
+    }
+    /**
+     * <pre>
+     * Positive buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+     */
+    public java.util.List<? extends io.prometheus.client.Metrics.BucketSpanOrBuilder> 
+        getPositiveSpanOrBuilderList() {
+      return positiveSpan_;
+    }
+    /**
+     * <pre>
+     * Positive buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+     */
+    public int getPositiveSpanCount() {
+      return positiveSpan_.size();
+    }
+    /**
+     * <pre>
+     * Positive buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+     */
+    public io.prometheus.client.Metrics.BucketSpan getPositiveSpan(int index) {
+      return positiveSpan_.get(index);
+    }
+    /**
+     * <pre>
+     * Positive buckets for the native histogram.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+     */
+    public io.prometheus.client.Metrics.BucketSpanOrBuilder getPositiveSpanOrBuilder(
+        int index) {
+      return positiveSpan_.get(index);
+    }
+
+    public static final int POSITIVE_DELTA_FIELD_NUMBER = 13;
+    private java.util.List<java.lang.Long> positiveDelta_;
+    /**
+     * <pre>
+     * Use either "positive_delta" or "positive_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 positive_delta = 13;</code>
+     */
+    public java.util.List<java.lang.Long>
+        getPositiveDeltaList() {
+      return positiveDelta_;
+    }
+    /**
+     * <pre>
+     * Use either "positive_delta" or "positive_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 positive_delta = 13;</code>
+     */
+    public int getPositiveDeltaCount() {
+      return positiveDelta_.size();
+    }
+    /**
+     * <pre>
+     * Use either "positive_delta" or "positive_count", the former for
+     * regular histograms with integer counts, the latter for float
+     * histograms.
+     * </pre>
+     *
+     * <code>repeated sint64 positive_delta = 13;</code>
+     */
+    public long getPositiveDelta(int index) {
+      return positiveDelta_.get(index);
+    }
+
+    public static final int POSITIVE_COUNT_FIELD_NUMBER = 14;
+    private java.util.List<java.lang.Double> positiveCount_;
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double positive_count = 14;</code>
+     */
+    public java.util.List<java.lang.Double>
+        getPositiveCountList() {
+      return positiveCount_;
+    }
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double positive_count = 14;</code>
+     */
+    public int getPositiveCountCount() {
+      return positiveCount_.size();
+    }
+    /**
+     * <pre>
+     * Absolute count of each bucket.
+     * </pre>
+     *
+     * <code>repeated double positive_count = 14;</code>
+     */
+    public double getPositiveCount(int index) {
+      return positiveCount_.get(index);
+    }
+
+    public static final int CREATED_TIMESTAMP_FIELD_NUMBER = 15;
+    private com.google.protobuf.Timestamp createdTimestamp_;
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+     */
+    public boolean hasCreatedTimestamp() {
+      return ((bitField0_ & 0x00000080) == 0x00000080);
+    }
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+     */
+    public com.google.protobuf.Timestamp getCreatedTimestamp() {
+      return createdTimestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+    }
+    /**
+     * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+     */
+    public com.google.protobuf.TimestampOrBuilder getCreatedTimestampOrBuilder() {
+      return createdTimestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+    }
+
+    public static final int EXEMPLARS_FIELD_NUMBER = 16;
+    private java.util.List<io.prometheus.client.Metrics.Exemplar> exemplars_;
+    /**
+     * <pre>
+     * Only used for native histograms. These exemplars MUST have a timestamp.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+     */
+    public java.util.List<io.prometheus.client.Metrics.Exemplar> getExemplarsList() {
+      return exemplars_;
+    }
+    /**
+     * <pre>
+     * Only used for native histograms. These exemplars MUST have a timestamp.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+     */
+    public java.util.List<? extends io.prometheus.client.Metrics.ExemplarOrBuilder> 
+        getExemplarsOrBuilderList() {
+      return exemplars_;
+    }
+    /**
+     * <pre>
+     * Only used for native histograms. These exemplars MUST have a timestamp.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+     */
+    public int getExemplarsCount() {
+      return exemplars_.size();
+    }
+    /**
+     * <pre>
+     * Only used for native histograms. These exemplars MUST have a timestamp.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+     */
+    public io.prometheus.client.Metrics.Exemplar getExemplars(int index) {
+      return exemplars_.get(index);
+    }
+    /**
+     * <pre>
+     * Only used for native histograms. These exemplars MUST have a timestamp.
+     * </pre>
+     *
+     * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+     */
+    public io.prometheus.client.Metrics.ExemplarOrBuilder getExemplarsOrBuilder(
+        int index) {
+      return exemplars_.get(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeUInt64(1, sampleCount_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeDouble(2, sampleSum_);
+      }
+      for (int i = 0; i < bucket_.size(); i++) {
+        output.writeMessage(3, bucket_.get(i));
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeDouble(4, sampleCountFloat_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeSInt32(5, schema_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeDouble(6, zeroThreshold_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        output.writeUInt64(7, zeroCount_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        output.writeDouble(8, zeroCountFloat_);
+      }
+      for (int i = 0; i < negativeSpan_.size(); i++) {
+        output.writeMessage(9, negativeSpan_.get(i));
+      }
+      for (int i = 0; i < negativeDelta_.size(); i++) {
+        output.writeSInt64(10, negativeDelta_.get(i));
+      }
+      for (int i = 0; i < negativeCount_.size(); i++) {
+        output.writeDouble(11, negativeCount_.get(i));
+      }
+      for (int i = 0; i < positiveSpan_.size(); i++) {
+        output.writeMessage(12, positiveSpan_.get(i));
+      }
+      for (int i = 0; i < positiveDelta_.size(); i++) {
+        output.writeSInt64(13, positiveDelta_.get(i));
+      }
+      for (int i = 0; i < positiveCount_.size(); i++) {
+        output.writeDouble(14, positiveCount_.get(i));
+      }
+      if (((bitField0_ & 0x00000080) == 0x00000080)) {
+        output.writeMessage(15, getCreatedTimestamp());
+      }
+      for (int i = 0; i < exemplars_.size(); i++) {
+        output.writeMessage(16, exemplars_.get(i));
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(1, sampleCount_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeDoubleSize(2, sampleSum_);
+      }
+      for (int i = 0; i < bucket_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(3, bucket_.get(i));
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeDoubleSize(4, sampleCountFloat_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeSInt32Size(5, schema_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeDoubleSize(6, zeroThreshold_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(7, zeroCount_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeDoubleSize(8, zeroCountFloat_);
+      }
+      for (int i = 0; i < negativeSpan_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(9, negativeSpan_.get(i));
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < negativeDelta_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeSInt64SizeNoTag(negativeDelta_.get(i));
+        }
+        size += dataSize;
+        size += 1 * getNegativeDeltaList().size();
+      }
+      {
+        int dataSize = 0;
+        dataSize = 8 * getNegativeCountList().size();
+        size += dataSize;
+        size += 1 * getNegativeCountList().size();
+      }
+      for (int i = 0; i < positiveSpan_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(12, positiveSpan_.get(i));
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < positiveDelta_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeSInt64SizeNoTag(positiveDelta_.get(i));
+        }
+        size += dataSize;
+        size += 1 * getPositiveDeltaList().size();
+      }
+      {
+        int dataSize = 0;
+        dataSize = 8 * getPositiveCountList().size();
+        size += dataSize;
+        size += 1 * getPositiveCountList().size();
+      }
+      if (((bitField0_ & 0x00000080) == 0x00000080)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(15, getCreatedTimestamp());
+      }
+      for (int i = 0; i < exemplars_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(16, exemplars_.get(i));
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof io.prometheus.client.Metrics.Histogram)) {
+        return super.equals(obj);
+      }
+      io.prometheus.client.Metrics.Histogram other = (io.prometheus.client.Metrics.Histogram) obj;
+
+      boolean result = true;
+      result = result && (hasSampleCount() == other.hasSampleCount());
+      if (hasSampleCount()) {
+        result = result && (getSampleCount()
+            == other.getSampleCount());
+      }
+      result = result && (hasSampleCountFloat() == other.hasSampleCountFloat());
+      if (hasSampleCountFloat()) {
+        result = result && (
+            java.lang.Double.doubleToLongBits(getSampleCountFloat())
+            == java.lang.Double.doubleToLongBits(
+                other.getSampleCountFloat()));
+      }
+      result = result && (hasSampleSum() == other.hasSampleSum());
+      if (hasSampleSum()) {
+        result = result && (
+            java.lang.Double.doubleToLongBits(getSampleSum())
+            == java.lang.Double.doubleToLongBits(
+                other.getSampleSum()));
+      }
+      result = result && getBucketList()
+          .equals(other.getBucketList());
+      result = result && (hasSchema() == other.hasSchema());
+      if (hasSchema()) {
+        result = result && (getSchema()
+            == other.getSchema());
+      }
+      result = result && (hasZeroThreshold() == other.hasZeroThreshold());
+      if (hasZeroThreshold()) {
+        result = result && (
+            java.lang.Double.doubleToLongBits(getZeroThreshold())
+            == java.lang.Double.doubleToLongBits(
+                other.getZeroThreshold()));
+      }
+      result = result && (hasZeroCount() == other.hasZeroCount());
+      if (hasZeroCount()) {
+        result = result && (getZeroCount()
+            == other.getZeroCount());
+      }
+      result = result && (hasZeroCountFloat() == other.hasZeroCountFloat());
+      if (hasZeroCountFloat()) {
+        result = result && (
+            java.lang.Double.doubleToLongBits(getZeroCountFloat())
+            == java.lang.Double.doubleToLongBits(
+                other.getZeroCountFloat()));
+      }
+      result = result && getNegativeSpanList()
+          .equals(other.getNegativeSpanList());
+      result = result && getNegativeDeltaList()
+          .equals(other.getNegativeDeltaList());
+      result = result && getNegativeCountList()
+          .equals(other.getNegativeCountList());
+      result = result && getPositiveSpanList()
+          .equals(other.getPositiveSpanList());
+      result = result && getPositiveDeltaList()
+          .equals(other.getPositiveDeltaList());
+      result = result && getPositiveCountList()
+          .equals(other.getPositiveCountList());
+      result = result && (hasCreatedTimestamp() == other.hasCreatedTimestamp());
+      if (hasCreatedTimestamp()) {
+        result = result && getCreatedTimestamp()
+            .equals(other.getCreatedTimestamp());
+      }
+      result = result && getExemplarsList()
+          .equals(other.getExemplarsList());
+      result = result && unknownFields.equals(other.unknownFields);
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasSampleCount()) {
+        hash = (37 * hash) + SAMPLE_COUNT_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getSampleCount());
+      }
+      if (hasSampleCountFloat()) {
+        hash = (37 * hash) + SAMPLE_COUNT_FLOAT_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            java.lang.Double.doubleToLongBits(getSampleCountFloat()));
+      }
+      if (hasSampleSum()) {
+        hash = (37 * hash) + SAMPLE_SUM_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            java.lang.Double.doubleToLongBits(getSampleSum()));
+      }
+      if (getBucketCount() > 0) {
+        hash = (37 * hash) + BUCKET_FIELD_NUMBER;
+        hash = (53 * hash) + getBucketList().hashCode();
+      }
+      if (hasSchema()) {
+        hash = (37 * hash) + SCHEMA_FIELD_NUMBER;
+        hash = (53 * hash) + getSchema();
+      }
+      if (hasZeroThreshold()) {
+        hash = (37 * hash) + ZERO_THRESHOLD_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            java.lang.Double.doubleToLongBits(getZeroThreshold()));
+      }
+      if (hasZeroCount()) {
+        hash = (37 * hash) + ZERO_COUNT_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getZeroCount());
+      }
+      if (hasZeroCountFloat()) {
+        hash = (37 * hash) + ZERO_COUNT_FLOAT_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            java.lang.Double.doubleToLongBits(getZeroCountFloat()));
+      }
+      if (getNegativeSpanCount() > 0) {
+        hash = (37 * hash) + NEGATIVE_SPAN_FIELD_NUMBER;
+        hash = (53 * hash) + getNegativeSpanList().hashCode();
+      }
+      if (getNegativeDeltaCount() > 0) {
+        hash = (37 * hash) + NEGATIVE_DELTA_FIELD_NUMBER;
+        hash = (53 * hash) + getNegativeDeltaList().hashCode();
+      }
+      if (getNegativeCountCount() > 0) {
+        hash = (37 * hash) + NEGATIVE_COUNT_FIELD_NUMBER;
+        hash = (53 * hash) + getNegativeCountList().hashCode();
+      }
+      if (getPositiveSpanCount() > 0) {
+        hash = (37 * hash) + POSITIVE_SPAN_FIELD_NUMBER;
+        hash = (53 * hash) + getPositiveSpanList().hashCode();
+      }
+      if (getPositiveDeltaCount() > 0) {
+        hash = (37 * hash) + POSITIVE_DELTA_FIELD_NUMBER;
+        hash = (53 * hash) + getPositiveDeltaList().hashCode();
+      }
+      if (getPositiveCountCount() > 0) {
+        hash = (37 * hash) + POSITIVE_COUNT_FIELD_NUMBER;
+        hash = (53 * hash) + getPositiveCountList().hashCode();
+      }
+      if (hasCreatedTimestamp()) {
+        hash = (37 * hash) + CREATED_TIMESTAMP_FIELD_NUMBER;
+        hash = (53 * hash) + getCreatedTimestamp().hashCode();
+      }
+      if (getExemplarsCount() > 0) {
+        hash = (37 * hash) + EXEMPLARS_FIELD_NUMBER;
+        hash = (53 * hash) + getExemplarsList().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static io.prometheus.client.Metrics.Histogram parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static io.prometheus.client.Metrics.Histogram parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static io.prometheus.client.Metrics.Histogram parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static io.prometheus.client.Metrics.Histogram parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static io.prometheus.client.Metrics.Histogram parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static io.prometheus.client.Metrics.Histogram parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static io.prometheus.client.Metrics.Histogram parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static io.prometheus.client.Metrics.Histogram parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static io.prometheus.client.Metrics.Histogram parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static io.prometheus.client.Metrics.Histogram parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static io.prometheus.client.Metrics.Histogram parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static io.prometheus.client.Metrics.Histogram parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(io.prometheus.client.Metrics.Histogram prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code io.prometheus.client.Histogram}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:io.prometheus.client.Histogram)
+        io.prometheus.client.Metrics.HistogramOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Histogram_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Histogram_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                io.prometheus.client.Metrics.Histogram.class, io.prometheus.client.Metrics.Histogram.Builder.class);
+      }
+
+      // Construct using io.prometheus.client.Metrics.Histogram.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getBucketFieldBuilder();
+          getNegativeSpanFieldBuilder();
+          getPositiveSpanFieldBuilder();
+          getCreatedTimestampFieldBuilder();
+          getExemplarsFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        sampleCount_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        sampleCountFloat_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        sampleSum_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        if (bucketBuilder_ == null) {
+          bucket_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000008);
+        } else {
+          bucketBuilder_.clear();
+        }
+        schema_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        zeroThreshold_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000020);
+        zeroCount_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        zeroCountFloat_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000080);
+        if (negativeSpanBuilder_ == null) {
+          negativeSpan_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000100);
+        } else {
+          negativeSpanBuilder_.clear();
+        }
+        negativeDelta_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000200);
+        negativeCount_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000400);
+        if (positiveSpanBuilder_ == null) {
+          positiveSpan_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000800);
+        } else {
+          positiveSpanBuilder_.clear();
+        }
+        positiveDelta_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00001000);
+        positiveCount_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00002000);
+        if (createdTimestampBuilder_ == null) {
+          createdTimestamp_ = null;
+        } else {
+          createdTimestampBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00004000);
+        if (exemplarsBuilder_ == null) {
+          exemplars_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00008000);
+        } else {
+          exemplarsBuilder_.clear();
+        }
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Histogram_descriptor;
+      }
+
+      @java.lang.Override
+      public io.prometheus.client.Metrics.Histogram getDefaultInstanceForType() {
+        return io.prometheus.client.Metrics.Histogram.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public io.prometheus.client.Metrics.Histogram build() {
+        io.prometheus.client.Metrics.Histogram result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public io.prometheus.client.Metrics.Histogram buildPartial() {
+        io.prometheus.client.Metrics.Histogram result = new io.prometheus.client.Metrics.Histogram(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.sampleCount_ = sampleCount_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.sampleCountFloat_ = sampleCountFloat_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.sampleSum_ = sampleSum_;
+        if (bucketBuilder_ == null) {
+          if (((bitField0_ & 0x00000008) == 0x00000008)) {
+            bucket_ = java.util.Collections.unmodifiableList(bucket_);
+            bitField0_ = (bitField0_ & ~0x00000008);
+          }
+          result.bucket_ = bucket_;
+        } else {
+          result.bucket_ = bucketBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.schema_ = schema_;
+        if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.zeroThreshold_ = zeroThreshold_;
+        if (((from_bitField0_ & 0x00000040) == 0x00000040)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.zeroCount_ = zeroCount_;
+        if (((from_bitField0_ & 0x00000080) == 0x00000080)) {
+          to_bitField0_ |= 0x00000040;
+        }
+        result.zeroCountFloat_ = zeroCountFloat_;
+        if (negativeSpanBuilder_ == null) {
+          if (((bitField0_ & 0x00000100) == 0x00000100)) {
+            negativeSpan_ = java.util.Collections.unmodifiableList(negativeSpan_);
+            bitField0_ = (bitField0_ & ~0x00000100);
+          }
+          result.negativeSpan_ = negativeSpan_;
+        } else {
+          result.negativeSpan_ = negativeSpanBuilder_.build();
+        }
+        if (((bitField0_ & 0x00000200) == 0x00000200)) {
+          negativeDelta_ = java.util.Collections.unmodifiableList(negativeDelta_);
+          bitField0_ = (bitField0_ & ~0x00000200);
+        }
+        result.negativeDelta_ = negativeDelta_;
+        if (((bitField0_ & 0x00000400) == 0x00000400)) {
+          negativeCount_ = java.util.Collections.unmodifiableList(negativeCount_);
+          bitField0_ = (bitField0_ & ~0x00000400);
+        }
+        result.negativeCount_ = negativeCount_;
+        if (positiveSpanBuilder_ == null) {
+          if (((bitField0_ & 0x00000800) == 0x00000800)) {
+            positiveSpan_ = java.util.Collections.unmodifiableList(positiveSpan_);
+            bitField0_ = (bitField0_ & ~0x00000800);
+          }
+          result.positiveSpan_ = positiveSpan_;
+        } else {
+          result.positiveSpan_ = positiveSpanBuilder_.build();
+        }
+        if (((bitField0_ & 0x00001000) == 0x00001000)) {
+          positiveDelta_ = java.util.Collections.unmodifiableList(positiveDelta_);
+          bitField0_ = (bitField0_ & ~0x00001000);
+        }
+        result.positiveDelta_ = positiveDelta_;
+        if (((bitField0_ & 0x00002000) == 0x00002000)) {
+          positiveCount_ = java.util.Collections.unmodifiableList(positiveCount_);
+          bitField0_ = (bitField0_ & ~0x00002000);
+        }
+        result.positiveCount_ = positiveCount_;
+        if (((from_bitField0_ & 0x00004000) == 0x00004000)) {
+          to_bitField0_ |= 0x00000080;
+        }
+        if (createdTimestampBuilder_ == null) {
+          result.createdTimestamp_ = createdTimestamp_;
+        } else {
+          result.createdTimestamp_ = createdTimestampBuilder_.build();
+        }
+        if (exemplarsBuilder_ == null) {
+          if (((bitField0_ & 0x00008000) == 0x00008000)) {
+            exemplars_ = java.util.Collections.unmodifiableList(exemplars_);
+            bitField0_ = (bitField0_ & ~0x00008000);
+          }
+          result.exemplars_ = exemplars_;
+        } else {
+          result.exemplars_ = exemplarsBuilder_.build();
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof io.prometheus.client.Metrics.Histogram) {
+          return mergeFrom((io.prometheus.client.Metrics.Histogram)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(io.prometheus.client.Metrics.Histogram other) {
+        if (other == io.prometheus.client.Metrics.Histogram.getDefaultInstance()) return this;
+        if (other.hasSampleCount()) {
+          setSampleCount(other.getSampleCount());
+        }
+        if (other.hasSampleCountFloat()) {
+          setSampleCountFloat(other.getSampleCountFloat());
+        }
+        if (other.hasSampleSum()) {
+          setSampleSum(other.getSampleSum());
+        }
+        if (bucketBuilder_ == null) {
+          if (!other.bucket_.isEmpty()) {
+            if (bucket_.isEmpty()) {
+              bucket_ = other.bucket_;
+              bitField0_ = (bitField0_ & ~0x00000008);
+            } else {
+              ensureBucketIsMutable();
+              bucket_.addAll(other.bucket_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.bucket_.isEmpty()) {
+            if (bucketBuilder_.isEmpty()) {
+              bucketBuilder_.dispose();
+              bucketBuilder_ = null;
+              bucket_ = other.bucket_;
+              bitField0_ = (bitField0_ & ~0x00000008);
+              bucketBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getBucketFieldBuilder() : null;
+            } else {
+              bucketBuilder_.addAllMessages(other.bucket_);
+            }
+          }
+        }
+        if (other.hasSchema()) {
+          setSchema(other.getSchema());
+        }
+        if (other.hasZeroThreshold()) {
+          setZeroThreshold(other.getZeroThreshold());
+        }
+        if (other.hasZeroCount()) {
+          setZeroCount(other.getZeroCount());
+        }
+        if (other.hasZeroCountFloat()) {
+          setZeroCountFloat(other.getZeroCountFloat());
+        }
+        if (negativeSpanBuilder_ == null) {
+          if (!other.negativeSpan_.isEmpty()) {
+            if (negativeSpan_.isEmpty()) {
+              negativeSpan_ = other.negativeSpan_;
+              bitField0_ = (bitField0_ & ~0x00000100);
+            } else {
+              ensureNegativeSpanIsMutable();
+              negativeSpan_.addAll(other.negativeSpan_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.negativeSpan_.isEmpty()) {
+            if (negativeSpanBuilder_.isEmpty()) {
+              negativeSpanBuilder_.dispose();
+              negativeSpanBuilder_ = null;
+              negativeSpan_ = other.negativeSpan_;
+              bitField0_ = (bitField0_ & ~0x00000100);
+              negativeSpanBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getNegativeSpanFieldBuilder() : null;
+            } else {
+              negativeSpanBuilder_.addAllMessages(other.negativeSpan_);
+            }
+          }
+        }
+        if (!other.negativeDelta_.isEmpty()) {
+          if (negativeDelta_.isEmpty()) {
+            negativeDelta_ = other.negativeDelta_;
+            bitField0_ = (bitField0_ & ~0x00000200);
+          } else {
+            ensureNegativeDeltaIsMutable();
+            negativeDelta_.addAll(other.negativeDelta_);
+          }
+          onChanged();
+        }
+        if (!other.negativeCount_.isEmpty()) {
+          if (negativeCount_.isEmpty()) {
+            negativeCount_ = other.negativeCount_;
+            bitField0_ = (bitField0_ & ~0x00000400);
+          } else {
+            ensureNegativeCountIsMutable();
+            negativeCount_.addAll(other.negativeCount_);
+          }
+          onChanged();
+        }
+        if (positiveSpanBuilder_ == null) {
+          if (!other.positiveSpan_.isEmpty()) {
+            if (positiveSpan_.isEmpty()) {
+              positiveSpan_ = other.positiveSpan_;
+              bitField0_ = (bitField0_ & ~0x00000800);
+            } else {
+              ensurePositiveSpanIsMutable();
+              positiveSpan_.addAll(other.positiveSpan_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.positiveSpan_.isEmpty()) {
+            if (positiveSpanBuilder_.isEmpty()) {
+              positiveSpanBuilder_.dispose();
+              positiveSpanBuilder_ = null;
+              positiveSpan_ = other.positiveSpan_;
+              bitField0_ = (bitField0_ & ~0x00000800);
+              positiveSpanBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getPositiveSpanFieldBuilder() : null;
+            } else {
+              positiveSpanBuilder_.addAllMessages(other.positiveSpan_);
+            }
+          }
+        }
+        if (!other.positiveDelta_.isEmpty()) {
+          if (positiveDelta_.isEmpty()) {
+            positiveDelta_ = other.positiveDelta_;
+            bitField0_ = (bitField0_ & ~0x00001000);
+          } else {
+            ensurePositiveDeltaIsMutable();
+            positiveDelta_.addAll(other.positiveDelta_);
+          }
+          onChanged();
+        }
+        if (!other.positiveCount_.isEmpty()) {
+          if (positiveCount_.isEmpty()) {
+            positiveCount_ = other.positiveCount_;
+            bitField0_ = (bitField0_ & ~0x00002000);
+          } else {
+            ensurePositiveCountIsMutable();
+            positiveCount_.addAll(other.positiveCount_);
+          }
+          onChanged();
+        }
+        if (other.hasCreatedTimestamp()) {
+          mergeCreatedTimestamp(other.getCreatedTimestamp());
+        }
+        if (exemplarsBuilder_ == null) {
+          if (!other.exemplars_.isEmpty()) {
+            if (exemplars_.isEmpty()) {
+              exemplars_ = other.exemplars_;
+              bitField0_ = (bitField0_ & ~0x00008000);
+            } else {
+              ensureExemplarsIsMutable();
+              exemplars_.addAll(other.exemplars_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.exemplars_.isEmpty()) {
+            if (exemplarsBuilder_.isEmpty()) {
+              exemplarsBuilder_.dispose();
+              exemplarsBuilder_ = null;
+              exemplars_ = other.exemplars_;
+              bitField0_ = (bitField0_ & ~0x00008000);
+              exemplarsBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getExemplarsFieldBuilder() : null;
+            } else {
+              exemplarsBuilder_.addAllMessages(other.exemplars_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        io.prometheus.client.Metrics.Histogram parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (io.prometheus.client.Metrics.Histogram) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private long sampleCount_ ;
+      /**
+       * <code>optional uint64 sample_count = 1;</code>
+       */
+      public boolean hasSampleCount() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional uint64 sample_count = 1;</code>
+       */
+      public long getSampleCount() {
+        return sampleCount_;
+      }
+      /**
+       * <code>optional uint64 sample_count = 1;</code>
+       */
+      public Builder setSampleCount(long value) {
+        bitField0_ |= 0x00000001;
+        sampleCount_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 sample_count = 1;</code>
+       */
+      public Builder clearSampleCount() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        sampleCount_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private double sampleCountFloat_ ;
+      /**
+       * <pre>
+       * Overrides sample_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double sample_count_float = 4;</code>
+       */
+      public boolean hasSampleCountFloat() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <pre>
+       * Overrides sample_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double sample_count_float = 4;</code>
+       */
+      public double getSampleCountFloat() {
+        return sampleCountFloat_;
+      }
+      /**
+       * <pre>
+       * Overrides sample_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double sample_count_float = 4;</code>
+       */
+      public Builder setSampleCountFloat(double value) {
+        bitField0_ |= 0x00000002;
+        sampleCountFloat_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Overrides sample_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double sample_count_float = 4;</code>
+       */
+      public Builder clearSampleCountFloat() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        sampleCountFloat_ = 0D;
+        onChanged();
+        return this;
+      }
+
+      private double sampleSum_ ;
+      /**
+       * <code>optional double sample_sum = 2;</code>
+       */
+      public boolean hasSampleSum() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional double sample_sum = 2;</code>
+       */
+      public double getSampleSum() {
+        return sampleSum_;
+      }
+      /**
+       * <code>optional double sample_sum = 2;</code>
+       */
+      public Builder setSampleSum(double value) {
+        bitField0_ |= 0x00000004;
+        sampleSum_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional double sample_sum = 2;</code>
+       */
+      public Builder clearSampleSum() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        sampleSum_ = 0D;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<io.prometheus.client.Metrics.Bucket> bucket_ =
+        java.util.Collections.emptyList();
+      private void ensureBucketIsMutable() {
+        if (!((bitField0_ & 0x00000008) == 0x00000008)) {
+          bucket_ = new java.util.ArrayList<io.prometheus.client.Metrics.Bucket>(bucket_);
+          bitField0_ |= 0x00000008;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          io.prometheus.client.Metrics.Bucket, io.prometheus.client.Metrics.Bucket.Builder, io.prometheus.client.Metrics.BucketOrBuilder> bucketBuilder_;
+
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public java.util.List<io.prometheus.client.Metrics.Bucket> getBucketList() {
+        if (bucketBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(bucket_);
+        } else {
+          return bucketBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public int getBucketCount() {
+        if (bucketBuilder_ == null) {
+          return bucket_.size();
+        } else {
+          return bucketBuilder_.getCount();
+        }
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public io.prometheus.client.Metrics.Bucket getBucket(int index) {
+        if (bucketBuilder_ == null) {
+          return bucket_.get(index);
+        } else {
+          return bucketBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public Builder setBucket(
+          int index, io.prometheus.client.Metrics.Bucket value) {
+        if (bucketBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBucketIsMutable();
+          bucket_.set(index, value);
+          onChanged();
+        } else {
+          bucketBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public Builder setBucket(
+          int index, io.prometheus.client.Metrics.Bucket.Builder builderForValue) {
+        if (bucketBuilder_ == null) {
+          ensureBucketIsMutable();
+          bucket_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          bucketBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public Builder addBucket(io.prometheus.client.Metrics.Bucket value) {
+        if (bucketBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBucketIsMutable();
+          bucket_.add(value);
+          onChanged();
+        } else {
+          bucketBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public Builder addBucket(
+          int index, io.prometheus.client.Metrics.Bucket value) {
+        if (bucketBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBucketIsMutable();
+          bucket_.add(index, value);
+          onChanged();
+        } else {
+          bucketBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public Builder addBucket(
+          io.prometheus.client.Metrics.Bucket.Builder builderForValue) {
+        if (bucketBuilder_ == null) {
+          ensureBucketIsMutable();
+          bucket_.add(builderForValue.build());
+          onChanged();
+        } else {
+          bucketBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public Builder addBucket(
+          int index, io.prometheus.client.Metrics.Bucket.Builder builderForValue) {
+        if (bucketBuilder_ == null) {
+          ensureBucketIsMutable();
+          bucket_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          bucketBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public Builder addAllBucket(
+          java.lang.Iterable<? extends io.prometheus.client.Metrics.Bucket> values) {
+        if (bucketBuilder_ == null) {
+          ensureBucketIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, bucket_);
+          onChanged();
+        } else {
+          bucketBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public Builder clearBucket() {
+        if (bucketBuilder_ == null) {
+          bucket_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000008);
+          onChanged();
+        } else {
+          bucketBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public Builder removeBucket(int index) {
+        if (bucketBuilder_ == null) {
+          ensureBucketIsMutable();
+          bucket_.remove(index);
+          onChanged();
+        } else {
+          bucketBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public io.prometheus.client.Metrics.Bucket.Builder getBucketBuilder(
+          int index) {
+        return getBucketFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public io.prometheus.client.Metrics.BucketOrBuilder getBucketOrBuilder(
+          int index) {
+        if (bucketBuilder_ == null) {
+          return bucket_.get(index);  } else {
+          return bucketBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public java.util.List<? extends io.prometheus.client.Metrics.BucketOrBuilder> 
+           getBucketOrBuilderList() {
+        if (bucketBuilder_ != null) {
+          return bucketBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(bucket_);
+        }
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public io.prometheus.client.Metrics.Bucket.Builder addBucketBuilder() {
+        return getBucketFieldBuilder().addBuilder(
+            io.prometheus.client.Metrics.Bucket.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public io.prometheus.client.Metrics.Bucket.Builder addBucketBuilder(
+          int index) {
+        return getBucketFieldBuilder().addBuilder(
+            index, io.prometheus.client.Metrics.Bucket.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * Buckets for the conventional histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       */
+      public java.util.List<io.prometheus.client.Metrics.Bucket.Builder> 
+           getBucketBuilderList() {
+        return getBucketFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          io.prometheus.client.Metrics.Bucket, io.prometheus.client.Metrics.Bucket.Builder, io.prometheus.client.Metrics.BucketOrBuilder> 
+          getBucketFieldBuilder() {
+        if (bucketBuilder_ == null) {
+          bucketBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              io.prometheus.client.Metrics.Bucket, io.prometheus.client.Metrics.Bucket.Builder, io.prometheus.client.Metrics.BucketOrBuilder>(
+                  bucket_,
+                  ((bitField0_ & 0x00000008) == 0x00000008),
+                  getParentForChildren(),
+                  isClean());
+          bucket_ = null;
+        }
+        return bucketBuilder_;
+      }
+
+      private int schema_ ;
+      /**
+       * <pre>
+       * schema defines the bucket schema. Currently, valid numbers are -4 &lt;= n &lt;= 8.
+       * They are all for base-2 bucket schemas, where 1 is a bucket boundary in each case, and
+       * then each power of two is divided into 2^n logarithmic buckets.
+       * Or in other words, each bucket boundary is the previous boundary times 2^(2^-n).
+       * In the future, more bucket schemas may be added using numbers &lt; -4 or &gt; 8.
+       * </pre>
+       *
+       * <code>optional sint32 schema = 5;</code>
+       */
+      public boolean hasSchema() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <pre>
+       * schema defines the bucket schema. Currently, valid numbers are -4 &lt;= n &lt;= 8.
+       * They are all for base-2 bucket schemas, where 1 is a bucket boundary in each case, and
+       * then each power of two is divided into 2^n logarithmic buckets.
+       * Or in other words, each bucket boundary is the previous boundary times 2^(2^-n).
+       * In the future, more bucket schemas may be added using numbers &lt; -4 or &gt; 8.
+       * </pre>
+       *
+       * <code>optional sint32 schema = 5;</code>
+       */
+      public int getSchema() {
+        return schema_;
+      }
+      /**
+       * <pre>
+       * schema defines the bucket schema. Currently, valid numbers are -4 &lt;= n &lt;= 8.
+       * They are all for base-2 bucket schemas, where 1 is a bucket boundary in each case, and
+       * then each power of two is divided into 2^n logarithmic buckets.
+       * Or in other words, each bucket boundary is the previous boundary times 2^(2^-n).
+       * In the future, more bucket schemas may be added using numbers &lt; -4 or &gt; 8.
+       * </pre>
+       *
+       * <code>optional sint32 schema = 5;</code>
+       */
+      public Builder setSchema(int value) {
+        bitField0_ |= 0x00000010;
+        schema_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * schema defines the bucket schema. Currently, valid numbers are -4 &lt;= n &lt;= 8.
+       * They are all for base-2 bucket schemas, where 1 is a bucket boundary in each case, and
+       * then each power of two is divided into 2^n logarithmic buckets.
+       * Or in other words, each bucket boundary is the previous boundary times 2^(2^-n).
+       * In the future, more bucket schemas may be added using numbers &lt; -4 or &gt; 8.
+       * </pre>
+       *
+       * <code>optional sint32 schema = 5;</code>
+       */
+      public Builder clearSchema() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        schema_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private double zeroThreshold_ ;
+      /**
+       * <pre>
+       * Breadth of the zero bucket.
+       * </pre>
+       *
+       * <code>optional double zero_threshold = 6;</code>
+       */
+      public boolean hasZeroThreshold() {
+        return ((bitField0_ & 0x00000020) == 0x00000020);
+      }
+      /**
+       * <pre>
+       * Breadth of the zero bucket.
+       * </pre>
+       *
+       * <code>optional double zero_threshold = 6;</code>
+       */
+      public double getZeroThreshold() {
+        return zeroThreshold_;
+      }
+      /**
+       * <pre>
+       * Breadth of the zero bucket.
+       * </pre>
+       *
+       * <code>optional double zero_threshold = 6;</code>
+       */
+      public Builder setZeroThreshold(double value) {
+        bitField0_ |= 0x00000020;
+        zeroThreshold_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Breadth of the zero bucket.
+       * </pre>
+       *
+       * <code>optional double zero_threshold = 6;</code>
+       */
+      public Builder clearZeroThreshold() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        zeroThreshold_ = 0D;
+        onChanged();
+        return this;
+      }
+
+      private long zeroCount_ ;
+      /**
+       * <pre>
+       * Count in zero bucket.
+       * </pre>
+       *
+       * <code>optional uint64 zero_count = 7;</code>
+       */
+      public boolean hasZeroCount() {
+        return ((bitField0_ & 0x00000040) == 0x00000040);
+      }
+      /**
+       * <pre>
+       * Count in zero bucket.
+       * </pre>
+       *
+       * <code>optional uint64 zero_count = 7;</code>
+       */
+      public long getZeroCount() {
+        return zeroCount_;
+      }
+      /**
+       * <pre>
+       * Count in zero bucket.
+       * </pre>
+       *
+       * <code>optional uint64 zero_count = 7;</code>
+       */
+      public Builder setZeroCount(long value) {
+        bitField0_ |= 0x00000040;
+        zeroCount_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Count in zero bucket.
+       * </pre>
+       *
+       * <code>optional uint64 zero_count = 7;</code>
+       */
+      public Builder clearZeroCount() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        zeroCount_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private double zeroCountFloat_ ;
+      /**
+       * <pre>
+       * Overrides sb_zero_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double zero_count_float = 8;</code>
+       */
+      public boolean hasZeroCountFloat() {
+        return ((bitField0_ & 0x00000080) == 0x00000080);
+      }
+      /**
+       * <pre>
+       * Overrides sb_zero_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double zero_count_float = 8;</code>
+       */
+      public double getZeroCountFloat() {
+        return zeroCountFloat_;
+      }
+      /**
+       * <pre>
+       * Overrides sb_zero_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double zero_count_float = 8;</code>
+       */
+      public Builder setZeroCountFloat(double value) {
+        bitField0_ |= 0x00000080;
+        zeroCountFloat_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Overrides sb_zero_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double zero_count_float = 8;</code>
+       */
+      public Builder clearZeroCountFloat() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        zeroCountFloat_ = 0D;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<io.prometheus.client.Metrics.BucketSpan> negativeSpan_ =
+        java.util.Collections.emptyList();
+      private void ensureNegativeSpanIsMutable() {
+        if (!((bitField0_ & 0x00000100) == 0x00000100)) {
+          negativeSpan_ = new java.util.ArrayList<io.prometheus.client.Metrics.BucketSpan>(negativeSpan_);
+          bitField0_ |= 0x00000100;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          io.prometheus.client.Metrics.BucketSpan, io.prometheus.client.Metrics.BucketSpan.Builder, io.prometheus.client.Metrics.BucketSpanOrBuilder> negativeSpanBuilder_;
+
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public java.util.List<io.prometheus.client.Metrics.BucketSpan> getNegativeSpanList() {
+        if (negativeSpanBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(negativeSpan_);
+        } else {
+          return negativeSpanBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public int getNegativeSpanCount() {
+        if (negativeSpanBuilder_ == null) {
+          return negativeSpan_.size();
+        } else {
+          return negativeSpanBuilder_.getCount();
+        }
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public io.prometheus.client.Metrics.BucketSpan getNegativeSpan(int index) {
+        if (negativeSpanBuilder_ == null) {
+          return negativeSpan_.get(index);
+        } else {
+          return negativeSpanBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public Builder setNegativeSpan(
+          int index, io.prometheus.client.Metrics.BucketSpan value) {
+        if (negativeSpanBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureNegativeSpanIsMutable();
+          negativeSpan_.set(index, value);
+          onChanged();
+        } else {
+          negativeSpanBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public Builder setNegativeSpan(
+          int index, io.prometheus.client.Metrics.BucketSpan.Builder builderForValue) {
+        if (negativeSpanBuilder_ == null) {
+          ensureNegativeSpanIsMutable();
+          negativeSpan_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          negativeSpanBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public Builder addNegativeSpan(io.prometheus.client.Metrics.BucketSpan value) {
+        if (negativeSpanBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureNegativeSpanIsMutable();
+          negativeSpan_.add(value);
+          onChanged();
+        } else {
+          negativeSpanBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public Builder addNegativeSpan(
+          int index, io.prometheus.client.Metrics.BucketSpan value) {
+        if (negativeSpanBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureNegativeSpanIsMutable();
+          negativeSpan_.add(index, value);
+          onChanged();
+        } else {
+          negativeSpanBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public Builder addNegativeSpan(
+          io.prometheus.client.Metrics.BucketSpan.Builder builderForValue) {
+        if (negativeSpanBuilder_ == null) {
+          ensureNegativeSpanIsMutable();
+          negativeSpan_.add(builderForValue.build());
+          onChanged();
+        } else {
+          negativeSpanBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public Builder addNegativeSpan(
+          int index, io.prometheus.client.Metrics.BucketSpan.Builder builderForValue) {
+        if (negativeSpanBuilder_ == null) {
+          ensureNegativeSpanIsMutable();
+          negativeSpan_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          negativeSpanBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public Builder addAllNegativeSpan(
+          java.lang.Iterable<? extends io.prometheus.client.Metrics.BucketSpan> values) {
+        if (negativeSpanBuilder_ == null) {
+          ensureNegativeSpanIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, negativeSpan_);
+          onChanged();
+        } else {
+          negativeSpanBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public Builder clearNegativeSpan() {
+        if (negativeSpanBuilder_ == null) {
+          negativeSpan_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000100);
+          onChanged();
+        } else {
+          negativeSpanBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public Builder removeNegativeSpan(int index) {
+        if (negativeSpanBuilder_ == null) {
+          ensureNegativeSpanIsMutable();
+          negativeSpan_.remove(index);
+          onChanged();
+        } else {
+          negativeSpanBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public io.prometheus.client.Metrics.BucketSpan.Builder getNegativeSpanBuilder(
+          int index) {
+        return getNegativeSpanFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public io.prometheus.client.Metrics.BucketSpanOrBuilder getNegativeSpanOrBuilder(
+          int index) {
+        if (negativeSpanBuilder_ == null) {
+          return negativeSpan_.get(index);  } else {
+          return negativeSpanBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public java.util.List<? extends io.prometheus.client.Metrics.BucketSpanOrBuilder> 
+           getNegativeSpanOrBuilderList() {
+        if (negativeSpanBuilder_ != null) {
+          return negativeSpanBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(negativeSpan_);
+        }
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public io.prometheus.client.Metrics.BucketSpan.Builder addNegativeSpanBuilder() {
+        return getNegativeSpanFieldBuilder().addBuilder(
+            io.prometheus.client.Metrics.BucketSpan.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public io.prometheus.client.Metrics.BucketSpan.Builder addNegativeSpanBuilder(
+          int index) {
+        return getNegativeSpanFieldBuilder().addBuilder(
+            index, io.prometheus.client.Metrics.BucketSpan.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * Negative buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan negative_span = 9;</code>
+       */
+      public java.util.List<io.prometheus.client.Metrics.BucketSpan.Builder> 
+           getNegativeSpanBuilderList() {
+        return getNegativeSpanFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          io.prometheus.client.Metrics.BucketSpan, io.prometheus.client.Metrics.BucketSpan.Builder, io.prometheus.client.Metrics.BucketSpanOrBuilder> 
+          getNegativeSpanFieldBuilder() {
+        if (negativeSpanBuilder_ == null) {
+          negativeSpanBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              io.prometheus.client.Metrics.BucketSpan, io.prometheus.client.Metrics.BucketSpan.Builder, io.prometheus.client.Metrics.BucketSpanOrBuilder>(
+                  negativeSpan_,
+                  ((bitField0_ & 0x00000100) == 0x00000100),
+                  getParentForChildren(),
+                  isClean());
+          negativeSpan_ = null;
+        }
+        return negativeSpanBuilder_;
+      }
+
+      private java.util.List<java.lang.Long> negativeDelta_ = java.util.Collections.emptyList();
+      private void ensureNegativeDeltaIsMutable() {
+        if (!((bitField0_ & 0x00000200) == 0x00000200)) {
+          negativeDelta_ = new java.util.ArrayList<java.lang.Long>(negativeDelta_);
+          bitField0_ |= 0x00000200;
+         }
+      }
+      /**
+       * <pre>
+       * Use either "negative_delta" or "negative_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 negative_delta = 10;</code>
+       */
+      public java.util.List<java.lang.Long>
+          getNegativeDeltaList() {
+        return java.util.Collections.unmodifiableList(negativeDelta_);
+      }
+      /**
+       * <pre>
+       * Use either "negative_delta" or "negative_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 negative_delta = 10;</code>
+       */
+      public int getNegativeDeltaCount() {
+        return negativeDelta_.size();
+      }
+      /**
+       * <pre>
+       * Use either "negative_delta" or "negative_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 negative_delta = 10;</code>
+       */
+      public long getNegativeDelta(int index) {
+        return negativeDelta_.get(index);
+      }
+      /**
+       * <pre>
+       * Use either "negative_delta" or "negative_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 negative_delta = 10;</code>
+       */
+      public Builder setNegativeDelta(
+          int index, long value) {
+        ensureNegativeDeltaIsMutable();
+        negativeDelta_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Use either "negative_delta" or "negative_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 negative_delta = 10;</code>
+       */
+      public Builder addNegativeDelta(long value) {
+        ensureNegativeDeltaIsMutable();
+        negativeDelta_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Use either "negative_delta" or "negative_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 negative_delta = 10;</code>
+       */
+      public Builder addAllNegativeDelta(
+          java.lang.Iterable<? extends java.lang.Long> values) {
+        ensureNegativeDeltaIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, negativeDelta_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Use either "negative_delta" or "negative_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 negative_delta = 10;</code>
+       */
+      public Builder clearNegativeDelta() {
+        negativeDelta_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000200);
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<java.lang.Double> negativeCount_ = java.util.Collections.emptyList();
+      private void ensureNegativeCountIsMutable() {
+        if (!((bitField0_ & 0x00000400) == 0x00000400)) {
+          negativeCount_ = new java.util.ArrayList<java.lang.Double>(negativeCount_);
+          bitField0_ |= 0x00000400;
+         }
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double negative_count = 11;</code>
+       */
+      public java.util.List<java.lang.Double>
+          getNegativeCountList() {
+        return java.util.Collections.unmodifiableList(negativeCount_);
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double negative_count = 11;</code>
+       */
+      public int getNegativeCountCount() {
+        return negativeCount_.size();
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double negative_count = 11;</code>
+       */
+      public double getNegativeCount(int index) {
+        return negativeCount_.get(index);
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double negative_count = 11;</code>
+       */
+      public Builder setNegativeCount(
+          int index, double value) {
+        ensureNegativeCountIsMutable();
+        negativeCount_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double negative_count = 11;</code>
+       */
+      public Builder addNegativeCount(double value) {
+        ensureNegativeCountIsMutable();
+        negativeCount_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double negative_count = 11;</code>
+       */
+      public Builder addAllNegativeCount(
+          java.lang.Iterable<? extends java.lang.Double> values) {
+        ensureNegativeCountIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, negativeCount_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double negative_count = 11;</code>
+       */
+      public Builder clearNegativeCount() {
+        negativeCount_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000400);
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<io.prometheus.client.Metrics.BucketSpan> positiveSpan_ =
+        java.util.Collections.emptyList();
+      private void ensurePositiveSpanIsMutable() {
+        if (!((bitField0_ & 0x00000800) == 0x00000800)) {
+          positiveSpan_ = new java.util.ArrayList<io.prometheus.client.Metrics.BucketSpan>(positiveSpan_);
+          bitField0_ |= 0x00000800;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          io.prometheus.client.Metrics.BucketSpan, io.prometheus.client.Metrics.BucketSpan.Builder, io.prometheus.client.Metrics.BucketSpanOrBuilder> positiveSpanBuilder_;
+
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public java.util.List<io.prometheus.client.Metrics.BucketSpan> getPositiveSpanList() {
+        if (positiveSpanBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(positiveSpan_);
+        } else {
+          return positiveSpanBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public int getPositiveSpanCount() {
+        if (positiveSpanBuilder_ == null) {
+          return positiveSpan_.size();
+        } else {
+          return positiveSpanBuilder_.getCount();
+        }
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public io.prometheus.client.Metrics.BucketSpan getPositiveSpan(int index) {
+        if (positiveSpanBuilder_ == null) {
+          return positiveSpan_.get(index);
+        } else {
+          return positiveSpanBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public Builder setPositiveSpan(
+          int index, io.prometheus.client.Metrics.BucketSpan value) {
+        if (positiveSpanBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensurePositiveSpanIsMutable();
+          positiveSpan_.set(index, value);
+          onChanged();
+        } else {
+          positiveSpanBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public Builder setPositiveSpan(
+          int index, io.prometheus.client.Metrics.BucketSpan.Builder builderForValue) {
+        if (positiveSpanBuilder_ == null) {
+          ensurePositiveSpanIsMutable();
+          positiveSpan_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          positiveSpanBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public Builder addPositiveSpan(io.prometheus.client.Metrics.BucketSpan value) {
+        if (positiveSpanBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensurePositiveSpanIsMutable();
+          positiveSpan_.add(value);
+          onChanged();
+        } else {
+          positiveSpanBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public Builder addPositiveSpan(
+          int index, io.prometheus.client.Metrics.BucketSpan value) {
+        if (positiveSpanBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensurePositiveSpanIsMutable();
+          positiveSpan_.add(index, value);
+          onChanged();
+        } else {
+          positiveSpanBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public Builder addPositiveSpan(
+          io.prometheus.client.Metrics.BucketSpan.Builder builderForValue) {
+        if (positiveSpanBuilder_ == null) {
+          ensurePositiveSpanIsMutable();
+          positiveSpan_.add(builderForValue.build());
+          onChanged();
+        } else {
+          positiveSpanBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public Builder addPositiveSpan(
+          int index, io.prometheus.client.Metrics.BucketSpan.Builder builderForValue) {
+        if (positiveSpanBuilder_ == null) {
+          ensurePositiveSpanIsMutable();
+          positiveSpan_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          positiveSpanBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public Builder addAllPositiveSpan(
+          java.lang.Iterable<? extends io.prometheus.client.Metrics.BucketSpan> values) {
+        if (positiveSpanBuilder_ == null) {
+          ensurePositiveSpanIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, positiveSpan_);
+          onChanged();
+        } else {
+          positiveSpanBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public Builder clearPositiveSpan() {
+        if (positiveSpanBuilder_ == null) {
+          positiveSpan_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000800);
+          onChanged();
+        } else {
+          positiveSpanBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public Builder removePositiveSpan(int index) {
+        if (positiveSpanBuilder_ == null) {
+          ensurePositiveSpanIsMutable();
+          positiveSpan_.remove(index);
+          onChanged();
+        } else {
+          positiveSpanBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public io.prometheus.client.Metrics.BucketSpan.Builder getPositiveSpanBuilder(
+          int index) {
+        return getPositiveSpanFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public io.prometheus.client.Metrics.BucketSpanOrBuilder getPositiveSpanOrBuilder(
+          int index) {
+        if (positiveSpanBuilder_ == null) {
+          return positiveSpan_.get(index);  } else {
+          return positiveSpanBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public java.util.List<? extends io.prometheus.client.Metrics.BucketSpanOrBuilder> 
+           getPositiveSpanOrBuilderList() {
+        if (positiveSpanBuilder_ != null) {
+          return positiveSpanBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(positiveSpan_);
+        }
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public io.prometheus.client.Metrics.BucketSpan.Builder addPositiveSpanBuilder() {
+        return getPositiveSpanFieldBuilder().addBuilder(
+            io.prometheus.client.Metrics.BucketSpan.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public io.prometheus.client.Metrics.BucketSpan.Builder addPositiveSpanBuilder(
+          int index) {
+        return getPositiveSpanFieldBuilder().addBuilder(
+            index, io.prometheus.client.Metrics.BucketSpan.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * Positive buckets for the native histogram.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.BucketSpan positive_span = 12;</code>
+       */
+      public java.util.List<io.prometheus.client.Metrics.BucketSpan.Builder> 
+           getPositiveSpanBuilderList() {
+        return getPositiveSpanFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          io.prometheus.client.Metrics.BucketSpan, io.prometheus.client.Metrics.BucketSpan.Builder, io.prometheus.client.Metrics.BucketSpanOrBuilder> 
+          getPositiveSpanFieldBuilder() {
+        if (positiveSpanBuilder_ == null) {
+          positiveSpanBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              io.prometheus.client.Metrics.BucketSpan, io.prometheus.client.Metrics.BucketSpan.Builder, io.prometheus.client.Metrics.BucketSpanOrBuilder>(
+                  positiveSpan_,
+                  ((bitField0_ & 0x00000800) == 0x00000800),
+                  getParentForChildren(),
+                  isClean());
+          positiveSpan_ = null;
+        }
+        return positiveSpanBuilder_;
+      }
+
+      private java.util.List<java.lang.Long> positiveDelta_ = java.util.Collections.emptyList();
+      private void ensurePositiveDeltaIsMutable() {
+        if (!((bitField0_ & 0x00001000) == 0x00001000)) {
+          positiveDelta_ = new java.util.ArrayList<java.lang.Long>(positiveDelta_);
+          bitField0_ |= 0x00001000;
+         }
+      }
+      /**
+       * <pre>
+       * Use either "positive_delta" or "positive_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 positive_delta = 13;</code>
+       */
+      public java.util.List<java.lang.Long>
+          getPositiveDeltaList() {
+        return java.util.Collections.unmodifiableList(positiveDelta_);
+      }
+      /**
+       * <pre>
+       * Use either "positive_delta" or "positive_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 positive_delta = 13;</code>
+       */
+      public int getPositiveDeltaCount() {
+        return positiveDelta_.size();
+      }
+      /**
+       * <pre>
+       * Use either "positive_delta" or "positive_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 positive_delta = 13;</code>
+       */
+      public long getPositiveDelta(int index) {
+        return positiveDelta_.get(index);
+      }
+      /**
+       * <pre>
+       * Use either "positive_delta" or "positive_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 positive_delta = 13;</code>
+       */
+      public Builder setPositiveDelta(
+          int index, long value) {
+        ensurePositiveDeltaIsMutable();
+        positiveDelta_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Use either "positive_delta" or "positive_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 positive_delta = 13;</code>
+       */
+      public Builder addPositiveDelta(long value) {
+        ensurePositiveDeltaIsMutable();
+        positiveDelta_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Use either "positive_delta" or "positive_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 positive_delta = 13;</code>
+       */
+      public Builder addAllPositiveDelta(
+          java.lang.Iterable<? extends java.lang.Long> values) {
+        ensurePositiveDeltaIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, positiveDelta_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Use either "positive_delta" or "positive_count", the former for
+       * regular histograms with integer counts, the latter for float
+       * histograms.
+       * </pre>
+       *
+       * <code>repeated sint64 positive_delta = 13;</code>
+       */
+      public Builder clearPositiveDelta() {
+        positiveDelta_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00001000);
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<java.lang.Double> positiveCount_ = java.util.Collections.emptyList();
+      private void ensurePositiveCountIsMutable() {
+        if (!((bitField0_ & 0x00002000) == 0x00002000)) {
+          positiveCount_ = new java.util.ArrayList<java.lang.Double>(positiveCount_);
+          bitField0_ |= 0x00002000;
+         }
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double positive_count = 14;</code>
+       */
+      public java.util.List<java.lang.Double>
+          getPositiveCountList() {
+        return java.util.Collections.unmodifiableList(positiveCount_);
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double positive_count = 14;</code>
+       */
+      public int getPositiveCountCount() {
+        return positiveCount_.size();
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double positive_count = 14;</code>
+       */
+      public double getPositiveCount(int index) {
+        return positiveCount_.get(index);
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double positive_count = 14;</code>
+       */
+      public Builder setPositiveCount(
+          int index, double value) {
+        ensurePositiveCountIsMutable();
+        positiveCount_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double positive_count = 14;</code>
+       */
+      public Builder addPositiveCount(double value) {
+        ensurePositiveCountIsMutable();
+        positiveCount_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double positive_count = 14;</code>
+       */
+      public Builder addAllPositiveCount(
+          java.lang.Iterable<? extends java.lang.Double> values) {
+        ensurePositiveCountIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, positiveCount_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Absolute count of each bucket.
+       * </pre>
+       *
+       * <code>repeated double positive_count = 14;</code>
+       */
+      public Builder clearPositiveCount() {
+        positiveCount_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00002000);
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.Timestamp createdTimestamp_ = null;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder> createdTimestampBuilder_;
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+       */
+      public boolean hasCreatedTimestamp() {
+        return ((bitField0_ & 0x00004000) == 0x00004000);
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+       */
+      public com.google.protobuf.Timestamp getCreatedTimestamp() {
+        if (createdTimestampBuilder_ == null) {
+          return createdTimestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+        } else {
+          return createdTimestampBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+       */
+      public Builder setCreatedTimestamp(com.google.protobuf.Timestamp value) {
+        if (createdTimestampBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          createdTimestamp_ = value;
+          onChanged();
+        } else {
+          createdTimestampBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00004000;
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+       */
+      public Builder setCreatedTimestamp(
+          com.google.protobuf.Timestamp.Builder builderForValue) {
+        if (createdTimestampBuilder_ == null) {
+          createdTimestamp_ = builderForValue.build();
+          onChanged();
+        } else {
+          createdTimestampBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00004000;
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+       */
+      public Builder mergeCreatedTimestamp(com.google.protobuf.Timestamp value) {
+        if (createdTimestampBuilder_ == null) {
+          if (((bitField0_ & 0x00004000) == 0x00004000) &&
+              createdTimestamp_ != null &&
+              createdTimestamp_ != com.google.protobuf.Timestamp.getDefaultInstance()) {
+            createdTimestamp_ =
+              com.google.protobuf.Timestamp.newBuilder(createdTimestamp_).mergeFrom(value).buildPartial();
+          } else {
+            createdTimestamp_ = value;
+          }
+          onChanged();
+        } else {
+          createdTimestampBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00004000;
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+       */
+      public Builder clearCreatedTimestamp() {
+        if (createdTimestampBuilder_ == null) {
+          createdTimestamp_ = null;
+          onChanged();
+        } else {
+          createdTimestampBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00004000);
+        return this;
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+       */
+      public com.google.protobuf.Timestamp.Builder getCreatedTimestampBuilder() {
+        bitField0_ |= 0x00004000;
+        onChanged();
+        return getCreatedTimestampFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+       */
+      public com.google.protobuf.TimestampOrBuilder getCreatedTimestampOrBuilder() {
+        if (createdTimestampBuilder_ != null) {
+          return createdTimestampBuilder_.getMessageOrBuilder();
+        } else {
+          return createdTimestamp_ == null ?
+              com.google.protobuf.Timestamp.getDefaultInstance() : createdTimestamp_;
+        }
+      }
+      /**
+       * <code>optional .google.protobuf.Timestamp created_timestamp = 15;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder> 
+          getCreatedTimestampFieldBuilder() {
+        if (createdTimestampBuilder_ == null) {
+          createdTimestampBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder>(
+                  getCreatedTimestamp(),
+                  getParentForChildren(),
+                  isClean());
+          createdTimestamp_ = null;
+        }
+        return createdTimestampBuilder_;
+      }
+
+      private java.util.List<io.prometheus.client.Metrics.Exemplar> exemplars_ =
+        java.util.Collections.emptyList();
+      private void ensureExemplarsIsMutable() {
+        if (!((bitField0_ & 0x00008000) == 0x00008000)) {
+          exemplars_ = new java.util.ArrayList<io.prometheus.client.Metrics.Exemplar>(exemplars_);
+          bitField0_ |= 0x00008000;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          io.prometheus.client.Metrics.Exemplar, io.prometheus.client.Metrics.Exemplar.Builder, io.prometheus.client.Metrics.ExemplarOrBuilder> exemplarsBuilder_;
+
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public java.util.List<io.prometheus.client.Metrics.Exemplar> getExemplarsList() {
+        if (exemplarsBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(exemplars_);
+        } else {
+          return exemplarsBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public int getExemplarsCount() {
+        if (exemplarsBuilder_ == null) {
+          return exemplars_.size();
+        } else {
+          return exemplarsBuilder_.getCount();
+        }
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public io.prometheus.client.Metrics.Exemplar getExemplars(int index) {
+        if (exemplarsBuilder_ == null) {
+          return exemplars_.get(index);
+        } else {
+          return exemplarsBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public Builder setExemplars(
+          int index, io.prometheus.client.Metrics.Exemplar value) {
+        if (exemplarsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureExemplarsIsMutable();
+          exemplars_.set(index, value);
+          onChanged();
+        } else {
+          exemplarsBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public Builder setExemplars(
+          int index, io.prometheus.client.Metrics.Exemplar.Builder builderForValue) {
+        if (exemplarsBuilder_ == null) {
+          ensureExemplarsIsMutable();
+          exemplars_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          exemplarsBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public Builder addExemplars(io.prometheus.client.Metrics.Exemplar value) {
+        if (exemplarsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureExemplarsIsMutable();
+          exemplars_.add(value);
+          onChanged();
+        } else {
+          exemplarsBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public Builder addExemplars(
+          int index, io.prometheus.client.Metrics.Exemplar value) {
+        if (exemplarsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureExemplarsIsMutable();
+          exemplars_.add(index, value);
+          onChanged();
+        } else {
+          exemplarsBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public Builder addExemplars(
+          io.prometheus.client.Metrics.Exemplar.Builder builderForValue) {
+        if (exemplarsBuilder_ == null) {
+          ensureExemplarsIsMutable();
+          exemplars_.add(builderForValue.build());
+          onChanged();
+        } else {
+          exemplarsBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public Builder addExemplars(
+          int index, io.prometheus.client.Metrics.Exemplar.Builder builderForValue) {
+        if (exemplarsBuilder_ == null) {
+          ensureExemplarsIsMutable();
+          exemplars_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          exemplarsBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public Builder addAllExemplars(
+          java.lang.Iterable<? extends io.prometheus.client.Metrics.Exemplar> values) {
+        if (exemplarsBuilder_ == null) {
+          ensureExemplarsIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, exemplars_);
+          onChanged();
+        } else {
+          exemplarsBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public Builder clearExemplars() {
+        if (exemplarsBuilder_ == null) {
+          exemplars_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00008000);
+          onChanged();
+        } else {
+          exemplarsBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public Builder removeExemplars(int index) {
+        if (exemplarsBuilder_ == null) {
+          ensureExemplarsIsMutable();
+          exemplars_.remove(index);
+          onChanged();
+        } else {
+          exemplarsBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public io.prometheus.client.Metrics.Exemplar.Builder getExemplarsBuilder(
+          int index) {
+        return getExemplarsFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public io.prometheus.client.Metrics.ExemplarOrBuilder getExemplarsOrBuilder(
+          int index) {
+        if (exemplarsBuilder_ == null) {
+          return exemplars_.get(index);  } else {
+          return exemplarsBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public java.util.List<? extends io.prometheus.client.Metrics.ExemplarOrBuilder> 
+           getExemplarsOrBuilderList() {
+        if (exemplarsBuilder_ != null) {
+          return exemplarsBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(exemplars_);
+        }
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public io.prometheus.client.Metrics.Exemplar.Builder addExemplarsBuilder() {
+        return getExemplarsFieldBuilder().addBuilder(
+            io.prometheus.client.Metrics.Exemplar.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public io.prometheus.client.Metrics.Exemplar.Builder addExemplarsBuilder(
+          int index) {
+        return getExemplarsFieldBuilder().addBuilder(
+            index, io.prometheus.client.Metrics.Exemplar.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * Only used for native histograms. These exemplars MUST have a timestamp.
+       * </pre>
+       *
+       * <code>repeated .io.prometheus.client.Exemplar exemplars = 16;</code>
+       */
+      public java.util.List<io.prometheus.client.Metrics.Exemplar.Builder> 
+           getExemplarsBuilderList() {
+        return getExemplarsFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          io.prometheus.client.Metrics.Exemplar, io.prometheus.client.Metrics.Exemplar.Builder, io.prometheus.client.Metrics.ExemplarOrBuilder> 
+          getExemplarsFieldBuilder() {
+        if (exemplarsBuilder_ == null) {
+          exemplarsBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              io.prometheus.client.Metrics.Exemplar, io.prometheus.client.Metrics.Exemplar.Builder, io.prometheus.client.Metrics.ExemplarOrBuilder>(
+                  exemplars_,
+                  ((bitField0_ & 0x00008000) == 0x00008000),
+                  getParentForChildren(),
+                  isClean());
+          exemplars_ = null;
+        }
+        return exemplarsBuilder_;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:io.prometheus.client.Histogram)
+    }
+
+    // @@protoc_insertion_point(class_scope:io.prometheus.client.Histogram)
+    private static final io.prometheus.client.Metrics.Histogram DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new io.prometheus.client.Metrics.Histogram();
+    }
+
+    public static io.prometheus.client.Metrics.Histogram getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Histogram>
+        PARSER = new com.google.protobuf.AbstractParser<Histogram>() {
+      @java.lang.Override
+      public Histogram parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new Histogram(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<Histogram> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Histogram> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public io.prometheus.client.Metrics.Histogram getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface BucketOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:io.prometheus.client.Bucket)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <pre>
+     * Cumulative in increasing order.
+     * </pre>
+     *
+     * <code>optional uint64 cumulative_count = 1;</code>
+     */
+    boolean hasCumulativeCount();
+    /**
+     * <pre>
+     * Cumulative in increasing order.
+     * </pre>
+     *
+     * <code>optional uint64 cumulative_count = 1;</code>
+     */
+    long getCumulativeCount();
+
+    /**
+     * <pre>
+     * Overrides cumulative_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double cumulative_count_float = 4;</code>
+     */
+    boolean hasCumulativeCountFloat();
+    /**
+     * <pre>
+     * Overrides cumulative_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double cumulative_count_float = 4;</code>
+     */
+    double getCumulativeCountFloat();
+
+    /**
+     * <pre>
+     * Inclusive.
+     * </pre>
+     *
+     * <code>optional double upper_bound = 2;</code>
+     */
+    boolean hasUpperBound();
+    /**
+     * <pre>
+     * Inclusive.
+     * </pre>
+     *
+     * <code>optional double upper_bound = 2;</code>
+     */
+    double getUpperBound();
+
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+     */
+    boolean hasExemplar();
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+     */
+    io.prometheus.client.Metrics.Exemplar getExemplar();
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+     */
+    io.prometheus.client.Metrics.ExemplarOrBuilder getExemplarOrBuilder();
+  }
+  /**
+   * <pre>
+   * A Bucket of a conventional histogram, each of which is treated as
+   * an individual counter-like time series by Prometheus.
+   * </pre>
+   *
+   * Protobuf type {@code io.prometheus.client.Bucket}
+   */
+  public  static final class Bucket extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:io.prometheus.client.Bucket)
+      BucketOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use Bucket.newBuilder() to construct.
+    private Bucket(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private Bucket() {
+      cumulativeCount_ = 0L;
+      cumulativeCountFloat_ = 0D;
+      upperBound_ = 0D;
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private Bucket(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 8: {
+              bitField0_ |= 0x00000001;
+              cumulativeCount_ = input.readUInt64();
+              break;
+            }
+            case 17: {
+              bitField0_ |= 0x00000004;
+              upperBound_ = input.readDouble();
+              break;
+            }
+            case 26: {
+              io.prometheus.client.Metrics.Exemplar.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000008) == 0x00000008)) {
+                subBuilder = exemplar_.toBuilder();
+              }
+              exemplar_ = input.readMessage(io.prometheus.client.Metrics.Exemplar.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(exemplar_);
+                exemplar_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000008;
+              break;
+            }
+            case 33: {
+              bitField0_ |= 0x00000002;
+              cumulativeCountFloat_ = input.readDouble();
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Bucket_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Bucket_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              io.prometheus.client.Metrics.Bucket.class, io.prometheus.client.Metrics.Bucket.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int CUMULATIVE_COUNT_FIELD_NUMBER = 1;
+    private long cumulativeCount_;
+    /**
+     * <pre>
+     * Cumulative in increasing order.
+     * </pre>
+     *
+     * <code>optional uint64 cumulative_count = 1;</code>
+     */
+    public boolean hasCumulativeCount() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <pre>
+     * Cumulative in increasing order.
+     * </pre>
+     *
+     * <code>optional uint64 cumulative_count = 1;</code>
+     */
+    public long getCumulativeCount() {
+      return cumulativeCount_;
+    }
+
+    public static final int CUMULATIVE_COUNT_FLOAT_FIELD_NUMBER = 4;
+    private double cumulativeCountFloat_;
+    /**
+     * <pre>
+     * Overrides cumulative_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double cumulative_count_float = 4;</code>
+     */
+    public boolean hasCumulativeCountFloat() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <pre>
+     * Overrides cumulative_count if &gt; 0.
+     * </pre>
+     *
+     * <code>optional double cumulative_count_float = 4;</code>
+     */
+    public double getCumulativeCountFloat() {
+      return cumulativeCountFloat_;
+    }
+
+    public static final int UPPER_BOUND_FIELD_NUMBER = 2;
+    private double upperBound_;
+    /**
+     * <pre>
+     * Inclusive.
+     * </pre>
+     *
+     * <code>optional double upper_bound = 2;</code>
+     */
+    public boolean hasUpperBound() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <pre>
+     * Inclusive.
+     * </pre>
+     *
+     * <code>optional double upper_bound = 2;</code>
+     */
+    public double getUpperBound() {
+      return upperBound_;
+    }
+
+    public static final int EXEMPLAR_FIELD_NUMBER = 3;
+    private io.prometheus.client.Metrics.Exemplar exemplar_;
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+     */
+    public boolean hasExemplar() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+     */
+    public io.prometheus.client.Metrics.Exemplar getExemplar() {
+      return exemplar_ == null ? io.prometheus.client.Metrics.Exemplar.getDefaultInstance() : exemplar_;
+    }
+    /**
+     * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+     */
+    public io.prometheus.client.Metrics.ExemplarOrBuilder getExemplarOrBuilder() {
+      return exemplar_ == null ? io.prometheus.client.Metrics.Exemplar.getDefaultInstance() : exemplar_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeUInt64(1, cumulativeCount_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeDouble(2, upperBound_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeMessage(3, getExemplar());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeDouble(4, cumulativeCountFloat_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(1, cumulativeCount_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeDoubleSize(2, upperBound_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(3, getExemplar());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeDoubleSize(4, cumulativeCountFloat_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof io.prometheus.client.Metrics.Bucket)) {
+        return super.equals(obj);
+      }
+      io.prometheus.client.Metrics.Bucket other = (io.prometheus.client.Metrics.Bucket) obj;
+
+      boolean result = true;
+      result = result && (hasCumulativeCount() == other.hasCumulativeCount());
+      if (hasCumulativeCount()) {
+        result = result && (getCumulativeCount()
+            == other.getCumulativeCount());
+      }
+      result = result && (hasCumulativeCountFloat() == other.hasCumulativeCountFloat());
+      if (hasCumulativeCountFloat()) {
+        result = result && (
+            java.lang.Double.doubleToLongBits(getCumulativeCountFloat())
+            == java.lang.Double.doubleToLongBits(
+                other.getCumulativeCountFloat()));
+      }
+      result = result && (hasUpperBound() == other.hasUpperBound());
+      if (hasUpperBound()) {
+        result = result && (
+            java.lang.Double.doubleToLongBits(getUpperBound())
+            == java.lang.Double.doubleToLongBits(
+                other.getUpperBound()));
+      }
+      result = result && (hasExemplar() == other.hasExemplar());
+      if (hasExemplar()) {
+        result = result && getExemplar()
+            .equals(other.getExemplar());
+      }
+      result = result && unknownFields.equals(other.unknownFields);
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasCumulativeCount()) {
+        hash = (37 * hash) + CUMULATIVE_COUNT_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getCumulativeCount());
+      }
+      if (hasCumulativeCountFloat()) {
+        hash = (37 * hash) + CUMULATIVE_COUNT_FLOAT_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            java.lang.Double.doubleToLongBits(getCumulativeCountFloat()));
+      }
+      if (hasUpperBound()) {
+        hash = (37 * hash) + UPPER_BOUND_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            java.lang.Double.doubleToLongBits(getUpperBound()));
+      }
+      if (hasExemplar()) {
+        hash = (37 * hash) + EXEMPLAR_FIELD_NUMBER;
+        hash = (53 * hash) + getExemplar().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static io.prometheus.client.Metrics.Bucket parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static io.prometheus.client.Metrics.Bucket parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static io.prometheus.client.Metrics.Bucket parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static io.prometheus.client.Metrics.Bucket parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static io.prometheus.client.Metrics.Bucket parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static io.prometheus.client.Metrics.Bucket parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static io.prometheus.client.Metrics.Bucket parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static io.prometheus.client.Metrics.Bucket parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static io.prometheus.client.Metrics.Bucket parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static io.prometheus.client.Metrics.Bucket parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static io.prometheus.client.Metrics.Bucket parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static io.prometheus.client.Metrics.Bucket parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(io.prometheus.client.Metrics.Bucket prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * <pre>
+     * A Bucket of a conventional histogram, each of which is treated as
+     * an individual counter-like time series by Prometheus.
+     * </pre>
+     *
+     * Protobuf type {@code io.prometheus.client.Bucket}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:io.prometheus.client.Bucket)
+        io.prometheus.client.Metrics.BucketOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Bucket_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Bucket_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                io.prometheus.client.Metrics.Bucket.class, io.prometheus.client.Metrics.Bucket.Builder.class);
+      }
+
+      // Construct using io.prometheus.client.Metrics.Bucket.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getExemplarFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        cumulativeCount_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        cumulativeCountFloat_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        upperBound_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        if (exemplarBuilder_ == null) {
+          exemplar_ = null;
+        } else {
+          exemplarBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000008);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Bucket_descriptor;
+      }
+
+      @java.lang.Override
+      public io.prometheus.client.Metrics.Bucket getDefaultInstanceForType() {
+        return io.prometheus.client.Metrics.Bucket.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public io.prometheus.client.Metrics.Bucket build() {
+        io.prometheus.client.Metrics.Bucket result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public io.prometheus.client.Metrics.Bucket buildPartial() {
+        io.prometheus.client.Metrics.Bucket result = new io.prometheus.client.Metrics.Bucket(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.cumulativeCount_ = cumulativeCount_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.cumulativeCountFloat_ = cumulativeCountFloat_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.upperBound_ = upperBound_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        if (exemplarBuilder_ == null) {
+          result.exemplar_ = exemplar_;
+        } else {
+          result.exemplar_ = exemplarBuilder_.build();
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof io.prometheus.client.Metrics.Bucket) {
+          return mergeFrom((io.prometheus.client.Metrics.Bucket)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(io.prometheus.client.Metrics.Bucket other) {
+        if (other == io.prometheus.client.Metrics.Bucket.getDefaultInstance()) return this;
+        if (other.hasCumulativeCount()) {
+          setCumulativeCount(other.getCumulativeCount());
+        }
+        if (other.hasCumulativeCountFloat()) {
+          setCumulativeCountFloat(other.getCumulativeCountFloat());
+        }
+        if (other.hasUpperBound()) {
+          setUpperBound(other.getUpperBound());
+        }
+        if (other.hasExemplar()) {
+          mergeExemplar(other.getExemplar());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        io.prometheus.client.Metrics.Bucket parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (io.prometheus.client.Metrics.Bucket) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private long cumulativeCount_ ;
+      /**
+       * <pre>
+       * Cumulative in increasing order.
+       * </pre>
+       *
+       * <code>optional uint64 cumulative_count = 1;</code>
+       */
+      public boolean hasCumulativeCount() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <pre>
+       * Cumulative in increasing order.
+       * </pre>
+       *
+       * <code>optional uint64 cumulative_count = 1;</code>
+       */
+      public long getCumulativeCount() {
+        return cumulativeCount_;
+      }
+      /**
+       * <pre>
+       * Cumulative in increasing order.
+       * </pre>
+       *
+       * <code>optional uint64 cumulative_count = 1;</code>
+       */
+      public Builder setCumulativeCount(long value) {
+        bitField0_ |= 0x00000001;
+        cumulativeCount_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Cumulative in increasing order.
+       * </pre>
+       *
+       * <code>optional uint64 cumulative_count = 1;</code>
+       */
+      public Builder clearCumulativeCount() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        cumulativeCount_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private double cumulativeCountFloat_ ;
+      /**
+       * <pre>
+       * Overrides cumulative_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double cumulative_count_float = 4;</code>
+       */
+      public boolean hasCumulativeCountFloat() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <pre>
+       * Overrides cumulative_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double cumulative_count_float = 4;</code>
+       */
+      public double getCumulativeCountFloat() {
+        return cumulativeCountFloat_;
+      }
+      /**
+       * <pre>
+       * Overrides cumulative_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double cumulative_count_float = 4;</code>
+       */
+      public Builder setCumulativeCountFloat(double value) {
+        bitField0_ |= 0x00000002;
+        cumulativeCountFloat_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Overrides cumulative_count if &gt; 0.
+       * </pre>
+       *
+       * <code>optional double cumulative_count_float = 4;</code>
+       */
+      public Builder clearCumulativeCountFloat() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        cumulativeCountFloat_ = 0D;
+        onChanged();
+        return this;
+      }
+
+      private double upperBound_ ;
+      /**
+       * <pre>
+       * Inclusive.
+       * </pre>
+       *
+       * <code>optional double upper_bound = 2;</code>
+       */
+      public boolean hasUpperBound() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <pre>
+       * Inclusive.
+       * </pre>
+       *
+       * <code>optional double upper_bound = 2;</code>
+       */
+      public double getUpperBound() {
+        return upperBound_;
+      }
+      /**
+       * <pre>
+       * Inclusive.
+       * </pre>
+       *
+       * <code>optional double upper_bound = 2;</code>
+       */
+      public Builder setUpperBound(double value) {
+        bitField0_ |= 0x00000004;
+        upperBound_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Inclusive.
+       * </pre>
+       *
+       * <code>optional double upper_bound = 2;</code>
+       */
+      public Builder clearUpperBound() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        upperBound_ = 0D;
+        onChanged();
+        return this;
+      }
+
+      private io.prometheus.client.Metrics.Exemplar exemplar_ = null;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          io.prometheus.client.Metrics.Exemplar, io.prometheus.client.Metrics.Exemplar.Builder, io.prometheus.client.Metrics.ExemplarOrBuilder> exemplarBuilder_;
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+       */
+      public boolean hasExemplar() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+       */
+      public io.prometheus.client.Metrics.Exemplar getExemplar() {
+        if (exemplarBuilder_ == null) {
+          return exemplar_ == null ? io.prometheus.client.Metrics.Exemplar.getDefaultInstance() : exemplar_;
+        } else {
+          return exemplarBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+       */
+      public Builder setExemplar(io.prometheus.client.Metrics.Exemplar value) {
+        if (exemplarBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          exemplar_ = value;
+          onChanged();
+        } else {
+          exemplarBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000008;
+        return this;
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+       */
+      public Builder setExemplar(
+          io.prometheus.client.Metrics.Exemplar.Builder builderForValue) {
+        if (exemplarBuilder_ == null) {
+          exemplar_ = builderForValue.build();
+          onChanged();
+        } else {
+          exemplarBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000008;
+        return this;
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+       */
+      public Builder mergeExemplar(io.prometheus.client.Metrics.Exemplar value) {
+        if (exemplarBuilder_ == null) {
+          if (((bitField0_ & 0x00000008) == 0x00000008) &&
+              exemplar_ != null &&
+              exemplar_ != io.prometheus.client.Metrics.Exemplar.getDefaultInstance()) {
+            exemplar_ =
+              io.prometheus.client.Metrics.Exemplar.newBuilder(exemplar_).mergeFrom(value).buildPartial();
+          } else {
+            exemplar_ = value;
+          }
+          onChanged();
+        } else {
+          exemplarBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000008;
+        return this;
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+       */
+      public Builder clearExemplar() {
+        if (exemplarBuilder_ == null) {
+          exemplar_ = null;
+          onChanged();
+        } else {
+          exemplarBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000008);
+        return this;
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+       */
+      public io.prometheus.client.Metrics.Exemplar.Builder getExemplarBuilder() {
+        bitField0_ |= 0x00000008;
+        onChanged();
+        return getExemplarFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+       */
+      public io.prometheus.client.Metrics.ExemplarOrBuilder getExemplarOrBuilder() {
+        if (exemplarBuilder_ != null) {
+          return exemplarBuilder_.getMessageOrBuilder();
+        } else {
+          return exemplar_ == null ?
+              io.prometheus.client.Metrics.Exemplar.getDefaultInstance() : exemplar_;
+        }
+      }
+      /**
+       * <code>optional .io.prometheus.client.Exemplar exemplar = 3;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          io.prometheus.client.Metrics.Exemplar, io.prometheus.client.Metrics.Exemplar.Builder, io.prometheus.client.Metrics.ExemplarOrBuilder> 
+          getExemplarFieldBuilder() {
+        if (exemplarBuilder_ == null) {
+          exemplarBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              io.prometheus.client.Metrics.Exemplar, io.prometheus.client.Metrics.Exemplar.Builder, io.prometheus.client.Metrics.ExemplarOrBuilder>(
+                  getExemplar(),
+                  getParentForChildren(),
+                  isClean());
+          exemplar_ = null;
+        }
+        return exemplarBuilder_;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:io.prometheus.client.Bucket)
+    }
+
+    // @@protoc_insertion_point(class_scope:io.prometheus.client.Bucket)
+    private static final io.prometheus.client.Metrics.Bucket DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new io.prometheus.client.Metrics.Bucket();
+    }
+
+    public static io.prometheus.client.Metrics.Bucket getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Bucket>
+        PARSER = new com.google.protobuf.AbstractParser<Bucket>() {
+      @java.lang.Override
+      public Bucket parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new Bucket(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<Bucket> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Bucket> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public io.prometheus.client.Metrics.Bucket getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface BucketSpanOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:io.prometheus.client.BucketSpan)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <pre>
+     * Gap to previous span, or starting point for 1st span (which can be negative).
+     * </pre>
+     *
+     * <code>optional sint32 offset = 1;</code>
+     */
+    boolean hasOffset();
+    /**
+     * <pre>
+     * Gap to previous span, or starting point for 1st span (which can be negative).
+     * </pre>
+     *
+     * <code>optional sint32 offset = 1;</code>
+     */
+    int getOffset();
+
+    /**
+     * <pre>
+     * Length of consecutive buckets.
+     * </pre>
+     *
+     * <code>optional uint32 length = 2;</code>
+     */
+    boolean hasLength();
+    /**
+     * <pre>
+     * Length of consecutive buckets.
+     * </pre>
+     *
+     * <code>optional uint32 length = 2;</code>
+     */
+    int getLength();
+  }
+  /**
+   * <pre>
+   * A BucketSpan defines a number of consecutive buckets in a native
+   * histogram with their offset. Logically, it would be more
+   * straightforward to include the bucket counts in the Span. However,
+   * the protobuf representation is more compact in the way the data is
+   * structured here (with all the buckets in a single array separate
+   * from the Spans).
+   * </pre>
+   *
+   * Protobuf type {@code io.prometheus.client.BucketSpan}
+   */
+  public  static final class BucketSpan extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:io.prometheus.client.BucketSpan)
+      BucketSpanOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use BucketSpan.newBuilder() to construct.
+    private BucketSpan(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private BucketSpan() {
+      offset_ = 0;
+      length_ = 0;
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private BucketSpan(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 8: {
+              bitField0_ |= 0x00000001;
+              offset_ = input.readSInt32();
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              length_ = input.readUInt32();
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_BucketSpan_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_BucketSpan_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              io.prometheus.client.Metrics.BucketSpan.class, io.prometheus.client.Metrics.BucketSpan.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int OFFSET_FIELD_NUMBER = 1;
+    private int offset_;
+    /**
+     * <pre>
+     * Gap to previous span, or starting point for 1st span (which can be negative).
+     * </pre>
+     *
+     * <code>optional sint32 offset = 1;</code>
+     */
+    public boolean hasOffset() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <pre>
+     * Gap to previous span, or starting point for 1st span (which can be negative).
+     * </pre>
+     *
+     * <code>optional sint32 offset = 1;</code>
+     */
+    public int getOffset() {
+      return offset_;
+    }
+
+    public static final int LENGTH_FIELD_NUMBER = 2;
+    private int length_;
+    /**
+     * <pre>
+     * Length of consecutive buckets.
+     * </pre>
+     *
+     * <code>optional uint32 length = 2;</code>
+     */
+    public boolean hasLength() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <pre>
+     * Length of consecutive buckets.
+     * </pre>
+     *
+     * <code>optional uint32 length = 2;</code>
+     */
+    public int getLength() {
+      return length_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -4228,13 +9991,10 @@ public final class Metrics {
     public void writeTo(com.google.protobuf.CodedOutputStream output)
                         throws java.io.IOException {
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        output.writeUInt64(1, sampleCount_);
+        output.writeSInt32(1, offset_);
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
-        output.writeDouble(2, sampleSum_);
-      }
-      for (int i = 0; i < bucket_.size(); i++) {
-        output.writeMessage(3, bucket_.get(i));
+        output.writeUInt32(2, length_);
       }
       unknownFields.writeTo(output);
     }
@@ -4247,15 +10007,11 @@ public final class Metrics {
       size = 0;
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(1, sampleCount_);
+          .computeSInt32Size(1, offset_);
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeDoubleSize(2, sampleSum_);
-      }
-      for (int i = 0; i < bucket_.size(); i++) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeMessageSize(3, bucket_.get(i));
+          .computeUInt32Size(2, length_);
       }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
@@ -4267,26 +10023,22 @@ public final class Metrics {
       if (obj == this) {
        return true;
       }
-      if (!(obj instanceof io.prometheus.client.Metrics.Histogram)) {
+      if (!(obj instanceof io.prometheus.client.Metrics.BucketSpan)) {
         return super.equals(obj);
       }
-      io.prometheus.client.Metrics.Histogram other = (io.prometheus.client.Metrics.Histogram) obj;
-
-      boolean result = true;
-      result = result && (hasSampleCount() == other.hasSampleCount());
-      if (hasSampleCount()) {
-        result = result && (getSampleCount()
-            == other.getSampleCount());
-      }
-      result = result && (hasSampleSum() == other.hasSampleSum());
-      if (hasSampleSum()) {
-        result = result && (
-            java.lang.Double.doubleToLongBits(getSampleSum())
-            == java.lang.Double.doubleToLongBits(
-                other.getSampleSum()));
+      io.prometheus.client.Metrics.BucketSpan other = (io.prometheus.client.Metrics.BucketSpan) obj;
+
+      boolean result = true;
+      result = result && (hasOffset() == other.hasOffset());
+      if (hasOffset()) {
+        result = result && (getOffset()
+            == other.getOffset());
+      }
+      result = result && (hasLength() == other.hasLength());
+      if (hasLength()) {
+        result = result && (getLength()
+            == other.getLength());
       }
-      result = result && getBucketList()
-          .equals(other.getBucketList());
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -4298,88 +10050,82 @@ public final class Metrics {
       }
       int hash = 41;
       hash = (19 * hash) + getDescriptor().hashCode();
-      if (hasSampleCount()) {
-        hash = (37 * hash) + SAMPLE_COUNT_FIELD_NUMBER;
-        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
-            getSampleCount());
-      }
-      if (hasSampleSum()) {
-        hash = (37 * hash) + SAMPLE_SUM_FIELD_NUMBER;
-        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
-            java.lang.Double.doubleToLongBits(getSampleSum()));
+      if (hasOffset()) {
+        hash = (37 * hash) + OFFSET_FIELD_NUMBER;
+        hash = (53 * hash) + getOffset();
       }
-      if (getBucketCount() > 0) {
-        hash = (37 * hash) + BUCKET_FIELD_NUMBER;
-        hash = (53 * hash) + getBucketList().hashCode();
+      if (hasLength()) {
+        hash = (37 * hash) + LENGTH_FIELD_NUMBER;
+        hash = (53 * hash) + getLength();
       }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
     }
 
-    public static io.prometheus.client.Metrics.Histogram parseFrom(
+    public static io.prometheus.client.Metrics.BucketSpan parseFrom(
         java.nio.ByteBuffer data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static io.prometheus.client.Metrics.Histogram parseFrom(
+    public static io.prometheus.client.Metrics.BucketSpan parseFrom(
         java.nio.ByteBuffer data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static io.prometheus.client.Metrics.Histogram parseFrom(
+    public static io.prometheus.client.Metrics.BucketSpan parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static io.prometheus.client.Metrics.Histogram parseFrom(
+    public static io.prometheus.client.Metrics.BucketSpan parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static io.prometheus.client.Metrics.Histogram parseFrom(byte[] data)
+    public static io.prometheus.client.Metrics.BucketSpan parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static io.prometheus.client.Metrics.Histogram parseFrom(
+    public static io.prometheus.client.Metrics.BucketSpan parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static io.prometheus.client.Metrics.Histogram parseFrom(java.io.InputStream input)
+    public static io.prometheus.client.Metrics.BucketSpan parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input);
     }
-    public static io.prometheus.client.Metrics.Histogram parseFrom(
+    public static io.prometheus.client.Metrics.BucketSpan parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input, extensionRegistry);
     }
-    public static io.prometheus.client.Metrics.Histogram parseDelimitedFrom(java.io.InputStream input)
+    public static io.prometheus.client.Metrics.BucketSpan parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseDelimitedWithIOException(PARSER, input);
     }
-    public static io.prometheus.client.Metrics.Histogram parseDelimitedFrom(
+    public static io.prometheus.client.Metrics.BucketSpan parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
     }
-    public static io.prometheus.client.Metrics.Histogram parseFrom(
+    public static io.prometheus.client.Metrics.BucketSpan parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input);
     }
-    public static io.prometheus.client.Metrics.Histogram parseFrom(
+    public static io.prometheus.client.Metrics.BucketSpan parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -4392,7 +10138,7 @@ public final class Metrics {
     public static Builder newBuilder() {
       return DEFAULT_INSTANCE.toBuilder();
     }
-    public static Builder newBuilder(io.prometheus.client.Metrics.Histogram prototype) {
+    public static Builder newBuilder(io.prometheus.client.Metrics.BucketSpan prototype) {
       return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
     }
     @java.lang.Override
@@ -4408,584 +10154,271 @@ public final class Metrics {
       return builder;
     }
     /**
-     * Protobuf type {@code io.prometheus.client.Histogram}
-     */
-    public static final class Builder extends
-        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
-        // @@protoc_insertion_point(builder_implements:io.prometheus.client.Histogram)
-        io.prometheus.client.Metrics.HistogramOrBuilder {
-      public static final com.google.protobuf.Descriptors.Descriptor
-          getDescriptor() {
-        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Histogram_descriptor;
-      }
-
-      @java.lang.Override
-      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-          internalGetFieldAccessorTable() {
-        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Histogram_fieldAccessorTable
-            .ensureFieldAccessorsInitialized(
-                io.prometheus.client.Metrics.Histogram.class, io.prometheus.client.Metrics.Histogram.Builder.class);
-      }
-
-      // Construct using io.prometheus.client.Metrics.Histogram.newBuilder()
-      private Builder() {
-        maybeForceBuilderInitialization();
-      }
-
-      private Builder(
-          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
-        super(parent);
-        maybeForceBuilderInitialization();
-      }
-      private void maybeForceBuilderInitialization() {
-        if (com.google.protobuf.GeneratedMessageV3
-                .alwaysUseFieldBuilders) {
-          getBucketFieldBuilder();
-        }
-      }
-      @java.lang.Override
-      public Builder clear() {
-        super.clear();
-        sampleCount_ = 0L;
-        bitField0_ = (bitField0_ & ~0x00000001);
-        sampleSum_ = 0D;
-        bitField0_ = (bitField0_ & ~0x00000002);
-        if (bucketBuilder_ == null) {
-          bucket_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000004);
-        } else {
-          bucketBuilder_.clear();
-        }
-        return this;
-      }
-
-      @java.lang.Override
-      public com.google.protobuf.Descriptors.Descriptor
-          getDescriptorForType() {
-        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Histogram_descriptor;
-      }
-
-      @java.lang.Override
-      public io.prometheus.client.Metrics.Histogram getDefaultInstanceForType() {
-        return io.prometheus.client.Metrics.Histogram.getDefaultInstance();
-      }
-
-      @java.lang.Override
-      public io.prometheus.client.Metrics.Histogram build() {
-        io.prometheus.client.Metrics.Histogram result = buildPartial();
-        if (!result.isInitialized()) {
-          throw newUninitializedMessageException(result);
-        }
-        return result;
-      }
-
-      @java.lang.Override
-      public io.prometheus.client.Metrics.Histogram buildPartial() {
-        io.prometheus.client.Metrics.Histogram result = new io.prometheus.client.Metrics.Histogram(this);
-        int from_bitField0_ = bitField0_;
-        int to_bitField0_ = 0;
-        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
-          to_bitField0_ |= 0x00000001;
-        }
-        result.sampleCount_ = sampleCount_;
-        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
-          to_bitField0_ |= 0x00000002;
-        }
-        result.sampleSum_ = sampleSum_;
-        if (bucketBuilder_ == null) {
-          if (((bitField0_ & 0x00000004) == 0x00000004)) {
-            bucket_ = java.util.Collections.unmodifiableList(bucket_);
-            bitField0_ = (bitField0_ & ~0x00000004);
-          }
-          result.bucket_ = bucket_;
-        } else {
-          result.bucket_ = bucketBuilder_.build();
-        }
-        result.bitField0_ = to_bitField0_;
-        onBuilt();
-        return result;
-      }
-
-      @java.lang.Override
-      public Builder clone() {
-        return (Builder) super.clone();
-      }
-      @java.lang.Override
-      public Builder setField(
-          com.google.protobuf.Descriptors.FieldDescriptor field,
-          java.lang.Object value) {
-        return (Builder) super.setField(field, value);
-      }
-      @java.lang.Override
-      public Builder clearField(
-          com.google.protobuf.Descriptors.FieldDescriptor field) {
-        return (Builder) super.clearField(field);
-      }
-      @java.lang.Override
-      public Builder clearOneof(
-          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
-        return (Builder) super.clearOneof(oneof);
-      }
-      @java.lang.Override
-      public Builder setRepeatedField(
-          com.google.protobuf.Descriptors.FieldDescriptor field,
-          int index, java.lang.Object value) {
-        return (Builder) super.setRepeatedField(field, index, value);
-      }
-      @java.lang.Override
-      public Builder addRepeatedField(
-          com.google.protobuf.Descriptors.FieldDescriptor field,
-          java.lang.Object value) {
-        return (Builder) super.addRepeatedField(field, value);
-      }
-      @java.lang.Override
-      public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof io.prometheus.client.Metrics.Histogram) {
-          return mergeFrom((io.prometheus.client.Metrics.Histogram)other);
-        } else {
-          super.mergeFrom(other);
-          return this;
-        }
-      }
-
-      public Builder mergeFrom(io.prometheus.client.Metrics.Histogram other) {
-        if (other == io.prometheus.client.Metrics.Histogram.getDefaultInstance()) return this;
-        if (other.hasSampleCount()) {
-          setSampleCount(other.getSampleCount());
-        }
-        if (other.hasSampleSum()) {
-          setSampleSum(other.getSampleSum());
-        }
-        if (bucketBuilder_ == null) {
-          if (!other.bucket_.isEmpty()) {
-            if (bucket_.isEmpty()) {
-              bucket_ = other.bucket_;
-              bitField0_ = (bitField0_ & ~0x00000004);
-            } else {
-              ensureBucketIsMutable();
-              bucket_.addAll(other.bucket_);
-            }
-            onChanged();
-          }
-        } else {
-          if (!other.bucket_.isEmpty()) {
-            if (bucketBuilder_.isEmpty()) {
-              bucketBuilder_.dispose();
-              bucketBuilder_ = null;
-              bucket_ = other.bucket_;
-              bitField0_ = (bitField0_ & ~0x00000004);
-              bucketBuilder_ = 
-                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
-                   getBucketFieldBuilder() : null;
-            } else {
-              bucketBuilder_.addAllMessages(other.bucket_);
-            }
-          }
-        }
-        this.mergeUnknownFields(other.unknownFields);
-        onChanged();
-        return this;
-      }
-
-      @java.lang.Override
-      public final boolean isInitialized() {
-        return true;
-      }
-
-      @java.lang.Override
-      public Builder mergeFrom(
-          com.google.protobuf.CodedInputStream input,
-          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-          throws java.io.IOException {
-        io.prometheus.client.Metrics.Histogram parsedMessage = null;
-        try {
-          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
-        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (io.prometheus.client.Metrics.Histogram) e.getUnfinishedMessage();
-          throw e.unwrapIOException();
-        } finally {
-          if (parsedMessage != null) {
-            mergeFrom(parsedMessage);
-          }
-        }
-        return this;
-      }
-      private int bitField0_;
-
-      private long sampleCount_ ;
-      /**
-       * <code>optional uint64 sample_count = 1;</code>
-       */
-      public boolean hasSampleCount() {
-        return ((bitField0_ & 0x00000001) == 0x00000001);
-      }
-      /**
-       * <code>optional uint64 sample_count = 1;</code>
-       */
-      public long getSampleCount() {
-        return sampleCount_;
-      }
-      /**
-       * <code>optional uint64 sample_count = 1;</code>
-       */
-      public Builder setSampleCount(long value) {
-        bitField0_ |= 0x00000001;
-        sampleCount_ = value;
-        onChanged();
-        return this;
+     * <pre>
+     * A BucketSpan defines a number of consecutive buckets in a native
+     * histogram with their offset. Logically, it would be more
+     * straightforward to include the bucket counts in the Span. However,
+     * the protobuf representation is more compact in the way the data is
+     * structured here (with all the buckets in a single array separate
+     * from the Spans).
+     * </pre>
+     *
+     * Protobuf type {@code io.prometheus.client.BucketSpan}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:io.prometheus.client.BucketSpan)
+        io.prometheus.client.Metrics.BucketSpanOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_BucketSpan_descriptor;
       }
-      /**
-       * <code>optional uint64 sample_count = 1;</code>
-       */
-      public Builder clearSampleCount() {
-        bitField0_ = (bitField0_ & ~0x00000001);
-        sampleCount_ = 0L;
-        onChanged();
-        return this;
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_BucketSpan_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                io.prometheus.client.Metrics.BucketSpan.class, io.prometheus.client.Metrics.BucketSpan.Builder.class);
       }
 
-      private double sampleSum_ ;
-      /**
-       * <code>optional double sample_sum = 2;</code>
-       */
-      public boolean hasSampleSum() {
-        return ((bitField0_ & 0x00000002) == 0x00000002);
+      // Construct using io.prometheus.client.Metrics.BucketSpan.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
       }
-      /**
-       * <code>optional double sample_sum = 2;</code>
-       */
-      public double getSampleSum() {
-        return sampleSum_;
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
       }
-      /**
-       * <code>optional double sample_sum = 2;</code>
-       */
-      public Builder setSampleSum(double value) {
-        bitField0_ |= 0x00000002;
-        sampleSum_ = value;
-        onChanged();
-        return this;
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
       }
-      /**
-       * <code>optional double sample_sum = 2;</code>
-       */
-      public Builder clearSampleSum() {
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        offset_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        length_ = 0;
         bitField0_ = (bitField0_ & ~0x00000002);
-        sampleSum_ = 0D;
-        onChanged();
         return this;
       }
 
-      private java.util.List<io.prometheus.client.Metrics.Bucket> bucket_ =
-        java.util.Collections.emptyList();
-      private void ensureBucketIsMutable() {
-        if (!((bitField0_ & 0x00000004) == 0x00000004)) {
-          bucket_ = new java.util.ArrayList<io.prometheus.client.Metrics.Bucket>(bucket_);
-          bitField0_ |= 0x00000004;
-         }
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_BucketSpan_descriptor;
       }
 
-      private com.google.protobuf.RepeatedFieldBuilderV3<
-          io.prometheus.client.Metrics.Bucket, io.prometheus.client.Metrics.Bucket.Builder, io.prometheus.client.Metrics.BucketOrBuilder> bucketBuilder_;
+      @java.lang.Override
+      public io.prometheus.client.Metrics.BucketSpan getDefaultInstanceForType() {
+        return io.prometheus.client.Metrics.BucketSpan.getDefaultInstance();
+      }
 
-      /**
-       * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
-       * </pre>
-       *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
-       */
-      public java.util.List<io.prometheus.client.Metrics.Bucket> getBucketList() {
-        if (bucketBuilder_ == null) {
-          return java.util.Collections.unmodifiableList(bucket_);
-        } else {
-          return bucketBuilder_.getMessageList();
+      @java.lang.Override
+      public io.prometheus.client.Metrics.BucketSpan build() {
+        io.prometheus.client.Metrics.BucketSpan result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
         }
+        return result;
       }
-      /**
-       * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
-       * </pre>
-       *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
-       */
-      public int getBucketCount() {
-        if (bucketBuilder_ == null) {
-          return bucket_.size();
-        } else {
-          return bucketBuilder_.getCount();
+
+      @java.lang.Override
+      public io.prometheus.client.Metrics.BucketSpan buildPartial() {
+        io.prometheus.client.Metrics.BucketSpan result = new io.prometheus.client.Metrics.BucketSpan(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
         }
-      }
-      /**
-       * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
-       * </pre>
-       *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
-       */
-      public io.prometheus.client.Metrics.Bucket getBucket(int index) {
-        if (bucketBuilder_ == null) {
-          return bucket_.get(index);
-        } else {
-          return bucketBuilder_.getMessage(index);
+        result.offset_ = offset_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
         }
+        result.length_ = length_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
       }
-      /**
-       * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
-       * </pre>
-       *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
-       */
-      public Builder setBucket(
-          int index, io.prometheus.client.Metrics.Bucket value) {
-        if (bucketBuilder_ == null) {
-          if (value == null) {
-            throw new NullPointerException();
-          }
-          ensureBucketIsMutable();
-          bucket_.set(index, value);
-          onChanged();
-        } else {
-          bucketBuilder_.setMessage(index, value);
-        }
-        return this;
+
+      @java.lang.Override
+      public Builder clone() {
+        return (Builder) super.clone();
       }
-      /**
-       * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
-       * </pre>
-       *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
-       */
-      public Builder setBucket(
-          int index, io.prometheus.client.Metrics.Bucket.Builder builderForValue) {
-        if (bucketBuilder_ == null) {
-          ensureBucketIsMutable();
-          bucket_.set(index, builderForValue.build());
-          onChanged();
-        } else {
-          bucketBuilder_.setMessage(index, builderForValue.build());
-        }
-        return this;
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return (Builder) super.setField(field, value);
       }
-      /**
-       * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
-       * </pre>
-       *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
-       */
-      public Builder addBucket(io.prometheus.client.Metrics.Bucket value) {
-        if (bucketBuilder_ == null) {
-          if (value == null) {
-            throw new NullPointerException();
-          }
-          ensureBucketIsMutable();
-          bucket_.add(value);
-          onChanged();
-        } else {
-          bucketBuilder_.addMessage(value);
-        }
-        return this;
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
       }
-      /**
-       * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
-       * </pre>
-       *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
-       */
-      public Builder addBucket(
-          int index, io.prometheus.client.Metrics.Bucket value) {
-        if (bucketBuilder_ == null) {
-          if (value == null) {
-            throw new NullPointerException();
-          }
-          ensureBucketIsMutable();
-          bucket_.add(index, value);
-          onChanged();
-        } else {
-          bucketBuilder_.addMessage(index, value);
-        }
-        return this;
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
       }
-      /**
-       * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
-       * </pre>
-       *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
-       */
-      public Builder addBucket(
-          io.prometheus.client.Metrics.Bucket.Builder builderForValue) {
-        if (bucketBuilder_ == null) {
-          ensureBucketIsMutable();
-          bucket_.add(builderForValue.build());
-          onChanged();
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof io.prometheus.client.Metrics.BucketSpan) {
+          return mergeFrom((io.prometheus.client.Metrics.BucketSpan)other);
         } else {
-          bucketBuilder_.addMessage(builderForValue.build());
+          super.mergeFrom(other);
+          return this;
         }
-        return this;
       }
-      /**
-       * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
-       * </pre>
-       *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
-       */
-      public Builder addBucket(
-          int index, io.prometheus.client.Metrics.Bucket.Builder builderForValue) {
-        if (bucketBuilder_ == null) {
-          ensureBucketIsMutable();
-          bucket_.add(index, builderForValue.build());
-          onChanged();
-        } else {
-          bucketBuilder_.addMessage(index, builderForValue.build());
+
+      public Builder mergeFrom(io.prometheus.client.Metrics.BucketSpan other) {
+        if (other == io.prometheus.client.Metrics.BucketSpan.getDefaultInstance()) return this;
+        if (other.hasOffset()) {
+          setOffset(other.getOffset());
+        }
+        if (other.hasLength()) {
+          setLength(other.getLength());
         }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
         return this;
       }
-      /**
-       * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
-       * </pre>
-       *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
-       */
-      public Builder addAllBucket(
-          java.lang.Iterable<? extends io.prometheus.client.Metrics.Bucket> values) {
-        if (bucketBuilder_ == null) {
-          ensureBucketIsMutable();
-          com.google.protobuf.AbstractMessageLite.Builder.addAll(
-              values, bucket_);
-          onChanged();
-        } else {
-          bucketBuilder_.addAllMessages(values);
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        io.prometheus.client.Metrics.BucketSpan parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (io.prometheus.client.Metrics.BucketSpan) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
         }
         return this;
       }
+      private int bitField0_;
+
+      private int offset_ ;
       /**
        * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+       * Gap to previous span, or starting point for 1st span (which can be negative).
        * </pre>
        *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       * <code>optional sint32 offset = 1;</code>
        */
-      public Builder clearBucket() {
-        if (bucketBuilder_ == null) {
-          bucket_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000004);
-          onChanged();
-        } else {
-          bucketBuilder_.clear();
-        }
-        return this;
+      public boolean hasOffset() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
       }
       /**
        * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+       * Gap to previous span, or starting point for 1st span (which can be negative).
        * </pre>
        *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       * <code>optional sint32 offset = 1;</code>
        */
-      public Builder removeBucket(int index) {
-        if (bucketBuilder_ == null) {
-          ensureBucketIsMutable();
-          bucket_.remove(index);
-          onChanged();
-        } else {
-          bucketBuilder_.remove(index);
-        }
-        return this;
+      public int getOffset() {
+        return offset_;
       }
       /**
        * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+       * Gap to previous span, or starting point for 1st span (which can be negative).
        * </pre>
        *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       * <code>optional sint32 offset = 1;</code>
        */
-      public io.prometheus.client.Metrics.Bucket.Builder getBucketBuilder(
-          int index) {
-        return getBucketFieldBuilder().getBuilder(index);
+      public Builder setOffset(int value) {
+        bitField0_ |= 0x00000001;
+        offset_ = value;
+        onChanged();
+        return this;
       }
       /**
        * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+       * Gap to previous span, or starting point for 1st span (which can be negative).
        * </pre>
        *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       * <code>optional sint32 offset = 1;</code>
        */
-      public io.prometheus.client.Metrics.BucketOrBuilder getBucketOrBuilder(
-          int index) {
-        if (bucketBuilder_ == null) {
-          return bucket_.get(index);  } else {
-          return bucketBuilder_.getMessageOrBuilder(index);
-        }
+      public Builder clearOffset() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        offset_ = 0;
+        onChanged();
+        return this;
       }
+
+      private int length_ ;
       /**
        * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+       * Length of consecutive buckets.
        * </pre>
        *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       * <code>optional uint32 length = 2;</code>
        */
-      public java.util.List<? extends io.prometheus.client.Metrics.BucketOrBuilder> 
-           getBucketOrBuilderList() {
-        if (bucketBuilder_ != null) {
-          return bucketBuilder_.getMessageOrBuilderList();
-        } else {
-          return java.util.Collections.unmodifiableList(bucket_);
-        }
+      public boolean hasLength() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
       }
       /**
        * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+       * Length of consecutive buckets.
        * </pre>
        *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       * <code>optional uint32 length = 2;</code>
        */
-      public io.prometheus.client.Metrics.Bucket.Builder addBucketBuilder() {
-        return getBucketFieldBuilder().addBuilder(
-            io.prometheus.client.Metrics.Bucket.getDefaultInstance());
+      public int getLength() {
+        return length_;
       }
       /**
        * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+       * Length of consecutive buckets.
        * </pre>
        *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       * <code>optional uint32 length = 2;</code>
        */
-      public io.prometheus.client.Metrics.Bucket.Builder addBucketBuilder(
-          int index) {
-        return getBucketFieldBuilder().addBuilder(
-            index, io.prometheus.client.Metrics.Bucket.getDefaultInstance());
+      public Builder setLength(int value) {
+        bitField0_ |= 0x00000002;
+        length_ = value;
+        onChanged();
+        return this;
       }
       /**
        * <pre>
-       * Ordered in increasing order of upper_bound, +Inf bucket is optional.
+       * Length of consecutive buckets.
        * </pre>
        *
-       * <code>repeated .io.prometheus.client.Bucket bucket = 3;</code>
+       * <code>optional uint32 length = 2;</code>
        */
-      public java.util.List<io.prometheus.client.Metrics.Bucket.Builder> 
-           getBucketBuilderList() {
-        return getBucketFieldBuilder().getBuilderList();
-      }
-      private com.google.protobuf.RepeatedFieldBuilderV3<
-          io.prometheus.client.Metrics.Bucket, io.prometheus.client.Metrics.Bucket.Builder, io.prometheus.client.Metrics.BucketOrBuilder> 
-          getBucketFieldBuilder() {
-        if (bucketBuilder_ == null) {
-          bucketBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
-              io.prometheus.client.Metrics.Bucket, io.prometheus.client.Metrics.Bucket.Builder, io.prometheus.client.Metrics.BucketOrBuilder>(
-                  bucket_,
-                  ((bitField0_ & 0x00000004) == 0x00000004),
-                  getParentForChildren(),
-                  isClean());
-          bucket_ = null;
-        }
-        return bucketBuilder_;
+      public Builder clearLength() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        length_ = 0;
+        onChanged();
+        return this;
       }
       @java.lang.Override
       public final Builder setUnknownFields(
@@ -5000,99 +10433,123 @@ public final class Metrics {
       }
 
 
-      // @@protoc_insertion_point(builder_scope:io.prometheus.client.Histogram)
+      // @@protoc_insertion_point(builder_scope:io.prometheus.client.BucketSpan)
     }
 
-    // @@protoc_insertion_point(class_scope:io.prometheus.client.Histogram)
-    private static final io.prometheus.client.Metrics.Histogram DEFAULT_INSTANCE;
+    // @@protoc_insertion_point(class_scope:io.prometheus.client.BucketSpan)
+    private static final io.prometheus.client.Metrics.BucketSpan DEFAULT_INSTANCE;
     static {
-      DEFAULT_INSTANCE = new io.prometheus.client.Metrics.Histogram();
+      DEFAULT_INSTANCE = new io.prometheus.client.Metrics.BucketSpan();
     }
 
-    public static io.prometheus.client.Metrics.Histogram getDefaultInstance() {
+    public static io.prometheus.client.Metrics.BucketSpan getDefaultInstance() {
       return DEFAULT_INSTANCE;
     }
 
-    @java.lang.Deprecated public static final com.google.protobuf.Parser<Histogram>
-        PARSER = new com.google.protobuf.AbstractParser<Histogram>() {
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<BucketSpan>
+        PARSER = new com.google.protobuf.AbstractParser<BucketSpan>() {
       @java.lang.Override
-      public Histogram parsePartialFrom(
+      public BucketSpan parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new Histogram(input, extensionRegistry);
+        return new BucketSpan(input, extensionRegistry);
       }
     };
 
-    public static com.google.protobuf.Parser<Histogram> parser() {
+    public static com.google.protobuf.Parser<BucketSpan> parser() {
       return PARSER;
     }
 
     @java.lang.Override
-    public com.google.protobuf.Parser<Histogram> getParserForType() {
+    public com.google.protobuf.Parser<BucketSpan> getParserForType() {
       return PARSER;
     }
 
     @java.lang.Override
-    public io.prometheus.client.Metrics.Histogram getDefaultInstanceForType() {
+    public io.prometheus.client.Metrics.BucketSpan getDefaultInstanceForType() {
       return DEFAULT_INSTANCE;
     }
 
   }
 
-  public interface BucketOrBuilder extends
-      // @@protoc_insertion_point(interface_extends:io.prometheus.client.Bucket)
+  public interface ExemplarOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:io.prometheus.client.Exemplar)
       com.google.protobuf.MessageOrBuilder {
 
     /**
-     * <pre>
-     * Cumulative in increasing order.
-     * </pre>
-     *
-     * <code>optional uint64 cumulative_count = 1;</code>
+     * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
      */
-    boolean hasCumulativeCount();
+    java.util.List<io.prometheus.client.Metrics.LabelPair> 
+        getLabelList();
+    /**
+     * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+     */
+    io.prometheus.client.Metrics.LabelPair getLabel(int index);
+    /**
+     * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+     */
+    int getLabelCount();
+    /**
+     * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+     */
+    java.util.List<? extends io.prometheus.client.Metrics.LabelPairOrBuilder> 
+        getLabelOrBuilderList();
+    /**
+     * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+     */
+    io.prometheus.client.Metrics.LabelPairOrBuilder getLabelOrBuilder(
+        int index);
+
+    /**
+     * <code>optional double value = 2;</code>
+     */
+    boolean hasValue();
+    /**
+     * <code>optional double value = 2;</code>
+     */
+    double getValue();
+
     /**
      * <pre>
-     * Cumulative in increasing order.
+     * OpenMetrics-style.
      * </pre>
      *
-     * <code>optional uint64 cumulative_count = 1;</code>
+     * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
      */
-    long getCumulativeCount();
-
+    boolean hasTimestamp();
     /**
      * <pre>
-     * Inclusive.
+     * OpenMetrics-style.
      * </pre>
      *
-     * <code>optional double upper_bound = 2;</code>
+     * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
      */
-    boolean hasUpperBound();
+    com.google.protobuf.Timestamp getTimestamp();
     /**
      * <pre>
-     * Inclusive.
+     * OpenMetrics-style.
      * </pre>
      *
-     * <code>optional double upper_bound = 2;</code>
+     * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
      */
-    double getUpperBound();
+    com.google.protobuf.TimestampOrBuilder getTimestampOrBuilder();
   }
   /**
-   * Protobuf type {@code io.prometheus.client.Bucket}
+   * Protobuf type {@code io.prometheus.client.Exemplar}
    */
-  public  static final class Bucket extends
+  public  static final class Exemplar extends
       com.google.protobuf.GeneratedMessageV3 implements
-      // @@protoc_insertion_point(message_implements:io.prometheus.client.Bucket)
-      BucketOrBuilder {
+      // @@protoc_insertion_point(message_implements:io.prometheus.client.Exemplar)
+      ExemplarOrBuilder {
   private static final long serialVersionUID = 0L;
-    // Use Bucket.newBuilder() to construct.
-    private Bucket(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+    // Use Exemplar.newBuilder() to construct.
+    private Exemplar(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
       super(builder);
     }
-    private Bucket() {
-      cumulativeCount_ = 0L;
-      upperBound_ = 0D;
+    private Exemplar() {
+      label_ = java.util.Collections.emptyList();
+      value_ = 0D;
     }
 
     @java.lang.Override
@@ -5100,7 +10557,7 @@ public final class Metrics {
     getUnknownFields() {
       return this.unknownFields;
     }
-    private Bucket(
+    private Exemplar(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -5119,14 +10576,31 @@ public final class Metrics {
             case 0:
               done = true;
               break;
-            case 8: {
-              bitField0_ |= 0x00000001;
-              cumulativeCount_ = input.readUInt64();
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+                label_ = new java.util.ArrayList<io.prometheus.client.Metrics.LabelPair>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              label_.add(
+                  input.readMessage(io.prometheus.client.Metrics.LabelPair.PARSER, extensionRegistry));
               break;
             }
             case 17: {
+              bitField0_ |= 0x00000001;
+              value_ = input.readDouble();
+              break;
+            }
+            case 26: {
+              com.google.protobuf.Timestamp.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000002) == 0x00000002)) {
+                subBuilder = timestamp_.toBuilder();
+              }
+              timestamp_ = input.readMessage(com.google.protobuf.Timestamp.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(timestamp_);
+                timestamp_ = subBuilder.buildPartial();
+              }
               bitField0_ |= 0x00000002;
-              upperBound_ = input.readDouble();
               break;
             }
             default: {
@@ -5144,68 +10618,108 @@ public final class Metrics {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+          label_ = java.util.Collections.unmodifiableList(label_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Bucket_descriptor;
+      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Exemplar_descriptor;
     }
 
     @java.lang.Override
     protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Bucket_fieldAccessorTable
+      return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Exemplar_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              io.prometheus.client.Metrics.Bucket.class, io.prometheus.client.Metrics.Bucket.Builder.class);
+              io.prometheus.client.Metrics.Exemplar.class, io.prometheus.client.Metrics.Exemplar.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int LABEL_FIELD_NUMBER = 1;
+    private java.util.List<io.prometheus.client.Metrics.LabelPair> label_;
+    /**
+     * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+     */
+    public java.util.List<io.prometheus.client.Metrics.LabelPair> getLabelList() {
+      return label_;
+    }
+    /**
+     * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+     */
+    public java.util.List<? extends io.prometheus.client.Metrics.LabelPairOrBuilder> 
+        getLabelOrBuilderList() {
+      return label_;
+    }
+    /**
+     * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+     */
+    public int getLabelCount() {
+      return label_.size();
+    }
+    /**
+     * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+     */
+    public io.prometheus.client.Metrics.LabelPair getLabel(int index) {
+      return label_.get(index);
+    }
+    /**
+     * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+     */
+    public io.prometheus.client.Metrics.LabelPairOrBuilder getLabelOrBuilder(
+        int index) {
+      return label_.get(index);
     }
 
-    private int bitField0_;
-    public static final int CUMULATIVE_COUNT_FIELD_NUMBER = 1;
-    private long cumulativeCount_;
+    public static final int VALUE_FIELD_NUMBER = 2;
+    private double value_;
     /**
-     * <pre>
-     * Cumulative in increasing order.
-     * </pre>
-     *
-     * <code>optional uint64 cumulative_count = 1;</code>
+     * <code>optional double value = 2;</code>
      */
-    public boolean hasCumulativeCount() {
+    public boolean hasValue() {
       return ((bitField0_ & 0x00000001) == 0x00000001);
     }
+    /**
+     * <code>optional double value = 2;</code>
+     */
+    public double getValue() {
+      return value_;
+    }
+
+    public static final int TIMESTAMP_FIELD_NUMBER = 3;
+    private com.google.protobuf.Timestamp timestamp_;
     /**
      * <pre>
-     * Cumulative in increasing order.
+     * OpenMetrics-style.
      * </pre>
      *
-     * <code>optional uint64 cumulative_count = 1;</code>
+     * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
      */
-    public long getCumulativeCount() {
-      return cumulativeCount_;
+    public boolean hasTimestamp() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
     }
-
-    public static final int UPPER_BOUND_FIELD_NUMBER = 2;
-    private double upperBound_;
     /**
      * <pre>
-     * Inclusive.
+     * OpenMetrics-style.
      * </pre>
      *
-     * <code>optional double upper_bound = 2;</code>
+     * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
      */
-    public boolean hasUpperBound() {
-      return ((bitField0_ & 0x00000002) == 0x00000002);
+    public com.google.protobuf.Timestamp getTimestamp() {
+      return timestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : timestamp_;
     }
     /**
      * <pre>
-     * Inclusive.
+     * OpenMetrics-style.
      * </pre>
      *
-     * <code>optional double upper_bound = 2;</code>
+     * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
      */
-    public double getUpperBound() {
-      return upperBound_;
+    public com.google.protobuf.TimestampOrBuilder getTimestampOrBuilder() {
+      return timestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : timestamp_;
     }
 
     private byte memoizedIsInitialized = -1;
@@ -5222,11 +10736,14 @@ public final class Metrics {
     @java.lang.Override
     public void writeTo(com.google.protobuf.CodedOutputStream output)
                         throws java.io.IOException {
+      for (int i = 0; i < label_.size(); i++) {
+        output.writeMessage(1, label_.get(i));
+      }
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        output.writeUInt64(1, cumulativeCount_);
+        output.writeDouble(2, value_);
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
-        output.writeDouble(2, upperBound_);
+        output.writeMessage(3, getTimestamp());
       }
       unknownFields.writeTo(output);
     }
@@ -5237,13 +10754,17 @@ public final class Metrics {
       if (size != -1) return size;
 
       size = 0;
+      for (int i = 0; i < label_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, label_.get(i));
+      }
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(1, cumulativeCount_);
+          .computeDoubleSize(2, value_);
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeDoubleSize(2, upperBound_);
+          .computeMessageSize(3, getTimestamp());
       }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
@@ -5255,23 +10776,25 @@ public final class Metrics {
       if (obj == this) {
        return true;
       }
-      if (!(obj instanceof io.prometheus.client.Metrics.Bucket)) {
+      if (!(obj instanceof io.prometheus.client.Metrics.Exemplar)) {
         return super.equals(obj);
       }
-      io.prometheus.client.Metrics.Bucket other = (io.prometheus.client.Metrics.Bucket) obj;
+      io.prometheus.client.Metrics.Exemplar other = (io.prometheus.client.Metrics.Exemplar) obj;
 
       boolean result = true;
-      result = result && (hasCumulativeCount() == other.hasCumulativeCount());
-      if (hasCumulativeCount()) {
-        result = result && (getCumulativeCount()
-            == other.getCumulativeCount());
-      }
-      result = result && (hasUpperBound() == other.hasUpperBound());
-      if (hasUpperBound()) {
+      result = result && getLabelList()
+          .equals(other.getLabelList());
+      result = result && (hasValue() == other.hasValue());
+      if (hasValue()) {
         result = result && (
-            java.lang.Double.doubleToLongBits(getUpperBound())
+            java.lang.Double.doubleToLongBits(getValue())
             == java.lang.Double.doubleToLongBits(
-                other.getUpperBound()));
+                other.getValue()));
+      }
+      result = result && (hasTimestamp() == other.hasTimestamp());
+      if (hasTimestamp()) {
+        result = result && getTimestamp()
+            .equals(other.getTimestamp());
       }
       result = result && unknownFields.equals(other.unknownFields);
       return result;
@@ -5284,84 +10807,87 @@ public final class Metrics {
       }
       int hash = 41;
       hash = (19 * hash) + getDescriptor().hashCode();
-      if (hasCumulativeCount()) {
-        hash = (37 * hash) + CUMULATIVE_COUNT_FIELD_NUMBER;
-        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
-            getCumulativeCount());
+      if (getLabelCount() > 0) {
+        hash = (37 * hash) + LABEL_FIELD_NUMBER;
+        hash = (53 * hash) + getLabelList().hashCode();
       }
-      if (hasUpperBound()) {
-        hash = (37 * hash) + UPPER_BOUND_FIELD_NUMBER;
+      if (hasValue()) {
+        hash = (37 * hash) + VALUE_FIELD_NUMBER;
         hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
-            java.lang.Double.doubleToLongBits(getUpperBound()));
+            java.lang.Double.doubleToLongBits(getValue()));
+      }
+      if (hasTimestamp()) {
+        hash = (37 * hash) + TIMESTAMP_FIELD_NUMBER;
+        hash = (53 * hash) + getTimestamp().hashCode();
       }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
     }
 
-    public static io.prometheus.client.Metrics.Bucket parseFrom(
+    public static io.prometheus.client.Metrics.Exemplar parseFrom(
         java.nio.ByteBuffer data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static io.prometheus.client.Metrics.Bucket parseFrom(
+    public static io.prometheus.client.Metrics.Exemplar parseFrom(
         java.nio.ByteBuffer data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static io.prometheus.client.Metrics.Bucket parseFrom(
+    public static io.prometheus.client.Metrics.Exemplar parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static io.prometheus.client.Metrics.Bucket parseFrom(
+    public static io.prometheus.client.Metrics.Exemplar parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static io.prometheus.client.Metrics.Bucket parseFrom(byte[] data)
+    public static io.prometheus.client.Metrics.Exemplar parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static io.prometheus.client.Metrics.Bucket parseFrom(
+    public static io.prometheus.client.Metrics.Exemplar parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static io.prometheus.client.Metrics.Bucket parseFrom(java.io.InputStream input)
+    public static io.prometheus.client.Metrics.Exemplar parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input);
     }
-    public static io.prometheus.client.Metrics.Bucket parseFrom(
+    public static io.prometheus.client.Metrics.Exemplar parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input, extensionRegistry);
     }
-    public static io.prometheus.client.Metrics.Bucket parseDelimitedFrom(java.io.InputStream input)
+    public static io.prometheus.client.Metrics.Exemplar parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseDelimitedWithIOException(PARSER, input);
     }
-    public static io.prometheus.client.Metrics.Bucket parseDelimitedFrom(
+    public static io.prometheus.client.Metrics.Exemplar parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
     }
-    public static io.prometheus.client.Metrics.Bucket parseFrom(
+    public static io.prometheus.client.Metrics.Exemplar parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input);
     }
-    public static io.prometheus.client.Metrics.Bucket parseFrom(
+    public static io.prometheus.client.Metrics.Exemplar parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -5374,7 +10900,7 @@ public final class Metrics {
     public static Builder newBuilder() {
       return DEFAULT_INSTANCE.toBuilder();
     }
-    public static Builder newBuilder(io.prometheus.client.Metrics.Bucket prototype) {
+    public static Builder newBuilder(io.prometheus.client.Metrics.Exemplar prototype) {
       return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
     }
     @java.lang.Override
@@ -5383,269 +10909,650 @@ public final class Metrics {
           ? new Builder() : new Builder().mergeFrom(this);
     }
 
-    @java.lang.Override
-    protected Builder newBuilderForType(
-        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
-      Builder builder = new Builder(parent);
-      return builder;
-    }
-    /**
-     * Protobuf type {@code io.prometheus.client.Bucket}
-     */
-    public static final class Builder extends
-        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
-        // @@protoc_insertion_point(builder_implements:io.prometheus.client.Bucket)
-        io.prometheus.client.Metrics.BucketOrBuilder {
-      public static final com.google.protobuf.Descriptors.Descriptor
-          getDescriptor() {
-        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Bucket_descriptor;
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code io.prometheus.client.Exemplar}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:io.prometheus.client.Exemplar)
+        io.prometheus.client.Metrics.ExemplarOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Exemplar_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Exemplar_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                io.prometheus.client.Metrics.Exemplar.class, io.prometheus.client.Metrics.Exemplar.Builder.class);
+      }
+
+      // Construct using io.prometheus.client.Metrics.Exemplar.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getLabelFieldBuilder();
+          getTimestampFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        if (labelBuilder_ == null) {
+          label_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          labelBuilder_.clear();
+        }
+        value_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        if (timestampBuilder_ == null) {
+          timestamp_ = null;
+        } else {
+          timestampBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Exemplar_descriptor;
+      }
+
+      @java.lang.Override
+      public io.prometheus.client.Metrics.Exemplar getDefaultInstanceForType() {
+        return io.prometheus.client.Metrics.Exemplar.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public io.prometheus.client.Metrics.Exemplar build() {
+        io.prometheus.client.Metrics.Exemplar result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public io.prometheus.client.Metrics.Exemplar buildPartial() {
+        io.prometheus.client.Metrics.Exemplar result = new io.prometheus.client.Metrics.Exemplar(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (labelBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001)) {
+            label_ = java.util.Collections.unmodifiableList(label_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.label_ = label_;
+        } else {
+          result.label_ = labelBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.value_ = value_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        if (timestampBuilder_ == null) {
+          result.timestamp_ = timestamp_;
+        } else {
+          result.timestamp_ = timestampBuilder_.build();
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof io.prometheus.client.Metrics.Exemplar) {
+          return mergeFrom((io.prometheus.client.Metrics.Exemplar)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(io.prometheus.client.Metrics.Exemplar other) {
+        if (other == io.prometheus.client.Metrics.Exemplar.getDefaultInstance()) return this;
+        if (labelBuilder_ == null) {
+          if (!other.label_.isEmpty()) {
+            if (label_.isEmpty()) {
+              label_ = other.label_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureLabelIsMutable();
+              label_.addAll(other.label_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.label_.isEmpty()) {
+            if (labelBuilder_.isEmpty()) {
+              labelBuilder_.dispose();
+              labelBuilder_ = null;
+              label_ = other.label_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              labelBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getLabelFieldBuilder() : null;
+            } else {
+              labelBuilder_.addAllMessages(other.label_);
+            }
+          }
+        }
+        if (other.hasValue()) {
+          setValue(other.getValue());
+        }
+        if (other.hasTimestamp()) {
+          mergeTimestamp(other.getTimestamp());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
       }
 
       @java.lang.Override
-      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-          internalGetFieldAccessorTable() {
-        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Bucket_fieldAccessorTable
-            .ensureFieldAccessorsInitialized(
-                io.prometheus.client.Metrics.Bucket.class, io.prometheus.client.Metrics.Bucket.Builder.class);
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        io.prometheus.client.Metrics.Exemplar parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (io.prometheus.client.Metrics.Exemplar) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
       }
+      private int bitField0_;
 
-      // Construct using io.prometheus.client.Metrics.Bucket.newBuilder()
-      private Builder() {
-        maybeForceBuilderInitialization();
+      private java.util.List<io.prometheus.client.Metrics.LabelPair> label_ =
+        java.util.Collections.emptyList();
+      private void ensureLabelIsMutable() {
+        if (!((bitField0_ & 0x00000001) == 0x00000001)) {
+          label_ = new java.util.ArrayList<io.prometheus.client.Metrics.LabelPair>(label_);
+          bitField0_ |= 0x00000001;
+         }
       }
 
-      private Builder(
-          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
-        super(parent);
-        maybeForceBuilderInitialization();
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          io.prometheus.client.Metrics.LabelPair, io.prometheus.client.Metrics.LabelPair.Builder, io.prometheus.client.Metrics.LabelPairOrBuilder> labelBuilder_;
+
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public java.util.List<io.prometheus.client.Metrics.LabelPair> getLabelList() {
+        if (labelBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(label_);
+        } else {
+          return labelBuilder_.getMessageList();
+        }
       }
-      private void maybeForceBuilderInitialization() {
-        if (com.google.protobuf.GeneratedMessageV3
-                .alwaysUseFieldBuilders) {
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public int getLabelCount() {
+        if (labelBuilder_ == null) {
+          return label_.size();
+        } else {
+          return labelBuilder_.getCount();
         }
       }
-      @java.lang.Override
-      public Builder clear() {
-        super.clear();
-        cumulativeCount_ = 0L;
-        bitField0_ = (bitField0_ & ~0x00000001);
-        upperBound_ = 0D;
-        bitField0_ = (bitField0_ & ~0x00000002);
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public io.prometheus.client.Metrics.LabelPair getLabel(int index) {
+        if (labelBuilder_ == null) {
+          return label_.get(index);
+        } else {
+          return labelBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public Builder setLabel(
+          int index, io.prometheus.client.Metrics.LabelPair value) {
+        if (labelBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureLabelIsMutable();
+          label_.set(index, value);
+          onChanged();
+        } else {
+          labelBuilder_.setMessage(index, value);
+        }
         return this;
       }
-
-      @java.lang.Override
-      public com.google.protobuf.Descriptors.Descriptor
-          getDescriptorForType() {
-        return io.prometheus.client.Metrics.internal_static_io_prometheus_client_Bucket_descriptor;
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public Builder setLabel(
+          int index, io.prometheus.client.Metrics.LabelPair.Builder builderForValue) {
+        if (labelBuilder_ == null) {
+          ensureLabelIsMutable();
+          label_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          labelBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
       }
-
-      @java.lang.Override
-      public io.prometheus.client.Metrics.Bucket getDefaultInstanceForType() {
-        return io.prometheus.client.Metrics.Bucket.getDefaultInstance();
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public Builder addLabel(io.prometheus.client.Metrics.LabelPair value) {
+        if (labelBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureLabelIsMutable();
+          label_.add(value);
+          onChanged();
+        } else {
+          labelBuilder_.addMessage(value);
+        }
+        return this;
       }
-
-      @java.lang.Override
-      public io.prometheus.client.Metrics.Bucket build() {
-        io.prometheus.client.Metrics.Bucket result = buildPartial();
-        if (!result.isInitialized()) {
-          throw newUninitializedMessageException(result);
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public Builder addLabel(
+          int index, io.prometheus.client.Metrics.LabelPair value) {
+        if (labelBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureLabelIsMutable();
+          label_.add(index, value);
+          onChanged();
+        } else {
+          labelBuilder_.addMessage(index, value);
         }
-        return result;
+        return this;
       }
-
-      @java.lang.Override
-      public io.prometheus.client.Metrics.Bucket buildPartial() {
-        io.prometheus.client.Metrics.Bucket result = new io.prometheus.client.Metrics.Bucket(this);
-        int from_bitField0_ = bitField0_;
-        int to_bitField0_ = 0;
-        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
-          to_bitField0_ |= 0x00000001;
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public Builder addLabel(
+          io.prometheus.client.Metrics.LabelPair.Builder builderForValue) {
+        if (labelBuilder_ == null) {
+          ensureLabelIsMutable();
+          label_.add(builderForValue.build());
+          onChanged();
+        } else {
+          labelBuilder_.addMessage(builderForValue.build());
         }
-        result.cumulativeCount_ = cumulativeCount_;
-        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
-          to_bitField0_ |= 0x00000002;
+        return this;
+      }
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public Builder addLabel(
+          int index, io.prometheus.client.Metrics.LabelPair.Builder builderForValue) {
+        if (labelBuilder_ == null) {
+          ensureLabelIsMutable();
+          label_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          labelBuilder_.addMessage(index, builderForValue.build());
         }
-        result.upperBound_ = upperBound_;
-        result.bitField0_ = to_bitField0_;
-        onBuilt();
-        return result;
+        return this;
       }
-
-      @java.lang.Override
-      public Builder clone() {
-        return (Builder) super.clone();
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public Builder addAllLabel(
+          java.lang.Iterable<? extends io.prometheus.client.Metrics.LabelPair> values) {
+        if (labelBuilder_ == null) {
+          ensureLabelIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, label_);
+          onChanged();
+        } else {
+          labelBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public Builder clearLabel() {
+        if (labelBuilder_ == null) {
+          label_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          labelBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public Builder removeLabel(int index) {
+        if (labelBuilder_ == null) {
+          ensureLabelIsMutable();
+          label_.remove(index);
+          onChanged();
+        } else {
+          labelBuilder_.remove(index);
+        }
+        return this;
       }
-      @java.lang.Override
-      public Builder setField(
-          com.google.protobuf.Descriptors.FieldDescriptor field,
-          java.lang.Object value) {
-        return (Builder) super.setField(field, value);
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public io.prometheus.client.Metrics.LabelPair.Builder getLabelBuilder(
+          int index) {
+        return getLabelFieldBuilder().getBuilder(index);
       }
-      @java.lang.Override
-      public Builder clearField(
-          com.google.protobuf.Descriptors.FieldDescriptor field) {
-        return (Builder) super.clearField(field);
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public io.prometheus.client.Metrics.LabelPairOrBuilder getLabelOrBuilder(
+          int index) {
+        if (labelBuilder_ == null) {
+          return label_.get(index);  } else {
+          return labelBuilder_.getMessageOrBuilder(index);
+        }
       }
-      @java.lang.Override
-      public Builder clearOneof(
-          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
-        return (Builder) super.clearOneof(oneof);
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public java.util.List<? extends io.prometheus.client.Metrics.LabelPairOrBuilder> 
+           getLabelOrBuilderList() {
+        if (labelBuilder_ != null) {
+          return labelBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(label_);
+        }
       }
-      @java.lang.Override
-      public Builder setRepeatedField(
-          com.google.protobuf.Descriptors.FieldDescriptor field,
-          int index, java.lang.Object value) {
-        return (Builder) super.setRepeatedField(field, index, value);
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public io.prometheus.client.Metrics.LabelPair.Builder addLabelBuilder() {
+        return getLabelFieldBuilder().addBuilder(
+            io.prometheus.client.Metrics.LabelPair.getDefaultInstance());
       }
-      @java.lang.Override
-      public Builder addRepeatedField(
-          com.google.protobuf.Descriptors.FieldDescriptor field,
-          java.lang.Object value) {
-        return (Builder) super.addRepeatedField(field, value);
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public io.prometheus.client.Metrics.LabelPair.Builder addLabelBuilder(
+          int index) {
+        return getLabelFieldBuilder().addBuilder(
+            index, io.prometheus.client.Metrics.LabelPair.getDefaultInstance());
       }
-      @java.lang.Override
-      public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof io.prometheus.client.Metrics.Bucket) {
-          return mergeFrom((io.prometheus.client.Metrics.Bucket)other);
-        } else {
-          super.mergeFrom(other);
-          return this;
+      /**
+       * <code>repeated .io.prometheus.client.LabelPair label = 1;</code>
+       */
+      public java.util.List<io.prometheus.client.Metrics.LabelPair.Builder> 
+           getLabelBuilderList() {
+        return getLabelFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          io.prometheus.client.Metrics.LabelPair, io.prometheus.client.Metrics.LabelPair.Builder, io.prometheus.client.Metrics.LabelPairOrBuilder> 
+          getLabelFieldBuilder() {
+        if (labelBuilder_ == null) {
+          labelBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              io.prometheus.client.Metrics.LabelPair, io.prometheus.client.Metrics.LabelPair.Builder, io.prometheus.client.Metrics.LabelPairOrBuilder>(
+                  label_,
+                  ((bitField0_ & 0x00000001) == 0x00000001),
+                  getParentForChildren(),
+                  isClean());
+          label_ = null;
         }
+        return labelBuilder_;
       }
 
-      public Builder mergeFrom(io.prometheus.client.Metrics.Bucket other) {
-        if (other == io.prometheus.client.Metrics.Bucket.getDefaultInstance()) return this;
-        if (other.hasCumulativeCount()) {
-          setCumulativeCount(other.getCumulativeCount());
-        }
-        if (other.hasUpperBound()) {
-          setUpperBound(other.getUpperBound());
-        }
-        this.mergeUnknownFields(other.unknownFields);
+      private double value_ ;
+      /**
+       * <code>optional double value = 2;</code>
+       */
+      public boolean hasValue() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional double value = 2;</code>
+       */
+      public double getValue() {
+        return value_;
+      }
+      /**
+       * <code>optional double value = 2;</code>
+       */
+      public Builder setValue(double value) {
+        bitField0_ |= 0x00000002;
+        value_ = value;
         onChanged();
         return this;
       }
-
-      @java.lang.Override
-      public final boolean isInitialized() {
-        return true;
-      }
-
-      @java.lang.Override
-      public Builder mergeFrom(
-          com.google.protobuf.CodedInputStream input,
-          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-          throws java.io.IOException {
-        io.prometheus.client.Metrics.Bucket parsedMessage = null;
-        try {
-          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
-        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (io.prometheus.client.Metrics.Bucket) e.getUnfinishedMessage();
-          throw e.unwrapIOException();
-        } finally {
-          if (parsedMessage != null) {
-            mergeFrom(parsedMessage);
-          }
-        }
+      /**
+       * <code>optional double value = 2;</code>
+       */
+      public Builder clearValue() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        value_ = 0D;
+        onChanged();
         return this;
       }
-      private int bitField0_;
 
-      private long cumulativeCount_ ;
+      private com.google.protobuf.Timestamp timestamp_ = null;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder> timestampBuilder_;
       /**
        * <pre>
-       * Cumulative in increasing order.
+       * OpenMetrics-style.
        * </pre>
        *
-       * <code>optional uint64 cumulative_count = 1;</code>
+       * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
        */
-      public boolean hasCumulativeCount() {
-        return ((bitField0_ & 0x00000001) == 0x00000001);
+      public boolean hasTimestamp() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
       }
       /**
        * <pre>
-       * Cumulative in increasing order.
+       * OpenMetrics-style.
        * </pre>
        *
-       * <code>optional uint64 cumulative_count = 1;</code>
+       * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
        */
-      public long getCumulativeCount() {
-        return cumulativeCount_;
+      public com.google.protobuf.Timestamp getTimestamp() {
+        if (timestampBuilder_ == null) {
+          return timestamp_ == null ? com.google.protobuf.Timestamp.getDefaultInstance() : timestamp_;
+        } else {
+          return timestampBuilder_.getMessage();
+        }
       }
       /**
        * <pre>
-       * Cumulative in increasing order.
+       * OpenMetrics-style.
        * </pre>
        *
-       * <code>optional uint64 cumulative_count = 1;</code>
+       * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
        */
-      public Builder setCumulativeCount(long value) {
-        bitField0_ |= 0x00000001;
-        cumulativeCount_ = value;
-        onChanged();
+      public Builder setTimestamp(com.google.protobuf.Timestamp value) {
+        if (timestampBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          timestamp_ = value;
+          onChanged();
+        } else {
+          timestampBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000004;
         return this;
       }
       /**
        * <pre>
-       * Cumulative in increasing order.
+       * OpenMetrics-style.
        * </pre>
        *
-       * <code>optional uint64 cumulative_count = 1;</code>
+       * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
        */
-      public Builder clearCumulativeCount() {
-        bitField0_ = (bitField0_ & ~0x00000001);
-        cumulativeCount_ = 0L;
-        onChanged();
+      public Builder setTimestamp(
+          com.google.protobuf.Timestamp.Builder builderForValue) {
+        if (timestampBuilder_ == null) {
+          timestamp_ = builderForValue.build();
+          onChanged();
+        } else {
+          timestampBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000004;
         return this;
       }
-
-      private double upperBound_ ;
       /**
        * <pre>
-       * Inclusive.
+       * OpenMetrics-style.
        * </pre>
        *
-       * <code>optional double upper_bound = 2;</code>
+       * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
        */
-      public boolean hasUpperBound() {
-        return ((bitField0_ & 0x00000002) == 0x00000002);
+      public Builder mergeTimestamp(com.google.protobuf.Timestamp value) {
+        if (timestampBuilder_ == null) {
+          if (((bitField0_ & 0x00000004) == 0x00000004) &&
+              timestamp_ != null &&
+              timestamp_ != com.google.protobuf.Timestamp.getDefaultInstance()) {
+            timestamp_ =
+              com.google.protobuf.Timestamp.newBuilder(timestamp_).mergeFrom(value).buildPartial();
+          } else {
+            timestamp_ = value;
+          }
+          onChanged();
+        } else {
+          timestampBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000004;
+        return this;
       }
       /**
        * <pre>
-       * Inclusive.
+       * OpenMetrics-style.
        * </pre>
        *
-       * <code>optional double upper_bound = 2;</code>
+       * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
        */
-      public double getUpperBound() {
-        return upperBound_;
+      public Builder clearTimestamp() {
+        if (timestampBuilder_ == null) {
+          timestamp_ = null;
+          onChanged();
+        } else {
+          timestampBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
       }
       /**
        * <pre>
-       * Inclusive.
+       * OpenMetrics-style.
        * </pre>
        *
-       * <code>optional double upper_bound = 2;</code>
+       * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
        */
-      public Builder setUpperBound(double value) {
-        bitField0_ |= 0x00000002;
-        upperBound_ = value;
+      public com.google.protobuf.Timestamp.Builder getTimestampBuilder() {
+        bitField0_ |= 0x00000004;
         onChanged();
-        return this;
+        return getTimestampFieldBuilder().getBuilder();
       }
       /**
        * <pre>
-       * Inclusive.
+       * OpenMetrics-style.
        * </pre>
        *
-       * <code>optional double upper_bound = 2;</code>
+       * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
        */
-      public Builder clearUpperBound() {
-        bitField0_ = (bitField0_ & ~0x00000002);
-        upperBound_ = 0D;
-        onChanged();
-        return this;
+      public com.google.protobuf.TimestampOrBuilder getTimestampOrBuilder() {
+        if (timestampBuilder_ != null) {
+          return timestampBuilder_.getMessageOrBuilder();
+        } else {
+          return timestamp_ == null ?
+              com.google.protobuf.Timestamp.getDefaultInstance() : timestamp_;
+        }
+      }
+      /**
+       * <pre>
+       * OpenMetrics-style.
+       * </pre>
+       *
+       * <code>optional .google.protobuf.Timestamp timestamp = 3;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder> 
+          getTimestampFieldBuilder() {
+        if (timestampBuilder_ == null) {
+          timestampBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              com.google.protobuf.Timestamp, com.google.protobuf.Timestamp.Builder, com.google.protobuf.TimestampOrBuilder>(
+                  getTimestamp(),
+                  getParentForChildren(),
+                  isClean());
+          timestamp_ = null;
+        }
+        return timestampBuilder_;
       }
       @java.lang.Override
       public final Builder setUnknownFields(
@@ -5660,41 +11567,41 @@ public final class Metrics {
       }
 
 
-      // @@protoc_insertion_point(builder_scope:io.prometheus.client.Bucket)
+      // @@protoc_insertion_point(builder_scope:io.prometheus.client.Exemplar)
     }
 
-    // @@protoc_insertion_point(class_scope:io.prometheus.client.Bucket)
-    private static final io.prometheus.client.Metrics.Bucket DEFAULT_INSTANCE;
+    // @@protoc_insertion_point(class_scope:io.prometheus.client.Exemplar)
+    private static final io.prometheus.client.Metrics.Exemplar DEFAULT_INSTANCE;
     static {
-      DEFAULT_INSTANCE = new io.prometheus.client.Metrics.Bucket();
+      DEFAULT_INSTANCE = new io.prometheus.client.Metrics.Exemplar();
     }
 
-    public static io.prometheus.client.Metrics.Bucket getDefaultInstance() {
+    public static io.prometheus.client.Metrics.Exemplar getDefaultInstance() {
       return DEFAULT_INSTANCE;
     }
 
-    @java.lang.Deprecated public static final com.google.protobuf.Parser<Bucket>
-        PARSER = new com.google.protobuf.AbstractParser<Bucket>() {
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Exemplar>
+        PARSER = new com.google.protobuf.AbstractParser<Exemplar>() {
       @java.lang.Override
-      public Bucket parsePartialFrom(
+      public Exemplar parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new Bucket(input, extensionRegistry);
+        return new Exemplar(input, extensionRegistry);
       }
     };
 
-    public static com.google.protobuf.Parser<Bucket> parser() {
+    public static com.google.protobuf.Parser<Exemplar> parser() {
       return PARSER;
     }
 
     @java.lang.Override
-    public com.google.protobuf.Parser<Bucket> getParserForType() {
+    public com.google.protobuf.Parser<Exemplar> getParserForType() {
       return PARSER;
     }
 
     @java.lang.Override
-    public io.prometheus.client.Metrics.Bucket getDefaultInstanceForType() {
+    public io.prometheus.client.Metrics.Exemplar getDefaultInstanceForType() {
       return DEFAULT_INSTANCE;
     }
 
@@ -8823,6 +14730,16 @@ public final class Metrics {
   private static final 
     com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
       internal_static_io_prometheus_client_Bucket_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_io_prometheus_client_BucketSpan_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_io_prometheus_client_BucketSpan_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_io_prometheus_client_Exemplar_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_io_prometheus_client_Exemplar_fieldAccessorTable;
   private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_io_prometheus_client_Metric_descriptor;
   private static final 
@@ -8842,34 +14759,56 @@ public final class Metrics {
       descriptor;
   static {
     java.lang.String[] descriptorData = {
-      "\n\rmetrics.proto\022\024io.prometheus.client\"(\n" +
-      "\tLabelPair\022\014\n\004name\030\001 \001(\t\022\r\n\005value\030\002 \001(\t\"" +
-      "\026\n\005Gauge\022\r\n\005value\030\001 \001(\001\"\030\n\007Counter\022\r\n\005va" +
-      "lue\030\001 \001(\001\"+\n\010Quantile\022\020\n\010quantile\030\001 \001(\001\022" +
-      "\r\n\005value\030\002 \001(\001\"e\n\007Summary\022\024\n\014sample_coun" +
-      "t\030\001 \001(\004\022\022\n\nsample_sum\030\002 \001(\001\0220\n\010quantile\030" +
-      "\003 \003(\0132\036.io.prometheus.client.Quantile\"\030\n" +
-      "\007Untyped\022\r\n\005value\030\001 \001(\001\"c\n\tHistogram\022\024\n\014" +
-      "sample_count\030\001 \001(\004\022\022\n\nsample_sum\030\002 \001(\001\022," +
-      "\n\006bucket\030\003 \003(\0132\034.io.prometheus.client.Bu" +
-      "cket\"7\n\006Bucket\022\030\n\020cumulative_count\030\001 \001(\004" +
-      "\022\023\n\013upper_bound\030\002 \001(\001\"\276\002\n\006Metric\022.\n\005labe" +
-      "l\030\001 \003(\0132\037.io.prometheus.client.LabelPair" +
-      "\022*\n\005gauge\030\002 \001(\0132\033.io.prometheus.client.G" +
-      "auge\022.\n\007counter\030\003 \001(\0132\035.io.prometheus.cl" +
-      "ient.Counter\022.\n\007summary\030\004 \001(\0132\035.io.prome" +
-      "theus.client.Summary\022.\n\007untyped\030\005 \001(\0132\035." +
-      "io.prometheus.client.Untyped\0222\n\thistogra" +
-      "m\030\007 \001(\0132\037.io.prometheus.client.Histogram" +
-      "\022\024\n\014timestamp_ms\030\006 \001(\003\"\210\001\n\014MetricFamily\022" +
-      "\014\n\004name\030\001 \001(\t\022\014\n\004help\030\002 \001(\t\022.\n\004type\030\003 \001(" +
-      "\0162 .io.prometheus.client.MetricType\022,\n\006m" +
-      "etric\030\004 \003(\0132\034.io.prometheus.client.Metri" +
-      "c*M\n\nMetricType\022\013\n\007COUNTER\020\000\022\t\n\005GAUGE\020\001\022" +
-      "\013\n\007SUMMARY\020\002\022\013\n\007UNTYPED\020\003\022\r\n\tHISTOGRAM\020\004" +
-      "BR\n\024io.prometheus.clientZ:github.com/pro" +
-      "metheus/client_model/go;io_prometheus_cl" +
-      "ient"
+      "\n\rmetrics.proto\022\024io.prometheus.client\032\037g" +
+      "oogle/protobuf/timestamp.proto\"(\n\tLabelP" +
+      "air\022\014\n\004name\030\001 \001(\t\022\r\n\005value\030\002 \001(\t\"\026\n\005Gaug" +
+      "e\022\r\n\005value\030\001 \001(\001\"\201\001\n\007Counter\022\r\n\005value\030\001 " +
+      "\001(\001\0220\n\010exemplar\030\002 \001(\0132\036.io.prometheus.cl" +
+      "ient.Exemplar\0225\n\021created_timestamp\030\003 \001(\013" +
+      "2\032.google.protobuf.Timestamp\"+\n\010Quantile" +
+      "\022\020\n\010quantile\030\001 \001(\001\022\r\n\005value\030\002 \001(\001\"\234\001\n\007Su" +
+      "mmary\022\024\n\014sample_count\030\001 \001(\004\022\022\n\nsample_su" +
+      "m\030\002 \001(\001\0220\n\010quantile\030\003 \003(\0132\036.io.prometheu" +
+      "s.client.Quantile\0225\n\021created_timestamp\030\004" +
+      " \001(\0132\032.google.protobuf.Timestamp\"\030\n\007Unty" +
+      "ped\022\r\n\005value\030\001 \001(\001\"\221\004\n\tHistogram\022\024\n\014samp" +
+      "le_count\030\001 \001(\004\022\032\n\022sample_count_float\030\004 \001" +
+      "(\001\022\022\n\nsample_sum\030\002 \001(\001\022,\n\006bucket\030\003 \003(\0132\034" +
+      ".io.prometheus.client.Bucket\022\016\n\006schema\030\005" +
+      " \001(\021\022\026\n\016zero_threshold\030\006 \001(\001\022\022\n\nzero_cou" +
+      "nt\030\007 \001(\004\022\030\n\020zero_count_float\030\010 \001(\001\0227\n\rne" +
+      "gative_span\030\t \003(\0132 .io.prometheus.client" +
+      ".BucketSpan\022\026\n\016negative_delta\030\n \003(\022\022\026\n\016n" +
+      "egative_count\030\013 \003(\001\0227\n\rpositive_span\030\014 \003" +
+      "(\0132 .io.prometheus.client.BucketSpan\022\026\n\016" +
+      "positive_delta\030\r \003(\022\022\026\n\016positive_count\030\016" +
+      " \003(\001\0225\n\021created_timestamp\030\017 \001(\0132\032.google" +
+      ".protobuf.Timestamp\0221\n\texemplars\030\020 \003(\0132\036" +
+      ".io.prometheus.client.Exemplar\"\211\001\n\006Bucke" +
+      "t\022\030\n\020cumulative_count\030\001 \001(\004\022\036\n\026cumulativ" +
+      "e_count_float\030\004 \001(\001\022\023\n\013upper_bound\030\002 \001(\001" +
+      "\0220\n\010exemplar\030\003 \001(\0132\036.io.prometheus.clien" +
+      "t.Exemplar\",\n\nBucketSpan\022\016\n\006offset\030\001 \001(\021" +
+      "\022\016\n\006length\030\002 \001(\r\"x\n\010Exemplar\022.\n\005label\030\001 " +
+      "\003(\0132\037.io.prometheus.client.LabelPair\022\r\n\005" +
+      "value\030\002 \001(\001\022-\n\ttimestamp\030\003 \001(\0132\032.google." +
+      "protobuf.Timestamp\"\276\002\n\006Metric\022.\n\005label\030\001" +
+      " \003(\0132\037.io.prometheus.client.LabelPair\022*\n" +
+      "\005gauge\030\002 \001(\0132\033.io.prometheus.client.Gaug" +
+      "e\022.\n\007counter\030\003 \001(\0132\035.io.prometheus.clien" +
+      "t.Counter\022.\n\007summary\030\004 \001(\0132\035.io.promethe" +
+      "us.client.Summary\022.\n\007untyped\030\005 \001(\0132\035.io." +
+      "prometheus.client.Untyped\0222\n\thistogram\030\007" +
+      " \001(\0132\037.io.prometheus.client.Histogram\022\024\n" +
+      "\014timestamp_ms\030\006 \001(\003\"\210\001\n\014MetricFamily\022\014\n\004" +
+      "name\030\001 \001(\t\022\014\n\004help\030\002 \001(\t\022.\n\004type\030\003 \001(\0162 " +
+      ".io.prometheus.client.MetricType\022,\n\006metr" +
+      "ic\030\004 \003(\0132\034.io.prometheus.client.Metric*M" +
+      "\n\nMetricType\022\013\n\007COUNTER\020\000\022\t\n\005GAUGE\020\001\022\013\n\007" +
+      "SUMMARY\020\002\022\013\n\007UNTYPED\020\003\022\r\n\tHISTOGRAM\020\004BR\n" +
+      "\024io.prometheus.clientZ:github.com/promet" +
+      "heus/client_model/go;io_prometheus_clien" +
+      "t"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -8882,6 +14821,7 @@ public final class Metrics {
     com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
         new com.google.protobuf.Descriptors.FileDescriptor[] {
+          com.google.protobuf.TimestampProto.getDescriptor(),
         }, assigner);
     internal_static_io_prometheus_client_LabelPair_descriptor =
       getDescriptor().getMessageTypes().get(0);
@@ -8900,7 +14840,7 @@ public final class Metrics {
     internal_static_io_prometheus_client_Counter_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_io_prometheus_client_Counter_descriptor,
-        new java.lang.String[] { "Value", });
+        new java.lang.String[] { "Value", "Exemplar", "CreatedTimestamp", });
     internal_static_io_prometheus_client_Quantile_descriptor =
       getDescriptor().getMessageTypes().get(3);
     internal_static_io_prometheus_client_Quantile_fieldAccessorTable = new
@@ -8912,7 +14852,7 @@ public final class Metrics {
     internal_static_io_prometheus_client_Summary_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_io_prometheus_client_Summary_descriptor,
-        new java.lang.String[] { "SampleCount", "SampleSum", "Quantile", });
+        new java.lang.String[] { "SampleCount", "SampleSum", "Quantile", "CreatedTimestamp", });
     internal_static_io_prometheus_client_Untyped_descriptor =
       getDescriptor().getMessageTypes().get(5);
     internal_static_io_prometheus_client_Untyped_fieldAccessorTable = new
@@ -8924,25 +14864,38 @@ public final class Metrics {
     internal_static_io_prometheus_client_Histogram_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_io_prometheus_client_Histogram_descriptor,
-        new java.lang.String[] { "SampleCount", "SampleSum", "Bucket", });
+        new java.lang.String[] { "SampleCount", "SampleCountFloat", "SampleSum", "Bucket", "Schema", "ZeroThreshold", "ZeroCount", "ZeroCountFloat", "NegativeSpan", "NegativeDelta", "NegativeCount", "PositiveSpan", "PositiveDelta", "PositiveCount", "CreatedTimestamp", "Exemplars", });
     internal_static_io_prometheus_client_Bucket_descriptor =
       getDescriptor().getMessageTypes().get(7);
     internal_static_io_prometheus_client_Bucket_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_io_prometheus_client_Bucket_descriptor,
-        new java.lang.String[] { "CumulativeCount", "UpperBound", });
-    internal_static_io_prometheus_client_Metric_descriptor =
+        new java.lang.String[] { "CumulativeCount", "CumulativeCountFloat", "UpperBound", "Exemplar", });
+    internal_static_io_prometheus_client_BucketSpan_descriptor =
       getDescriptor().getMessageTypes().get(8);
+    internal_static_io_prometheus_client_BucketSpan_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_io_prometheus_client_BucketSpan_descriptor,
+        new java.lang.String[] { "Offset", "Length", });
+    internal_static_io_prometheus_client_Exemplar_descriptor =
+      getDescriptor().getMessageTypes().get(9);
+    internal_static_io_prometheus_client_Exemplar_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_io_prometheus_client_Exemplar_descriptor,
+        new java.lang.String[] { "Label", "Value", "Timestamp", });
+    internal_static_io_prometheus_client_Metric_descriptor =
+      getDescriptor().getMessageTypes().get(10);
     internal_static_io_prometheus_client_Metric_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_io_prometheus_client_Metric_descriptor,
         new java.lang.String[] { "Label", "Gauge", "Counter", "Summary", "Untyped", "Histogram", "TimestampMs", });
     internal_static_io_prometheus_client_MetricFamily_descriptor =
-      getDescriptor().getMessageTypes().get(9);
+      getDescriptor().getMessageTypes().get(11);
     internal_static_io_prometheus_client_MetricFamily_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_io_prometheus_client_MetricFamily_descriptor,
         new java.lang.String[] { "Name", "Help", "Type", "Metric", });
+    com.google.protobuf.TimestampProto.getDescriptor();
   }
 
   // @@protoc_insertion_point(outer_class_scope)
@@ -0,0 +1,30 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Counter {@link CompactFamily}. Contended series are spread over striped cells.
+ */
+public final class CompactCounter extends CompactFamily {
+  private static final int STRIPES = Integer.highestOneBit(Math.max(1, Math.min(16, Runtime.getRuntime().availableProcessors())) * 2 - 1);
+
+  public CompactCounter(@NotNull String name, @NotNull String help, @NotNull String... labelNames) {
+    super(name, help, Type.COUNTER, labelNames);
+  }
+
+  public void inc(int series) {
+    inc(series, 1);
+  }
+
+  public void inc(int series, double amount) {
+    if (amount < 0) {
+      throw new IllegalArgumentException("Amount to increment must be non-negative.");
+    }
+    chunk(series).add(offset(series), amount);
+  }
+
+  @Override
+  int stripes() {
+    return STRIPES;
+  }
+}
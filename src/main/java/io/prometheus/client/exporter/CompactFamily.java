@@ -0,0 +1,177 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Family for hundreds of thousands of series, which keeps no object per series.
+ * Label values are interned into a {@link LabelIndex} giving every series a dense id, and values are {@code double}s
+ * stored as raw bits in chunks of {@link AtomicLongArray}. A series costs its {@code 4 * (labels + 2)} bytes in the
+ * index and 8 bytes of value, {@code 4 * labels + 16} bytes in all, against roughly 200 bytes for a child of a
+ * simpleclient family. Every distinct label value adds roughly 100 bytes and its characters to the dictionary of its
+ * label, for a map node, a boxed code and the string itself, once however many series share it. Values are allocated {@value #CHUNK_SIZE} series, 32 KiB, at a time, and a counter chunk once
+ * updated concurrently adds a striped copy per stripe, up to 16 stripes of 32 KiB, or 512 KiB more per chunk.
+ * The family is a {@link ProtobufCollector}, so scrapes encode it straight from these arrays.
+ * Callers on a hot path should resolve {@link #series(String...)} once and update by id.
+ */
+public abstract class CompactFamily extends ProtobufCollector {
+  private static final int CHUNK_SHIFT = 12;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+  private final @NotNull String name;
+  private final @NotNull String help;
+  private final @NotNull Type type;
+  private final @NotNull String[] labelNames;
+  private final @NotNull LabelIndex index;
+  private volatile @NotNull Chunk[] chunks = new Chunk[0];
+
+  CompactFamily(@NotNull String name, @NotNull String help, @NotNull Type type, @NotNull String... labelNames) {
+    this.name = name;
+    this.help = help;
+    this.type = type;
+    this.labelNames = labelNames.clone();
+    index = new LabelIndex(labelNames.length);
+  }
+
+  /**
+   * Returns the id of the series with these label values, creating it if needed.
+   */
+  public final int series(@NotNull String... labelValues) {
+    if (labelValues.length != labelNames.length) {
+      throw new IllegalArgumentException("Incorrect number of labels: " + labelValues.length + " instead of " + labelNames.length);
+    }
+    for (String value : labelValues) {
+      if (value == null) {
+        throw new IllegalArgumentException("Label value cannot be null");
+      }
+    }
+    final int existing = index.find(labelValues);
+    if (existing >= 0) {
+      return existing;
+    }
+    synchronized (index) {
+      final int id = index.find(labelValues);
+      if (id >= 0) {
+        return id;
+      }
+      final int chunk = index.size() >>> CHUNK_SHIFT;
+      if (chunk == chunks.length) {
+        final Chunk[] grown = Arrays.copyOf(chunks, chunk + 1);
+        grown[chunk] = new Chunk(stripes());
+        chunks = grown;
+      }
+      return index.add(labelValues);
+    }
+  }
+
+  public final int size() {
+    return index.size();
+  }
+
+  public final double get(int series) {
+    return chunk(series).get(offset(series));
+  }
+
+  @Override
+  public final void collect(@NotNull MetricsSink sink) {
+    sink.beginFamily(name, help, type);
+    final int size = index.size();
+    for (int id = 0; id < size; id++) {
+      for (int i = 0; i < labelNames.length; i++) {
+        sink.label(labelNames[i], index.value(id, i));
+      }
+      sink.value(get(id));
+    }
+    sink.endFamily();
+  }
+
+  @Override
+  public final @NotNull List<MetricFamilySamples> describe() {
+    return Collections.singletonList(new MetricFamilySamples(name, type, help, Collections.emptyList()));
+  }
+
+  /**
+   * Number of cells a contended series is spread over, or zero if every update must hit the same cell.
+   */
+  abstract int stripes();
+
+  final @NotNull Chunk chunk(int series) {
+    if (series < 0 || series >= index.size()) {
+      throw new IllegalArgumentException("Unknown series: " + series);
+    }
+    return chunks[series >>> CHUNK_SHIFT];
+  }
+
+  static int offset(int series) {
+    return series & (CHUNK_SIZE - 1);
+  }
+
+  /**
+   * Values of {@value #CHUNK_SIZE} series. Updates go to the base cell until a compare-and-swap fails, after which
+   * the chunk adds striped cells and additions are spread over them by thread, like {@code DoubleAdder} does.
+   */
+  static final class Chunk {
+    private final @NotNull AtomicLongArray base = new AtomicLongArray(CHUNK_SIZE);
+    private final int stripes;
+    private volatile AtomicLongArray[] cells;
+
+    public Chunk(int stripes) {
+      this.stripes = stripes;
+    }
+
+    public void add(int offset, double delta) {
+      AtomicLongArray[] cells = this.cells;
+      if (cells == null) {
+        final long current = base.get(offset);
+        if (base.compareAndSet(offset, current, Double.doubleToRawLongBits(Double.longBitsToDouble(current) + delta))) {
+          return;
+        }
+        if (stripes == 0) {
+          add(base, offset, delta);
+          return;
+        }
+        cells = cells();
+      }
+      add(cells[(int) Thread.currentThread().getId() & (stripes - 1)], offset, delta);
+    }
+
+    public void set(int offset, double value) {
+      base.set(offset, Double.doubleToRawLongBits(value));
+    }
+
+    public double get(int offset) {
+      double value = Double.longBitsToDouble(base.get(offset));
+      final AtomicLongArray[] cells = this.cells;
+      if (cells != null) {
+        for (AtomicLongArray cell : cells) {
+          value += Double.longBitsToDouble(cell.get(offset));
+        }
+      }
+      return value;
+    }
+
+    private synchronized @NotNull AtomicLongArray[] cells() {
+      if (cells == null) {
+        final AtomicLongArray[] created = new AtomicLongArray[stripes];
+        for (int i = 0; i < stripes; i++) {
+          created[i] = new AtomicLongArray(CHUNK_SIZE);
+        }
+        cells = created;
+      }
+      return cells;
+    }
+
+    private static void add(@NotNull AtomicLongArray cells, int offset, double delta) {
+      while (true) {
+        final long current = cells.get(offset);
+        if (cells.compareAndSet(offset, current, Double.doubleToRawLongBits(Double.longBitsToDouble(current) + delta))) {
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Gauge {@link CompactFamily}. Every series is a single cell, so that {@link #set} is exact.
+ */
+public final class CompactGauge extends CompactFamily {
+
+  public CompactGauge(@NotNull String name, @NotNull String help, @NotNull String... labelNames) {
+    super(name, help, Type.GAUGE, labelNames);
+  }
+
+  public void inc(int series, double amount) {
+    chunk(series).add(offset(series), amount);
+  }
+
+  public void dec(int series, double amount) {
+    inc(series, -amount);
+  }
+
+  public void set(int series, double value) {
+    chunk(series).set(offset(series), value);
+  }
+
+  @Override
+  int stripes() {
+    return 0;
+  }
+}
@@ -0,0 +1,250 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.zip.Deflater;
+
+/**
+ * Decides per request whether a response is compressed and at which level. Clients refusing gzip, or preferring
+ * identity, get identity, and clients refusing identity get gzip whatever the cost. Otherwise payloads smaller than
+ * the minimal size, judged by the previous full scrape, are not worth compressing; above the maximal process CPU load
+ * compression is skipped to leave the CPU to the application, and above the fast load the fastest level is used.
+ * The load is sampled from the operating system bean at most once per interval.
+ * The policy exposes its decisions, the last level, load and payload size as metrics once registered.
+ */
+public final class CompressionPolicy extends Collector {
+  private static final @NotNull String GZIP = "gzip";
+  private static final @NotNull String IDENTITY = "identity";
+
+  private final long minSize;
+  private final double fastLoad;
+  private final double maxLoad;
+  private final int level;
+  private final long loadInterval;
+  private final @NotNull DoubleSupplier load;
+  private final @NotNull LongSupplier clock;
+  private final @NotNull LongAdder[] decisions = new LongAdder[Decision.values().length];
+  private volatile long payloadSize = -1;
+  private volatile double sampledLoad = Double.NaN;
+  private volatile long sampled = Long.MIN_VALUE;
+  private volatile int lastLevel = Deflater.NO_COMPRESSION;
+
+  private CompressionPolicy(@NotNull Builder builder) {
+    this(builder, CompressionPolicy::processCpuLoad, System::nanoTime);
+  }
+
+  CompressionPolicy(@NotNull Builder builder, @NotNull DoubleSupplier load, @NotNull LongSupplier clock) {
+    minSize = builder.minSize;
+    fastLoad = builder.fastLoad;
+    maxLoad = builder.maxLoad;
+    level = builder.level;
+    loadInterval = builder.loadInterval;
+    this.load = load;
+    this.clock = clock;
+    for (int i = 0; i < decisions.length; i++) {
+      decisions[i] = new LongAdder();
+    }
+  }
+
+  public static @NotNull Builder build() {
+    return new Builder();
+  }
+
+  /**
+   * Compresses every response to clients accepting gzip at the default level.
+   */
+  public static @NotNull CompressionPolicy always() {
+    return build().minSize(0).fastLoad(Double.POSITIVE_INFINITY).maxLoad(Double.POSITIVE_INFINITY).create();
+  }
+
+  /**
+   * Number of responses sent with the content coding for the reason.
+   */
+  public long decisions(@NotNull String encoding, @NotNull String reason) {
+    for (Decision decision : Decision.values()) {
+      if (decision.encoding.equals(encoding) && decision.reason.equals(reason)) {
+        return decisions[decision.ordinal()].sum();
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public @NotNull List<MetricFamilySamples> collect() {
+    final List<MetricFamilySamples.Sample> samples = new ArrayList<>();
+    final List<String> labelNames = Arrays.asList("encoding", "reason");
+    for (Decision decision : Decision.values()) {
+      samples.add(new MetricFamilySamples.Sample("protobuf_compression_decisions_total", labelNames,
+          Arrays.asList(decision.encoding, decision.reason), decisions[decision.ordinal()].sum()));
+    }
+    final List<MetricFamilySamples> families = new ArrayList<>();
+    families.add(new MetricFamilySamples("protobuf_compression_decisions_total", Type.COUNTER, "Responses by content coding and reason of the choice.", samples));
+    families.add(family("protobuf_compression_level", "Deflate level of the last response, 0 if it was not compressed and -1 for the default level.", lastLevel));
+    families.add(family("protobuf_compression_cpu_load", "Process CPU load last sampled by the compression policy.", sampledLoad));
+    families.add(family("protobuf_compression_payload_bytes", "Uncompressed size of the last full scrape.", payloadSize));
+    return families;
+  }
+
+  /**
+   * Deflate level of the response to a request with the {@code Accept-Encoding} header, or
+   * {@link Deflater#NO_COMPRESSION} to send it uncompressed.
+   */
+  int level(@Nullable String header) {
+    final Decision decision = decide(header);
+    decisions[decision.ordinal()].increment();
+    final int level = decision == Decision.FAST ? Deflater.BEST_SPEED : decision.encoding.equals(GZIP) ? this.level : Deflater.NO_COMPRESSION;
+    lastLevel = level;
+    return level;
+  }
+
+  /**
+   * Records the uncompressed size of a full scrape, which decides on the next ones.
+   */
+  void observed(long size) {
+    payloadSize = size;
+  }
+
+  private @NotNull Decision decide(@Nullable String header) {
+    if (header == null || !(ProtobufMetricsServlet.quality(header, GZIP) > 0)) {
+      return Decision.REFUSED;
+    }
+    final double identity = ProtobufMetricsServlet.quality(header, IDENTITY);
+    if (identity == 0) {
+      return Decision.REQUIRED;
+    }
+    if (identity > ProtobufMetricsServlet.quality(header, GZIP)) {
+      return Decision.REFUSED;
+    }
+    final long size = payloadSize;
+    if (size >= 0 && size < minSize) {
+      return Decision.SMALL;
+    }
+    if (fastLoad > 1 && maxLoad > 1) {
+      return Decision.DEFAULT;
+    }
+    final double load = load();
+    if (load > maxLoad) {
+      return Decision.LOADED;
+    }
+    return load > fastLoad ? Decision.FAST : Decision.DEFAULT;
+  }
+
+  /**
+   * Load between 0 and 1, sampled again once the interval elapsed, or NaN if it is not available.
+   */
+  private double load() {
+    final long now = clock.getAsLong();
+    if (sampled == Long.MIN_VALUE || now - sampled >= loadInterval) {
+      sampled = now;
+      final double load = this.load.getAsDouble();
+      sampledLoad = load < 0 ? Double.NaN : load;
+    }
+    return sampledLoad;
+  }
+
+  private static double processCpuLoad() {
+    final OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+    if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+      return ((com.sun.management.OperatingSystemMXBean) bean).getProcessCpuLoad();
+    }
+    return bean.getSystemLoadAverage() / bean.getAvailableProcessors();
+  }
+
+  private static @NotNull MetricFamilySamples family(@NotNull String name, @NotNull String help, double value) {
+    return new MetricFamilySamples(name, Type.GAUGE, help, Collections.singletonList(
+        new MetricFamilySamples.Sample(name, Collections.emptyList(), Collections.emptyList(), value)));
+  }
+
+  private enum Decision {
+    REFUSED(IDENTITY, "client"),
+    SMALL(IDENTITY, "size"),
+    LOADED(IDENTITY, "load"),
+    REQUIRED(GZIP, "client"),
+    FAST(GZIP, "load"),
+    DEFAULT(GZIP, "default");
+
+    private final @NotNull String encoding;
+    private final @NotNull String reason;
+
+    Decision(@NotNull String encoding, @NotNull String reason) {
+      this.encoding = encoding;
+      this.reason = reason;
+    }
+  }
+
+  public static final class Builder {
+    private long minSize = 32 * 1024;
+    private double fastLoad = 0.5;
+    private double maxLoad = 0.9;
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private long loadInterval = TimeUnit.SECONDS.toNanos(1);
+
+    private Builder() {
+    }
+
+    /**
+     * Size in bytes below which payloads are sent uncompressed.
+     */
+    public @NotNull Builder minSize(long minSize) {
+      if (minSize < 0) {
+        throw new IllegalArgumentException("Size must not be negative: " + minSize);
+      }
+      this.minSize = minSize;
+      return this;
+    }
+
+    /**
+     * Process CPU load, between 0 and 1, above which the fastest level is used.
+     */
+    public @NotNull Builder fastLoad(double fastLoad) {
+      if (!(fastLoad >= 0)) {
+        throw new IllegalArgumentException("Load must not be negative: " + fastLoad);
+      }
+      this.fastLoad = fastLoad;
+      return this;
+    }
+
+    /**
+     * Process CPU load, between 0 and 1, above which responses are sent uncompressed.
+     */
+    public @NotNull Builder maxLoad(double maxLoad) {
+      if (!(maxLoad >= 0)) {
+        throw new IllegalArgumentException("Load must not be negative: " + maxLoad);
+      }
+      this.maxLoad = maxLoad;
+      return this;
+    }
+
+    /**
+     * Deflate level below the fast load.
+     */
+    public @NotNull Builder level(int level) {
+      if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)) {
+        throw new IllegalArgumentException("Invalid compression level: " + level);
+      }
+      this.level = level;
+      return this;
+    }
+
+    public @NotNull Builder loadInterval(long interval, @NotNull TimeUnit unit) {
+      if (interval < 0) {
+        throw new IllegalArgumentException("Interval must not be negative: " + interval);
+      }
+      this.loadInterval = unit.toNanos(interval);
+      return this;
+    }
+
+    public @NotNull CompressionPolicy create() {
+      return new CompressionPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+final class CountingOutputStream extends OutputStream {
+  private final @NotNull OutputStream output;
+  private long count;
+
+  public CountingOutputStream(@NotNull OutputStream output) {
+    this.output = output;
+  }
+
+  public long count() {
+    return count;
+  }
+
+  @Override
+  public void write(int value) throws IOException {
+    output.write(value);
+    count++;
+  }
+
+  @Override
+  public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+    output.write(bytes, offset, length);
+    count += length;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    output.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    output.close();
+  }
+}
@@ -0,0 +1,225 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Quantile sketch with relative error guarantees, after DDSketch by Masson, Rim and Lee.
+ * A value is counted in the bucket {@code ceil(log(v) / log(gamma))} with {@code gamma = (1 + a) / (1 - a)}, so every
+ * quantile is estimated within the relative accuracy {@code a}. Sketches with the same accuracy merge by adding their
+ * buckets, which makes quantiles of several processes or windows exact to the same error.
+ * Each sign keeps at most {@code maxBuckets} contiguous {@code long} counters; when values span more, the lowest
+ * buckets are collapsed, which only affects the accuracy of the smallest magnitudes. Not thread-safe.
+ */
+public final class DDSketch {
+  private final double relativeAccuracy;
+  private final double gamma;
+  private final double logGamma;
+  private final double minIndexable;
+  private final int maxBuckets;
+  private final @NotNull Store positive;
+  private final @NotNull Store negative;
+  private long zeroCount;
+  private long count;
+  private double sum;
+
+  public DDSketch(double relativeAccuracy, int maxBuckets) {
+    if (!(relativeAccuracy > 0) || !(relativeAccuracy < 1)) {
+      throw new IllegalArgumentException("Relative accuracy must be between 0 and 1: " + relativeAccuracy);
+    }
+    if (maxBuckets < 2) {
+      throw new IllegalArgumentException("At least two buckets are required: " + maxBuckets);
+    }
+    this.relativeAccuracy = relativeAccuracy;
+    this.maxBuckets = maxBuckets;
+    gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    logGamma = Math.log(gamma);
+    minIndexable = Double.MIN_NORMAL * gamma;
+    positive = new Store(maxBuckets);
+    negative = new Store(maxBuckets);
+  }
+
+  public void add(double value) {
+    if (value != value) {
+      return;
+    }
+    if (value > minIndexable) {
+      positive.add(index(value), 1);
+    } else if (value < -minIndexable) {
+      negative.add(index(-value), 1);
+    } else {
+      zeroCount++;
+    }
+    count++;
+    sum += value;
+  }
+
+  /**
+   * Adds all values of another sketch with the same relative accuracy.
+   */
+  public void merge(@NotNull DDSketch other) {
+    if (other.gamma != gamma) {
+      throw new IllegalArgumentException("Cannot merge sketches of accuracy " + other.relativeAccuracy + " and " + relativeAccuracy);
+    }
+    positive.merge(other.positive);
+    negative.merge(other.negative);
+    zeroCount += other.zeroCount;
+    count += other.count;
+    sum += other.sum;
+  }
+
+  /**
+   * Returns the estimated quantile, or {@code NaN} for an empty sketch.
+   */
+  public double quantile(double quantile) {
+    if (quantile < 0 || quantile > 1) {
+      throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+    }
+    if (count == 0) {
+      return Double.NaN;
+    }
+    final double rank = quantile * (count - 1);
+    if (rank < negative.total) {
+      return -value(negative.indexOfRank(negative.total - 1 - rank));
+    }
+    if (rank < negative.total + zeroCount) {
+      return 0;
+    }
+    return value(positive.indexOfRank(rank - negative.total - zeroCount));
+  }
+
+  public long count() {
+    return count;
+  }
+
+  public double sum() {
+    return sum;
+  }
+
+  public double relativeAccuracy() {
+    return relativeAccuracy;
+  }
+
+  public void clear() {
+    positive.clear();
+    negative.clear();
+    zeroCount = 0;
+    count = 0;
+    sum = 0;
+  }
+
+  /**
+   * Number of counters currently allocated, at most {@code 2 * maxBuckets}.
+   */
+  public int buckets() {
+    return positive.counts.length + negative.counts.length;
+  }
+
+  @NotNull DDSketch copy() {
+    final DDSketch copy = new DDSketch(relativeAccuracy, maxBuckets);
+    copy.merge(this);
+    return copy;
+  }
+
+  private int index(double value) {
+    return (int) Math.ceil(Math.log(value) / logGamma);
+  }
+
+  private double value(int index) {
+    return 2 * Math.pow(gamma, index) / (gamma + 1);
+  }
+
+  /**
+   * Counters for a contiguous range of bucket indexes, starting at {@code offset}.
+   */
+  private static final class Store {
+    private static final @NotNull long[] EMPTY = new long[0];
+
+    private final int maxBuckets;
+    private @NotNull long[] counts = EMPTY;
+    private int offset;
+    private int minIndex;
+    private int maxIndex;
+    private long total;
+
+    public Store(int maxBuckets) {
+      this.maxBuckets = maxBuckets;
+    }
+
+    public void add(int index, long count) {
+      if (total == 0) {
+        minIndex = index;
+        maxIndex = index;
+        if (counts.length == 0) {
+          counts = new long[Math.min(64, maxBuckets)];
+        }
+        offset = index - counts.length / 2;
+      } else if (index < minIndex || index > maxIndex) {
+        range(Math.min(index, minIndex), Math.max(index, maxIndex));
+      }
+      counts[Math.max(index, minIndex) - offset] += count;
+      total += count;
+    }
+
+    public void merge(@NotNull Store other) {
+      if (other.total == 0) {
+        return;
+      }
+      if (total == 0) {
+        add(other.maxIndex, 0);
+      }
+      range(Math.min(minIndex, other.minIndex), Math.max(maxIndex, other.maxIndex));
+      for (int index = other.minIndex; index <= other.maxIndex; index++) {
+        final long count = other.counts[index - other.offset];
+        if (count != 0) {
+          counts[Math.max(index, minIndex) - offset] += count;
+        }
+      }
+      total += other.total;
+    }
+
+    public int indexOfRank(double rank) {
+      long seen = 0;
+      for (int index = minIndex; index <= maxIndex; index++) {
+        seen += counts[index - offset];
+        if (seen > rank) {
+          return index;
+        }
+      }
+      return maxIndex;
+    }
+
+    public void clear() {
+      Arrays.fill(counts, 0);
+      total = 0;
+    }
+
+    /**
+     * Makes {@code [min, max]} addressable, collapsing the lowest indexes if the range is wider than allowed.
+     */
+    private void range(int min, int max) {
+      if (max - min + 1 > maxBuckets) {
+        min = max - maxBuckets + 1;
+      }
+      if (min < offset || max >= offset + counts.length) {
+        final int span = max - min + 1;
+        final int length = Math.min(maxBuckets, Math.max(span, Integer.highestOneBit(span) << 1));
+        final int start = min - (length - span) / 2;
+        final long[] resized = new long[length];
+        for (int index = minIndex; index <= maxIndex; index++) {
+          resized[Math.max(index, min) - start] += counts[index - offset];
+        }
+        counts = resized;
+        offset = start;
+      } else {
+        for (int index = minIndex; index < min; index++) {
+          counts[min - offset] += counts[index - offset];
+          counts[index - offset] = 0;
+        }
+      }
+      minIndex = min;
+      maxIndex = max;
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.security.SecureRandom;
+import java.util.*;
+
+/**
+ * Baselines of the scrapers using delta exposition, which get only the series that changed since their previous
+ * scrape. Every scrape leaves a baseline of fingerprints, one per series, under a new random token; the scraper sends
+ * the token back with its next scrape, which consumes the baseline. A series is a sample of a counter, gauge or untyped
+ * family, or all the samples of a summary or histogram sharing their labels apart from the quantile or bucket bound.
+ * At most {@code capacity} baselines are kept, and the least recently created ones are evicted first. A scrape whose
+ * token is unknown or evicted gets every series.
+ */
+public final class DeltaStore {
+  static final @NotNull String REMOVED = "scrape_removed_series";
+  static final @NotNull String NAME_LABEL = "__name__";
+
+  private final int capacity;
+  private final @NotNull LinkedHashMap<String, Map<Series, Long>> baselines = new LinkedHashMap<>();
+  private final @NotNull SecureRandom random = new SecureRandom();
+
+  public DeltaStore(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  public synchronized int size() {
+    return baselines.size();
+  }
+
+  /**
+   * Keeps the series of the families which changed since the baseline of the token, and stores a new baseline.
+   */
+  @NotNull Delta delta(@Nullable String since, @NotNull List<Collector.MetricFamilySamples> families) {
+    final Map<Series, Long> base;
+    synchronized (this) {
+      base = since == null ? null : baselines.remove(since);
+    }
+    final Map<Series, Long> baseline = new HashMap<>();
+    final List<Collector.MetricFamilySamples> changed = new ArrayList<>();
+    for (Collector.MetricFamilySamples family : families) {
+      final Map<Series, List<Collector.MetricFamilySamples.Sample>> series = series(family);
+      final List<Collector.MetricFamilySamples.Sample> samples = new ArrayList<>();
+      series.forEach((key, values) -> {
+        final long fingerprint = fingerprint(values);
+        baseline.put(key, fingerprint);
+        final Long previous = base == null ? null : base.get(key);
+        if (previous == null || previous != fingerprint) {
+          samples.addAll(values);
+        }
+      });
+      if (base == null || !samples.isEmpty()) {
+        changed.add(new Collector.MetricFamilySamples(family.name, family.type, family.help, samples));
+      }
+    }
+    if (base != null) {
+      final List<Collector.MetricFamilySamples.Sample> removed = new ArrayList<>();
+      base.keySet().forEach(key -> {
+        if (!baseline.containsKey(key)) {
+          removed.add(key.removed());
+        }
+      });
+      if (!removed.isEmpty()) {
+        changed.add(new Collector.MetricFamilySamples(REMOVED, Collector.Type.UNTYPED, "Series removed since the baseline.", removed));
+      }
+    }
+    return new Delta(changed, store(baseline), base != null);
+  }
+
+  private synchronized @NotNull String store(@NotNull Map<Series, Long> baseline) {
+    String token;
+    do {
+      token = Long.toHexString(random.nextLong());
+    } while (baselines.containsKey(token));
+    baselines.put(token, baseline);
+    final Iterator<String> eldest = baselines.keySet().iterator();
+    while (baselines.size() > capacity) {
+      eldest.next();
+      eldest.remove();
+    }
+    return token;
+  }
+
+  private static @NotNull Map<Series, List<Collector.MetricFamilySamples.Sample>> series(@NotNull Collector.MetricFamilySamples family) {
+    final String particle = family.type == Collector.Type.SUMMARY ? "quantile" : family.type == Collector.Type.HISTOGRAM ? "le" : null;
+    final Map<Series, List<Collector.MetricFamilySamples.Sample>> series = new LinkedHashMap<>();
+    for (Collector.MetricFamilySamples.Sample sample : family.samples) {
+      final int index = particle == null ? -1 : sample.labelNames.indexOf(particle);
+      final Series key;
+      if (index == -1) {
+        key = new Series(family.name, particle == null ? sample.name : family.name, sample.labelNames, sample.labelValues);
+      } else {
+        final List<String> labelNames = new ArrayList<>(sample.labelNames);
+        labelNames.remove(index);
+        final List<String> labelValues = new ArrayList<>(sample.labelValues);
+        labelValues.remove(index);
+        key = new Series(family.name, family.name, labelNames, labelValues);
+      }
+      series.computeIfAbsent(key, ignored -> new ArrayList<>()).add(sample);
+    }
+    return series;
+  }
+
+  private static long fingerprint(@NotNull List<Collector.MetricFamilySamples.Sample> samples) {
+    long hash = samples.size();
+    for (Collector.MetricFamilySamples.Sample sample : samples) {
+      hash = mix(hash, sample.name.hashCode());
+      for (String value : sample.labelValues) {
+        hash = mix(hash, value.hashCode());
+      }
+      hash = mix(hash, Double.doubleToLongBits(sample.value));
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, long value) {
+    final long mixed = (hash ^ value) * 0x9E3779B97F4A7C15L;
+    return mixed ^ (mixed >>> 29);
+  }
+
+  static final class Delta {
+    final @NotNull List<Collector.MetricFamilySamples> families;
+    final @NotNull String token;
+    final boolean incremental;
+
+    private Delta(@NotNull List<Collector.MetricFamilySamples> families, @NotNull String token, boolean incremental) {
+      this.families = families;
+      this.token = token;
+      this.incremental = incremental;
+    }
+  }
+
+  /**
+   * Key of a series, which holds the label lists of the samples rather than an interned set, as interning takes a
+   * global lock for every sample of every scrape.
+   */
+  private static final class Series {
+    private final @NotNull String family;
+    private final @NotNull String name;
+    private final @NotNull List<String> labelNames;
+    private final @NotNull List<String> labelValues;
+
+    public Series(@NotNull String family, @NotNull String name, @NotNull List<String> labelNames, @NotNull List<String> labelValues) {
+      this.family = family;
+      this.name = name;
+      this.labelNames = labelNames;
+      this.labelValues = labelValues;
+    }
+
+    public @NotNull Collector.MetricFamilySamples.Sample removed() {
+      final List<String> names = new ArrayList<>(labelNames.size() + 1);
+      final List<String> values = new ArrayList<>(labelValues.size() + 1);
+      names.add(NAME_LABEL);
+      values.add(name);
+      names.addAll(labelNames);
+      values.addAll(labelValues);
+      return new Collector.MetricFamilySamples.Sample(REMOVED, names, values, 1);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Series)) {
+        return false;
+      }
+      final Series series = (Series) other;
+      return name.equals(series.name) && family.equals(series.family) && labelValues.equals(series.labelValues)
+          && labelNames.equals(series.labelNames);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * (31 * family.hashCode() + name.hashCode()) + labelNames.hashCode()) + labelValues.hashCode();
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Encoded families of previous scrapes, keyed by name, so families which did not change are copied instead of encoded
+ * again. A fingerprint mixing the cached hash codes of the sample names and labels with the value bits rules out most
+ * changed families in a pass without allocation; as string hash codes collide, a matching fingerprint is confirmed by
+ * comparing the samples with the ones the bytes were encoded from, which the entry keeps.
+ * Every entry is charged its bytes and an estimate of the memory its samples retain, and the least recently used
+ * families are dropped once the charged total exceeds the budget.
+ * Families written by a {@link ProtobufCollector} or as a {@link SampleBatch} are encoded directly and not cached.
+ * The cache exposes its hits, misses and size as metrics once registered.
+ */
+public final class EncodingCache extends Collector {
+  private final long budget;
+  private final @NotNull LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final @NotNull LongAdder hits = new LongAdder();
+  private final @NotNull LongAdder misses = new LongAdder();
+  private static final long FAMILY = 64;
+  private static final long SAMPLE = 96;
+  private static final long LABEL = 48;
+
+  private long size;
+
+  /**
+   * @param budget maximal number of bytes charged to the cache, see {@link #size()}
+   */
+  public EncodingCache(long budget) {
+    if (budget < 0) {
+      throw new IllegalArgumentException("Budget must not be negative: " + budget);
+    }
+    this.budget = budget;
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  public double hitRatio() {
+    final long hits = hits();
+    final long total = hits + misses();
+    return total == 0 ? Double.NaN : (double) hits / total;
+  }
+
+  /**
+   * Number of bytes charged to the cache: the encoded bytes and an estimate of the samples kept to confirm hits.
+   */
+  public synchronized long size() {
+    return size;
+  }
+
+  @Override
+  public @NotNull List<MetricFamilySamples> collect() {
+    final List<MetricFamilySamples> families = new ArrayList<>();
+    families.add(family("protobuf_encoding_cache_hits_total", Type.COUNTER, "Families copied from the encoding cache.", hits()));
+    families.add(family("protobuf_encoding_cache_misses_total", Type.COUNTER, "Families encoded because they were not cached or changed.", misses()));
+    families.add(family("protobuf_encoding_cache_bytes", Type.GAUGE, "Encoded bytes and estimated sample memory held by the cache.", size()));
+    return families;
+  }
+
+  @Nullable byte[] get(@NotNull MetricFamilySamples family, long fingerprint) {
+    final Entry entry;
+    synchronized (this) {
+      entry = entries.get(family.name);
+    }
+    if (entry == null || entry.fingerprint != fingerprint || !same(entry.family, family)) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.bytes;
+  }
+
+  synchronized void put(@NotNull MetricFamilySamples family, long fingerprint, @NotNull byte[] bytes) {
+    final Entry previous = entries.remove(family.name);
+    if (previous != null) {
+      size -= previous.cost;
+    }
+    final long cost = bytes.length + retained(family);
+    if (cost > budget) {
+      return;
+    }
+    entries.put(family.name, new Entry(family, fingerprint, bytes, cost));
+    size += cost;
+    final Iterator<Entry> eldest = entries.values().iterator();
+    while (size > budget) {
+      size -= eldest.next().cost;
+      eldest.remove();
+    }
+  }
+
+  static long fingerprint(@NotNull MetricFamilySamples family) {
+    long hash = mix(family.name.hashCode(), family.type.ordinal());
+    hash = mix(hash, family.help.hashCode());
+    for (MetricFamilySamples.Sample sample : family.samples) {
+      hash = mix(hash, sample.name.hashCode());
+      for (int i = 0; i < sample.labelNames.size(); i++) {
+        hash = mix(hash, sample.labelNames.get(i).hashCode());
+        hash = mix(hash, sample.labelValues.get(i).hashCode());
+      }
+      hash = mix(hash, sample.labelNames.size());
+      hash = mix(hash, Double.doubleToLongBits(sample.value));
+    }
+    return mix(hash, family.samples.size());
+  }
+
+  /**
+   * Estimated memory a kept family retains: its objects, the label lists of every sample and the characters of the
+   * label values. Names and help are usually shared with the collector and are not charged.
+   */
+  static long retained(@NotNull MetricFamilySamples family) {
+    long size = FAMILY;
+    for (MetricFamilySamples.Sample sample : family.samples) {
+      size += SAMPLE;
+      for (String value : sample.labelValues) {
+        size += LABEL + 2L * value.length();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Whether two families encode to the same bytes. Values are compared by their bits, as {@code -0.0} and {@code 0.0}
+   * are encoded differently and a NaN equals itself.
+   */
+  static boolean same(@NotNull MetricFamilySamples cached, @NotNull MetricFamilySamples family) {
+    if (cached == family) {
+      return true;
+    }
+    if (!cached.name.equals(family.name) || cached.type != family.type || !cached.help.equals(family.help)
+        || cached.samples.size() != family.samples.size()) {
+      return false;
+    }
+    for (int i = 0; i < family.samples.size(); i++) {
+      final MetricFamilySamples.Sample previous = cached.samples.get(i);
+      final MetricFamilySamples.Sample sample = family.samples.get(i);
+      if (Double.doubleToLongBits(previous.value) != Double.doubleToLongBits(sample.value) || !previous.name.equals(sample.name)
+          || !previous.labelNames.equals(sample.labelNames) || !previous.labelValues.equals(sample.labelValues)
+          || !Objects.equals(previous.timestampMs, sample.timestampMs)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long mix(long hash, long value) {
+    final long mixed = (hash ^ value) * 0x9E3779B97F4A7C15L;
+    return mixed ^ (mixed >>> 29);
+  }
+
+  private static @NotNull MetricFamilySamples family(@NotNull String name, @NotNull Type type, @NotNull String help, double value) {
+    return new MetricFamilySamples(name, type, help, Collections.singletonList(
+        new MetricFamilySamples.Sample(name, Collections.emptyList(), Collections.emptyList(), value)));
+  }
+
+  private static final class Entry {
+    private final @NotNull MetricFamilySamples family;
+    private final long fingerprint;
+    private final @NotNull byte[] bytes;
+    private final long cost;
+
+    public Entry(@NotNull MetricFamilySamples family, long fingerprint, @NotNull byte[] bytes, long cost) {
+      this.family = family;
+      this.fingerprint = fingerprint;
+      this.bytes = bytes;
+      this.cost = cost;
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Observed value with labels identifying where it came from, typically a trace id, and the time it was observed.
+ */
+public final class Exemplar {
+  private final double value;
+  private final long timestamp;
+  private final @NotNull LabelSet labels;
+
+  public Exemplar(double value, long timestamp, @NotNull LabelSet labels) {
+    this.value = value;
+    this.timestamp = timestamp;
+    this.labels = labels;
+  }
+
+  public double value() {
+    return value;
+  }
+
+  /**
+   * Milliseconds since the epoch.
+   */
+  public long timestamp() {
+    return timestamp;
+  }
+
+  public @NotNull LabelSet labels() {
+    return labels;
+  }
+}
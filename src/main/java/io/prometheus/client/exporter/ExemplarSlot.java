@@ -0,0 +1,56 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Holds the latest sampled {@link Exemplar} of a series. At most one observation per interval is sampled: the others
+ * cost a clock read and a volatile read, and their labels are never built. The slot is updated without locks, and a
+ * scrape reads whatever exemplar was set last.
+ */
+public final class ExemplarSlot {
+  private static final @NotNull AtomicLongFieldUpdater<ExemplarSlot> SAMPLED = AtomicLongFieldUpdater.newUpdater(ExemplarSlot.class, "sampled");
+
+  private final long interval;
+  private final @NotNull LongSupplier clock;
+  private volatile long sampled = Long.MIN_VALUE;
+  private volatile @Nullable Exemplar exemplar;
+
+  /**
+   * @param interval minimal time between two sampled observations, in milliseconds
+   */
+  public ExemplarSlot(long interval) {
+    this(interval, System::currentTimeMillis);
+  }
+
+  ExemplarSlot(long interval, @NotNull LongSupplier clock) {
+    if (interval < 0) {
+      throw new IllegalArgumentException("Interval must not be negative: " + interval);
+    }
+    this.interval = interval;
+    this.clock = clock;
+  }
+
+  /**
+   * Samples the observation unless another one was sampled within the interval.
+   *
+   * @return whether the observation became the exemplar
+   */
+  public boolean offer(double value, @NotNull Supplier<LabelSet> labels) {
+    final long now = clock.getAsLong();
+    final long last = sampled;
+    if (last != Long.MIN_VALUE && now - last < interval || !SAMPLED.compareAndSet(this, last, now)) {
+      return false;
+    }
+    exemplar = new Exemplar(value, now, labels.get());
+    return true;
+  }
+
+  public @Nullable Exemplar get() {
+    return exemplar;
+  }
+}
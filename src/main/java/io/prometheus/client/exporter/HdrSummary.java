@@ -0,0 +1,262 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Summary recording observations into log-linear buckets, as HdrHistogram does, instead of the CKMS stream used by
+ * simpleclient. An observation is a few atomic increments with no allocation or lock.
+ * Every child records into one of two fixed arrays and a scrape swaps them once the interval has passed, so quantiles
+ * describe the last complete interval while count and sum are cumulative. The relative error of a quantile is below
+ * {@code 10^-digits}, and a child takes {@code 2 * 8 * buckets} bytes, where {@code buckets} is
+ * {@code 2^ceil(digits * log2(10))} for each power of two between the lowest and the highest trackable value.
+ */
+public final class HdrSummary extends ProtobufCollector {
+  private final @NotNull String name;
+  private final @NotNull String help;
+  private final @NotNull String[] labelNames;
+  private final @NotNull double[] quantiles;
+  private final @NotNull Buckets buckets;
+  private final long interval;
+  private final @NotNull LongSupplier clock;
+  private final @NotNull Map<List<String>, Child> children = new ConcurrentHashMap<>();
+
+  private HdrSummary(@NotNull Builder builder) {
+    name = builder.name;
+    help = builder.help;
+    labelNames = builder.labelNames;
+    quantiles = builder.quantiles.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+    buckets = new Buckets(builder.digits, builder.lowest, builder.highest);
+    interval = builder.interval;
+    clock = builder.clock;
+  }
+
+  public static @NotNull Builder build(@NotNull String name, @NotNull String help) {
+    return new Builder(name, help);
+  }
+
+  public @NotNull Child labels(@NotNull String... labelValues) {
+    if (labelValues.length != labelNames.length) {
+      throw new IllegalArgumentException("Incorrect number of labels: " + labelValues.length + " instead of " + labelNames.length);
+    }
+    final List<String> key = Arrays.asList(labelValues);
+    final Child existing = children.get(key);
+    return existing != null ? existing : children.computeIfAbsent(new ArrayList<>(key), values -> new Child(LabelSet.of(labelNames, labelValues)));
+  }
+
+  public void observe(double value) {
+    labels().observe(value);
+  }
+
+  @Override
+  public void collect(@NotNull MetricsSink sink) {
+    sink.beginFamily(name, help, Type.SUMMARY);
+    final long now = clock.getAsLong();
+    for (Child child : children.values()) {
+      child.rotate(now);
+      sink.labels(child.labels);
+      for (double quantile : quantiles) {
+        sink.quantile(quantile, child.quantile(quantile));
+      }
+      sink.summary(child.count(), child.sum());
+    }
+    sink.endFamily();
+  }
+
+  @Override
+  public @NotNull List<MetricFamilySamples> describe() {
+    return Collections.singletonList(new MetricFamilySamples(name, Type.SUMMARY, help, Collections.emptyList()));
+  }
+
+  public final class Child {
+    private final @NotNull LabelSet labels;
+    private final @NotNull WriterReaderPhaser phaser = new WriterReaderPhaser();
+    private final @NotNull LongAdder count = new LongAdder();
+    private final @NotNull DoubleAdder sum = new DoubleAdder();
+    private volatile @NotNull AtomicLongArray active;
+    private @NotNull AtomicLongArray inactive;
+    private long rotated = Long.MIN_VALUE;
+    private long total;
+
+    private Child(@NotNull LabelSet labels) {
+      this.labels = labels;
+      active = new AtomicLongArray(buckets.size);
+      inactive = new AtomicLongArray(buckets.size);
+    }
+
+    public void observe(double value) {
+      if (value != value) {
+        return;
+      }
+      final long phase = phaser.enter();
+      try {
+        active.getAndIncrement(buckets.index(value));
+      } finally {
+        phaser.exit(phase);
+      }
+      count.increment();
+      sum.add(value);
+    }
+
+    public long count() {
+      return count.sum();
+    }
+
+    public double sum() {
+      return sum.sum();
+    }
+
+    /**
+     * Returns the quantile of the last complete interval, or {@code NaN} if it had no observations.
+     */
+    public synchronized double quantile(double quantile) {
+      if (total == 0) {
+        return Double.NaN;
+      }
+      final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+      long seen = 0;
+      for (int i = 0; i < inactive.length(); i++) {
+        seen += inactive.get(i);
+        if (seen >= rank) {
+          return buckets.value(i);
+        }
+      }
+      return buckets.value(inactive.length() - 1);
+    }
+
+    synchronized void rotate(long now) {
+      if (rotated != Long.MIN_VALUE && now - rotated < interval) {
+        return;
+      }
+      rotated = now;
+      final AtomicLongArray retired = active;
+      for (int i = 0; i < inactive.length(); i++) {
+        inactive.set(i, 0);
+      }
+      active = inactive;
+      phaser.flip();
+      inactive = retired;
+      total = 0;
+      for (int i = 0; i < retired.length(); i++) {
+        total += retired.get(i);
+      }
+    }
+  }
+
+  /**
+   * Maps a value to the bucket given by its binary exponent and the top bits of its mantissa.
+   */
+  static final class Buckets {
+    final int size;
+    private final int precision;
+    private final int minExponent;
+
+    Buckets(int digits, double lowest, double highest) {
+      if (digits < 1 || digits > 5) {
+        throw new IllegalArgumentException("Significant digits must be between 1 and 5: " + digits);
+      }
+      if (!(lowest > 0) || !(highest > lowest) || Double.isInfinite(highest)) {
+        throw new IllegalArgumentException("Invalid trackable range: " + lowest + " .. " + highest);
+      }
+      precision = (int) Math.ceil(digits * Math.log(10) / Math.log(2));
+      minExponent = Math.getExponent(lowest);
+      size = (Math.getExponent(highest) - minExponent + 1) << precision;
+    }
+
+    int index(double value) {
+      final long bits = Double.doubleToRawLongBits(value);
+      if (bits <= 0) {
+        return 0;
+      }
+      final int exponent = (int) (bits >>> 52) - Double.MAX_EXPONENT;
+      if (exponent < minExponent) {
+        return 0;
+      }
+      final long index = ((long) (exponent - minExponent) << precision) | ((bits >>> (52 - precision)) & ((1 << precision) - 1));
+      return (int) Math.min(index, size - 1);
+    }
+
+    /**
+     * The middle of the bucket, which is within the relative error of every value in it.
+     */
+    double value(int index) {
+      return (lower(index) + lower(index + 1)) / 2;
+    }
+
+    private double lower(int index) {
+      final long exponent = (index >>> precision) + minExponent + Double.MAX_EXPONENT;
+      return Double.longBitsToDouble(exponent << 52 | (long) (index & ((1 << precision) - 1)) << (52 - precision));
+    }
+  }
+
+  public static final class Builder {
+    private final @NotNull String name;
+    private final @NotNull String help;
+    private @NotNull String[] labelNames = new String[0];
+    private final @NotNull Set<Double> quantiles = new TreeSet<>();
+    private int digits = 2;
+    private double lowest = 1e-6;
+    private double highest = 1e4;
+    private long interval = TimeUnit.MINUTES.toNanos(1);
+    private @NotNull LongSupplier clock = System::nanoTime;
+
+    private Builder(@NotNull String name, @NotNull String help) {
+      this.name = name;
+      this.help = help;
+    }
+
+    public @NotNull Builder labelNames(@NotNull String... labelNames) {
+      this.labelNames = labelNames.clone();
+      return this;
+    }
+
+    public @NotNull Builder quantile(double quantile) {
+      if (quantile < 0 || quantile > 1) {
+        throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+      }
+      quantiles.add(quantile);
+      return this;
+    }
+
+    /**
+     * Number of significant decimal digits kept for every observation.
+     */
+    public @NotNull Builder significantDigits(int digits) {
+      this.digits = digits;
+      return this;
+    }
+
+    /**
+     * Values below the lowest one are counted in the first bucket, above the highest one in the last.
+     */
+    public @NotNull Builder range(double lowest, double highest) {
+      this.lowest = lowest;
+      this.highest = highest;
+      return this;
+    }
+
+    public @NotNull Builder interval(long interval, @NotNull TimeUnit unit) {
+      if (interval <= 0) {
+        throw new IllegalArgumentException("Interval must be positive: " + interval);
+      }
+      this.interval = unit.toNanos(interval);
+      return this;
+    }
+
+    @NotNull Builder clock(@NotNull LongSupplier clock) {
+      this.clock = clock;
+      return this;
+    }
+
+    public @NotNull HdrSummary create() {
+      return new HdrSummary(this);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Assigns dense ids to label value tuples, storing every tuple as codes of per-label dictionaries in one {@code int}
+ * array and finding it through an open-addressing table of ids. A series costs {@code 4 * (labels + 2)} bytes, its
+ * codes and two slots of the half-full table, and up to twice that right after the table grows, instead of a map entry
+ * with a boxed list of strings. Every distinct value is stored once in its dictionary.
+ * Lookups are lock-free: a tuple is written before its slot is published, and the table is replaced as a whole when
+ * it grows. Additions must be serialized by the caller.
+ */
+final class LabelIndex {
+  private static final int EMPTY = 0;
+
+  private final int width;
+  private final @NotNull Dictionary[] dictionaries;
+  private volatile @NotNull Table table;
+  private volatile int size;
+
+  LabelIndex(int width) {
+    this.width = width;
+    dictionaries = new Dictionary[width];
+    for (int i = 0; i < width; i++) {
+      dictionaries[i] = new Dictionary();
+    }
+    table = new Table(16, width);
+  }
+
+  int size() {
+    return size;
+  }
+
+  int find(@NotNull String... values) {
+    final Table table = this.table;
+    final int hash = hash(values);
+    for (int slot = hash & table.mask; ; slot = (slot + 1) & table.mask) {
+      final int id = table.slots.get(slot) - 1;
+      if (id < 0) {
+        return -1;
+      }
+      if (matches(table, id, values)) {
+        return id;
+      }
+    }
+  }
+
+  int add(@NotNull String... values) {
+    final int id = size;
+    Table table = this.table;
+    if ((id + 1) * 2 > table.slots.length()) {
+      table = grow(table);
+    }
+    for (int i = 0; i < width; i++) {
+      table.tuples[id * width + i] = dictionaries[i].code(values[i]);
+    }
+    insert(table, id, hash(values));
+    size = id + 1;
+    return id;
+  }
+
+  @NotNull String value(int id, int label) {
+    return dictionaries[label].value(table.tuples[id * width + label]);
+  }
+
+  private boolean matches(@NotNull Table table, int id, @NotNull String[] values) {
+    for (int i = 0; i < width; i++) {
+      if (!dictionaries[i].value(table.tuples[id * width + i]).equals(values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private @NotNull Table grow(@NotNull Table table) {
+    final Table grown = new Table(table.slots.length() * 2, width);
+    System.arraycopy(table.tuples, 0, grown.tuples, 0, size * width);
+    final String[] values = new String[width];
+    for (int id = 0; id < size; id++) {
+      for (int i = 0; i < width; i++) {
+        values[i] = dictionaries[i].value(grown.tuples[id * width + i]);
+      }
+      insert(grown, id, hash(values));
+    }
+    this.table = grown;
+    return grown;
+  }
+
+  private static void insert(@NotNull Table table, int id, int hash) {
+    int slot = hash & table.mask;
+    while (table.slots.get(slot) != EMPTY) {
+      slot = (slot + 1) & table.mask;
+    }
+    table.slots.set(slot, id + 1);
+  }
+
+  private static int hash(@NotNull String[] values) {
+    int hash = 1;
+    for (String value : values) {
+      hash = 31 * hash + value.hashCode();
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  private static final class Table {
+    private final @NotNull AtomicIntegerArray slots;
+    private final @NotNull int[] tuples;
+    private final int mask;
+
+    public Table(int capacity, int width) {
+      slots = new AtomicIntegerArray(capacity);
+      tuples = new int[capacity / 2 * width];
+      mask = capacity - 1;
+    }
+  }
+
+  private static final class Dictionary {
+    private final @NotNull Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile @NotNull String[] values = new String[16];
+    private int size;
+
+    public int code(@NotNull String value) {
+      final Integer existing = codes.get(value);
+      if (existing != null) {
+        return existing;
+      }
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      final String[] values = this.values;
+      values[size] = value;
+      this.values = values;
+      codes.put(value, size);
+      return size++;
+    }
+
+    public @NotNull String value(int code) {
+      return values[code];
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package io.prometheus.client.exporter;
+
+import com.google.protobuf.ByteString;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reusable pool that maps raw UTF-8 label bytes to canonical {@link String} instances,
+ * so repeated label names and values are decoded once and compared by reference afterwards.
+ * The pool is bounded: once {@code capacity} strings are held it starts over. Not thread-safe.
+ */
+public final class LabelInterner {
+  private static final int DEFAULT_CAPACITY = 1 << 16;
+
+  private final @NotNull Map<ByteString, String> strings = new HashMap<>();
+  private final int capacity;
+
+  public LabelInterner() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public LabelInterner(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  public @NotNull String intern(@NotNull ByteString bytes) {
+    final String existing = strings.get(bytes);
+    if (existing != null) {
+      return existing;
+    }
+    if (strings.size() >= capacity) {
+      strings.clear();
+    }
+    // the key may alias the parsed buffer, so keep a private copy of it
+    final String string = bytes.toStringUtf8();
+    strings.put(ByteString.copyFrom(bytes.asReadOnlyByteBuffer()), string);
+    return string;
+  }
+
+  public int size() {
+    return strings.size();
+  }
+
+  public void clear() {
+    strings.clear();
+  }
+}
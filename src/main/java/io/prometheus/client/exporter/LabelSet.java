@@ -0,0 +1,159 @@
+package io.prometheus.client.exporter;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import io.prometheus.client.Metrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * Immutable interned label names and values.
+ * Equal sets are the same instance, so a set is compared by reference and hashed by a precomputed value. The set also
+ * keeps its labels encoded as the {@code label} fields of a {@code Metric}, which the encoder copies as they are.
+ * Sets are interned weakly and should be created once and kept by the collectors that use them.
+ */
+public final class LabelSet {
+  private static final @NotNull Map<LabelSet, WeakReference<LabelSet>> INTERNED = new WeakHashMap<>();
+
+  public static final @NotNull LabelSet EMPTY = of(Collections.emptyList(), Collections.emptyList());
+
+  private final @NotNull String[] names;
+  private final @NotNull String[] values;
+  private final int hash;
+  private volatile byte[] encoded;
+
+  private LabelSet(@NotNull String[] names, @NotNull String[] values) {
+    this.names = names;
+    this.values = values;
+    hash = 31 * Arrays.hashCode(names) + Arrays.hashCode(values);
+  }
+
+  public static @NotNull LabelSet of(@NotNull List<String> names, @NotNull List<String> values) {
+    return of(names.toArray(new String[0]), values.toArray(new String[0]));
+  }
+
+  public static @NotNull LabelSet of(@NotNull String[] names, @NotNull String[] values) {
+    if (names.length != values.length) {
+      throw new IllegalArgumentException("Incorrect number of labels: " + values.length + " instead of " + names.length);
+    }
+    final String[] namesCopy = names.clone();
+    final String[] valuesCopy = values.clone();
+    for (int i = 0; i < namesCopy.length; i++) {
+      if (namesCopy[i] == null || valuesCopy[i] == null) {
+        throw new IllegalArgumentException("Label cannot be null");
+      }
+    }
+    return intern(new LabelSet(namesCopy, valuesCopy));
+  }
+
+  /**
+   * Returns the interned set with one more label appended, such as {@code le} or {@code quantile}.
+   */
+  public @NotNull LabelSet with(@NotNull String name, @NotNull String value) {
+    final String[] names = Arrays.copyOf(this.names, this.names.length + 1);
+    final String[] values = Arrays.copyOf(this.values, this.values.length + 1);
+    names[this.names.length] = name;
+    values[this.values.length] = value;
+    return intern(new LabelSet(names, values));
+  }
+
+  public int size() {
+    return names.length;
+  }
+
+  public @NotNull String name(int index) {
+    return names[index];
+  }
+
+  public @NotNull String value(int index) {
+    return values[index];
+  }
+
+  public @NotNull List<String> names() {
+    return Collections.unmodifiableList(Arrays.asList(names));
+  }
+
+  public @NotNull List<String> values() {
+    return Collections.unmodifiableList(Arrays.asList(values));
+  }
+
+  /**
+   * Repeated {@code Metric.label} fields of this set in the protobuf wire format.
+   */
+  @NotNull byte[] encoded() {
+    byte[] encoded = this.encoded;
+    if (encoded == null) {
+      encoded = encode();
+      this.encoded = encoded;
+    }
+    return encoded;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof LabelSet)) {
+      return false;
+    }
+    final LabelSet set = (LabelSet) other;
+    return hash == set.hash && Arrays.equals(names, set.names) && Arrays.equals(values, set.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public @NotNull String toString() {
+    final StringJoiner joiner = new StringJoiner(",", "{", "}");
+    for (int i = 0; i < names.length; i++) {
+      joiner.add(names[i] + "=\"" + values[i] + "\"");
+    }
+    return joiner.toString();
+  }
+
+  private @NotNull byte[] encode() {
+    int size = 0;
+    for (int i = 0; i < names.length; i++) {
+      size += CodedOutputStream.computeTagSize(Metrics.Metric.LABEL_FIELD_NUMBER) + CodedOutputStream.computeUInt32SizeNoTag(pairSize(i)) + pairSize(i);
+    }
+    final byte[] bytes = new byte[size];
+    final CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+    try {
+      for (int i = 0; i < names.length; i++) {
+        output.writeTag(Metrics.Metric.LABEL_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(pairSize(i));
+        output.writeString(Metrics.LabelPair.NAME_FIELD_NUMBER, names[i]);
+        output.writeString(Metrics.LabelPair.VALUE_FIELD_NUMBER, values[i]);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    output.checkNoSpaceLeft();
+    return bytes;
+  }
+
+  private int pairSize(int index) {
+    return CodedOutputStream.computeStringSize(Metrics.LabelPair.NAME_FIELD_NUMBER, names[index])
+        + CodedOutputStream.computeStringSize(Metrics.LabelPair.VALUE_FIELD_NUMBER, values[index]);
+  }
+
+  private static @NotNull LabelSet intern(@NotNull LabelSet set) {
+    synchronized (INTERNED) {
+      final WeakReference<LabelSet> reference = INTERNED.get(set);
+      final LabelSet existing = reference == null ? null : reference.get();
+      if (existing != null) {
+        return existing;
+      }
+      INTERNED.put(set, new WeakReference<>(set));
+      return set;
+    }
+  }
+}
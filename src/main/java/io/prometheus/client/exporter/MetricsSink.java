@@ -0,0 +1,71 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives metric families series by series, without intermediate {@link Collector.MetricFamilySamples}.
+ * A series is a sequence of {@link #label} calls completed by {@link #value} for counters, gauges and untyped metrics,
+ * by {@link #quantile} calls and {@link #summary} for summaries, or by {@link #bucket} calls and {@link #histogram}
+ * for histograms. Buckets are cumulative and given in increasing order of their upper bounds.
+ * The labels of a series may be given as one interned {@link LabelSet}, followed by any single labels.
+ * A native histogram also gives its {@link #schema}, {@link #span} and {@link #delta} calls before {@link #histogram};
+ * sinks without native histogram support ignore them.
+ * Exemplars and created timestamps are optional as well, and are given before the call completing the series.
+ */
+public interface MetricsSink {
+
+  void beginFamily(@NotNull String name, @NotNull String help, @NotNull Collector.Type type);
+
+  void label(@NotNull String name, @NotNull String value);
+
+  default void labels(@NotNull LabelSet labels) {
+    for (int i = 0; i < labels.size(); i++) {
+      label(labels.name(i), labels.value(i));
+    }
+  }
+
+  void value(double value);
+
+  /**
+   * Attaches an exemplar to the following counter value or bucket. Exemplars of a histogram which are not followed by
+   * a bucket belong to the native histogram as a whole.
+   */
+  default void exemplar(@NotNull Exemplar exemplar) {
+  }
+
+  /**
+   * Time the current counter, summary or histogram series was created, in milliseconds since the epoch.
+   */
+  default void created(long timestamp) {
+  }
+
+  void quantile(double quantile, double value);
+
+  void summary(long count, double sum);
+
+  void bucket(double upperBound, long cumulativeCount);
+
+  /**
+   * Starts the native buckets of the current histogram series.
+   */
+  default void schema(int schema, double zeroThreshold, long zeroCount) {
+  }
+
+  /**
+   * Adds {@code length} consecutive native buckets, starting {@code offset} buckets after the end of the previous span
+   * of the same sign, or at bucket index {@code offset} for the first one.
+   */
+  default void span(boolean positive, int offset, int length) {
+  }
+
+  /**
+   * Adds the count of the next native bucket as a difference to the previous bucket of the same sign.
+   */
+  default void delta(boolean positive, long delta) {
+  }
+
+  void histogram(long count, double sum);
+
+  void endFamily();
+}
@@ -0,0 +1,191 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Merges the {@link MultiprocessStore} files of all processes in a directory at scrape time.
+ * Counters and histograms are summed, gauges follow the {@link MultiprocessStore.Aggregation} they were created with.
+ * A process is live while it holds the lock on its file.
+ */
+public final class MultiprocessCollector extends Collector {
+  private static final @NotNull String PID_LABEL = "pid";
+
+  private final @NotNull Path directory;
+
+  public MultiprocessCollector(@NotNull Path directory) {
+    this.directory = directory;
+  }
+
+  @Override
+  public @NotNull List<MetricFamilySamples> collect() {
+    final Map<String, Family> families = new TreeMap<>();
+    try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + MultiprocessStore.SUFFIX)) {
+      for (Path file : files) {
+        final String name = file.getFileName().toString();
+        final String process = name.substring(0, name.length() - MultiprocessStore.SUFFIX.length());
+        final MappedByteBuffer own = MultiprocessStore.mapping(file);
+        if (own != null) {
+          read(own, process, true, families);
+        } else {
+          final boolean alive = alive(file);
+          final MappedByteBuffer buffer = map(file);
+          if (buffer != null) {
+            read(buffer, process, alive, families);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    final List<MetricFamilySamples> result = new ArrayList<>(families.size());
+    families.values().forEach(family -> result.add(family.samples()));
+    return result;
+  }
+
+  private static @Nullable MappedByteBuffer map(@NotNull Path file) throws IOException {
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return channel.size() < MultiprocessStore.HEADER ? null : channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  private static void read(@NotNull MappedByteBuffer buffer, @NotNull String process, boolean alive, @NotNull Map<String, Family> families) throws IOException {
+    buffer.order(ByteOrder.nativeOrder());
+    if (buffer.limit() < MultiprocessStore.HEADER || buffer.getInt(0) != MultiprocessStore.MAGIC) {
+      return;
+    }
+    final int chunk = buffer.getInt(MultiprocessStore.CHUNK_SIZE_OFFSET);
+    if (chunk <= 0) {
+      return;
+    }
+    final long used = Math.min(buffer.getLong(MultiprocessStore.USED_OFFSET), buffer.limit());
+    int offset = MultiprocessStore.HEADER;
+    while (offset + 4 <= used) {
+      final int length = buffer.getInt(offset);
+      if (length == MultiprocessStore.PADDING) {
+        offset = (offset / chunk + 1) * chunk;
+        continue;
+      }
+      // the file may have grown past the mapping since its size was read, the entry crossing the end is skipped
+      if (length < 0 || offset + 4L + length > used) {
+        return;
+      }
+      final int value = offset + MultiprocessStore.align(4 + length);
+      if (value + 8L > used) {
+        return;
+      }
+      final byte[] key = new byte[length];
+      for (int i = 0; i < length; i++) {
+        key[i] = buffer.get(offset + 4 + i);
+      }
+      merge(MultiprocessStore.Key.decode(key), buffer.getDouble(value), process, alive, families);
+      offset = value + 8;
+    }
+  }
+
+  private static void merge(@NotNull MultiprocessStore.Key key, double value, @NotNull String process, boolean alive, @NotNull Map<String, Family> families) {
+    final MultiprocessStore.Aggregation aggregation = key.type == Type.GAUGE ? key.aggregation : MultiprocessStore.Aggregation.SUM;
+    if (!alive && (aggregation == MultiprocessStore.Aggregation.LIVE_ALL || aggregation == MultiprocessStore.Aggregation.LIVE_SUM)) {
+      return;
+    }
+    List<String> labelNames = key.labelNames;
+    List<String> labelValues = key.labelValues;
+    if (aggregation == MultiprocessStore.Aggregation.ALL || aggregation == MultiprocessStore.Aggregation.LIVE_ALL) {
+      labelNames = new ArrayList<>(labelNames);
+      labelNames.add(PID_LABEL);
+      labelValues = new ArrayList<>(labelValues);
+      labelValues.add(process);
+    }
+    final Family family = families.computeIfAbsent(key.family, name -> new Family(name, key.help, key.type));
+    family.values.merge(Arrays.asList(key.sample, labelNames, labelValues), value, (current, next) -> {
+      switch (aggregation) {
+        case MAX:
+          return Math.max(current, next);
+        case MIN:
+          return Math.min(current, next);
+        default:
+          return current + next;
+      }
+    });
+  }
+
+  private static boolean alive(@NotNull Path file) {
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final FileLock lock = channel.tryLock(0, Long.MAX_VALUE, true);
+      if (lock == null) {
+        return true;
+      }
+      lock.release();
+      return false;
+    } catch (OverlappingFileLockException e) {
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private static double bound(@NotNull String value) {
+    return "+Inf".equals(value) ? Double.POSITIVE_INFINITY : Double.parseDouble(value);
+  }
+
+  private static final class Family {
+    private final @NotNull String name;
+    private final @NotNull String help;
+    private final @NotNull Type type;
+    private final @NotNull Map<List<Object>, Double> values = new LinkedHashMap<>();
+
+    public Family(@NotNull String name, @NotNull String help, @NotNull Type type) {
+      this.name = name;
+      this.help = help;
+      this.type = type;
+    }
+
+    @SuppressWarnings("unchecked")
+    public @NotNull MetricFamilySamples samples() {
+      final List<MetricFamilySamples.Sample> samples = new ArrayList<>();
+      final Map<List<String>, TreeMap<Double, Double>> buckets = new LinkedHashMap<>();
+      final Map<List<String>, List<String>> bucketNames = new HashMap<>();
+      values.forEach((key, value) -> {
+        final String sample = (String) key.get(0);
+        final List<String> labelNames = (List<String>) key.get(1);
+        final List<String> labelValues = (List<String>) key.get(2);
+        if (type == Type.HISTOGRAM && sample.endsWith("_bucket")) {
+          final List<String> series = labelValues.subList(0, labelValues.size() - 1);
+          bucketNames.put(series, labelNames.subList(0, labelNames.size() - 1));
+          buckets.computeIfAbsent(series, ignored -> new TreeMap<>())
+              .merge(bound(labelValues.get(labelValues.size() - 1)), value, Double::sum);
+        } else {
+          samples.add(new MetricFamilySamples.Sample(sample, labelNames, labelValues, value));
+        }
+      });
+      buckets.forEach((labelValues, counts) -> {
+        final List<String> labelNames = bucketNames.get(labelValues);
+        final List<String> names = new ArrayList<>(labelNames);
+        names.add("le");
+        double total = 0;
+        for (Map.Entry<Double, Double> bucket : counts.entrySet()) {
+          total += bucket.getValue();
+          final List<String> values = new ArrayList<>(labelValues);
+          values.add(doubleToGoString(bucket.getKey()));
+          samples.add(new MetricFamilySamples.Sample(name + "_bucket", names, values, total));
+        }
+        samples.add(new MetricFamilySamples.Sample(name + "_count", labelNames, labelValues, total));
+      });
+      return new MetricFamilySamples(name, type, help, samples);
+    }
+  }
+}
@@ -0,0 +1,437 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-process metric values kept in a memory-mapped file, so that forked workers can be scraped through one
+ * {@link MultiprocessCollector} reading the files of all processes in the directory.
+ * The file is a header ({@code magic, chunk size, committed bytes}) followed by 8-byte aligned entries
+ * ({@code key length, key, value}) that never cross a chunk boundary. Values are updated with atomic off-heap
+ * compare-and-swap, entries are appended under a lock and committed by publishing the new size.
+ * The process holds an exclusive lock on its file while the store is open, which is how liveness is detected.
+ * POSIX drops all locks of a process when any descriptor of the file is closed, so readers in the same JVM go
+ * through the open store instead of opening the file themselves.
+ */
+public final class MultiprocessStore implements Closeable {
+  static final @NotNull String SUFFIX = ".db";
+  static final int MAGIC = 0x4d504d53;
+  static final int HEADER = 16;
+  static final int CHUNK_SIZE_OFFSET = 4;
+  static final int USED_OFFSET = 8;
+  static final int PADDING = -1;
+
+  private static final int DEFAULT_CHUNK = 1 << 20;
+  private static final @NotNull Map<Path, MultiprocessStore> OPEN = new ConcurrentHashMap<>();
+
+  private final @NotNull Path file;
+  private final @NotNull FileChannel channel;
+  private final @NotNull FileLock lock;
+  private final int chunk;
+  private final @NotNull List<MappedByteBuffer> chunks = new ArrayList<>();
+  private final @NotNull Map<List<Object>, Slot> slots = new ConcurrentHashMap<>();
+  private long used = HEADER;
+
+  public MultiprocessStore(@NotNull Path directory) throws IOException {
+    this(directory, ManagementFactory.getRuntimeMXBean().getName().split("@", 2)[0]);
+  }
+
+  public MultiprocessStore(@NotNull Path directory, @NotNull String process) throws IOException {
+    this(directory, process, DEFAULT_CHUNK);
+  }
+
+  public MultiprocessStore(@NotNull Path directory, @NotNull String process, int chunk) throws IOException {
+    if (chunk < HEADER * 4 || chunk % 8 != 0) {
+      throw new IllegalArgumentException("Chunk size must be a multiple of 8 and at least " + HEADER * 4 + ": " + chunk);
+    }
+    this.chunk = chunk;
+    file = directory.resolve(process + SUFFIX).toAbsolutePath().normalize();
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      // a file left by a dead process is truncated only once locked, never under a live one which may have it mapped
+      lock = channel.lock();
+      channel.truncate(0);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    final MappedByteBuffer header = map();
+    header.putInt(0, MAGIC);
+    header.putInt(CHUNK_SIZE_OFFSET, chunk);
+    header.putLong(USED_OFFSET, used);
+    OPEN.put(file, this);
+  }
+
+  public @NotNull Counter counter(@NotNull String name, @NotNull String help, @NotNull String... labelNames) {
+    return new Counter(name, help, labelNames);
+  }
+
+  public @NotNull Gauge gauge(@NotNull String name, @NotNull String help, @NotNull Aggregation aggregation, @NotNull String... labelNames) {
+    return new Gauge(name, help, aggregation, labelNames);
+  }
+
+  public @NotNull Histogram histogram(@NotNull String name, @NotNull String help, @NotNull double[] buckets, @NotNull String... labelNames) {
+    return new Histogram(name, help, buckets, labelNames);
+  }
+
+  @Override
+  public void close() throws IOException {
+    OPEN.remove(file, this);
+    synchronized (chunks) {
+      for (MappedByteBuffer buffer : chunks) {
+        buffer.force();
+      }
+    }
+    lock.release();
+    channel.close();
+  }
+
+  /**
+   * Maps the file through the store that has it open in this JVM, or returns {@code null} if there is none.
+   */
+  static @Nullable MappedByteBuffer mapping(@NotNull Path file) {
+    final MultiprocessStore store = OPEN.get(file.toAbsolutePath().normalize());
+    if (store == null) {
+      return null;
+    }
+    try {
+      return store.channel.map(FileChannel.MapMode.READ_ONLY, 0, store.channel.size());
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private @NotNull Slot slot(@NotNull Key key) {
+    final List<Object> id = key.id();
+    final Slot existing = slots.get(id);
+    return existing != null ? existing : slots.computeIfAbsent(id, ignored -> allocate(key));
+  }
+
+  private @NotNull Slot allocate(@NotNull Key key) {
+    final byte[] bytes = key.encode();
+    final int size = align(4 + bytes.length) + 8;
+    if (size > chunk - HEADER) {
+      throw new IllegalArgumentException("Metric key is too long: " + key.id());
+    }
+    synchronized (chunks) {
+      try {
+        int offset = (int) (used % chunk);
+        if (offset + size > chunk) {
+          chunks.get(chunks.size() - 1).putInt(offset, PADDING);
+          used += chunk - offset;
+          offset = 0;
+        }
+        final MappedByteBuffer buffer = (int) (used / chunk) < chunks.size() ? chunks.get((int) (used / chunk)) : map();
+        buffer.putInt(offset, bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+          buffer.put(offset + 4 + i, bytes[i]);
+        }
+        final int value = offset + align(4 + bytes.length);
+        buffer.putLong(value, Double.doubleToRawLongBits(0));
+        used += size;
+        publish(used);
+        return new Slot(buffer, value);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private void publish(long used) {
+    final MappedByteBuffer header = chunks.get(0);
+    if (UnsafeMemory.AVAILABLE) {
+      UnsafeMemory.putLongVolatile(UnsafeMemory.address(header) + USED_OFFSET, used);
+    } else {
+      header.putLong(USED_OFFSET, used);
+    }
+  }
+
+  private @NotNull MappedByteBuffer map() throws IOException {
+    final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, (long) chunks.size() * chunk, chunk);
+    buffer.order(ByteOrder.nativeOrder());
+    chunks.add(buffer);
+    return buffer;
+  }
+
+  static int align(int offset) {
+    return (offset + 7) & -8;
+  }
+
+  public enum Aggregation {
+    /**
+     * Every process as a separate series labelled with {@code pid}.
+     */
+    ALL,
+    LIVE_ALL,
+    SUM,
+    LIVE_SUM,
+    MAX,
+    MIN
+  }
+
+  static final class Key {
+    final @NotNull String family;
+    final @NotNull String help;
+    final @NotNull Collector.Type type;
+    final @NotNull Aggregation aggregation;
+    final @NotNull String sample;
+    final @NotNull List<String> labelNames;
+    final @NotNull List<String> labelValues;
+
+    Key(@NotNull String family, @NotNull String help, @NotNull Collector.Type type, @NotNull Aggregation aggregation,
+        @NotNull String sample, @NotNull List<String> labelNames, @NotNull List<String> labelValues) {
+      this.family = family;
+      this.help = help;
+      this.type = type;
+      this.aggregation = aggregation;
+      this.sample = sample;
+      this.labelNames = labelNames;
+      this.labelValues = labelValues;
+    }
+
+    @NotNull List<Object> id() {
+      return Arrays.asList(sample, labelNames, labelValues);
+    }
+
+    @NotNull byte[] encode() {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (final DataOutputStream output = new DataOutputStream(bytes)) {
+        output.writeUTF(family);
+        output.writeUTF(help);
+        output.writeByte(type.ordinal());
+        output.writeByte(aggregation.ordinal());
+        output.writeUTF(sample);
+        output.writeShort(labelNames.size());
+        for (int i = 0; i < labelNames.size(); i++) {
+          output.writeUTF(labelNames.get(i));
+          output.writeUTF(labelValues.get(i));
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return bytes.toByteArray();
+    }
+
+    static @NotNull Key decode(@NotNull byte[] bytes) throws IOException {
+      final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+      final String family = input.readUTF();
+      final String help = input.readUTF();
+      final Collector.Type type = Collector.Type.values()[input.readByte()];
+      final Aggregation aggregation = Aggregation.values()[input.readByte()];
+      final String sample = input.readUTF();
+      final int count = input.readShort();
+      final List<String> names = new ArrayList<>(count);
+      final List<String> values = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        names.add(input.readUTF());
+        values.add(input.readUTF());
+      }
+      return new Key(family, help, type, aggregation, sample, names, values);
+    }
+  }
+
+  private static final class Slot {
+    private final @NotNull MappedByteBuffer buffer;
+    private final int offset;
+    private final long address;
+
+    public Slot(@NotNull MappedByteBuffer buffer, int offset) {
+      this.buffer = buffer;
+      this.offset = offset;
+      this.address = UnsafeMemory.AVAILABLE ? UnsafeMemory.address(buffer) + offset : 0;
+    }
+
+    public void add(double delta) {
+      if (UnsafeMemory.AVAILABLE) {
+        UnsafeMemory.addDouble(address, delta);
+        return;
+      }
+      synchronized (buffer) {
+        buffer.putDouble(offset, buffer.getDouble(offset) + delta);
+      }
+    }
+
+    public void set(double value) {
+      if (UnsafeMemory.AVAILABLE) {
+        UnsafeMemory.putLongVolatile(address, Double.doubleToRawLongBits(value));
+        return;
+      }
+      synchronized (buffer) {
+        buffer.putDouble(offset, value);
+      }
+    }
+
+    public double get() {
+      if (UnsafeMemory.AVAILABLE) {
+        return Double.longBitsToDouble(UnsafeMemory.getLongVolatile(address));
+      }
+      synchronized (buffer) {
+        return buffer.getDouble(offset);
+      }
+    }
+  }
+
+  abstract class Family<C> {
+    protected final @NotNull String name;
+    protected final @NotNull String help;
+    private final @NotNull List<String> labelNames;
+    private final @NotNull Map<List<String>, C> children = new ConcurrentHashMap<>();
+
+    protected Family(@NotNull String name, @NotNull String help, @NotNull String... labelNames) {
+      this.name = name;
+      this.help = help;
+      this.labelNames = Collections.unmodifiableList(Arrays.asList(labelNames.clone()));
+    }
+
+    public @NotNull C labels(@NotNull String... labelValues) {
+      if (labelValues.length != labelNames.size()) {
+        throw new IllegalArgumentException("Incorrect number of labels: " + labelValues.length + " instead of " + labelNames.size());
+      }
+      final List<String> key = Arrays.asList(labelValues);
+      final C existing = children.get(key);
+      return existing != null ? existing : children.computeIfAbsent(Collections.unmodifiableList(new ArrayList<>(key)), this::child);
+    }
+
+    protected abstract @NotNull C child(@NotNull List<String> labelValues);
+
+    protected final @NotNull Slot slot(@NotNull Collector.Type type, @NotNull Aggregation aggregation, @NotNull String sample,
+                                       @NotNull List<String> labelNames, @NotNull List<String> labelValues) {
+      return MultiprocessStore.this.slot(new Key(name, help, type, aggregation, sample, labelNames, labelValues));
+    }
+
+    protected final @NotNull List<String> labelNames() {
+      return labelNames;
+    }
+  }
+
+  public final class Counter extends Family<Counter.Child> {
+
+    private Counter(@NotNull String name, @NotNull String help, @NotNull String... labelNames) {
+      super(name, help, labelNames);
+    }
+
+    @Override
+    protected @NotNull Child child(@NotNull List<String> labelValues) {
+      return new Child(slot(Collector.Type.COUNTER, Aggregation.SUM, name, labelNames(), labelValues));
+    }
+
+    public final class Child {
+      private final @NotNull Slot slot;
+
+      private Child(@NotNull Slot slot) {
+        this.slot = slot;
+      }
+
+      public void inc() {
+        inc(1);
+      }
+
+      public void inc(double amount) {
+        if (amount < 0) {
+          throw new IllegalArgumentException("Amount to increment must be non-negative.");
+        }
+        slot.add(amount);
+      }
+
+      public double get() {
+        return slot.get();
+      }
+    }
+  }
+
+  public final class Gauge extends Family<Gauge.Child> {
+    private final @NotNull Aggregation aggregation;
+
+    private Gauge(@NotNull String name, @NotNull String help, @NotNull Aggregation aggregation, @NotNull String... labelNames) {
+      super(name, help, labelNames);
+      this.aggregation = aggregation;
+    }
+
+    @Override
+    protected @NotNull Child child(@NotNull List<String> labelValues) {
+      return new Child(slot(Collector.Type.GAUGE, aggregation, name, labelNames(), labelValues));
+    }
+
+    public final class Child {
+      private final @NotNull Slot slot;
+
+      private Child(@NotNull Slot slot) {
+        this.slot = slot;
+      }
+
+      public void inc(double amount) {
+        slot.add(amount);
+      }
+
+      public void dec(double amount) {
+        slot.add(-amount);
+      }
+
+      public void set(double value) {
+        slot.set(value);
+      }
+
+      public double get() {
+        return slot.get();
+      }
+    }
+  }
+
+  public final class Histogram extends Family<Histogram.Child> {
+    private final @NotNull double[] buckets;
+
+    private Histogram(@NotNull String name, @NotNull String help, @NotNull double[] buckets, @NotNull String... labelNames) {
+      super(name, help, labelNames);
+      final double[] sorted = buckets.clone();
+      Arrays.sort(sorted);
+      this.buckets = sorted.length > 0 && sorted[sorted.length - 1] == Double.POSITIVE_INFINITY
+          ? sorted
+          : Arrays.copyOf(sorted, sorted.length + 1);
+      this.buckets[this.buckets.length - 1] = Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    protected @NotNull Child child(@NotNull List<String> labelValues) {
+      final List<String> bucketNames = new ArrayList<>(labelNames());
+      bucketNames.add("le");
+      final Slot[] slots = new Slot[buckets.length];
+      for (int i = 0; i < buckets.length; i++) {
+        final List<String> bucketValues = new ArrayList<>(labelValues);
+        bucketValues.add(Collector.doubleToGoString(buckets[i]));
+        slots[i] = slot(Collector.Type.HISTOGRAM, Aggregation.SUM, name + "_bucket", bucketNames, bucketValues);
+      }
+      return new Child(slots, slot(Collector.Type.HISTOGRAM, Aggregation.SUM, name + "_sum", labelNames(), labelValues));
+    }
+
+    public final class Child {
+      private final @NotNull Slot[] buckets;
+      private final @NotNull Slot sum;
+
+      private Child(@NotNull Slot[] buckets, @NotNull Slot sum) {
+        this.buckets = buckets;
+        this.sum = sum;
+      }
+
+      public void observe(double value) {
+        int bucket = Arrays.binarySearch(Histogram.this.buckets, value);
+        if (bucket < 0) {
+          bucket = -bucket - 1;
+        }
+        buckets[Math.min(bucket, buckets.length - 1)].add(1);
+        sum.add(value);
+      }
+    }
+  }
+}
@@ -0,0 +1,327 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Histogram with exponential buckets, exposed as a Prometheus native histogram. Bucket {@code i} holds the values in
+ * {@code (base^(i-1), base^i]} with {@code base = 2^(2^-schema)}, so no bounds have to be configured, and only the
+ * populated buckets are sent as spans of consecutive indexes and count deltas.
+ * Values within the zero threshold are counted in the zero bucket. Once a child has more populated buckets than the
+ * limit, its schema is lowered, which merges every pair of neighbouring buckets.
+ * Consumers without native histogram support get the count, the sum and the {@code +Inf} bucket only.
+ * Every child keeps its creation time and an {@link ExemplarSlot} for {@link Child#observeWithExemplar}.
+ */
+public final class NativeHistogram extends ProtobufCollector {
+  private static final int MIN_SCHEMA = -4;
+  private static final int MAX_SCHEMA = 8;
+  /**
+   * Spans are split on gaps of more empty buckets than this, which cost less as zero deltas than as a new span.
+   */
+  private static final int MAX_GAP = 2;
+
+  private final @NotNull String name;
+  private final @NotNull String help;
+  private final @NotNull String[] labelNames;
+  private final int schema;
+  private final double zeroThreshold;
+  private final int maxBuckets;
+  private final long exemplarInterval;
+  private final @NotNull Map<List<String>, Child> children = new ConcurrentHashMap<>();
+
+  private NativeHistogram(@NotNull Builder builder) {
+    name = builder.name;
+    help = builder.help;
+    labelNames = builder.labelNames;
+    schema = builder.schema;
+    zeroThreshold = builder.zeroThreshold;
+    maxBuckets = builder.maxBuckets;
+    exemplarInterval = builder.exemplarInterval;
+  }
+
+  public static @NotNull Builder build(@NotNull String name, @NotNull String help) {
+    return new Builder(name, help);
+  }
+
+  public @NotNull Child labels(@NotNull String... labelValues) {
+    if (labelValues.length != labelNames.length) {
+      throw new IllegalArgumentException("Incorrect number of labels: " + labelValues.length + " instead of " + labelNames.length);
+    }
+    final List<String> key = Arrays.asList(labelValues);
+    final Child existing = children.get(key);
+    return existing != null ? existing : children.computeIfAbsent(new ArrayList<>(key), values -> new Child(LabelSet.of(labelNames, labelValues)));
+  }
+
+  public void observe(double value) {
+    labels().observe(value);
+  }
+
+  @Override
+  public void collect(@NotNull MetricsSink sink) {
+    sink.beginFamily(name, help, Type.HISTOGRAM);
+    for (Child child : children.values()) {
+      child.collect(sink);
+    }
+    sink.endFamily();
+  }
+
+  @Override
+  public @NotNull List<MetricFamilySamples> describe() {
+    return Collections.singletonList(new MetricFamilySamples(name, Type.HISTOGRAM, help, Collections.emptyList()));
+  }
+
+  /**
+   * Index of the bucket holding a positive value, at the given schema.
+   */
+  static int index(double value, int schema) {
+    if (value > Double.MAX_VALUE) {
+      value = Double.MAX_VALUE;
+    }
+    final double log = Math.log(value) / Math.log(2);
+    int index = (int) Math.ceil(Math.scalb(log, schema));
+    while (bound(index - 1, schema) >= value) {
+      index--;
+    }
+    while (bound(index, schema) < value) {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * Inclusive upper bound of a bucket.
+   */
+  static double bound(int index, int schema) {
+    return Math.pow(2, Math.scalb((double) index, -schema));
+  }
+
+  public final class Child {
+    private final @NotNull LabelSet labels;
+    private final @NotNull Counts positive = new Counts();
+    private final @NotNull Counts negative = new Counts();
+    private final @NotNull ExemplarSlot exemplar = new ExemplarSlot(exemplarInterval);
+    private final long created = System.currentTimeMillis();
+    private int schema = NativeHistogram.this.schema;
+    private long zeroCount;
+    private long count;
+    private double sum;
+
+    private Child(@NotNull LabelSet labels) {
+      this.labels = labels;
+    }
+
+    public synchronized void observe(double value) {
+      if (value != value) {
+        return;
+      }
+      if (Math.abs(value) <= zeroThreshold) {
+        zeroCount++;
+      } else if (value > 0) {
+        positive.increment(index(value, schema));
+      } else {
+        negative.increment(index(-value, schema));
+      }
+      count++;
+      sum += value;
+      while (maxBuckets > 0 && positive.populated + negative.populated > maxBuckets && schema > MIN_SCHEMA) {
+        positive.reduce();
+        negative.reduce();
+        schema--;
+      }
+    }
+
+    /**
+     * Observes the value and samples it as the exemplar of the child, building its labels only if it is sampled.
+     */
+    public void observeWithExemplar(double value, @NotNull Supplier<LabelSet> labels) {
+      observe(value);
+      if (value == value) {
+        exemplar.offer(value, labels);
+      }
+    }
+
+    public synchronized long count() {
+      return count;
+    }
+
+    public synchronized double sum() {
+      return sum;
+    }
+
+    public synchronized int schema() {
+      return schema;
+    }
+
+    public synchronized long zeroCount() {
+      return zeroCount;
+    }
+
+    synchronized void collect(@NotNull MetricsSink sink) {
+      sink.labels(labels);
+      sink.bucket(Double.POSITIVE_INFINITY, count);
+      sink.schema(schema, zeroThreshold, zeroCount);
+      negative.collect(sink, false);
+      positive.collect(sink, true);
+      final Exemplar sampled = exemplar.get();
+      if (sampled != null) {
+        sink.exemplar(sampled);
+      }
+      sink.created(created);
+      sink.histogram(count, sum);
+    }
+  }
+
+  /**
+   * Dense counts of the buckets of one sign, from the lowest populated index on.
+   */
+  private static final class Counts {
+    private @NotNull long[] counts = new long[0];
+    private int offset;
+    private int populated;
+
+    void increment(int index) {
+      if (counts.length == 0) {
+        counts = new long[8];
+        offset = index;
+      } else if (index < offset) {
+        final int shift = Math.max(offset - index, counts.length / 2);
+        final long[] grown = new long[counts.length + shift];
+        System.arraycopy(counts, 0, grown, shift, counts.length);
+        counts = grown;
+        offset -= shift;
+      } else if (index - offset >= counts.length) {
+        counts = Arrays.copyOf(counts, Math.max(index - offset + 1, counts.length * 2));
+      }
+      if (counts[index - offset]++ == 0) {
+        populated++;
+      }
+    }
+
+    /**
+     * Merges the buckets {@code 2j - 1} and {@code 2j} into bucket {@code j} of the next lower schema.
+     */
+    void reduce() {
+      if (counts.length == 0) {
+        return;
+      }
+      final int reduced = (offset + 1) >> 1;
+      final long[] merged = new long[((offset + counts.length) >> 1) - reduced + 1];
+      for (int i = 0; i < counts.length; i++) {
+        merged[((offset + i + 1) >> 1) - reduced] += counts[i];
+      }
+      counts = merged;
+      offset = reduced;
+      populated = 0;
+      for (long value : merged) {
+        if (value != 0) {
+          populated++;
+        }
+      }
+    }
+
+    void collect(@NotNull MetricsSink sink, boolean positive) {
+      int end = -1;
+      long previous = 0;
+      for (int i = 0; i < counts.length; i++) {
+        if (counts[i] == 0) {
+          continue;
+        }
+        final int start = i;
+        while (i + 1 < counts.length && (counts[i + 1] != 0 || gap(i + 1) <= MAX_GAP)) {
+          i++;
+        }
+        sink.span(positive, end < 0 ? offset + start : start - end - 1, i - start + 1);
+        long last = 0;
+        for (int j = start; j <= i; j++) {
+          sink.delta(positive, counts[j] - (j == start ? previous : last));
+          last = counts[j];
+        }
+        previous = last;
+        end = i;
+      }
+    }
+
+    /**
+     * Number of empty buckets from the index on up to the next populated one, or more than {@link #MAX_GAP} if
+     * there is none.
+     */
+    private int gap(int index) {
+      int gap = 0;
+      while (index + gap < counts.length && counts[index + gap] == 0) {
+        if (++gap > MAX_GAP) {
+          return gap;
+        }
+      }
+      return index + gap == counts.length ? MAX_GAP + 1 : gap;
+    }
+  }
+
+  public static final class Builder {
+    private final @NotNull String name;
+    private final @NotNull String help;
+    private @NotNull String[] labelNames = new String[0];
+    private int schema = 3;
+    private double zeroThreshold = 0x1p-128;
+    private int maxBuckets = 160;
+    private long exemplarInterval = TimeUnit.SECONDS.toMillis(1);
+
+    private Builder(@NotNull String name, @NotNull String help) {
+      this.name = name;
+      this.help = help;
+    }
+
+    public @NotNull Builder labelNames(@NotNull String... labelNames) {
+      this.labelNames = labelNames.clone();
+      return this;
+    }
+
+    /**
+     * Initial resolution, from -4 with a factor of 65536 between bucket bounds to 8 with a factor of about 1.0027.
+     */
+    public @NotNull Builder schema(int schema) {
+      if (schema < MIN_SCHEMA || schema > MAX_SCHEMA) {
+        throw new IllegalArgumentException("Schema must be between " + MIN_SCHEMA + " and " + MAX_SCHEMA + ": " + schema);
+      }
+      this.schema = schema;
+      return this;
+    }
+
+    public @NotNull Builder zeroThreshold(double zeroThreshold) {
+      if (!(zeroThreshold >= 0)) {
+        throw new IllegalArgumentException("Zero threshold must not be negative: " + zeroThreshold);
+      }
+      this.zeroThreshold = zeroThreshold;
+      return this;
+    }
+
+    /**
+     * Limit of populated buckets per child, or 0 for no limit.
+     */
+    public @NotNull Builder maxBuckets(int maxBuckets) {
+      if (maxBuckets < 0) {
+        throw new IllegalArgumentException("Bucket limit must not be negative: " + maxBuckets);
+      }
+      this.maxBuckets = maxBuckets;
+      return this;
+    }
+
+    /**
+     * Minimal time between two observations sampled as exemplars.
+     */
+    public @NotNull Builder exemplarInterval(long interval, @NotNull TimeUnit unit) {
+      if (interval < 0) {
+        throw new IllegalArgumentException("Interval must not be negative: " + interval);
+      }
+      this.exemplarInterval = unit.toMillis(interval);
+      return this;
+    }
+
+    public @NotNull NativeHistogram create() {
+      return new NativeHistogram(this);
+    }
+  }
+}
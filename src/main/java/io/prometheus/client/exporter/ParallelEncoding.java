@@ -0,0 +1,82 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lets {@link ProtobufFormatter} encode chunks of families concurrently once the previous payload it wrote reached the
+ * threshold, so small scrapes do not pay for the coordination. Every chunk is encoded into a pooled buffer on the
+ * fork/join pool, and the buffers are written out in the order of the families. One instance is meant to be shared
+ * by all the scrapes of an endpoint.
+ */
+public final class ParallelEncoding {
+  private final @NotNull ForkJoinPool pool;
+  private final long threshold;
+  private final @NotNull Queue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+  private final @NotNull AtomicInteger pooled = new AtomicInteger();
+  private volatile long size;
+
+  /**
+   * @param threshold payload size in bytes from which scrapes are encoded in parallel
+   */
+  public ParallelEncoding(long threshold) {
+    this(ForkJoinPool.commonPool(), threshold);
+  }
+
+  public ParallelEncoding(@NotNull ForkJoinPool pool, long threshold) {
+    if (threshold < 0) {
+      throw new IllegalArgumentException("Threshold must not be negative: " + threshold);
+    }
+    this.pool = pool;
+    this.threshold = threshold;
+  }
+
+  @NotNull ForkJoinPool pool() {
+    return pool;
+  }
+
+  /**
+   * Number of chunks a payload is split into, a few per worker so that uneven chunks even out.
+   */
+  int chunks() {
+    return pool.getParallelism() * 4;
+  }
+
+  boolean enabled() {
+    return size >= threshold;
+  }
+
+  void written(long size) {
+    this.size = size;
+  }
+
+  @NotNull Buffer acquire() {
+    final Buffer buffer = buffers.poll();
+    if (buffer == null) {
+      return new Buffer();
+    }
+    pooled.decrementAndGet();
+    return buffer;
+  }
+
+  void release(@NotNull Buffer buffer) {
+    buffer.reset();
+    if (pooled.incrementAndGet() <= chunks()) {
+      buffers.offer(buffer);
+    } else {
+      pooled.decrementAndGet();
+    }
+  }
+
+  static final class Buffer extends ByteArrayOutputStream {
+
+    public Buffer() {
+      super(64 * 1024);
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a single gzip stream whose blocks are compressed concurrently, as pigz does. The input is cut into blocks,
+ * and every block is deflated on its own on the fork/join pool, with the last 32 KiB of the previous block as the
+ * dictionary so the ratio stays close to a sequential stream. Every block but the last ends with a sync flush, which
+ * aligns it to a byte boundary, and the compressed blocks are written out in order. The checksum is computed on the
+ * writing thread, which is much faster than deflating. At most a few blocks per worker are in flight at a time.
+ */
+public final class ParallelGzipOutputStream extends OutputStream {
+  public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+  private static final int DICTIONARY_SIZE = 32 * 1024;
+  private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+  private final @NotNull OutputStream output;
+  private final @NotNull ForkJoinPool pool;
+  private final int level;
+  private final int blockSize;
+  private final int window;
+  private final @NotNull CRC32 crc = new CRC32();
+  private final @NotNull ArrayDeque<ForkJoinTask<byte[]>> pending = new ArrayDeque<>();
+  private @NotNull byte[] block;
+  private int length;
+  private @Nullable byte[] previous;
+  private int previousLength;
+  private long size;
+  private boolean closed;
+
+  public ParallelGzipOutputStream(@NotNull OutputStream output) throws IOException {
+    this(output, ForkJoinPool.commonPool(), Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE);
+  }
+
+  public ParallelGzipOutputStream(@NotNull OutputStream output, @NotNull ForkJoinPool pool, int level, int blockSize) throws IOException {
+    if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+      throw new IllegalArgumentException("Invalid compression level: " + level);
+    }
+    if (blockSize < DICTIONARY_SIZE) {
+      throw new IllegalArgumentException("Block size must be at least " + DICTIONARY_SIZE + ": " + blockSize);
+    }
+    this.output = output;
+    this.pool = pool;
+    this.level = level;
+    this.blockSize = blockSize;
+    window = pool.getParallelism() * 2;
+    block = new byte[blockSize];
+    output.write(HEADER);
+  }
+
+  @Override
+  public void write(int value) throws IOException {
+    if (length == blockSize) {
+      submit();
+    }
+    block[length++] = (byte) value;
+  }
+
+  @Override
+  public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+    while (length > 0) {
+      if (this.length == blockSize) {
+        submit();
+      }
+      final int count = Math.min(length, blockSize - this.length);
+      System.arraycopy(bytes, offset, block, this.length, count);
+      this.length += count;
+      offset += count;
+      length -= count;
+    }
+  }
+
+  /**
+   * Writes the blocks compressed so far without cutting the current one, which would cost ratio.
+   */
+  @Override
+  public void flush() throws IOException {
+    while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+      output.write(pending.pollFirst().join());
+    }
+    output.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      checksum();
+      final byte[] last = deflate(block, length, previous, previousLength, level, true);
+      while (!pending.isEmpty()) {
+        output.write(pending.pollFirst().join());
+      }
+      output.write(last);
+      final byte[] trailer = new byte[8];
+      integer(trailer, 0, crc.getValue());
+      integer(trailer, 4, size);
+      output.write(trailer);
+    } finally {
+      pending.forEach(task -> task.cancel(false));
+      output.close();
+    }
+  }
+
+  private void submit() throws IOException {
+    checksum();
+    final byte[] data = block;
+    final int count = length;
+    final byte[] dictionary = previous;
+    final int dictionaryLength = previousLength;
+    pending.addLast(pool.submit(() -> deflate(data, count, dictionary, dictionaryLength, level, false)));
+    previous = data;
+    previousLength = count;
+    block = new byte[blockSize];
+    length = 0;
+    while (pending.size() > window) {
+      output.write(pending.pollFirst().join());
+    }
+  }
+
+  private void checksum() {
+    crc.update(block, 0, length);
+    size += length;
+  }
+
+  private static @NotNull byte[] deflate(@NotNull byte[] data, int length, @Nullable byte[] dictionary, int dictionaryLength, int level, boolean last) {
+    final Deflater deflater = new Deflater(level, true);
+    try {
+      if (dictionary != null) {
+        final int size = Math.min(dictionaryLength, DICTIONARY_SIZE);
+        deflater.setDictionary(dictionary, dictionaryLength - size, size);
+      }
+      deflater.setInput(data, 0, length);
+      final ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+      final byte[] buffer = new byte[16 * 1024];
+      if (last) {
+        deflater.finish();
+        while (!deflater.finished()) {
+          compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+      } else {
+        int count;
+        do {
+          count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+          compressed.write(buffer, 0, count);
+        } while (count == buffer.length);
+      }
+      return compressed.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static void integer(@NotNull byte[] bytes, int offset, long value) {
+    for (int i = 0; i < 4; i++) {
+      bytes[offset + i] = (byte) (value >>> (8 * i));
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Collector that writes its series straight into a {@link MetricsSink}.
+ * {@link ProtobufFormatter} hands it the wire encoder, so no samples are built on the way. Any other consumer of the
+ * registry, or a scrape filtered by name, gets regular samples which are built on first access.
+ * The collector must {@link #describe()} every family it writes.
+ */
+public abstract class ProtobufCollector extends Collector implements Collector.Describable {
+
+  public abstract void collect(@NotNull MetricsSink sink);
+
+  @Override
+  public final @NotNull List<MetricFamilySamples> collect() {
+    final Batch batch = new Batch(this);
+    final List<MetricFamilySamples> families = new ArrayList<>();
+    for (MetricFamilySamples family : describe()) {
+      families.add(new Deferred(batch, family.name, family.type, family.help));
+    }
+    return families;
+  }
+
+  /**
+   * Families of one {@link #collect()} call, which are either encoded all at once or turned into samples.
+   */
+  static final class Batch {
+    private final @NotNull ProtobufCollector collector;
+    private @Nullable Map<String, List<MetricFamilySamples.Sample>> samples;
+
+    private Batch(@NotNull ProtobufCollector collector) {
+      this.collector = collector;
+    }
+
+    synchronized boolean materialized() {
+      return samples != null;
+    }
+
+    @NotNull ProtobufCollector collector() {
+      return collector;
+    }
+
+    void collect(@NotNull MetricsSink sink) {
+      collector.collect(sink);
+    }
+
+    synchronized @NotNull List<MetricFamilySamples.Sample> samples(@NotNull String family) {
+      if (samples == null) {
+        final SamplesSink sink = new SamplesSink();
+        collector.collect(sink);
+        samples = sink.families;
+      }
+      return samples.computeIfAbsent(family, name -> new ArrayList<>());
+    }
+  }
+
+  static final class Deferred extends MetricFamilySamples {
+    final @NotNull Batch batch;
+
+    private Deferred(@NotNull Batch batch, @NotNull String name, @NotNull Type type, @NotNull String help) {
+      super(name, type, help, new LazySamples(batch, name));
+      this.batch = batch;
+    }
+  }
+
+  private static final class LazySamples extends AbstractList<MetricFamilySamples.Sample> {
+    private final @NotNull Batch batch;
+    private final @NotNull String family;
+
+    public LazySamples(@NotNull Batch batch, @NotNull String family) {
+      this.batch = batch;
+      this.family = family;
+    }
+
+    @Override
+    public @NotNull MetricFamilySamples.Sample get(int index) {
+      return batch.samples(family).get(index);
+    }
+
+    @Override
+    public int size() {
+      return batch.samples(family).size();
+    }
+
+    @Override
+    public @NotNull MetricFamilySamples.Sample set(int index, @NotNull MetricFamilySamples.Sample sample) {
+      return batch.samples(family).set(index, sample);
+    }
+
+    @Override
+    public void add(int index, @NotNull MetricFamilySamples.Sample sample) {
+      batch.samples(family).add(index, sample);
+    }
+
+    @Override
+    public @NotNull MetricFamilySamples.Sample remove(int index) {
+      return batch.samples(family).remove(index);
+    }
+  }
+
+  private static final class SamplesSink implements MetricsSink {
+    private final @NotNull Map<String, List<MetricFamilySamples.Sample>> families = new HashMap<>();
+    private final @NotNull List<String> labelNames = new ArrayList<>();
+    private final @NotNull List<String> labelValues = new ArrayList<>();
+    private @Nullable String name;
+    private @Nullable List<MetricFamilySamples.Sample> samples;
+
+    @Override
+    public void beginFamily(@NotNull String name, @NotNull String help, @NotNull Type type) {
+      this.name = name;
+      samples = families.computeIfAbsent(name, ignored -> new ArrayList<>());
+    }
+
+    @Override
+    public void label(@NotNull String name, @NotNull String value) {
+      labelNames.add(name);
+      labelValues.add(value);
+    }
+
+    @Override
+    public void value(double value) {
+      add("", value);
+      series();
+    }
+
+    @Override
+    public void quantile(double quantile, double value) {
+      add("", "quantile", doubleToGoString(quantile), value);
+    }
+
+    @Override
+    public void summary(long count, double sum) {
+      add("_count", count);
+      add("_sum", sum);
+      series();
+    }
+
+    @Override
+    public void bucket(double upperBound, long cumulativeCount) {
+      add("_bucket", "le", doubleToGoString(upperBound), cumulativeCount);
+    }
+
+    @Override
+    public void histogram(long count, double sum) {
+      add("_count", count);
+      add("_sum", sum);
+      series();
+    }
+
+    @Override
+    public void endFamily() {
+      name = null;
+      samples = null;
+    }
+
+    private void add(@NotNull String suffix, double value) {
+      family().add(new MetricFamilySamples.Sample(name + suffix, new ArrayList<>(labelNames), new ArrayList<>(labelValues), value));
+    }
+
+    private void add(@NotNull String suffix, @NotNull String label, @NotNull String labelValue, double value) {
+      final List<String> names = new ArrayList<>(labelNames);
+      names.add(label);
+      final List<String> values = new ArrayList<>(labelValues);
+      values.add(labelValue);
+      family().add(new MetricFamilySamples.Sample(name + suffix, names, values, value));
+    }
+
+    private @NotNull List<MetricFamilySamples.Sample> family() {
+      if (samples == null) {
+        throw new IllegalStateException("Series outside of a family");
+      }
+      return samples;
+    }
+
+    private void series() {
+      labelNames.clear();
+      labelValues.clear();
+    }
+  }
+}
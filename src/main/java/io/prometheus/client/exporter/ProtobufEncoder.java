@@ -0,0 +1,479 @@
+package io.prometheus.client.exporter;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.WireFormat;
+import io.prometheus.client.Collector;
+import io.prometheus.client.Metrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * {@link MetricsSink} writing delimited {@code MetricFamily} messages directly in the wire format.
+ * Label sets are copied from their cached encoding. Labels, quantiles and buckets of the current series are kept in
+ * reused arrays, so the size of every message is known before it is written and nothing is allocated per series.
+ * Native histogram spans and deltas, exemplars and created timestamps are kept the same way. The metrics of a family
+ * are buffered until its end.
+ */
+final class ProtobufEncoder implements MetricsSink {
+  private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+  private final @NotNull CodedOutputStream output;
+  private final @NotNull Buffer buffer = new Buffer();
+  private final @NotNull CodedOutputStream metrics = CodedOutputStream.newInstance(buffer);
+
+  private @Nullable String name;
+  private @Nullable String help;
+  private int type;
+
+  private @NotNull LabelSet labelSet = LabelSet.EMPTY;
+  private @NotNull String[] labels = new String[16];
+  private int labelCount;
+  private @NotNull double[] keys = new double[16];
+  private @NotNull double[] values = new double[16];
+  private @NotNull long[] counts = new long[16];
+  private @NotNull Exemplar[] bucketExemplars = new Exemplar[16];
+  private int pointCount;
+  private @NotNull Exemplar[] exemplars = new Exemplar[4];
+  private int exemplarCount;
+  private int exemplarMark;
+  private long createdTimestamp = NO_TIMESTAMP;
+  private boolean sparse;
+  private int schema;
+  private double zeroThreshold;
+  private long zeroCount;
+  private final @NotNull NativeBuckets negative = new NativeBuckets();
+  private final @NotNull NativeBuckets positive = new NativeBuckets();
+
+  ProtobufEncoder(@NotNull OutputStream stream) {
+    output = CodedOutputStream.newInstance(stream);
+  }
+
+  @Override
+  public void beginFamily(@NotNull String name, @NotNull String help, @NotNull Collector.Type type) {
+    this.name = name;
+    this.help = help;
+    this.type = type(type);
+    buffer.reset();
+  }
+
+  @Override
+  public void label(@NotNull String name, @NotNull String value) {
+    if (labelCount * 2 == labels.length) {
+      labels = Arrays.copyOf(labels, labels.length * 2);
+    }
+    labels[labelCount * 2] = name;
+    labels[labelCount * 2 + 1] = value;
+    labelCount++;
+  }
+
+  @Override
+  public void labels(@NotNull LabelSet labels) {
+    if (labelSet != LabelSet.EMPTY || labelCount > 0) {
+      MetricsSink.super.labels(labels);
+      return;
+    }
+    labelSet = labels;
+  }
+
+  @Override
+  public void value(double value) {
+    final int field;
+    switch (type) {
+      case Metrics.MetricType.COUNTER_VALUE:
+        field = Metrics.Metric.COUNTER_FIELD_NUMBER;
+        break;
+      case Metrics.MetricType.GAUGE_VALUE:
+        field = Metrics.Metric.GAUGE_FIELD_NUMBER;
+        break;
+      case Metrics.MetricType.UNTYPED_VALUE:
+        field = Metrics.Metric.UNTYPED_FIELD_NUMBER;
+        break;
+      default:
+        throw new IllegalStateException("Plain value in a family of type " + type);
+    }
+    final boolean counter = field == Metrics.Metric.COUNTER_FIELD_NUMBER;
+    final Exemplar exemplar = counter && exemplarCount > 0 ? exemplars[exemplarCount - 1] : null;
+    final boolean created = counter && createdTimestamp != NO_TIMESTAMP;
+    int size = CodedOutputStream.computeDoubleSize(1, value);
+    if (exemplar != null) {
+      size += delimitedSize(Metrics.Counter.EXEMPLAR_FIELD_NUMBER, exemplarSize(exemplar));
+    }
+    if (created) {
+      size += delimitedSize(Metrics.Counter.CREATED_TIMESTAMP_FIELD_NUMBER, timestampSize(createdTimestamp));
+    }
+    try {
+      metric(delimitedSize(field, size));
+      delimited(metrics, field, size);
+      metrics.writeDouble(1, value);
+      if (exemplar != null) {
+        exemplar(Metrics.Counter.EXEMPLAR_FIELD_NUMBER, exemplar);
+      }
+      if (created) {
+        timestamp(Metrics.Counter.CREATED_TIMESTAMP_FIELD_NUMBER, createdTimestamp);
+      }
+      series();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void exemplar(@NotNull Exemplar exemplar) {
+    if (exemplarCount == exemplars.length) {
+      exemplars = Arrays.copyOf(exemplars, exemplarCount * 2);
+    }
+    exemplars[exemplarCount++] = exemplar;
+  }
+
+  @Override
+  public void created(long timestamp) {
+    createdTimestamp = timestamp;
+  }
+
+  @Override
+  public void quantile(double quantile, double value) {
+    point(quantile, value);
+  }
+
+  @Override
+  public void summary(long count, double sum) {
+    if (type != Metrics.MetricType.SUMMARY_VALUE) {
+      throw new IllegalStateException("Summary in a family of type " + type);
+    }
+    final int quantileSize = CodedOutputStream.computeDoubleSize(Metrics.Quantile.QUANTILE_FIELD_NUMBER, 0)
+        + CodedOutputStream.computeDoubleSize(Metrics.Quantile.VALUE_FIELD_NUMBER, 0);
+    final int size = CodedOutputStream.computeUInt64Size(Metrics.Summary.SAMPLE_COUNT_FIELD_NUMBER, count)
+        + CodedOutputStream.computeDoubleSize(Metrics.Summary.SAMPLE_SUM_FIELD_NUMBER, sum)
+        + pointCount * delimitedSize(Metrics.Summary.QUANTILE_FIELD_NUMBER, quantileSize)
+        + (createdTimestamp == NO_TIMESTAMP ? 0 : delimitedSize(Metrics.Summary.CREATED_TIMESTAMP_FIELD_NUMBER, timestampSize(createdTimestamp)));
+    try {
+      metric(delimitedSize(Metrics.Metric.SUMMARY_FIELD_NUMBER, size));
+      delimited(metrics, Metrics.Metric.SUMMARY_FIELD_NUMBER, size);
+      metrics.writeUInt64(Metrics.Summary.SAMPLE_COUNT_FIELD_NUMBER, count);
+      metrics.writeDouble(Metrics.Summary.SAMPLE_SUM_FIELD_NUMBER, sum);
+      for (int i = 0; i < pointCount; i++) {
+        delimited(metrics, Metrics.Summary.QUANTILE_FIELD_NUMBER, quantileSize);
+        metrics.writeDouble(Metrics.Quantile.QUANTILE_FIELD_NUMBER, keys[i]);
+        metrics.writeDouble(Metrics.Quantile.VALUE_FIELD_NUMBER, values[i]);
+      }
+      if (createdTimestamp != NO_TIMESTAMP) {
+        timestamp(Metrics.Summary.CREATED_TIMESTAMP_FIELD_NUMBER, createdTimestamp);
+      }
+      series();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void bucket(double upperBound, long cumulativeCount) {
+    point(upperBound, 0);
+    counts[pointCount - 1] = cumulativeCount;
+    if (exemplarCount > exemplarMark) {
+      bucketExemplars[pointCount - 1] = exemplars[--exemplarCount];
+      exemplars[exemplarCount] = null;
+    }
+    exemplarMark = exemplarCount;
+  }
+
+  @Override
+  public void schema(int schema, double zeroThreshold, long zeroCount) {
+    sparse = true;
+    this.schema = schema;
+    this.zeroThreshold = zeroThreshold;
+    this.zeroCount = zeroCount;
+  }
+
+  @Override
+  public void span(boolean positive, int offset, int length) {
+    (positive ? this.positive : negative).span(offset, length);
+  }
+
+  @Override
+  public void delta(boolean positive, long delta) {
+    (positive ? this.positive : negative).delta(delta);
+  }
+
+  @Override
+  public void histogram(long count, double sum) {
+    if (type != Metrics.MetricType.HISTOGRAM_VALUE) {
+      throw new IllegalStateException("Histogram in a family of type " + type);
+    }
+    int size = CodedOutputStream.computeUInt64Size(Metrics.Histogram.SAMPLE_COUNT_FIELD_NUMBER, count)
+        + CodedOutputStream.computeDoubleSize(Metrics.Histogram.SAMPLE_SUM_FIELD_NUMBER, sum);
+    for (int i = 0; i < pointCount; i++) {
+      size += delimitedSize(Metrics.Histogram.BUCKET_FIELD_NUMBER, bucketSize(i));
+    }
+    if (sparse) {
+      size += CodedOutputStream.computeSInt32Size(Metrics.Histogram.SCHEMA_FIELD_NUMBER, schema)
+          + CodedOutputStream.computeDoubleSize(Metrics.Histogram.ZERO_THRESHOLD_FIELD_NUMBER, zeroThreshold)
+          + CodedOutputStream.computeUInt64Size(Metrics.Histogram.ZERO_COUNT_FIELD_NUMBER, zeroCount)
+          + negative.size(Metrics.Histogram.NEGATIVE_SPAN_FIELD_NUMBER, Metrics.Histogram.NEGATIVE_DELTA_FIELD_NUMBER)
+          + positive.size(Metrics.Histogram.POSITIVE_SPAN_FIELD_NUMBER, Metrics.Histogram.POSITIVE_DELTA_FIELD_NUMBER);
+    }
+    if (createdTimestamp != NO_TIMESTAMP) {
+      size += delimitedSize(Metrics.Histogram.CREATED_TIMESTAMP_FIELD_NUMBER, timestampSize(createdTimestamp));
+    }
+    for (int i = 0; i < exemplarCount; i++) {
+      size += delimitedSize(Metrics.Histogram.EXEMPLARS_FIELD_NUMBER, exemplarSize(exemplars[i]));
+    }
+    try {
+      metric(delimitedSize(Metrics.Metric.HISTOGRAM_FIELD_NUMBER, size));
+      delimited(metrics, Metrics.Metric.HISTOGRAM_FIELD_NUMBER, size);
+      metrics.writeUInt64(Metrics.Histogram.SAMPLE_COUNT_FIELD_NUMBER, count);
+      metrics.writeDouble(Metrics.Histogram.SAMPLE_SUM_FIELD_NUMBER, sum);
+      for (int i = 0; i < pointCount; i++) {
+        delimited(metrics, Metrics.Histogram.BUCKET_FIELD_NUMBER, bucketSize(i));
+        metrics.writeUInt64(Metrics.Bucket.CUMULATIVE_COUNT_FIELD_NUMBER, counts[i]);
+        metrics.writeDouble(Metrics.Bucket.UPPER_BOUND_FIELD_NUMBER, keys[i]);
+        if (bucketExemplars[i] != null) {
+          exemplar(Metrics.Bucket.EXEMPLAR_FIELD_NUMBER, bucketExemplars[i]);
+        }
+      }
+      if (sparse) {
+        metrics.writeSInt32(Metrics.Histogram.SCHEMA_FIELD_NUMBER, schema);
+        metrics.writeDouble(Metrics.Histogram.ZERO_THRESHOLD_FIELD_NUMBER, zeroThreshold);
+        metrics.writeUInt64(Metrics.Histogram.ZERO_COUNT_FIELD_NUMBER, zeroCount);
+        negative.write(metrics, Metrics.Histogram.NEGATIVE_SPAN_FIELD_NUMBER, Metrics.Histogram.NEGATIVE_DELTA_FIELD_NUMBER);
+        positive.write(metrics, Metrics.Histogram.POSITIVE_SPAN_FIELD_NUMBER, Metrics.Histogram.POSITIVE_DELTA_FIELD_NUMBER);
+        sparse = false;
+      }
+      if (createdTimestamp != NO_TIMESTAMP) {
+        timestamp(Metrics.Histogram.CREATED_TIMESTAMP_FIELD_NUMBER, createdTimestamp);
+      }
+      for (int i = 0; i < exemplarCount; i++) {
+        exemplar(Metrics.Histogram.EXEMPLARS_FIELD_NUMBER, exemplars[i]);
+      }
+      series();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void endFamily() {
+    if (name == null || help == null) {
+      throw new IllegalStateException("No family to end");
+    }
+    try {
+      metrics.flush();
+      final int size = CodedOutputStream.computeStringSize(Metrics.MetricFamily.NAME_FIELD_NUMBER, name)
+          + CodedOutputStream.computeStringSize(Metrics.MetricFamily.HELP_FIELD_NUMBER, help)
+          + CodedOutputStream.computeEnumSize(Metrics.MetricFamily.TYPE_FIELD_NUMBER, type)
+          + buffer.size();
+      output.writeUInt32NoTag(size);
+      output.writeString(Metrics.MetricFamily.NAME_FIELD_NUMBER, name);
+      output.writeString(Metrics.MetricFamily.HELP_FIELD_NUMBER, help);
+      output.writeEnum(Metrics.MetricFamily.TYPE_FIELD_NUMBER, type);
+      output.writeRawBytes(buffer.array(), 0, buffer.size());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    name = null;
+    help = null;
+  }
+
+  /**
+   * Writes families encoded before, between two families.
+   */
+  public void raw(@NotNull byte[] bytes) throws IOException {
+    output.writeRawBytes(bytes);
+  }
+
+  public void flush() throws IOException {
+    output.flush();
+  }
+
+  private void point(double key, double value) {
+    if (pointCount == keys.length) {
+      keys = Arrays.copyOf(keys, pointCount * 2);
+      values = Arrays.copyOf(values, pointCount * 2);
+      counts = Arrays.copyOf(counts, pointCount * 2);
+      bucketExemplars = Arrays.copyOf(bucketExemplars, pointCount * 2);
+    }
+    bucketExemplars[pointCount] = null;
+    keys[pointCount] = key;
+    values[pointCount] = value;
+    pointCount++;
+  }
+
+  private int bucketSize(int index) {
+    final Exemplar exemplar = bucketExemplars[index];
+    return CodedOutputStream.computeUInt64Size(Metrics.Bucket.CUMULATIVE_COUNT_FIELD_NUMBER, counts[index])
+        + CodedOutputStream.computeDoubleSize(Metrics.Bucket.UPPER_BOUND_FIELD_NUMBER, keys[index])
+        + (exemplar == null ? 0 : delimitedSize(Metrics.Bucket.EXEMPLAR_FIELD_NUMBER, exemplarSize(exemplar)));
+  }
+
+  /**
+   * Clears the points, exemplars and created timestamp of the series just written.
+   */
+  private void series() {
+    Arrays.fill(bucketExemplars, 0, pointCount, null);
+    pointCount = 0;
+    Arrays.fill(exemplars, 0, exemplarCount, null);
+    exemplarCount = 0;
+    exemplarMark = 0;
+    createdTimestamp = NO_TIMESTAMP;
+  }
+
+  private void exemplar(int field, @NotNull Exemplar exemplar) throws IOException {
+    delimited(metrics, field, exemplarSize(exemplar));
+    metrics.writeRawBytes(exemplar.labels().encoded());
+    metrics.writeDouble(Metrics.Exemplar.VALUE_FIELD_NUMBER, exemplar.value());
+    timestamp(Metrics.Exemplar.TIMESTAMP_FIELD_NUMBER, exemplar.timestamp());
+  }
+
+  private static int exemplarSize(@NotNull Exemplar exemplar) {
+    return exemplar.labels().encoded().length
+        + CodedOutputStream.computeDoubleSize(Metrics.Exemplar.VALUE_FIELD_NUMBER, exemplar.value())
+        + delimitedSize(Metrics.Exemplar.TIMESTAMP_FIELD_NUMBER, timestampSize(exemplar.timestamp()));
+  }
+
+  /**
+   * Writes a {@code google.protobuf.Timestamp} given in milliseconds since the epoch.
+   */
+  private void timestamp(int field, long millis) throws IOException {
+    delimited(metrics, field, timestampSize(millis));
+    final long seconds = Math.floorDiv(millis, 1000);
+    final int nanos = (int) Math.floorMod(millis, 1000) * 1_000_000;
+    if (seconds != 0) {
+      metrics.writeInt64(Timestamp.SECONDS_FIELD_NUMBER, seconds);
+    }
+    if (nanos != 0) {
+      metrics.writeInt32(Timestamp.NANOS_FIELD_NUMBER, nanos);
+    }
+  }
+
+  private static int timestampSize(long millis) {
+    final long seconds = Math.floorDiv(millis, 1000);
+    final int nanos = (int) Math.floorMod(millis, 1000) * 1_000_000;
+    return (seconds == 0 ? 0 : CodedOutputStream.computeInt64Size(Timestamp.SECONDS_FIELD_NUMBER, seconds))
+        + (nanos == 0 ? 0 : CodedOutputStream.computeInt32Size(Timestamp.NANOS_FIELD_NUMBER, nanos));
+  }
+
+  /**
+   * Writes the {@code Metric} header and its labels, given the size of the value field which follows.
+   */
+  private void metric(int valueSize) throws IOException {
+    if (name == null) {
+      throw new IllegalStateException("Series outside of a family");
+    }
+    final byte[] encoded = labelSet.encoded();
+    int size = valueSize + encoded.length;
+    for (int i = 0; i < labelCount; i++) {
+      size += delimitedSize(Metrics.Metric.LABEL_FIELD_NUMBER, labelSize(i));
+    }
+    delimited(metrics, Metrics.MetricFamily.METRIC_FIELD_NUMBER, size);
+    metrics.writeRawBytes(encoded);
+    for (int i = 0; i < labelCount; i++) {
+      delimited(metrics, Metrics.Metric.LABEL_FIELD_NUMBER, labelSize(i));
+      metrics.writeString(Metrics.LabelPair.NAME_FIELD_NUMBER, labels[i * 2]);
+      metrics.writeString(Metrics.LabelPair.VALUE_FIELD_NUMBER, labels[i * 2 + 1]);
+    }
+    Arrays.fill(labels, 0, labelCount * 2, null);
+    labelCount = 0;
+    labelSet = LabelSet.EMPTY;
+  }
+
+  private int labelSize(int index) {
+    return CodedOutputStream.computeStringSize(Metrics.LabelPair.NAME_FIELD_NUMBER, labels[index * 2])
+        + CodedOutputStream.computeStringSize(Metrics.LabelPair.VALUE_FIELD_NUMBER, labels[index * 2 + 1]);
+  }
+
+  private static int delimitedSize(int field, int size) {
+    return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+  }
+
+  private static void delimited(@NotNull CodedOutputStream output, int field, int size) throws IOException {
+    output.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    output.writeUInt32NoTag(size);
+  }
+
+  private static int type(@NotNull Collector.Type type) {
+    switch (type) {
+      case COUNTER:
+        return Metrics.MetricType.COUNTER_VALUE;
+      case GAUGE:
+        return Metrics.MetricType.GAUGE_VALUE;
+      case SUMMARY:
+        return Metrics.MetricType.SUMMARY_VALUE;
+      case HISTOGRAM:
+        return Metrics.MetricType.HISTOGRAM_VALUE;
+      default:
+        return Metrics.MetricType.UNTYPED_VALUE;
+    }
+  }
+
+  /**
+   * Spans and deltas of one sign of the current native histogram.
+   */
+  private static final class NativeBuckets {
+    private @NotNull int[] spans = new int[8];
+    private int spanCount;
+    private @NotNull long[] deltas = new long[32];
+    private int deltaCount;
+
+    void span(int offset, int length) {
+      if (spanCount * 2 == spans.length) {
+        spans = Arrays.copyOf(spans, spans.length * 2);
+      }
+      spans[spanCount * 2] = offset;
+      spans[spanCount * 2 + 1] = length;
+      spanCount++;
+    }
+
+    void delta(long delta) {
+      if (deltaCount == deltas.length) {
+        deltas = Arrays.copyOf(deltas, deltaCount * 2);
+      }
+      deltas[deltaCount++] = delta;
+    }
+
+    int size(int spanField, int deltaField) {
+      int size = 0;
+      for (int i = 0; i < spanCount; i++) {
+        size += delimitedSize(spanField, spanSize(i));
+      }
+      for (int i = 0; i < deltaCount; i++) {
+        size += CodedOutputStream.computeSInt64Size(deltaField, deltas[i]);
+      }
+      return size;
+    }
+
+    void write(@NotNull CodedOutputStream output, int spanField, int deltaField) throws IOException {
+      for (int i = 0; i < spanCount; i++) {
+        delimited(output, spanField, spanSize(i));
+        output.writeSInt32(Metrics.BucketSpan.OFFSET_FIELD_NUMBER, spans[i * 2]);
+        output.writeUInt32(Metrics.BucketSpan.LENGTH_FIELD_NUMBER, spans[i * 2 + 1]);
+      }
+      for (int i = 0; i < deltaCount; i++) {
+        output.writeSInt64(deltaField, deltas[i]);
+      }
+      spanCount = 0;
+      deltaCount = 0;
+    }
+
+    private int spanSize(int index) {
+      return CodedOutputStream.computeSInt32Size(Metrics.BucketSpan.OFFSET_FIELD_NUMBER, spans[index * 2])
+          + CodedOutputStream.computeUInt32Size(Metrics.BucketSpan.LENGTH_FIELD_NUMBER, spans[index * 2 + 1]);
+    }
+  }
+
+  private static final class Buffer extends ByteArrayOutputStream {
+
+    public Buffer() {
+      super(4096);
+    }
+
+    public @NotNull byte[] array() {
+      return buf;
+    }
+  }
+}
@@ -0,0 +1,357 @@
+package io.prometheus.client.exporter;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import io.prometheus.client.Metrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Serves the merged output of several upstream protobuf endpoints, e.g. sibling {@link ProtobufMetricsServlet}s.
+ * Upstreams are fetched concurrently, all within the configured timeout, which bounds connecting and reading alike,
+ * and families with the same name are merged. A {@code name[]} filter is passed on to the upstreams along with their
+ * own query. Every metric gets a label naming its upstream; metrics are copied as raw bytes with the label appended,
+ * so their values are never decoded. Upstream availability is reported as the {@code federation_upstream_up} gauge,
+ * and the families of an upstream dropped as their type conflicts with an earlier upstream's family of the same name
+ * as the {@code federation_type_conflicts} gauge; upstream families named like either gauge are dropped as well.
+ * Fetches run on one thread per upstream, those of concurrent scrapes queue up within their own deadline, and a fetch
+ * still running at its deadline is disconnected so that a trickling upstream cannot hold a thread.
+ */
+public final class ProtobufFederationServlet extends HttpServlet {
+  private static final long serialVersionUID = 1L;
+  private static final @NotNull String UP_NAME = "federation_upstream_up";
+  private static final @NotNull String UP_HELP = "Whether the last fetch of the upstream succeeded";
+  private static final @NotNull String CONFLICTS_NAME = "federation_type_conflicts";
+  private static final @NotNull String CONFLICTS_HELP = "Families of the upstream dropped in the last fetch as their type conflicts with an earlier upstream";
+
+  private final @NotNull String label;
+  private final @NotNull Map<String, URL> upstreams;
+  private final long timeout;
+  private final transient @NotNull ExecutorService executor;
+
+  public ProtobufFederationServlet(@NotNull String label, @NotNull Map<String, URL> upstreams, long timeout, @NotNull TimeUnit unit) {
+    this.label = label;
+    this.upstreams = new LinkedHashMap<>(upstreams);
+    this.timeout = unit.toMillis(timeout);
+    final int threads = Math.max(1, upstreams.size());
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+      final Thread thread = new Thread(runnable, "protobuf-federation");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.allowCoreThreadTimeOut(true);
+    this.executor = executor;
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+    super.destroy();
+  }
+
+  @Override
+  protected void doGet(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response) throws IOException {
+    final String query = query(request);
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    final Map<String, Fetch> fetches = new LinkedHashMap<>();
+    for (Map.Entry<String, URL> upstream : upstreams.entrySet()) {
+      final Fetch fetch = new Fetch(url(upstream.getValue(), query), deadline);
+      fetch.start(executor);
+      fetches.put(upstream.getKey(), fetch);
+    }
+
+    final Map<String, Family> merged = new LinkedHashMap<>();
+    final Map<String, Double> up = new LinkedHashMap<>();
+    final Map<String, Double> conflicts = new LinkedHashMap<>();
+    for (Map.Entry<String, Fetch> fetch : fetches.entrySet()) {
+      final List<Family> families = fetch.getValue().await();
+      up.put(fetch.getKey(), families == null ? 0.0 : 1.0);
+      if (families == null) {
+        continue;
+      }
+      final ByteString pair = labelPair(label, fetch.getKey());
+      int conflicting = 0;
+      for (Family family : families) {
+        if (family.name.equals(UP_NAME) || family.name.equals(CONFLICTS_NAME)) {
+          continue;
+        }
+        final Family target = merged.computeIfAbsent(family.name, name -> new Family(name, family.help, family.type));
+        if (target.type == family.type) {
+          target.add(family.metrics, pair);
+        } else {
+          conflicting++;
+        }
+      }
+      conflicts.put(fetch.getKey(), (double) conflicting);
+    }
+
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(ProtobufFormatter.CONTENT_TYPE);
+    try (final OutputStream output = response.getOutputStream()) {
+      final CodedOutputStream coded = CodedOutputStream.newInstance(output);
+      for (Family family : merged.values()) {
+        family.writeDelimitedTo(coded);
+      }
+      gaugeFamily(UP_NAME, UP_HELP, up).writeDelimitedTo(coded);
+      gaugeFamily(CONFLICTS_NAME, CONFLICTS_HELP, conflicts).writeDelimitedTo(coded);
+      coded.flush();
+      output.flush();
+    }
+  }
+
+  @Override
+  protected void doPost(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response) throws IOException {
+    doGet(request, response);
+  }
+
+  private @NotNull Family gaugeFamily(@NotNull String name, @NotNull String help, @NotNull Map<String, Double> values) {
+    final Family family = new Family(name, help, Metrics.MetricType.GAUGE_VALUE);
+    values.forEach((upstream, value) -> family.add(Collections.singletonList(gauge(value)), labelPair(label, upstream)));
+    return family;
+  }
+
+  /**
+   * Milliseconds left until the deadline, at least one as zero means no timeout.
+   */
+  private static int remaining(long deadline) throws SocketTimeoutException {
+    final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    if (remaining <= 0) {
+      throw new SocketTimeoutException("Federation timeout elapsed");
+    }
+    return (int) Math.min(remaining, Integer.MAX_VALUE);
+  }
+
+  private static @NotNull List<Family> parse(@NotNull byte[] bytes) throws IOException {
+    final CodedInputStream input = CodedInputStream.newInstance(bytes);
+    input.enableAliasing(true);
+    final List<Family> families = new ArrayList<>();
+    while (!input.isAtEnd()) {
+      final int limit = input.pushLimit(input.readRawVarint32());
+      String name = "";
+      String help = "";
+      int type = Metrics.MetricType.UNTYPED_VALUE;
+      final List<ByteString> metrics = new ArrayList<>();
+      int tag;
+      while ((tag = input.readTag()) != 0) {
+        switch (WireFormat.getTagFieldNumber(tag)) {
+          case Metrics.MetricFamily.NAME_FIELD_NUMBER:
+            name = input.readStringRequireUtf8();
+            break;
+          case Metrics.MetricFamily.HELP_FIELD_NUMBER:
+            help = input.readStringRequireUtf8();
+            break;
+          case Metrics.MetricFamily.TYPE_FIELD_NUMBER:
+            type = input.readEnum();
+            break;
+          case Metrics.MetricFamily.METRIC_FIELD_NUMBER:
+            metrics.add(input.readBytes());
+            break;
+          default:
+            input.skipField(tag);
+        }
+      }
+      input.popLimit(limit);
+      final Family family = new Family(name, help, type);
+      family.add(metrics, ByteString.EMPTY);
+      families.add(family);
+    }
+    return families;
+  }
+
+  private static @NotNull ByteString labelPair(@NotNull String name, @NotNull String value) {
+    final ByteString.Output output = ByteString.newOutput();
+    try {
+      final CodedOutputStream coded = CodedOutputStream.newInstance(output);
+      coded.writeTag(Metrics.Metric.LABEL_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      coded.writeUInt32NoTag(CodedOutputStream.computeStringSize(Metrics.LabelPair.NAME_FIELD_NUMBER, name)
+          + CodedOutputStream.computeStringSize(Metrics.LabelPair.VALUE_FIELD_NUMBER, value));
+      coded.writeString(Metrics.LabelPair.NAME_FIELD_NUMBER, name);
+      coded.writeString(Metrics.LabelPair.VALUE_FIELD_NUMBER, value);
+      coded.flush();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return output.toByteString();
+  }
+
+  private static @NotNull ByteString gauge(double value) {
+    final int size = CodedOutputStream.computeDoubleSize(Metrics.Gauge.VALUE_FIELD_NUMBER, value);
+    final byte[] bytes = new byte[CodedOutputStream.computeTagSize(Metrics.Metric.GAUGE_FIELD_NUMBER) + 1 + size];
+    final CodedOutputStream coded = CodedOutputStream.newInstance(bytes);
+    try {
+      coded.writeTag(Metrics.Metric.GAUGE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      coded.writeUInt32NoTag(size);
+      coded.writeDouble(Metrics.Gauge.VALUE_FIELD_NUMBER, value);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return ByteString.copyFrom(bytes);
+  }
+
+  /**
+   * The {@code name[]} parameters of the request, encoded as a query without the question mark.
+   */
+  private static @NotNull String query(@NotNull HttpServletRequest request) throws IOException {
+    final String[] names = request.getParameterValues("name[]");
+    if (names == null) {
+      return "";
+    }
+    final StringBuilder query = new StringBuilder();
+    for (String name : names) {
+      query.append(query.length() == 0 ? "" : "&").append("name%5B%5D=").append(URLEncoder.encode(name, StandardCharsets.UTF_8.name()));
+    }
+    return query.toString();
+  }
+
+  /**
+   * The upstream URL with the query appended to its own.
+   */
+  private static @NotNull URL url(@NotNull URL upstream, @NotNull String query) throws MalformedURLException {
+    if (query.isEmpty()) {
+      return upstream;
+    }
+    return new URL(upstream, upstream.getPath() + '?' + (upstream.getQuery() == null ? "" : upstream.getQuery() + '&') + query);
+  }
+
+  /**
+   * Fetches the families of an upstream, connecting and then reading within the time left until the deadline.
+   * The connection is kept so that a fetch still running at the deadline can be disconnected, as interrupting the
+   * thread does not unblock a socket read. It is not kept alive, as disconnecting a persistent connection hands the
+   * rest of the response to a JDK thread to drain instead of closing the socket.
+   */
+  private static final class Fetch implements Callable<List<Family>> {
+    private final @NotNull URL url;
+    private final long deadline;
+    private @Nullable Future<List<Family>> future;
+    private @Nullable HttpURLConnection connection;
+    private boolean aborted;
+
+    public Fetch(@NotNull URL url, long deadline) {
+      this.url = url;
+      this.deadline = deadline;
+    }
+
+    public void start(@NotNull ExecutorService executor) {
+      future = executor.submit(this);
+    }
+
+    @Override
+    public @NotNull List<Family> call() throws IOException {
+      final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      synchronized (this) {
+        if (aborted) {
+          throw new SocketTimeoutException("Federation timeout elapsed");
+        }
+        this.connection = connection;
+      }
+      connection.setConnectTimeout(remaining(deadline));
+      connection.setRequestProperty("Accept", ProtobufFormatter.CONTENT_TYPE);
+      connection.setRequestProperty("Connection", "close");
+      connection.connect();
+      connection.setReadTimeout(remaining(deadline));
+      if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+        throw new IOException("Unexpected response code " + connection.getResponseCode() + " from " + url);
+      }
+      final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      try (final InputStream input = connection.getInputStream()) {
+        final byte[] chunk = new byte[8192];
+        int read;
+        while ((read = input.read(chunk)) != -1) {
+          buffer.write(chunk, 0, read);
+        }
+      }
+      return parse(buffer.toByteArray());
+    }
+
+    /**
+     * The families fetched by the deadline, or null if the fetch failed or was aborted.
+     */
+    public @Nullable List<Family> await() {
+      final Future<List<Family>> future = Objects.requireNonNull(this.future);
+      try {
+        return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        abort(future);
+        return null;
+      } catch (ExecutionException | TimeoutException e) {
+        abort(future);
+        return null;
+      }
+    }
+
+    private void abort(@NotNull Future<List<Family>> future) {
+      future.cancel(true);
+      final HttpURLConnection connection;
+      synchronized (this) {
+        aborted = true;
+        connection = this.connection;
+      }
+      if (connection != null) {
+        connection.disconnect();
+      }
+    }
+  }
+
+  private static final class Family {
+    private final @NotNull String name;
+    private final @NotNull String help;
+    private final int type;
+    private final @NotNull List<ByteString> metrics = new ArrayList<>();
+    private final @NotNull List<ByteString> labels = new ArrayList<>();
+
+    public Family(@NotNull String name, @NotNull String help, int type) {
+      this.name = name;
+      this.help = help;
+      this.type = type;
+    }
+
+    public void add(@NotNull List<ByteString> metrics, @NotNull ByteString label) {
+      for (ByteString metric : metrics) {
+        this.metrics.add(metric);
+        labels.add(label);
+      }
+    }
+
+    public void writeDelimitedTo(@NotNull CodedOutputStream output) throws IOException {
+      int size = CodedOutputStream.computeStringSize(Metrics.MetricFamily.NAME_FIELD_NUMBER, name)
+          + CodedOutputStream.computeStringSize(Metrics.MetricFamily.HELP_FIELD_NUMBER, help)
+          + CodedOutputStream.computeEnumSize(Metrics.MetricFamily.TYPE_FIELD_NUMBER, type);
+      for (int i = 0; i < metrics.size(); i++) {
+        final int length = metrics.get(i).size() + labels.get(i).size();
+        size += CodedOutputStream.computeTagSize(Metrics.MetricFamily.METRIC_FIELD_NUMBER) + CodedOutputStream.computeUInt32SizeNoTag(length) + length;
+      }
+      output.writeUInt32NoTag(size);
+      output.writeString(Metrics.MetricFamily.NAME_FIELD_NUMBER, name);
+      output.writeString(Metrics.MetricFamily.HELP_FIELD_NUMBER, help);
+      output.writeEnum(Metrics.MetricFamily.TYPE_FIELD_NUMBER, type);
+      for (int i = 0; i < metrics.size(); i++) {
+        final ByteString metric = metrics.get(i);
+        final ByteString label = labels.get(i);
+        output.writeTag(Metrics.MetricFamily.METRIC_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(metric.size() + label.size());
+        // repeated fields may appear in any order, so the label pair is simply appended to the metric
+        output.writeRawBytes(metric);
+        output.writeRawBytes(label);
+      }
+    }
+  }
+}
@@ -1,29 +1,241 @@
 package io.prometheus.client.exporter;
 
 import io.prometheus.client.Collector;
-import io.prometheus.client.Metrics;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.Serializable;
 import java.util.*;
-import java.util.function.BiConsumer;
-import java.util.function.Function;
-import java.util.function.Supplier;
+import java.util.concurrent.ForkJoinTask;
 
 public final class ProtobufFormatter {
   public static final @NotNull String CONTENT_TYPE = "application/vnd.google.protobuf; proto=io.prometheus.client.MetricFamily; encoding=delimited";
 
   private final @NotNull Enumeration<Collector.MetricFamilySamples> metrics;
+  private final @Nullable EncodingCache cache;
+  private final @Nullable ParallelEncoding parallel;
+  private final boolean full;
 
   public ProtobufFormatter(@NotNull Enumeration<Collector.MetricFamilySamples> metrics) {
+    this(metrics, null);
+  }
+
+  /**
+   * Copies the families which did not change since they were last written from the cache.
+   */
+  public ProtobufFormatter(@NotNull Enumeration<Collector.MetricFamilySamples> metrics, @Nullable EncodingCache cache) {
+    this(metrics, cache, null);
+  }
+
+  /**
+   * Encodes large payloads on several threads as well. The size of the payload decides whether the next ones are.
+   */
+  public ProtobufFormatter(@NotNull Enumeration<Collector.MetricFamilySamples> metrics, @Nullable EncodingCache cache, @Nullable ParallelEncoding parallel) {
+    this(metrics, cache, parallel, true);
+  }
+
+  /**
+   * @param full whether the families are a full scrape, whose size decides on the next ones, rather than a filtered one
+   */
+  ProtobufFormatter(@NotNull Enumeration<Collector.MetricFamilySamples> metrics, @Nullable EncodingCache cache, @Nullable ParallelEncoding parallel, boolean full) {
     this.metrics = metrics;
+    this.cache = cache;
+    this.parallel = parallel;
+    this.full = full;
   }
 
   public void write(@NotNull OutputStream stream) throws IOException {
-    for (Collector.MetricFamilySamples family : Collections.list(metrics)) {
-      Collectors.consume(stream, family);
+    final List<Part> parts = parts(Collections.list(metrics));
+    if (parallel != null && parallel.enabled()) {
+      parallel(parts, stream, parallel);
+      return;
+    }
+    final CountingOutputStream counter = parallel == null || !full ? null : new CountingOutputStream(stream);
+    final Writer writer = new Writer(counter == null ? stream : counter);
+    for (Part part : parts) {
+      part.encoding.write(writer);
+    }
+    writer.encoder.flush();
+    if (counter != null) {
+      Objects.requireNonNull(parallel).written(counter.count());
+    }
+  }
+
+  /**
+   * Splits the families into the pieces the encoder writes at once: a plain family, a sample batch, all the families
+   * of a {@link ProtobufCollector}, or sketch summaries of one name merged together. A collector registered in several
+   * of the registries is written once.
+   */
+  private static @NotNull List<Part> parts(@NotNull List<Collector.MetricFamilySamples> families) {
+    final Map<String, List<SketchSummary>> sketches = sketches(families);
+    final List<Part> parts = new ArrayList<>(families.size());
+    final Set<Collector> written = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Collector.MetricFamilySamples family : families) {
+      if (family instanceof ProtobufCollector.Deferred && !((ProtobufCollector.Deferred) family).batch.materialized()) {
+        final ProtobufCollector.Batch batch = ((ProtobufCollector.Deferred) family).batch;
+        final List<SketchSummary> merged = sketches.get(family.name);
+        if (merged != null && merged.contains(batch.collector())) {
+          if (merged.get(0) == batch.collector() && written.add(batch.collector())) {
+            parts.add(new Part(Part.UNKNOWN, writer -> SketchSummary.collect(merged, writer.encoder)));
+          }
+          continue;
+        }
+        if (written.add(batch.collector())) {
+          parts.add(new Part(Part.UNKNOWN, writer -> batch.collect(writer.encoder)));
+        }
+        continue;
+      }
+      if (family instanceof SampleBatch) {
+        parts.add(new Part(family.samples.size(), writer -> ((SampleBatch) family).writeTo(writer.encoder)));
+        continue;
+      }
+      parts.add(new Part(family.samples.size(), writer -> writer.family(family)));
+    }
+    return parts;
+  }
+
+  /**
+   * Encodes chunks of parts of about the same number of samples concurrently, each part of unknown size in a chunk of
+   * its own, and writes them in order as they complete.
+   */
+  private void parallel(@NotNull List<Part> parts, @NotNull OutputStream stream, @NotNull ParallelEncoding parallel) throws IOException {
+    long samples = 0;
+    for (Part part : parts) {
+      samples += Math.max(part.weight, 0);
+    }
+    final long target = Math.max(1, samples / parallel.chunks());
+    final List<ForkJoinTask<ParallelEncoding.Buffer>> tasks = new ArrayList<>();
+    List<Part> chunk = new ArrayList<>();
+    long weight = 0;
+    for (Part part : parts) {
+      if (part.weight == Part.UNKNOWN && !chunk.isEmpty()) {
+        tasks.add(submit(chunk, parallel));
+        chunk = new ArrayList<>();
+        weight = 0;
+      }
+      chunk.add(part);
+      weight += part.weight;
+      if (part.weight == Part.UNKNOWN || weight >= target) {
+        tasks.add(submit(chunk, parallel));
+        chunk = new ArrayList<>();
+        weight = 0;
+      }
+    }
+    if (!chunk.isEmpty()) {
+      tasks.add(submit(chunk, parallel));
+    }
+    long size = 0;
+    try {
+      for (ForkJoinTask<ParallelEncoding.Buffer> task : tasks) {
+        final ParallelEncoding.Buffer buffer = task.join();
+        size += buffer.size();
+        buffer.writeTo(stream);
+        parallel.release(buffer);
+      }
+    } finally {
+      tasks.forEach(task -> task.cancel(false));
+    }
+    stream.flush();
+    if (full) {
+      parallel.written(size);
+    }
+  }
+
+  private @NotNull ForkJoinTask<ParallelEncoding.Buffer> submit(@NotNull List<Part> chunk, @NotNull ParallelEncoding parallel) {
+    return parallel.pool().submit(() -> {
+      final ParallelEncoding.Buffer buffer = parallel.acquire();
+      final Writer writer = new Writer(buffer);
+      for (Part part : chunk) {
+        part.encoding.write(writer);
+      }
+      writer.encoder.flush();
+      return buffer;
+    });
+  }
+
+  /**
+   * Finds sketch summaries that share a name, which happens when several registries are written together. Only those
+   * which can be merged with the first of the name are grouped, each instance once; the others are written as they are.
+   */
+  private static @NotNull Map<String, List<SketchSummary>> sketches(@NotNull List<Collector.MetricFamilySamples> families) {
+    Map<String, List<SketchSummary>> sketches = Collections.emptyMap();
+    for (Collector.MetricFamilySamples family : families) {
+      if (family instanceof ProtobufCollector.Deferred) {
+        final ProtobufCollector.Batch batch = ((ProtobufCollector.Deferred) family).batch;
+        if (batch.collector() instanceof SketchSummary && !batch.materialized()) {
+          if (sketches.isEmpty()) {
+            sketches = new HashMap<>();
+          }
+          final SketchSummary summary = (SketchSummary) batch.collector();
+          final List<SketchSummary> summaries = sketches.computeIfAbsent(family.name, name -> new ArrayList<>());
+          if (!summaries.contains(summary) && (summaries.isEmpty() || summaries.get(0).mergeable(summary))) {
+            summaries.add(summary);
+          }
+        }
+      }
+    }
+    sketches.values().removeIf(summaries -> summaries.size() < 2);
+    return sketches;
+  }
+
+  private static final class Part {
+    static final int UNKNOWN = -1;
+
+    private final int weight;
+    private final @NotNull Encoding encoding;
+
+    public Part(int weight, @NotNull Encoding encoding) {
+      this.weight = weight;
+      this.encoding = encoding;
+    }
+  }
+
+  private interface Encoding {
+
+    void write(@NotNull Writer writer) throws IOException;
+  }
+
+  /**
+   * Encoder of one thread, which copies unchanged plain families from the cache.
+   */
+  private final class Writer {
+    private final @NotNull ProtobufEncoder encoder;
+    private @Nullable Capture capture;
+
+    public Writer(@NotNull OutputStream stream) {
+      encoder = new ProtobufEncoder(stream);
+    }
+
+    public void family(@NotNull Collector.MetricFamilySamples family) throws IOException {
+      if (cache == null) {
+        Collectors.consume(encoder, family);
+        return;
+      }
+      final long fingerprint = EncodingCache.fingerprint(family);
+      byte[] bytes = cache.get(family, fingerprint);
+      if (bytes == null) {
+        capture = capture == null ? new Capture() : capture;
+        bytes = capture.encode(family);
+        cache.put(family, fingerprint, bytes);
+      }
+      encoder.raw(bytes);
+    }
+  }
+
+  /**
+   * Encodes single families apart from the output, to be cached.
+   */
+  private static final class Capture {
+    private final @NotNull ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final @NotNull ProtobufEncoder encoder = new ProtobufEncoder(bytes);
+
+    public @NotNull byte[] encode(@NotNull Collector.MetricFamilySamples family) throws IOException {
+      bytes.reset();
+      Collectors.consume(encoder, family);
+      encoder.flush();
+      return bytes.toByteArray();
     }
   }
 
@@ -51,245 +263,134 @@ public final class ProtobufFormatter {
     }
   }
 
+  /**
+   * Writes plain samples to the wire encoder, so the generated {@link io.prometheus.client.Metrics} messages are not
+   * even loaded. Samples of summaries and histograms are grouped by their labels.
+   */
   private enum Collectors {
-    Counter(Collector.Type.COUNTER, CounterConsumer::new),
-    Gauge(Collector.Type.GAUGE, GaugeConsumer::new),
-    Summary(Collector.Type.SUMMARY, SummaryConsumer::new),
-    Histogram(Collector.Type.HISTOGRAM, HistogramConsumer::new);
+    Counter(Collector.Type.COUNTER, new ValueConsumer()),
+    Gauge(Collector.Type.GAUGE, new ValueConsumer()),
+    Summary(Collector.Type.SUMMARY, new DistributionConsumer("quantile") {
+      @Override
+      protected void write(@NotNull MetricsSink sink, @NotNull Series series) {
+        for (int i = 0; i < series.particles; i++) {
+          sink.quantile(series.keys[i], series.values[i]);
+        }
+        sink.summary(series.count, series.sum);
+      }
+    }),
+    Histogram(Collector.Type.HISTOGRAM, new DistributionConsumer("le") {
+      @Override
+      protected void write(@NotNull MetricsSink sink, @NotNull Series series) {
+        for (int i = 0; i < series.particles; i++) {
+          sink.bucket(series.keys[i], (long) series.values[i]);
+        }
+        sink.histogram(series.count, series.sum);
+      }
+    }),
+    Untyped(Collector.Type.UNTYPED, new ValueConsumer());
 
     private static final @NotNull Collection<Collectors> collectors = Arrays.asList(values());
 
     private final @NotNull Collector.Type type;
-    private final @NotNull ConsumerProvider supplier;
+    private final @NotNull MetricsConsumer consumer;
 
-    public static void consume(@NotNull OutputStream stream, @NotNull Collector.MetricFamilySamples family) throws IOException {
+    public static void consume(@NotNull MetricsSink sink, @NotNull Collector.MetricFamilySamples family) {
       for (Collectors collector : collectors) {
         if (collector.type == family.type) {
-          collector.consumer(stream, family.name, family.help).write(family);
+          sink.beginFamily(family.name, family.help, family.type);
+          collector.consumer.consume(sink, family.samples);
+          sink.endFamily();
           return;
         }
       }
     }
 
-    private Collectors(@NotNull Collector.Type type, @NotNull ConsumerProvider supplier) {
+    private Collectors(@NotNull Collector.Type type, @NotNull MetricsConsumer consumer) {
       this.type = type;
-      this.supplier = supplier;
-    }
-
-    private @NotNull MetricsConsumer consumer(@NotNull OutputStream stream, @NotNull String name, @NotNull String help) {
-      return supplier.get(stream, name, help);
-    }
-
-    private interface ConsumerProvider extends Serializable {
-
-      @NotNull MetricsConsumer get(@NotNull OutputStream stream, @NotNull String name, @NotNull String help);
-    }
-  }
-
-  private interface Builder {
-
-    void consumeSampleCount(long value);
-
-    void consumeSampleSum(double value);
-
-    void consumeParticle(double particle, double sample);
-
-    @NotNull Metrics.Metric build(@NotNull Metrics.Metric.Builder metrics);
-  }
-
-  private abstract static class MetricsConsumer {
-    private final @NotNull OutputStream stream;
-    private final @NotNull Metrics.MetricFamily.Builder family;
-    private final @NotNull Metrics.Metric.Builder metrics = Metrics.Metric.newBuilder();
-
-    protected MetricsConsumer(@NotNull OutputStream stream, @NotNull Metrics.MetricType type, @NotNull String name, @NotNull String help) {
-      this.stream = stream;
-      family = Metrics.MetricFamily.newBuilder().setName(name).setHelp(help).setType(type);
-    }
-
-    public final void write(@NotNull Collector.MetricFamilySamples samples) throws IOException {
-      consume(samples.samples);
-      family.build().writeDelimitedTo(stream);
-    }
-
-    protected abstract void consume(@NotNull Iterable<Collector.MetricFamilySamples.Sample> samples);
-
-    protected final void apply(@NotNull Function<Metrics.Metric.Builder, Metrics.Metric> supplier, @NotNull List<String> labelNames, @NotNull List<String> labelValues) {
-      final int labelsCount = metrics.getLabelCount();
-      for (int i = 0; i < labelValues.size(); i++) {
-        metrics.addLabel(
-            Metrics.LabelPair.newBuilder()
-                .setName(labelNames.get(i))
-                .setValue(labelValues.get(i))
-                .build()
-        );
-      }
-      final Metrics.Metric metric = supplier.apply(metrics);
-      for (int i = labelValues.size() - 1; i >= 0; i--) {
-        metrics.removeLabel(labelsCount + i);
-      }
-      family.addMetric(metric);
+      this.consumer = consumer;
     }
   }
 
-  private static final class CounterConsumer extends MetricsConsumer {
+  private interface MetricsConsumer {
 
-    public CounterConsumer(@NotNull OutputStream stream, @NotNull String name, @NotNull String help) {
-      super(stream, Metrics.MetricType.COUNTER, name, help);
-    }
-
-    @Override
-    protected void consume(@NotNull Iterable<Collector.MetricFamilySamples.Sample> samples) {
-      for (Collector.MetricFamilySamples.Sample sample : samples) {
-        apply(metrics -> metrics.setCounter(Metrics.Counter.newBuilder().setValue(sample.value).build()).build(), sample.labelNames, sample.labelValues);
-      }
-    }
+    void consume(@NotNull MetricsSink sink, @NotNull Iterable<Collector.MetricFamilySamples.Sample> samples);
   }
 
-  private static final class GaugeConsumer extends MetricsConsumer {
-
-    public GaugeConsumer(@NotNull OutputStream stream, @NotNull String name, @NotNull String help) {
-      super(stream, Metrics.MetricType.GAUGE, name, help);
-    }
+  private static final class ValueConsumer implements MetricsConsumer {
 
     @Override
-    protected void consume(@NotNull Iterable<Collector.MetricFamilySamples.Sample> samples) {
+    public void consume(@NotNull MetricsSink sink, @NotNull Iterable<Collector.MetricFamilySamples.Sample> samples) {
       for (Collector.MetricFamilySamples.Sample sample : samples) {
-        apply(metrics -> metrics.setGauge(Metrics.Gauge.newBuilder().setValue(sample.value).build()).build(), sample.labelNames, sample.labelValues);
+        for (int i = 0; i < sample.labelValues.size(); i++) {
+          sink.label(sample.labelNames.get(i), sample.labelValues.get(i));
+        }
+        sink.value(sample.value);
       }
     }
   }
 
-  private static final class Builders<T> {
-    private final @NotNull Map<List<String>, T> labels = new HashMap<>();
-    private final @NotNull Supplier<T> creator;
-
+  private abstract static class DistributionConsumer implements MetricsConsumer {
     private final @NotNull String particle;
 
-    public Builders(@NotNull Supplier<T> creator, @NotNull String particle) {
-      this.creator = creator;
+    protected DistributionConsumer(@NotNull String particle) {
       this.particle = particle;
     }
 
-    public @NotNull String particle() {
-      return particle;
-    }
-
-    public @NotNull T get(@NotNull List<String> key) {
-      return labels.computeIfAbsent(key, l -> creator.get());
-    }
-
-    public void forEach(@NotNull BiConsumer<List<String>, T> action) {
-      labels.forEach(action);
-    }
-  }
-
-  private abstract static class GenericMetricsConsumer<T extends Builder> extends MetricsConsumer {
-
-    protected GenericMetricsConsumer(@NotNull OutputStream stream, @NotNull Metrics.MetricType type, @NotNull String name, @NotNull String help) {
-      super(stream, type, name, help);
-    }
-
     @Override
-    protected final void consume(@NotNull Iterable<Collector.MetricFamilySamples.Sample> samples) {
-      final Builders<T> builders = createLabels();
-
-      final Map<List<String>, List<String>> lables = new HashMap<>();
+    public final void consume(@NotNull MetricsSink sink, @NotNull Iterable<Collector.MetricFamilySamples.Sample> samples) {
+      final Map<List<List<String>>, Series> series = new LinkedHashMap<>();
       for (Collector.MetricFamilySamples.Sample sample : samples) {
         if (sample.name.endsWith("_count")) {
-          builders.get(sample.labelNames).consumeSampleCount((long) sample.value);
+          series(series, sample.labelNames, sample.labelValues).count = (long) sample.value;
           continue;
         }
         if (sample.name.endsWith("_sum")) {
-          builders.get(sample.labelNames).consumeSampleSum(sample.value);
+          series(series, sample.labelNames, sample.labelValues).sum = sample.value;
           continue;
         } // if (sample.name.endsWith("_bucket")) for Histogram
-        final int particle = sample.labelNames.indexOf(builders.particle());
-        if (particle == -1) {
+        final int index = sample.labelNames.indexOf(particle);
+        if (index == -1) {
           continue;
         }
         final List<String> labelNames = new ArrayList<>(sample.labelNames);
-        labelNames.remove(particle);
-        final List<String> lableValues = new ArrayList<>(sample.labelValues);
-        lableValues.remove(particle);
-        lables.put(labelNames, lableValues);
-        builders.get(labelNames).consumeParticle(DoubleConverter.convert(sample.labelValues.get(particle)), sample.value);
+        labelNames.remove(index);
+        final List<String> labelValues = new ArrayList<>(sample.labelValues);
+        labelValues.remove(index);
+        series(series, labelNames, labelValues).particle(DoubleConverter.convert(sample.labelValues.get(index)), sample.value);
       }
-      builders.forEach((k, v) -> apply(v::build, k, lables.get(k)));
-    }
-
-    protected abstract @NotNull Builders<T> createLabels();
-  }
-
-  private static final class SummaryConsumer extends GenericMetricsConsumer<SummaryConsumer.SummaryBuilder> {
-
-    public SummaryConsumer(@NotNull OutputStream stream, @NotNull String name, @NotNull String help) {
-      super(stream, Metrics.MetricType.SUMMARY, name, help);
+      series.forEach((labels, values) -> {
+        final List<String> labelNames = labels.get(0);
+        final List<String> labelValues = labels.get(1);
+        for (int i = 0; i < labelNames.size(); i++) {
+          sink.label(labelNames.get(i), labelValues.get(i));
+        }
+        write(sink, values);
+      });
     }
 
-    @Override
-    protected @NotNull Builders<SummaryBuilder> createLabels() {
-      return new Builders<>(SummaryBuilder::new, "quantile");
+    private static @NotNull Series series(@NotNull Map<List<List<String>>, Series> series, @NotNull List<String> labelNames, @NotNull List<String> labelValues) {
+      return series.computeIfAbsent(Arrays.asList(labelNames, labelValues), labels -> new Series());
     }
 
-    static final class SummaryBuilder implements Builder {
-      private final @NotNull Metrics.Summary.Builder builder = Metrics.Summary.newBuilder();
-
-      @Override
-      public void consumeSampleCount(long value) {
-        builder.setSampleCount(value);
-      }
-
-      @Override
-      public void consumeSampleSum(double value) {
-        builder.setSampleSum(value);
-      }
-
-      @Override
-      public void consumeParticle(double particle, double sample) {
-        builder.addQuantile(Metrics.Quantile.newBuilder().setQuantile(particle).setValue(sample));
-      }
-
-      @Override
-      public @NotNull Metrics.Metric build(@NotNull Metrics.Metric.Builder metrics) {
-        return metrics.setSummary(builder.build()).build();
-      }
-    }
+    protected abstract void write(@NotNull MetricsSink sink, @NotNull Series series);
   }
 
-  private static final class HistogramConsumer extends GenericMetricsConsumer<HistogramConsumer.HistogramBuilder> {
-
-    public HistogramConsumer(@NotNull OutputStream stream, @NotNull String name, @NotNull String help) {
-      super(stream, Metrics.MetricType.HISTOGRAM, name, help);
-    }
-
-    @Override
-    protected @NotNull Builders<HistogramBuilder> createLabels() {
-      return new Builders<>(HistogramBuilder::new, "le");
-    }
-
-    static final class HistogramBuilder implements Builder {
-      private final @NotNull Metrics.Histogram.Builder builder = Metrics.Histogram.newBuilder();
-
-      @Override
-      public void consumeSampleCount(long value) {
-        builder.setSampleCount(value);
-      }
-
-      @Override
-      public void consumeSampleSum(double value) {
-        builder.setSampleSum(value);
-      }
-
-      @Override
-      public void consumeParticle(double particle, double sample) {
-        builder.addBucket(Metrics.Bucket.newBuilder().setCumulativeCount((long) sample).setUpperBound(particle));
-      }
-
-      @Override
-      public @NotNull Metrics.Metric build(@NotNull Metrics.Metric.Builder metrics) {
-        return metrics.setHistogram(builder.build()).build();
+  private static final class Series {
+    private long count;
+    private double sum;
+    private @NotNull double[] keys = new double[8];
+    private @NotNull double[] values = new double[8];
+    private int particles;
+
+    public void particle(double key, double value) {
+      if (particles == keys.length) {
+        keys = Arrays.copyOf(keys, particles * 2);
+        values = Arrays.copyOf(values, particles * 2);
       }
+      keys[particles] = key;
+      values[particles] = value;
+      particles++;
     }
   }
 }
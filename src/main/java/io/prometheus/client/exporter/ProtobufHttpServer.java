@@ -0,0 +1,264 @@
+package io.prometheus.client.exporter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.prometheus.client.CollectorRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+
+/**
+ * Serves registries in the protobuf delimited format from the JDK HTTP server, for applications without a servlet
+ * container. Connections are kept alive between scrapes, uncompressed payloads are encoded into a buffer reused by the
+ * worker thread and sent with their length, and compressed ones are streamed in chunks.
+ * The workers are daemon threads which exit when idle, so the server costs a selector thread between scrapes.
+ */
+public final class ProtobufHttpServer implements Closeable {
+  private static final @NotNull Logger LOGGER = Logger.getLogger(ProtobufHttpServer.class.getName());
+  private static final @NotNull String NAME_PARAMETER = "name[]";
+
+  private final @NotNull List<CollectorRegistry> registries;
+  private final @Nullable EncodingCache cache;
+  private final @Nullable ParallelEncoding parallel;
+  private final @Nullable CompressionPolicy compression;
+  private final @NotNull HttpServer server;
+  private final @NotNull ExecutorService executor;
+  private final @NotNull ThreadLocal<ByteArrayOutputStream> buffers = ThreadLocal.withInitial(ByteArrayOutputStream::new);
+
+  private ProtobufHttpServer(@NotNull Builder builder) throws IOException {
+    registries = builder.registries.isEmpty()
+        ? Collections.singletonList(CollectorRegistry.defaultRegistry)
+        : new ArrayList<>(builder.registries);
+    cache = builder.cache;
+    parallel = builder.parallel;
+    compression = builder.compression;
+    final AtomicInteger threads = new AtomicInteger();
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(builder.threads, builder.threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+      final Thread thread = new Thread(runnable, "protobuf-http-server-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.allowCoreThreadTimeOut(true);
+    this.executor = executor;
+    server = HttpServer.create(builder.address, builder.backlog);
+    server.createContext(builder.path, this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  public static @NotNull Builder build() {
+    return new Builder();
+  }
+
+  /**
+   * Port the server listens on, the one chosen by the system if it was created with port 0.
+   */
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Stops accepting connections and waits at most a second for the scrapes in progress.
+   */
+  @Override
+  public void close() {
+    server.stop(1);
+    executor.shutdown();
+  }
+
+  private void handle(@NotNull HttpExchange exchange) throws IOException {
+    try {
+      final String method = exchange.getRequestMethod();
+      if (!method.equals("GET") && !method.equals("HEAD") && !method.equals("POST")) {
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD, POST");
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_METHOD, -1);
+        return;
+      }
+      final Set<String> names;
+      try {
+        names = names(exchange.getRequestURI().getRawQuery());
+      } catch (IllegalArgumentException e) {
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, -1);
+        return;
+      }
+      final int level = compression == null ? Deflater.NO_COMPRESSION : compression.level(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+      exchange.getResponseHeaders().set("Content-Type", ProtobufFormatter.CONTENT_TYPE);
+      if (compression != null) {
+        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+      }
+      if (level == Deflater.NO_COMPRESSION) {
+        final ByteArrayOutputStream buffer = buffers.get();
+        buffer.reset();
+        try {
+          new ProtobufFormatter(ProtobufMetricsServlet.metrics(registries, names), cache, parallel, names.isEmpty()).write(buffer);
+        } catch (IOException | RuntimeException e) {
+          LOGGER.log(Level.WARNING, "Scrape failed", e);
+          exchange.getResponseHeaders().remove("Content-Type");
+          exchange.sendResponseHeaders(HttpURLConnection.HTTP_INTERNAL_ERROR, -1);
+          return;
+        }
+        observed(names, buffer.size());
+        if (method.equals("HEAD")) {
+          exchange.getResponseHeaders().set("Content-Length", Integer.toString(buffer.size()));
+          exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, -1);
+          return;
+        }
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, buffer.size());
+        buffer.writeTo(exchange.getResponseBody());
+        return;
+      }
+      exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+      if (method.equals("HEAD")) {
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, -1);
+        return;
+      }
+      exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+      try (final CountingOutputStream output = new CountingOutputStream(
+          new ParallelGzipOutputStream(exchange.getResponseBody(), ForkJoinPool.commonPool(), level, ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE))) {
+        new ProtobufFormatter(ProtobufMetricsServlet.metrics(registries, names), cache, parallel, names.isEmpty()).write(output);
+        observed(names, output.count());
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private void observed(@NotNull Set<String> names, long size) {
+    if (compression != null && names.isEmpty()) {
+      compression.observed(size);
+    }
+  }
+
+  private static @NotNull Set<String> names(@Nullable String query) throws UnsupportedEncodingException {
+    if (query == null) {
+      return Collections.emptySet();
+    }
+    final Set<String> names = new HashSet<>();
+    for (String parameter : query.split("&")) {
+      final int separator = parameter.indexOf('=');
+      if (separator > 0 && URLDecoder.decode(parameter.substring(0, separator), "UTF-8").equals(NAME_PARAMETER)) {
+        names.add(URLDecoder.decode(parameter.substring(separator + 1), "UTF-8"));
+      }
+    }
+    return names;
+  }
+
+  public static final class Builder {
+    private final @NotNull List<CollectorRegistry> registries = new ArrayList<>();
+    private @NotNull InetSocketAddress address = new InetSocketAddress(9400);
+    private @NotNull String path = "/metrics";
+    private int threads = 1;
+    private int backlog;
+    private @Nullable EncodingCache cache;
+    private @Nullable ParallelEncoding parallel;
+    private @Nullable CompressionPolicy compression;
+
+    private Builder() {
+    }
+
+    /**
+     * Adds a registry to serve instead of the default one.
+     */
+    public @NotNull Builder registry(@NotNull CollectorRegistry registry) {
+      registries.add(registry);
+      return this;
+    }
+
+    /**
+     * Port to listen on all interfaces, 9400 by default.
+     */
+    public @NotNull Builder port(int port) {
+      return address(new InetSocketAddress(port));
+    }
+
+    public @NotNull Builder address(@NotNull InetSocketAddress address) {
+      this.address = address;
+      return this;
+    }
+
+    public @NotNull Builder path(@NotNull String path) {
+      if (!path.startsWith("/")) {
+        throw new IllegalArgumentException("Path must start with a slash: " + path);
+      }
+      this.path = path;
+      return this;
+    }
+
+    /**
+     * Number of scrapes served concurrently, one by default.
+     */
+    public @NotNull Builder threads(int threads) {
+      if (threads < 1) {
+        throw new IllegalArgumentException("Threads must be positive: " + threads);
+      }
+      this.threads = threads;
+      return this;
+    }
+
+    /**
+     * Length of the queue of pending connections, 0 for the system default.
+     */
+    public @NotNull Builder backlog(int backlog) {
+      if (backlog < 0) {
+        throw new IllegalArgumentException("Backlog must not be negative: " + backlog);
+      }
+      this.backlog = backlog;
+      return this;
+    }
+
+    /**
+     * Reuses the encoded bytes of families which did not change since the previous scrape.
+     */
+    public @NotNull Builder cache(@NotNull EncodingCache cache) {
+      this.cache = cache;
+      return this;
+    }
+
+    /**
+     * Encodes large payloads on several threads.
+     */
+    public @NotNull Builder parallel(@NotNull ParallelEncoding parallel) {
+      this.parallel = parallel;
+      return this;
+    }
+
+    /**
+     * Compresses responses for clients accepting gzip.
+     */
+    public @NotNull Builder gzip() {
+      return compression(CompressionPolicy.always());
+    }
+
+    /**
+     * Compresses responses for clients accepting gzip when and at the level the policy decides.
+     */
+    public @NotNull Builder compression(@NotNull CompressionPolicy compression) {
+      this.compression = compression;
+      return this;
+    }
+
+    /**
+     * Binds the address and starts serving.
+     */
+    public @NotNull ProtobufHttpServer start() throws IOException {
+      return new ProtobufHttpServer(this);
+    }
+  }
+}
@@ -1,36 +1,197 @@
 package io.prometheus.client.exporter;
 
+import io.prometheus.client.Collector;
 import io.prometheus.client.CollectorRegistry;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
 
 public final class ProtobufMetricsServlet extends HttpServlet {
-  private final @NotNull CollectorRegistry registry;
+  private static final @NotNull Logger LOGGER = Logger.getLogger(ProtobufMetricsServlet.class.getName());
+  private static final @NotNull String ETAG = "ETag";
+  private static final @NotNull String IF_NONE_MATCH = "If-None-Match";
+  private static final @NotNull String ACCEPT_ENCODING = "Accept-Encoding";
+  private static final @NotNull String CONTENT_ENCODING = "Content-Encoding";
+  private static final @NotNull String VARY = "Vary";
+  private static final @NotNull String GZIP = "gzip";
+  private static final @NotNull String RETRY_AFTER = "Retry-After";
+  static final @NotNull String SINCE = "since";
+  static final @NotNull String TOKEN_HEADER = "X-Scrape-Token";
+  static final @NotNull String SINCE_HEADER = "X-Scrape-Since";
+
+  private final @NotNull List<CollectorRegistry> registries;
+  private final @Nullable SnapshotArchive archive;
+  private final @Nullable EncodingCache cache;
+  private final boolean conditional;
+  private final @Nullable DeltaStore deltas;
+  private final @Nullable ParallelEncoding parallel;
+  private final @Nullable CompressionPolicy compression;
+  private final @Nullable SnapshotRenderer snapshots;
+  private final @Nullable ScrapeLimiter limiter;
 
   public ProtobufMetricsServlet() {
     this(CollectorRegistry.defaultRegistry);
   }
 
   public ProtobufMetricsServlet(@NotNull CollectorRegistry registry) {
-    this.registry = registry;
+    this(build().registry(registry));
+  }
+
+  private ProtobufMetricsServlet(@NotNull Builder builder) {
+    this.registries = builder.registries.isEmpty()
+        ? Collections.singletonList(CollectorRegistry.defaultRegistry)
+        : new ArrayList<>(builder.registries);
+    this.archive = builder.archive;
+    this.cache = builder.cache;
+    this.conditional = builder.conditional;
+    this.deltas = builder.deltas;
+    this.parallel = builder.parallel;
+    this.compression = builder.compression;
+    this.snapshots = builder.snapshots;
+    this.limiter = builder.limiter;
+  }
+
+  public static @NotNull Builder build() {
+    return new Builder();
   }
 
   @Override
   protected void doGet(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response) throws IOException {
-    response.setStatus(HttpServletResponse.SC_OK);
-    response.setContentType(ProtobufFormatter.CONTENT_TYPE);
-    try (final OutputStream output = response.getOutputStream()) {
-      new ProtobufFormatter(registry.filteredMetricFamilySamples(names(request))).write(output);
-      output.flush();
+    if (limiter == null) {
+      scrape(request, response);
+      return;
+    }
+    final Executor executor = limiter.executor();
+    if (executor == null || !request.isAsyncSupported()) {
+      limited(request, response);
+      return;
+    }
+    final long queued = System.nanoTime();
+    final boolean admitted = limiter.tryAcquire();
+    if (!admitted && !limiter.enqueue()) {
+      reject(response);
+      return;
+    }
+    final AsyncContext async = request.startAsync();
+    async.setTimeout(0);
+    try {
+      executor.execute(() -> {
+        final HttpServletResponse asyncResponse = (HttpServletResponse) async.getResponse();
+        try {
+          if (!admitted && !limiter.await(queued)) {
+            reject(asyncResponse);
+            return;
+          }
+          try {
+            scrape((HttpServletRequest) async.getRequest(), asyncResponse);
+          } finally {
+            limiter.release();
+          }
+        } catch (IOException | RuntimeException e) {
+          fail(asyncResponse, e);
+        } finally {
+          async.complete();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      if (admitted) {
+        limiter.release();
+      } else {
+        limiter.dequeue();
+      }
+      reject(response);
+      async.complete();
+    }
+  }
+
+  /**
+   * Scrapes once the limiter gives a turn, waiting for it on the current thread, or rejects the scrape.
+   */
+  private void limited(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response) throws IOException {
+    final ScrapeLimiter limiter = Objects.requireNonNull(this.limiter);
+    if (!limiter.acquire()) {
+      reject(response);
+      return;
+    }
+    try {
+      scrape(request, response);
+    } finally {
+      limiter.release();
+    }
+  }
+
+  private void reject(@NotNull HttpServletResponse response) throws IOException {
+    final ScrapeLimiter limiter = Objects.requireNonNull(this.limiter);
+    response.setHeader(RETRY_AFTER, Long.toString(limiter.retryAfter()));
+    response.sendError(limiter.status());
+  }
+
+  /**
+   * Answers a scrape which failed on the executor with an error, unless a part of the payload was sent already.
+   */
+  private static void fail(@NotNull HttpServletResponse response, @NotNull Exception exception) {
+    LOGGER.log(Level.WARNING, "Scrape failed", exception);
+    if (!response.isCommitted()) {
+      try {
+        response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  private void scrape(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response) throws IOException {
+    final Set<String> names = names(request);
+    final int level = compression == null ? Deflater.NO_COMPRESSION : compression.level(request.getHeader(ACCEPT_ENCODING));
+    if (compression != null) {
+      response.setHeader(VARY, ACCEPT_ENCODING);
+    }
+    final String since = deltas == null ? null : request.getParameter(SINCE);
+    if (since != null) {
+      writeDelta(since, names, response, level);
+      return;
+    }
+    if (snapshots != null && names.isEmpty() && level == Deflater.NO_COMPRESSION && writeSnapshot(request, response)) {
+      return;
+    }
+    if (!conditional) {
+      try (final CountingOutputStream output = new CountingOutputStream(body(response, level))) {
+        write(names, output);
+        observed(names, output.count());
+      }
+      return;
+    }
+    final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    final MessageDigest digest = digest();
+    write(names, new DigestOutputStream(payload, digest));
+    observed(names, payload.size());
+    final String tag = tag(digest.digest(), level == Deflater.NO_COMPRESSION ? "" : "-" + GZIP + level);
+    response.setHeader(ETAG, tag);
+    if (matches(request.getHeader(IF_NONE_MATCH), tag)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+    if (level == Deflater.NO_COMPRESSION) {
+      response.setContentLength(payload.size());
+    }
+    try (final OutputStream output = body(response, level)) {
+      payload.writeTo(output);
     }
   }
 
@@ -39,8 +200,306 @@ public final class ProtobufMetricsServlet extends HttpServlet {
     doGet(request, response);
   }
 
+  private void write(@NotNull Set<String> names, @NotNull OutputStream output) throws IOException {
+    final SnapshotArchive.Record record = archive == null || !names.isEmpty() ? null : archive.record(System.currentTimeMillis());
+    try {
+      new ProtobufFormatter(metrics(names), cache, parallel, names.isEmpty()).write(record == null ? output : new TeeOutputStream(output, record));
+      output.flush();
+    } catch (IOException | RuntimeException e) {
+      if (record != null) {
+        record.abort();
+      }
+      throw e;
+    }
+    if (record != null) {
+      record.close();
+    }
+  }
+
+  /**
+   * Lets the compression policy judge the next scrapes by the size of a full one, as filtered and delta scrapes are
+   * smaller.
+   */
+  private void observed(@NotNull Set<String> names, long size) {
+    if (compression != null && names.isEmpty()) {
+      compression.observed(size);
+    }
+  }
+
+  /**
+   * Serves the current snapshot, with the tag digested when it was rendered, or returns {@code false} if there is none.
+   */
+  private boolean writeSnapshot(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response) throws IOException {
+    return Objects.requireNonNull(snapshots).writeTo(response.getOutputStream(), (length, tag) -> {
+      if (conditional) {
+        response.setHeader(ETAG, tag);
+        if (matches(request.getHeader(IF_NONE_MATCH), tag)) {
+          response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+          return false;
+        }
+      }
+      response.setStatus(HttpServletResponse.SC_OK);
+      response.setContentType(ProtobufFormatter.CONTENT_TYPE);
+      response.setContentLengthLong(length);
+      return true;
+    }) >= 0;
+  }
+
+  private void writeDelta(@NotNull String since, @NotNull Set<String> names, @NotNull HttpServletResponse response, int level) throws IOException {
+    final DeltaStore.Delta delta = Objects.requireNonNull(deltas).delta(since.isEmpty() ? null : since, Collections.list(metrics(names)));
+    response.setHeader(TOKEN_HEADER, delta.token);
+    if (delta.incremental) {
+      response.setHeader(SINCE_HEADER, since);
+    }
+    try (final OutputStream output = body(response, level)) {
+      new ProtobufFormatter(Collections.enumeration(delta.families)).write(output);
+      output.flush();
+    }
+  }
+
+  private static @NotNull OutputStream body(@NotNull HttpServletResponse response, int level) throws IOException {
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(ProtobufFormatter.CONTENT_TYPE);
+    if (level == Deflater.NO_COMPRESSION) {
+      return response.getOutputStream();
+    }
+    response.setHeader(CONTENT_ENCODING, GZIP);
+    return new ParallelGzipOutputStream(response.getOutputStream(), ForkJoinPool.commonPool(), level, ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Whether an {@code Accept-Encoding} header allows the content coding, directly or through {@code *}, with a
+   * non-zero quality.
+   */
+  static boolean accepts(@Nullable String header, @NotNull String coding) {
+    return header != null && quality(header, coding) > 0;
+  }
+
+  /**
+   * Quality an {@code Accept-Encoding} header gives the content coding, the one of {@code *} if it is not listed, or
+   * NaN if neither is.
+   */
+  static double quality(@NotNull String header, @NotNull String coding) {
+    double any = Double.NaN;
+    for (String candidate : header.split(",")) {
+      final String[] parameters = candidate.split(";");
+      final String name = parameters[0].trim();
+      if (!name.equalsIgnoreCase(coding) && !name.equals("*")) {
+        continue;
+      }
+      double quality = 1;
+      for (int i = 1; i < parameters.length; i++) {
+        final String parameter = parameters[i].trim();
+        if (parameter.startsWith("q=")) {
+          try {
+            quality = Double.parseDouble(parameter.substring(2));
+          } catch (NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+      if (!name.equals("*")) {
+        return quality;
+      }
+      any = quality;
+    }
+    return any;
+  }
+
+  /**
+   * Digest of payloads tagged by {@link #tag}.
+   */
+  static @NotNull MessageDigest digest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Strong entity tag made of the first 128 bits of the SHA-256 digest of the payload, and a suffix telling the
+   * content coding apart.
+   */
+  static @NotNull String tag(@NotNull byte[] hash, @NotNull String suffix) {
+    final StringBuilder tag = new StringBuilder(34).append('"');
+    for (int i = 0; i < 16; i++) {
+      tag.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+    }
+    return tag.append(suffix).append('"').toString();
+  }
+
+  /**
+   * Compares the tags of an {@code If-None-Match} header with the weak comparison RFC 7232 asks for.
+   */
+  static boolean matches(@Nullable String header, @NotNull String tag) {
+    if (header == null) {
+      return false;
+    }
+    for (String candidate : header.split(",")) {
+      candidate = candidate.trim();
+      if (candidate.equals("*")) {
+        return true;
+      }
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals(tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private @NotNull Enumeration<Collector.MetricFamilySamples> metrics(@NotNull Set<String> names) {
+    return metrics(registries, names);
+  }
+
+  static @NotNull Enumeration<Collector.MetricFamilySamples> metrics(@NotNull List<CollectorRegistry> registries, @NotNull Set<String> names) {
+    if (registries.size() == 1) {
+      return registries.get(0).filteredMetricFamilySamples(names);
+    }
+    final List<Collector.MetricFamilySamples> metrics = new ArrayList<>();
+    for (CollectorRegistry registry : registries) {
+      metrics.addAll(Collections.list(registry.filteredMetricFamilySamples(names)));
+    }
+    return Collections.enumeration(metrics);
+  }
+
   private static @NotNull Set<String> names(@NotNull HttpServletRequest request) {
     final String[] names = request.getParameterValues("name[]");
     return names == null ? Collections.emptySet() : new HashSet<>(Arrays.asList(names));
   }
+
+  public static final class Builder {
+    private final @NotNull List<CollectorRegistry> registries = new ArrayList<>();
+    private @Nullable SnapshotArchive archive;
+    private @Nullable EncodingCache cache;
+    private boolean conditional;
+    private @Nullable DeltaStore deltas;
+    private @Nullable ParallelEncoding parallel;
+    private @Nullable CompressionPolicy compression;
+    private @Nullable SnapshotRenderer snapshots;
+    private @Nullable ScrapeLimiter limiter;
+
+    private Builder() {
+    }
+
+    /**
+     * Adds a registry to serve instead of the default one. Families of several registries are written one after
+     * another, and {@link SketchSummary} families sharing a name are merged.
+     */
+    public @NotNull Builder registry(@NotNull CollectorRegistry registry) {
+      registries.add(registry);
+      return this;
+    }
+
+    /**
+     * Appends every complete unfiltered scrape to the archive, reusing the bytes sent to the client.
+     */
+    public @NotNull Builder archive(@NotNull SnapshotArchive archive) {
+      this.archive = archive;
+      return this;
+    }
+
+    /**
+     * Reuses the encoded bytes of families which did not change since the previous scrape.
+     */
+    public @NotNull Builder cache(@NotNull EncodingCache cache) {
+      this.cache = cache;
+      return this;
+    }
+
+    /**
+     * Tags every response with a strong {@code ETag} of its payload and answers requests whose {@code If-None-Match}
+     * header carries the current tag with {@code 304 Not Modified} and no body. The payload is buffered to be tagged.
+     */
+    public @NotNull Builder conditional() {
+      this.conditional = true;
+      return this;
+    }
+
+    /**
+     * Enables delta exposition for scrapers passing {@code ?since=<token>}, empty on their first scrape. The response
+     * carries the series which changed since the scrape that returned the token, the removed series as samples of
+     * the {@code scrape_removed_series} family with their name in the {@code __name__} label, and the token for the
+     * next scrape in the {@code X-Scrape-Token} header. {@code X-Scrape-Since} echoes the token of an incremental
+     * response and is missing when every series is sent.
+     */
+    public @NotNull Builder deltas(@NotNull DeltaStore deltas) {
+      this.deltas = deltas;
+      return this;
+    }
+
+    /**
+     * Encodes large payloads on several threads.
+     */
+    public @NotNull Builder parallel(@NotNull ParallelEncoding parallel) {
+      this.parallel = parallel;
+      return this;
+    }
+
+    /**
+     * Compresses responses for clients accepting gzip, with blocks deflated concurrently on the common pool.
+     */
+    public @NotNull Builder gzip() {
+      return compression(CompressionPolicy.always());
+    }
+
+    /**
+     * Compresses responses for clients accepting gzip when and at the level the policy decides.
+     */
+    public @NotNull Builder compression(@NotNull CompressionPolicy compression) {
+      this.compression = compression;
+      return this;
+    }
+
+    /**
+     * Serves unfiltered uncompressed scrapes from the last snapshot rendered, if there is one, without encoding.
+     */
+    public @NotNull Builder snapshots(@NotNull SnapshotRenderer snapshots) {
+      this.snapshots = snapshots;
+      return this;
+    }
+
+    /**
+     * Bounds the scrapes running and waiting at a time. The executor of the limiter is used when the servlet is
+     * registered as supporting asynchronous requests, otherwise scrapes run on the container threads.
+     */
+    public @NotNull Builder limiter(@NotNull ScrapeLimiter limiter) {
+      this.limiter = limiter;
+      return this;
+    }
+
+    public @NotNull ProtobufMetricsServlet create() {
+      return new ProtobufMetricsServlet(this);
+    }
+  }
+
+  private static final class TeeOutputStream extends OutputStream {
+    private final @NotNull OutputStream output;
+    private final @NotNull OutputStream copy;
+
+    public TeeOutputStream(@NotNull OutputStream output, @NotNull OutputStream copy) {
+      this.output = output;
+      this.copy = copy;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+      output.write(value);
+      copy.write(value);
+    }
+
+    @Override
+    public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+      output.write(bytes, offset, length);
+      copy.write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      output.flush();
+    }
+  }
 }
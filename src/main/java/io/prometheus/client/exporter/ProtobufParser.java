@@ -0,0 +1,338 @@
+package io.prometheus.client.exporter;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import io.prometheus.client.Collector;
+import io.prometheus.client.Metrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Reads {@code encoding=delimited} streams, as written by {@link ProtobufFormatter}, straight into
+ * {@link Collector.MetricFamilySamples} or a {@link Visitor} without building {@link Metrics} messages.
+ * Metrics are passed on as they are read, so the name, help and type of a family must precede its metrics, as field
+ * number order puts them; a family defining any of them after a metric is rejected rather than misparsed.
+ */
+public final class ProtobufParser {
+  private final @NotNull CodedInputStream input;
+  private final @NotNull LabelInterner interner;
+  private final @NotNull MetricState metric = new MetricState();
+
+  public ProtobufParser(@NotNull InputStream input) {
+    this(CodedInputStream.newInstance(input), new LabelInterner());
+  }
+
+  public ProtobufParser(@NotNull ByteBuffer input) {
+    this(input, new LabelInterner());
+  }
+
+  public ProtobufParser(@NotNull ByteBuffer input, @NotNull LabelInterner interner) {
+    this(CodedInputStream.newInstance(input), interner);
+  }
+
+  public ProtobufParser(@NotNull CodedInputStream input, @NotNull LabelInterner interner) {
+    this.input = input;
+    this.interner = interner;
+    input.enableAliasing(true);
+  }
+
+  public @NotNull List<Collector.MetricFamilySamples> families() throws IOException {
+    final SamplesCollector collector = new SamplesCollector();
+    readAll(collector);
+    return collector.families;
+  }
+
+  public void readAll(@NotNull Visitor visitor) throws IOException {
+    while (read(visitor)) {
+      // keep reading
+    }
+  }
+
+  public boolean read(@NotNull Visitor visitor) throws IOException {
+    if (input.isAtEnd()) {
+      return false;
+    }
+    input.resetSizeCounter();
+    final int limit = input.pushLimit(input.readRawVarint32());
+    final FamilyState family = new FamilyState(visitor);
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      switch (WireFormat.getTagFieldNumber(tag)) {
+        case Metrics.MetricFamily.NAME_FIELD_NUMBER:
+          family.define();
+          family.name = interner.intern(input.readBytes());
+          break;
+        case Metrics.MetricFamily.HELP_FIELD_NUMBER:
+          family.define();
+          family.help = input.readStringRequireUtf8();
+          break;
+        case Metrics.MetricFamily.TYPE_FIELD_NUMBER:
+          family.define();
+          family.type = type(input.readEnum());
+          break;
+        case Metrics.MetricFamily.METRIC_FIELD_NUMBER:
+          family.begin();
+          readMetric(family);
+          break;
+        default:
+          input.skipField(tag);
+      }
+    }
+    input.popLimit(limit);
+    family.begin();
+    visitor.endFamily();
+    return true;
+  }
+
+  private void readMetric(@NotNull FamilyState family) throws IOException {
+    final int limit = input.pushLimit(input.readRawVarint32());
+    metric.reset();
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      switch (WireFormat.getTagFieldNumber(tag)) {
+        case Metrics.Metric.LABEL_FIELD_NUMBER:
+          readLabel();
+          break;
+        case Metrics.Metric.GAUGE_FIELD_NUMBER:
+        case Metrics.Metric.COUNTER_FIELD_NUMBER:
+        case Metrics.Metric.UNTYPED_FIELD_NUMBER:
+          readValue();
+          break;
+        case Metrics.Metric.SUMMARY_FIELD_NUMBER:
+          readDistribution(Metrics.Summary.QUANTILE_FIELD_NUMBER, Metrics.Quantile.QUANTILE_FIELD_NUMBER, Metrics.Quantile.VALUE_FIELD_NUMBER);
+          break;
+        case Metrics.Metric.HISTOGRAM_FIELD_NUMBER:
+          readDistribution(Metrics.Histogram.BUCKET_FIELD_NUMBER, Metrics.Bucket.UPPER_BOUND_FIELD_NUMBER, Metrics.Bucket.CUMULATIVE_COUNT_FIELD_NUMBER);
+          break;
+        case Metrics.Metric.TIMESTAMP_MS_FIELD_NUMBER:
+          metric.timestamp = input.readInt64();
+          break;
+        default:
+          input.skipField(tag);
+      }
+    }
+    input.popLimit(limit);
+    family.emit(metric);
+  }
+
+  private void readLabel() throws IOException {
+    final int limit = input.pushLimit(input.readRawVarint32());
+    String name = "";
+    String value = "";
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      switch (WireFormat.getTagFieldNumber(tag)) {
+        case Metrics.LabelPair.NAME_FIELD_NUMBER:
+          name = interner.intern(input.readBytes());
+          break;
+        case Metrics.LabelPair.VALUE_FIELD_NUMBER:
+          value = interner.intern(input.readBytes());
+          break;
+        default:
+          input.skipField(tag);
+      }
+    }
+    input.popLimit(limit);
+    metric.labelNames.add(name);
+    metric.labelValues.add(value);
+  }
+
+  private void readValue() throws IOException {
+    final int limit = input.pushLimit(input.readRawVarint32());
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      if (WireFormat.getTagFieldNumber(tag) == Metrics.Counter.VALUE_FIELD_NUMBER) {
+        metric.value = input.readDouble();
+      } else {
+        input.skipField(tag);
+      }
+    }
+    input.popLimit(limit);
+  }
+
+  private void readDistribution(int particleField, int boundField, int valueField) throws IOException {
+    final int limit = input.pushLimit(input.readRawVarint32());
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      final int field = WireFormat.getTagFieldNumber(tag);
+      if (field == Metrics.Summary.SAMPLE_COUNT_FIELD_NUMBER) {
+        metric.count = input.readUInt64();
+      } else if (field == Metrics.Summary.SAMPLE_SUM_FIELD_NUMBER) {
+        metric.value = input.readDouble();
+      } else if (field == particleField) {
+        readParticle(boundField, valueField);
+      } else {
+        input.skipField(tag);
+      }
+    }
+    input.popLimit(limit);
+    metric.distribution = true;
+  }
+
+  private void readParticle(int boundField, int valueField) throws IOException {
+    final int limit = input.pushLimit(input.readRawVarint32());
+    double bound = 0;
+    double value = 0;
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      final int field = WireFormat.getTagFieldNumber(tag);
+      if (field == boundField) {
+        bound = input.readDouble();
+      } else if (field == valueField) {
+        value = WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_VARINT ? input.readUInt64() : input.readDouble();
+      } else {
+        input.skipField(tag);
+      }
+    }
+    input.popLimit(limit);
+    metric.particle(bound, value);
+  }
+
+  private static @NotNull Collector.Type type(int number) {
+    switch (number) {
+      case Metrics.MetricType.COUNTER_VALUE:
+        return Collector.Type.COUNTER;
+      case Metrics.MetricType.GAUGE_VALUE:
+        return Collector.Type.GAUGE;
+      case Metrics.MetricType.SUMMARY_VALUE:
+        return Collector.Type.SUMMARY;
+      case Metrics.MetricType.HISTOGRAM_VALUE:
+        return Collector.Type.HISTOGRAM;
+      default:
+        return Collector.Type.UNTYPED;
+    }
+  }
+
+  public interface Visitor {
+
+    void beginFamily(@NotNull String name, @NotNull String help, @NotNull Collector.Type type);
+
+    void sample(@NotNull String name, @NotNull List<String> labelNames, @NotNull List<String> labelValues, double value, @Nullable Long timestampMs);
+
+    void endFamily();
+  }
+
+  private static final class MetricState {
+    private final @NotNull List<String> labelNames = new ArrayList<>();
+    private final @NotNull List<String> labelValues = new ArrayList<>();
+    private double[] bounds = new double[16];
+    private double[] values = new double[16];
+    private int particles;
+    private double value;
+    private long count;
+    private boolean distribution;
+    private @Nullable Long timestamp;
+
+    public void reset() {
+      labelNames.clear();
+      labelValues.clear();
+      particles = 0;
+      value = 0;
+      count = 0;
+      distribution = false;
+      timestamp = null;
+    }
+
+    public void particle(double bound, double value) {
+      if (particles == bounds.length) {
+        bounds = Arrays.copyOf(bounds, particles * 2);
+        values = Arrays.copyOf(values, particles * 2);
+      }
+      bounds[particles] = bound;
+      values[particles] = value;
+      particles++;
+    }
+  }
+
+  private static final class FamilyState {
+    private final @NotNull Visitor visitor;
+    private @NotNull String name = "";
+    private @NotNull String help = "";
+    private @NotNull Collector.Type type = Collector.Type.UNTYPED;
+    private boolean begun;
+
+    private @NotNull String countName = "";
+    private @NotNull String sumName = "";
+    private @NotNull String particleName = "";
+    private @NotNull String particleLabel = "";
+
+    public FamilyState(@NotNull Visitor visitor) {
+      this.visitor = visitor;
+    }
+
+    public void define() throws IOException {
+      if (begun) {
+        throw new IOException("Family " + name + " defines its name, help or type after a metric");
+      }
+    }
+
+    public void begin() {
+      if (begun) {
+        return;
+      }
+      begun = true;
+      countName = name + "_count";
+      sumName = name + "_sum";
+      particleName = type == Collector.Type.HISTOGRAM ? name + "_bucket" : name;
+      particleLabel = type == Collector.Type.HISTOGRAM ? "le" : "quantile";
+      visitor.beginFamily(name, help, type);
+    }
+
+    public void emit(@NotNull MetricState metric) {
+      final List<String> labelNames = copy(metric.labelNames);
+      final List<String> labelValues = copy(metric.labelValues);
+      if (!metric.distribution) {
+        visitor.sample(name, labelNames, labelValues, metric.value, metric.timestamp);
+        return;
+      }
+      if (metric.particles > 0) {
+        final List<String> particleNames = new ArrayList<>(labelNames.size() + 1);
+        particleNames.addAll(labelNames);
+        particleNames.add(particleLabel);
+        final List<String> names = Collections.unmodifiableList(particleNames);
+        for (int i = 0; i < metric.particles; i++) {
+          final String[] values = labelValues.toArray(new String[labelValues.size() + 1]);
+          values[values.length - 1] = Collector.doubleToGoString(metric.bounds[i]);
+          visitor.sample(particleName, names, Arrays.asList(values), metric.values[i], metric.timestamp);
+        }
+      }
+      visitor.sample(countName, labelNames, labelValues, metric.count, metric.timestamp);
+      visitor.sample(sumName, labelNames, labelValues, metric.value, metric.timestamp);
+    }
+
+    private static @NotNull List<String> copy(@NotNull List<String> list) {
+      return list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(list.toArray(new String[0])));
+    }
+  }
+
+  private static final class SamplesCollector implements Visitor {
+    private final @NotNull List<Collector.MetricFamilySamples> families = new ArrayList<>();
+    private @NotNull List<Collector.MetricFamilySamples.Sample> samples = new ArrayList<>();
+    private @NotNull String name = "";
+    private @NotNull String help = "";
+    private @NotNull Collector.Type type = Collector.Type.UNTYPED;
+
+    @Override
+    public void beginFamily(@NotNull String name, @NotNull String help, @NotNull Collector.Type type) {
+      this.name = name;
+      this.help = help;
+      this.type = type;
+      samples = new ArrayList<>();
+    }
+
+    @Override
+    public void sample(@NotNull String name, @NotNull List<String> labelNames, @NotNull List<String> labelValues, double value, @Nullable Long timestampMs) {
+      samples.add(new Collector.MetricFamilySamples.Sample(name, labelNames, labelValues, value, timestampMs));
+    }
+
+    @Override
+    public void endFamily() {
+      families.add(new Collector.MetricFamilySamples(name, type, help, samples));
+    }
+  }
+}
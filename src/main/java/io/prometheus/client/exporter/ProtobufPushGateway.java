@@ -0,0 +1,456 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.CollectorRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pushes registries to a Pushgateway in the protobuf delimited format.
+ * Every push is encoded at call time and queued in a bounded queue; a background thread drains the queue in batches
+ * that are pipelined over a single kept-alive connection. Requests that fail with an I/O error or a 5xx status are
+ * retried with exponential backoff until the attempts are exhausted, other non-2xx responses are dropped right away.
+ */
+public final class ProtobufPushGateway implements Closeable {
+  private static final int DEFAULT_CAPACITY = 1024;
+  private static final int DEFAULT_ATTEMPTS = 5;
+  private static final long DEFAULT_BACKOFF = 100;
+  private static final long MAX_BACKOFF = TimeUnit.SECONDS.toMillis(30);
+  private static final int BATCH_SIZE = 64;
+  private static final int TIMEOUT = (int) TimeUnit.SECONDS.toMillis(10);
+  private static final @NotNull Pattern IP_LITERAL = Pattern.compile("[0-9.]+|\\[?[0-9a-fA-F.]*:[0-9a-fA-F:.%]*]?");
+
+  private final @NotNull URL address;
+  private final boolean gzip;
+  private final int attempts;
+  private final long backoff;
+  private final @NotNull BlockingQueue<Request> queue;
+  private final @NotNull Deque<Request> pending = new ArrayDeque<>();
+  private final @NotNull Thread sender;
+  private final @NotNull Object lock = new Object();
+
+  private volatile boolean running = true;
+  private int inFlight;
+  private long dropped;
+
+  public ProtobufPushGateway(@NotNull URL address) {
+    this(address, false, DEFAULT_CAPACITY, DEFAULT_ATTEMPTS, DEFAULT_BACKOFF, TimeUnit.MILLISECONDS);
+  }
+
+  public ProtobufPushGateway(@NotNull URL address, boolean gzip, int capacity, int attempts, long backoff, @NotNull TimeUnit unit) {
+    if (attempts <= 0) {
+      throw new IllegalArgumentException("Attempts must be positive: " + attempts);
+    }
+    this.address = address;
+    this.gzip = gzip;
+    this.attempts = attempts;
+    this.backoff = unit.toMillis(backoff);
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.sender = new Thread(this::send, "protobuf-push-gateway");
+    sender.setDaemon(true);
+    sender.start();
+  }
+
+  /**
+   * Replaces all metrics of the grouping, returns {@code false} if the queue is full.
+   */
+  public boolean push(@NotNull CollectorRegistry registry, @NotNull String job, @NotNull Map<String, String> grouping) throws IOException {
+    return offer(new Request("PUT", path(job, grouping), encode(registry)));
+  }
+
+  /**
+   * Replaces the metrics with the same names within the grouping, returns {@code false} if the queue is full.
+   */
+  public boolean pushAdd(@NotNull CollectorRegistry registry, @NotNull String job, @NotNull Map<String, String> grouping) throws IOException {
+    return offer(new Request("POST", path(job, grouping), encode(registry)));
+  }
+
+  /**
+   * Deletes all metrics of the grouping, returns {@code false} if the queue is full.
+   */
+  public boolean delete(@NotNull String job, @NotNull Map<String, String> grouping) throws IOException {
+    return offer(new Request("DELETE", path(job, grouping), null));
+  }
+
+  /**
+   * Waits until every queued request is either delivered or dropped, returns {@code false} on timeout.
+   */
+  public boolean flush(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (lock) {
+      while (!queue.isEmpty() || inFlight > 0) {
+        final long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (left <= 0) {
+          return false;
+        }
+        lock.wait(left);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Number of requests dropped after exhausting their attempts or being rejected by the gateway.
+   */
+  public long dropped() {
+    synchronized (lock) {
+      return dropped;
+    }
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    sender.interrupt();
+  }
+
+  private boolean offer(@NotNull Request request) {
+    synchronized (lock) {
+      final boolean accepted = queue.offer(request);
+      lock.notifyAll();
+      return accepted;
+    }
+  }
+
+  private @NotNull byte[] encode(@NotNull CollectorRegistry registry) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final OutputStream output = gzip ? new GZIPOutputStream(bytes) : bytes) {
+      new ProtobufFormatter(registry.metricFamilySamples()).write(output);
+    }
+    return bytes.toByteArray();
+  }
+
+  private @NotNull String path(@NotNull String job, @NotNull Map<String, String> grouping) throws UnsupportedEncodingException {
+    final StringBuilder path = new StringBuilder(address.getPath().replaceAll("/+$", ""))
+        .append("/metrics/job/").append(encode(job));
+    for (Map.Entry<String, String> label : grouping.entrySet()) {
+      path.append('/').append(encode(label.getKey())).append('/').append(encode(label.getValue()));
+    }
+    return path.toString();
+  }
+
+  private static @NotNull String encode(@NotNull String value) throws UnsupportedEncodingException {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8.name()).replace("+", "%20");
+  }
+
+  private void send() {
+    long delay = backoff;
+    Connection connection = null;
+    while (running) {
+      final List<Request> batch;
+      try {
+        batch = next();
+      } catch (InterruptedException e) {
+        break;
+      }
+      if (batch.isEmpty()) {
+        continue;
+      }
+      if (connection == null || connection.closed) {
+        close(connection);
+        connection = connect();
+      }
+      final int failed = connection == null ? fail(batch, 0, true) : fail(batch, connection.send(batch), connection.broken);
+      done();
+      if (failed == 0) {
+        delay = backoff;
+        continue;
+      }
+      close(connection);
+      connection = null;
+      try {
+        Thread.sleep(delay);
+      } catch (InterruptedException e) {
+        break;
+      }
+      delay = Math.min(delay * 2, MAX_BACKOFF);
+    }
+    close(connection);
+  }
+
+  private @NotNull List<Request> next() throws InterruptedException {
+    final List<Request> batch = new ArrayList<>(pending);
+    pending.clear();
+    synchronized (lock) {
+      if (batch.isEmpty() && queue.isEmpty()) {
+        lock.wait(100);
+      }
+      queue.drainTo(batch, Math.max(0, BATCH_SIZE - batch.size()));
+      inFlight = batch.size();
+    }
+    return batch;
+  }
+
+  private int fail(@NotNull List<Request> batch, int received, boolean broken) {
+    int failed = 0;
+    for (int i = 0; i < batch.size(); i++) {
+      final Request request = batch.get(i);
+      if (i >= received && !broken) {
+        // the gateway closed the connection before reading the request, so it is not an attempt
+        pending.add(request);
+        continue;
+      }
+      if (i < received && request.status < 500) {
+        if (request.status >= 300) {
+          drop();
+        }
+        continue;
+      }
+      failed++;
+      if (++request.attempt < attempts) {
+        pending.add(request);
+      } else {
+        drop();
+      }
+    }
+    return failed;
+  }
+
+  private void drop() {
+    synchronized (lock) {
+      dropped++;
+    }
+  }
+
+  private void done() {
+    synchronized (lock) {
+      inFlight = pending.size();
+      if (inFlight == 0 && queue.isEmpty()) {
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private @Nullable Connection connect() {
+    try {
+      final String host = address.getHost();
+      final int port = address.getPort() == -1 ? address.getDefaultPort() : address.getPort();
+      Socket socket = new Socket();
+      socket.connect(new InetSocketAddress(host, port), TIMEOUT);
+      socket.setSoTimeout(TIMEOUT);
+      if ("https".equals(address.getProtocol())) {
+        socket = secure(socket, host, port);
+      }
+      return new Connection(socket, host + ':' + port);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Layers TLS over the connected socket, sending the host name and verifying the certificate against it.
+   */
+  private static @NotNull Socket secure(@NotNull Socket socket, @NotNull String host, int port) throws IOException {
+    final SSLSocket secure;
+    try {
+      secure = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault()).createSocket(socket, host, port, true);
+    } catch (IOException e) {
+      socket.close();
+      throw e;
+    }
+    try {
+      final SSLParameters parameters = secure.getSSLParameters();
+      parameters.setEndpointIdentificationAlgorithm("HTTPS");
+      if (!IP_LITERAL.matcher(host).matches()) {
+        parameters.setServerNames(Collections.singletonList(new SNIHostName(host)));
+      }
+      secure.setSSLParameters(parameters);
+      secure.startHandshake();
+      return secure;
+    } catch (IOException | RuntimeException e) {
+      secure.close();
+      throw e;
+    }
+  }
+
+  private static void close(@Nullable Connection connection) {
+    if (connection != null) {
+      connection.close();
+    }
+  }
+
+  private static final class Request {
+    private final @NotNull String method;
+    private final @NotNull String path;
+    private final @Nullable byte[] body;
+    private int attempt;
+    private int status;
+
+    public Request(@NotNull String method, @NotNull String path, @Nullable byte[] body) {
+      this.method = method;
+      this.path = path;
+      this.body = body;
+    }
+  }
+
+  private final class Connection {
+    private final @NotNull Socket socket;
+    private final @NotNull String host;
+    private final @NotNull OutputStream output;
+    private final @NotNull InputStream input;
+    private boolean closed;
+    private boolean broken;
+
+    public Connection(@NotNull Socket socket, @NotNull String host) throws IOException {
+      this.socket = socket;
+      this.host = host;
+      this.output = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+      this.input = new BufferedInputStream(socket.getInputStream());
+    }
+
+    /**
+     * Writes the whole batch before reading any response, returns the number of responses received.
+     */
+    public int send(@NotNull List<Request> batch) {
+      int received = 0;
+      try {
+        for (Request request : batch) {
+          request.status = 0;
+          write(request);
+        }
+        output.flush();
+        for (Request request : batch) {
+          request.status = read();
+          received++;
+          if (closed) {
+            break;
+          }
+        }
+      } catch (IOException e) {
+        closed = true;
+        broken = true;
+      }
+      return received;
+    }
+
+    private void write(@NotNull Request request) throws IOException {
+      final StringBuilder head = new StringBuilder()
+          .append(request.method).append(' ').append(request.path).append(" HTTP/1.1\r\n")
+          .append("Host: ").append(host).append("\r\n");
+      final int length = request.body == null ? 0 : request.body.length;
+      if (request.body != null) {
+        head.append("Content-Type: ").append(ProtobufFormatter.CONTENT_TYPE).append("\r\n");
+        if (gzip) {
+          head.append("Content-Encoding: gzip\r\n");
+        }
+      }
+      head.append("Content-Length: ").append(length).append("\r\n\r\n");
+      output.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+      if (request.body != null) {
+        output.write(request.body);
+      }
+    }
+
+    private int read() throws IOException {
+      final String status = line();
+      final String[] parts = status.split(" ", 3);
+      if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+        throw new IOException("Malformed status line: " + status);
+      }
+      final long code = parse(parts[1], 10);
+      if (code > 999) {
+        throw new IOException("Malformed status line: " + status);
+      }
+      long length = 0;
+      boolean chunked = false;
+      String header;
+      while (!(header = line()).isEmpty()) {
+        final int colon = header.indexOf(':');
+        if (colon == -1) {
+          continue;
+        }
+        final String name = header.substring(0, colon).trim();
+        final String value = header.substring(colon + 1).trim();
+        if ("Content-Length".equalsIgnoreCase(name)) {
+          length = parse(value, 10);
+        } else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+          chunked = value.toLowerCase(Locale.ROOT).contains("chunked");
+        } else if ("Connection".equalsIgnoreCase(name) && "close".equalsIgnoreCase(value)) {
+          closed = true;
+        }
+      }
+      if (chunked) {
+        long chunk;
+        while ((chunk = parse(line().split(";", 2)[0].trim(), 16)) > 0) {
+          skip(chunk);
+          line();
+        }
+        while (!line().isEmpty()) {
+          // trailers
+        }
+      } else {
+        skip(length);
+      }
+      return (int) code;
+    }
+
+    /**
+     * Parses a non-negative number of a response, which fails the connection rather than the sender if malformed.
+     */
+    private long parse(@NotNull String value, int radix) throws IOException {
+      final long number;
+      try {
+        number = Long.parseLong(value, radix);
+      } catch (NumberFormatException e) {
+        throw new IOException("Malformed number in response: " + value, e);
+      }
+      if (number < 0) {
+        throw new IOException("Malformed number in response: " + value);
+      }
+      return number;
+    }
+
+    private @NotNull String line() throws IOException {
+      final StringBuilder line = new StringBuilder();
+      int next;
+      while ((next = input.read()) != '\n') {
+        if (next == -1) {
+          throw new EOFException("Connection closed by the gateway");
+        }
+        if (next != '\r') {
+          line.append((char) next);
+        }
+      }
+      return line.toString();
+    }
+
+    private void skip(long length) throws IOException {
+      while (length > 0) {
+        final long skipped = input.skip(length);
+        if (skipped <= 0) {
+          if (input.read() == -1) {
+            throw new EOFException("Connection closed by the gateway");
+          }
+          length--;
+        } else {
+          length -= skipped;
+        }
+      }
+    }
+
+    public void close() {
+      closed = true;
+      try {
+        socket.close();
+      } catch (IOException ignored) {
+        // nothing to do
+      }
+    }
+  }
+}
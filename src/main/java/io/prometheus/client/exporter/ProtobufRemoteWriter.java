@@ -0,0 +1,293 @@
+package io.prometheus.client.exporter;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends samples to a Prometheus remote-write endpoint.
+ * Every {@link Collector.MetricFamilySamples.Sample} becomes a {@code TimeSeries} of its own, so histograms and
+ * summaries are split into {@code _bucket}, {@code _count}, {@code _sum} and quantile series as Prometheus does.
+ * {@code WriteRequest} messages are encoded field by field, cut at the configured size, snappy-compressed and queued;
+ * a background thread ships them. When the queue is full {@link #write} blocks, which is the backpressure.
+ */
+public final class ProtobufRemoteWriter implements Closeable {
+  public static final @NotNull String CONTENT_TYPE = "application/x-protobuf";
+
+  private static final int WRITE_REQUEST_TIMESERIES = 1;
+  private static final int TIMESERIES_LABELS = 1;
+  private static final int TIMESERIES_SAMPLES = 2;
+  private static final int LABEL_NAME = 1;
+  private static final int LABEL_VALUE = 2;
+  private static final int SAMPLE_VALUE = 1;
+  private static final int SAMPLE_TIMESTAMP = 2;
+
+  private static final @NotNull String NAME_LABEL = "__name__";
+  private static final int DEFAULT_REQUEST_SIZE = 1 << 20;
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int ATTEMPTS = 5;
+  private static final long BACKOFF = 100;
+  private static final long MAX_BACKOFF = TimeUnit.SECONDS.toMillis(30);
+  private static final int TIMEOUT = (int) TimeUnit.SECONDS.toMillis(10);
+
+  private final @NotNull URL endpoint;
+  private final int requestSize;
+  private final @NotNull BlockingQueue<byte[]> queue;
+  private final @NotNull Thread sender;
+  private final @NotNull Object lock = new Object();
+
+  private volatile boolean running = true;
+  private boolean sending;
+  private long dropped;
+
+  public ProtobufRemoteWriter(@NotNull URL endpoint) {
+    this(endpoint, DEFAULT_REQUEST_SIZE, DEFAULT_CAPACITY);
+  }
+
+  public ProtobufRemoteWriter(@NotNull URL endpoint, int requestSize, int capacity) {
+    this.endpoint = endpoint;
+    this.requestSize = requestSize;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.sender = new Thread(this::send, "protobuf-remote-writer");
+    sender.setDaemon(true);
+    sender.start();
+  }
+
+  public void write(@NotNull CollectorRegistry registry) throws IOException, InterruptedException {
+    write(registry.metricFamilySamples(), System.currentTimeMillis());
+  }
+
+  /**
+   * Encodes the samples, blocking while the queue is full. Samples without a timestamp get {@code timestampMs}.
+   */
+  public void write(@NotNull Enumeration<Collector.MetricFamilySamples> families, long timestampMs) throws IOException, InterruptedException {
+    final Request request = new Request();
+    while (families.hasMoreElements()) {
+      for (Collector.MetricFamilySamples.Sample sample : families.nextElement().samples) {
+        final int series = request.prepare(sample, timestampMs);
+        if (request.size > 0 && request.size + Request.message(WRITE_REQUEST_TIMESERIES, series) > requestSize) {
+          enqueue(request.finish());
+        }
+        request.write(sample, timestampMs, series);
+      }
+    }
+    if (request.size > 0) {
+      enqueue(request.finish());
+    }
+  }
+
+  /**
+   * Waits until every queued request is either delivered or dropped, returns {@code false} on timeout.
+   */
+  public boolean flush(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (lock) {
+      while (!queue.isEmpty() || sending) {
+        final long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (left <= 0) {
+          return false;
+        }
+        lock.wait(left);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Number of requests dropped after exhausting their attempts or being rejected by the receiver.
+   */
+  public long dropped() {
+    synchronized (lock) {
+      return dropped;
+    }
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    sender.interrupt();
+  }
+
+  private void enqueue(@NotNull byte[] request) throws InterruptedException {
+    queue.put(request);
+    synchronized (lock) {
+      lock.notifyAll();
+    }
+  }
+
+  private void send() {
+    while (running) {
+      final byte[] request;
+      synchronized (lock) {
+        request = queue.poll();
+        sending = request != null;
+        if (request == null) {
+          lock.notifyAll();
+          try {
+            lock.wait(100);
+          } catch (InterruptedException e) {
+            return;
+          }
+          continue;
+        }
+      }
+      try {
+        deliver(request);
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  private void deliver(@NotNull byte[] request) throws InterruptedException {
+    long delay = BACKOFF;
+    for (int attempt = 1; ; attempt++) {
+      final int status = post(request);
+      if (status >= 200 && status < 300) {
+        return;
+      }
+      if (attempt == ATTEMPTS || (status >= 300 && status < 500)) {
+        synchronized (lock) {
+          dropped++;
+        }
+        return;
+      }
+      Thread.sleep(delay);
+      delay = Math.min(delay * 2, MAX_BACKOFF);
+    }
+  }
+
+  private int post(@NotNull byte[] request) {
+    try {
+      final HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+      connection.setConnectTimeout(TIMEOUT);
+      connection.setReadTimeout(TIMEOUT);
+      connection.setRequestMethod("POST");
+      connection.setDoOutput(true);
+      connection.setFixedLengthStreamingMode(request.length);
+      connection.setRequestProperty("Content-Type", CONTENT_TYPE);
+      connection.setRequestProperty("Content-Encoding", "snappy");
+      connection.setRequestProperty("X-Prometheus-Remote-Write-Version", "0.1.0");
+      try (final OutputStream output = connection.getOutputStream()) {
+        output.write(request);
+      }
+      final int status = connection.getResponseCode();
+      // drain the body so the connection goes back to the keep-alive pool
+      try (final InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+        if (input != null) {
+          final byte[] chunk = new byte[1024];
+          while (input.read(chunk) != -1) {
+            // discard
+          }
+        }
+      }
+      return status;
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
+  private static final class Request {
+    private final @NotNull Buffer buffer = new Buffer();
+    private final @NotNull CodedOutputStream output = CodedOutputStream.newInstance(buffer);
+    private final @NotNull List<String> names = new ArrayList<>();
+    private final @NotNull List<String> values = new ArrayList<>();
+    private int size;
+
+    /**
+     * Sorts the labels of the sample to be written next and returns the size of its {@code TimeSeries}.
+     */
+    public int prepare(@NotNull Collector.MetricFamilySamples.Sample sample, long timestampMs) {
+      sort(sample);
+      int series = 0;
+      for (int i = 0; i < names.size(); i++) {
+        series += message(TIMESERIES_LABELS, labelSize(names.get(i), values.get(i)));
+      }
+      series += message(TIMESERIES_SAMPLES, sampleSize(sample.value, timestamp(sample, timestampMs)));
+      return series;
+    }
+
+    public void write(@NotNull Collector.MetricFamilySamples.Sample sample, long timestampMs, int series) throws IOException {
+      final long timestamp = timestamp(sample, timestampMs);
+      output.writeTag(WRITE_REQUEST_TIMESERIES, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      output.writeUInt32NoTag(series);
+      for (int i = 0; i < names.size(); i++) {
+        output.writeTag(TIMESERIES_LABELS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(labelSize(names.get(i), values.get(i)));
+        output.writeString(LABEL_NAME, names.get(i));
+        output.writeString(LABEL_VALUE, values.get(i));
+      }
+      output.writeTag(TIMESERIES_SAMPLES, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      output.writeUInt32NoTag(sampleSize(sample.value, timestamp));
+      output.writeDouble(SAMPLE_VALUE, sample.value);
+      output.writeInt64(SAMPLE_TIMESTAMP, timestamp);
+      size += message(WRITE_REQUEST_TIMESERIES, series);
+    }
+
+    public @NotNull byte[] finish() throws IOException {
+      output.flush();
+      final byte[] compressed = Snappy.compress(buffer.array(), buffer.size());
+      buffer.reset();
+      size = 0;
+      return compressed;
+    }
+
+    /**
+     * Remote write requires labels sorted by name, {@code __name__} included.
+     */
+    private void sort(@NotNull Collector.MetricFamilySamples.Sample sample) {
+      names.clear();
+      values.clear();
+      names.add(NAME_LABEL);
+      values.add(sample.name);
+      for (int i = 0; i < sample.labelNames.size(); i++) {
+        final String name = sample.labelNames.get(i);
+        int position = names.size();
+        while (position > 0 && names.get(position - 1).compareTo(name) > 0) {
+          position--;
+        }
+        names.add(position, name);
+        values.add(position, sample.labelValues.get(i));
+      }
+    }
+
+    private static long timestamp(@NotNull Collector.MetricFamilySamples.Sample sample, long timestampMs) {
+      return sample.timestampMs == null ? timestampMs : sample.timestampMs;
+    }
+
+    private static int labelSize(@NotNull String name, @NotNull String value) {
+      return CodedOutputStream.computeStringSize(LABEL_NAME, name) + CodedOutputStream.computeStringSize(LABEL_VALUE, value);
+    }
+
+    private static int sampleSize(double value, long timestamp) {
+      return CodedOutputStream.computeDoubleSize(SAMPLE_VALUE, value) + CodedOutputStream.computeInt64Size(SAMPLE_TIMESTAMP, timestamp);
+    }
+
+    private static int message(int field, int size) {
+      return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+  }
+
+  private static final class Buffer extends ByteArrayOutputStream {
+
+    public @NotNull byte[] array() {
+      return buf;
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Samples of one family kept in columns: the kind of every sample, the id of its label set in a dictionary shared
+ * between batches, the bound of a bucket or quantile and the value. {@link ProtobufFormatter} encodes a batch with
+ * primitive loops over the columns, while other consumers see regular samples created on access.
+ * The samples of one series must be added together. Histogram buckets must be cumulative and come in increasing order.
+ */
+public final class SampleBatch extends Collector.MetricFamilySamples {
+  public static final byte VALUE = 0;
+  public static final byte COUNT = 1;
+  public static final byte SUM = 2;
+  public static final byte BUCKET = 3;
+  public static final byte QUANTILE = 4;
+
+  private final @NotNull Rows rows;
+
+  public SampleBatch(@NotNull String name, @NotNull Collector.Type type, @NotNull String help, @NotNull LabelSet[] dictionary) {
+    super(name, type, help, new Rows(name, dictionary));
+    rows = (Rows) samples;
+  }
+
+  public @NotNull SampleBatch value(int labels, double value) {
+    return add(VALUE, labels, 0, value);
+  }
+
+  public @NotNull SampleBatch count(int labels, double value) {
+    return add(COUNT, labels, 0, value);
+  }
+
+  public @NotNull SampleBatch sum(int labels, double value) {
+    return add(SUM, labels, 0, value);
+  }
+
+  public @NotNull SampleBatch bucket(int labels, double upperBound, double cumulativeCount) {
+    return add(BUCKET, labels, upperBound, cumulativeCount);
+  }
+
+  public @NotNull SampleBatch quantile(int labels, double quantile, double value) {
+    return add(QUANTILE, labels, quantile, value);
+  }
+
+  public @NotNull SampleBatch add(byte kind, int labels, double bound, double value) {
+    if (kind < VALUE || kind > QUANTILE) {
+      throw new IllegalArgumentException("Unknown sample kind: " + kind);
+    }
+    if (labels < 0 || labels >= rows.dictionary.length) {
+      throw new IllegalArgumentException("Unknown label set: " + labels);
+    }
+    rows.add(kind, labels, bound, value);
+    return this;
+  }
+
+  void writeTo(@NotNull MetricsSink sink) {
+    final Rows rows = this.rows;
+    final byte[] kinds = rows.kinds;
+    final int[] labels = rows.labels;
+    final double[] bounds = rows.bounds;
+    final double[] values = rows.values;
+    final LabelSet[] dictionary = rows.dictionary;
+    final int size = rows.size;
+
+    sink.beginFamily(name, help, type);
+    switch (type) {
+      case SUMMARY:
+      case HISTOGRAM:
+        final boolean summary = type == Collector.Type.SUMMARY;
+        int i = 0;
+        while (i < size) {
+          final int series = labels[i];
+          double count = Double.NaN;
+          double sum = 0;
+          double last = 0;
+          sink.labels(dictionary[series]);
+          for (; i < size && labels[i] == series; i++) {
+            switch (kinds[i]) {
+              case COUNT:
+                count = values[i];
+                break;
+              case SUM:
+                sum = values[i];
+                break;
+              case BUCKET:
+                if (!summary) {
+                  sink.bucket(bounds[i], (long) values[i]);
+                  last = values[i];
+                }
+                break;
+              case QUANTILE:
+                if (summary) {
+                  sink.quantile(bounds[i], values[i]);
+                }
+                break;
+              default:
+                break;
+            }
+          }
+          if (count != count) {
+            count = last;
+          }
+          if (summary) {
+            sink.summary((long) count, sum);
+          } else {
+            sink.histogram((long) count, sum);
+          }
+        }
+        break;
+      default:
+        for (int j = 0; j < size; j++) {
+          if (kinds[j] == VALUE) {
+            sink.labels(dictionary[labels[j]]);
+            sink.value(values[j]);
+          }
+        }
+        break;
+    }
+    sink.endFamily();
+  }
+
+  /**
+   * The columns, which also act as the list of samples for consumers that do not know about batches.
+   */
+  private static final class Rows extends AbstractList<Sample> {
+    private static final @NotNull String[] SUFFIXES = {"", "_count", "_sum", "_bucket", ""};
+    private static final @NotNull String[] LABELS = {null, null, null, "le", "quantile"};
+
+    private final @NotNull String name;
+    private final @NotNull LabelSet[] dictionary;
+    private @NotNull byte[] kinds = new byte[16];
+    private @NotNull int[] labels = new int[16];
+    private @NotNull double[] bounds = new double[16];
+    private @NotNull double[] values = new double[16];
+    private int size;
+
+    public Rows(@NotNull String name, @NotNull LabelSet[] dictionary) {
+      this.name = name;
+      this.dictionary = dictionary;
+    }
+
+    public void add(byte kind, int label, double bound, double value) {
+      if (size == kinds.length) {
+        kinds = Arrays.copyOf(kinds, size * 2);
+        labels = Arrays.copyOf(labels, size * 2);
+        bounds = Arrays.copyOf(bounds, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      kinds[size] = kind;
+      labels[size] = label;
+      bounds[size] = bound;
+      values[size] = value;
+      size++;
+      modCount++;
+    }
+
+    @Override
+    public @NotNull Sample get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+      }
+      final LabelSet set = dictionary[labels[index]];
+      final String label = LABELS[kinds[index]];
+      final List<String> names = new ArrayList<>(set.names());
+      final List<String> values = new ArrayList<>(set.values());
+      if (label != null) {
+        names.add(label);
+        values.add(Collector.doubleToGoString(bounds[index]));
+      }
+      return new Sample(name + SUFFIXES[kinds[index]], names, values, this.values[index]);
+    }
+
+    @Override
+    public @NotNull Sample remove(int index) {
+      final Sample removed = get(index);
+      final int tail = size - index - 1;
+      System.arraycopy(kinds, index + 1, kinds, index, tail);
+      System.arraycopy(labels, index + 1, labels, index, tail);
+      System.arraycopy(bounds, index + 1, bounds, index, tail);
+      System.arraycopy(values, index + 1, values, index, tail);
+      size--;
+      modCount++;
+      return removed;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,223 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulkhead for scrapes: at most a fixed number run at a time, a bounded number of others wait for a turn at most the
+ * maximal wait, and the rest are rejected at once with {@code 503 Service Unavailable} or {@code 429 Too Many
+ * Requests} and a {@code Retry-After} header, so exposition never takes more than a fixed share of the server.
+ * With an executor, scrapes are admitted or rejected on the container thread without waiting, and queued ones wait for
+ * their turn and run on the executor, as asynchronous requests where the container supports them.
+ * The limiter exposes its queue time, rejections, running and waiting scrapes as metrics once registered.
+ */
+public final class ScrapeLimiter extends Collector {
+  private final int maxConcurrent;
+  private final int queue;
+  private final long maxWait;
+  private final int status;
+  private final @Nullable Executor executor;
+  private final @NotNull Semaphore permits;
+  private final @NotNull AtomicInteger waiting = new AtomicInteger();
+  private final @NotNull LongAdder admitted = new LongAdder();
+  private final @NotNull LongAdder queueTime = new LongAdder();
+  private final @NotNull LongAdder queueFull = new LongAdder();
+  private final @NotNull LongAdder timedOut = new LongAdder();
+
+  private ScrapeLimiter(@NotNull Builder builder) {
+    maxConcurrent = builder.maxConcurrent;
+    queue = builder.queue;
+    maxWait = builder.maxWait;
+    status = builder.status;
+    executor = builder.executor;
+    permits = new Semaphore(maxConcurrent, true);
+  }
+
+  public static @NotNull Builder build() {
+    return new Builder();
+  }
+
+  /**
+   * Number of scrapes rejected because the queue was full or their wait timed out.
+   */
+  public long rejected() {
+    return queueFull.sum() + timedOut.sum();
+  }
+
+  @Override
+  public @NotNull List<MetricFamilySamples> collect() {
+    final List<MetricFamilySamples> families = new ArrayList<>();
+    families.add(new MetricFamilySamples("protobuf_scrape_queue_seconds", Type.SUMMARY, "Time admitted scrapes waited for their turn.", Arrays.asList(
+        new MetricFamilySamples.Sample("protobuf_scrape_queue_seconds_count", Collections.emptyList(), Collections.emptyList(), admitted.sum()),
+        new MetricFamilySamples.Sample("protobuf_scrape_queue_seconds_sum", Collections.emptyList(), Collections.emptyList(), queueTime.sum() / 1e9))));
+    final List<String> reason = Collections.singletonList("reason");
+    families.add(new MetricFamilySamples("protobuf_scrape_rejections_total", Type.COUNTER, "Scrapes rejected by the limiter.", Arrays.asList(
+        new MetricFamilySamples.Sample("protobuf_scrape_rejections_total", reason, Collections.singletonList("queue_full"), queueFull.sum()),
+        new MetricFamilySamples.Sample("protobuf_scrape_rejections_total", reason, Collections.singletonList("timeout"), timedOut.sum()))));
+    families.add(family("protobuf_scrapes_in_flight", "Scrapes running.", maxConcurrent - permits.availablePermits()));
+    families.add(family("protobuf_scrapes_waiting", "Scrapes waiting for their turn.", waiting.get()));
+    return families;
+  }
+
+  /**
+   * Takes a turn, waiting for it if there is room in the queue, returns {@code false} if the scrape is rejected.
+   * An admitted scrape gives the turn back with {@link #release}.
+   */
+  boolean acquire() {
+    if (tryAcquire()) {
+      return true;
+    }
+    final long queued = System.nanoTime();
+    return enqueue() && await(queued);
+  }
+
+  /**
+   * Takes a turn if one is free, without waiting.
+   */
+  boolean tryAcquire() {
+    if (permits.tryAcquire()) {
+      admitted.increment();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Takes a place in the queue without waiting, returns {@code false} if the queue is full.
+   */
+  boolean enqueue() {
+    if (waiting.incrementAndGet() > queue) {
+      waiting.decrementAndGet();
+      queueFull.increment();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Leaves the queue, waiting for a turn until the maximal wait since the {@link System#nanoTime} the scrape was
+   * queued at elapsed, returns {@code false} if it timed out.
+   */
+  boolean await(long queued) {
+    try {
+      if (permits.tryAcquire(Math.max(0, queued + maxWait - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+        queueTime.add(System.nanoTime() - queued);
+        admitted.increment();
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      waiting.decrementAndGet();
+    }
+    timedOut.increment();
+    return false;
+  }
+
+  /**
+   * Leaves the queue without waiting, for a scrape which could not be handed over.
+   */
+  void dequeue() {
+    waiting.decrementAndGet();
+  }
+
+  void release() {
+    permits.release();
+  }
+
+  int status() {
+    return status;
+  }
+
+  /**
+   * Seconds a rejected scraper should wait before trying again, at least one.
+   */
+  long retryAfter() {
+    return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(maxWait + TimeUnit.SECONDS.toNanos(1) - 1));
+  }
+
+  @Nullable Executor executor() {
+    return executor;
+  }
+
+  private static @NotNull MetricFamilySamples family(@NotNull String name, @NotNull String help, double value) {
+    return new MetricFamilySamples(name, Type.GAUGE, help, Collections.singletonList(
+        new MetricFamilySamples.Sample(name, Collections.emptyList(), Collections.emptyList(), value)));
+  }
+
+  public static final class Builder {
+    private int maxConcurrent = 1;
+    private int queue;
+    private long maxWait = TimeUnit.SECONDS.toNanos(1);
+    private int status = 503;
+    private @Nullable Executor executor;
+
+    private Builder() {
+    }
+
+    /**
+     * Number of scrapes running at a time, one by default.
+     */
+    public @NotNull Builder maxConcurrent(int maxConcurrent) {
+      if (maxConcurrent < 1) {
+        throw new IllegalArgumentException("Concurrency must be positive: " + maxConcurrent);
+      }
+      this.maxConcurrent = maxConcurrent;
+      return this;
+    }
+
+    /**
+     * Number of scrapes waiting for a turn, none by default.
+     */
+    public @NotNull Builder queue(int queue) {
+      if (queue < 0) {
+        throw new IllegalArgumentException("Queue must not be negative: " + queue);
+      }
+      this.queue = queue;
+      return this;
+    }
+
+    /**
+     * Time a scrape waits for a turn before it is rejected, a second by default.
+     */
+    public @NotNull Builder maxWait(long maxWait, @NotNull TimeUnit unit) {
+      if (maxWait < 0) {
+        throw new IllegalArgumentException("Wait must not be negative: " + maxWait);
+      }
+      this.maxWait = unit.toNanos(maxWait);
+      return this;
+    }
+
+    /**
+     * Status of rejected scrapes, 503 or 429.
+     */
+    public @NotNull Builder status(int status) {
+      if (status != 503 && status != 429) {
+        throw new IllegalArgumentException("Status must be 503 or 429: " + status);
+      }
+      this.status = status;
+      return this;
+    }
+
+    /**
+     * Runs the admitted scrapes and waits for the turns of queued ones on the executor instead of the container
+     * threads. At most the concurrent and queued scrapes are handed over, so a pool of the concurrency is enough.
+     */
+    public @NotNull Builder executor(@NotNull Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    public @NotNull ScrapeLimiter create() {
+      return new ScrapeLimiter(this);
+    }
+  }
+}
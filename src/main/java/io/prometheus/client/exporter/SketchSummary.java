@@ -0,0 +1,248 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Summary backed by mergeable {@link DDSketch}es over a sliding time window. Every child keeps a ring of
+ * {@code ageBuckets} sketches, each covering {@code maxAge / ageBuckets}; quantiles are taken from the sketches of
+ * the whole ring merged together, while count and sum are cumulative.
+ * Summaries with the same name, accuracy and quantiles in several registries of one endpoint are merged by
+ * {@link ProtobufFormatter} into one family, whose quantiles are those of all observations rather than an average of
+ * quantiles. Summaries of the name configured otherwise are written as families of their own.
+ * A child takes at most {@code ageBuckets * 2 * maxBuckets * 8} bytes. Positive values spanning from {@code min} to
+ * {@code max} use {@code ln(max / min) / ln((1 + a) / (1 - a))} buckets, which is about 920 buckets for latencies from
+ * a microsecond to a hundred seconds at the default accuracy of 1%, or 7 KiB per window.
+ */
+public final class SketchSummary extends ProtobufCollector {
+  private final @NotNull String name;
+  private final @NotNull String help;
+  private final @NotNull String[] labelNames;
+  private final @NotNull double[] quantiles;
+  private final double relativeAccuracy;
+  private final int maxBuckets;
+  private final long window;
+  private final int ageBuckets;
+  private final @NotNull LongSupplier clock;
+  private final @NotNull Map<List<String>, Child> children = new ConcurrentHashMap<>();
+
+  private SketchSummary(@NotNull Builder builder) {
+    name = builder.name;
+    help = builder.help;
+    labelNames = builder.labelNames;
+    quantiles = builder.quantiles.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+    relativeAccuracy = builder.relativeAccuracy;
+    maxBuckets = builder.maxBuckets;
+    window = builder.maxAge / builder.ageBuckets;
+    ageBuckets = builder.ageBuckets;
+    clock = builder.clock;
+  }
+
+  public static @NotNull Builder build(@NotNull String name, @NotNull String help) {
+    return new Builder(name, help);
+  }
+
+  public @NotNull Child labels(@NotNull String... labelValues) {
+    if (labelValues.length != labelNames.length) {
+      throw new IllegalArgumentException("Incorrect number of labels: " + labelValues.length + " instead of " + labelNames.length);
+    }
+    final List<String> key = Arrays.asList(labelValues);
+    final Child existing = children.get(key);
+    return existing != null ? existing : children.computeIfAbsent(new ArrayList<>(key), values -> new Child(LabelSet.of(labelNames, labelValues)));
+  }
+
+  public void observe(double value) {
+    labels().observe(value);
+  }
+
+  @Override
+  public void collect(@NotNull MetricsSink sink) {
+    collect(Collections.singletonList(this), sink);
+  }
+
+  @Override
+  public @NotNull List<MetricFamilySamples> describe() {
+    return Collections.singletonList(new MetricFamilySamples(name, Type.SUMMARY, help, Collections.emptyList()));
+  }
+
+  /**
+   * Whether the sketches of the other summary can be merged into the ones of this summary, and the result exposes the
+   * quantiles of both.
+   */
+  boolean mergeable(@NotNull SketchSummary other) {
+    return relativeAccuracy == other.relativeAccuracy && Arrays.equals(quantiles, other.quantiles);
+  }
+
+  /**
+   * Writes {@link #mergeable} summaries of the same family as one, merging the sketches of children with the same
+   * labels. The name and help are those of the first summary.
+   */
+  static void collect(@NotNull List<SketchSummary> summaries, @NotNull MetricsSink sink) {
+    final SketchSummary first = summaries.get(0);
+    final Map<LabelSet, DDSketch> sketches = new LinkedHashMap<>();
+    final Map<LabelSet, double[]> totals = new HashMap<>();
+    for (SketchSummary summary : summaries) {
+      for (Child child : summary.children.values()) {
+        final DDSketch snapshot = child.snapshot();
+        final DDSketch merged = sketches.putIfAbsent(child.labels, snapshot);
+        if (merged != null) {
+          merged.merge(snapshot);
+        }
+        final double[] total = totals.computeIfAbsent(child.labels, labels -> new double[2]);
+        total[0] += child.count();
+        total[1] += child.sum();
+      }
+    }
+    sink.beginFamily(first.name, first.help, Type.SUMMARY);
+    sketches.forEach((labels, sketch) -> {
+      sink.labels(labels);
+      for (double quantile : first.quantiles) {
+        sink.quantile(quantile, sketch.quantile(quantile));
+      }
+      final double[] total = totals.get(labels);
+      sink.summary((long) total[0], total[1]);
+    });
+    sink.endFamily();
+  }
+
+  public final class Child {
+    private final @NotNull LabelSet labels;
+    private final @NotNull DDSketch[] ring = new DDSketch[ageBuckets];
+    private int current;
+    private long rotated;
+    private long count;
+    private double sum;
+
+    private Child(@NotNull LabelSet labels) {
+      this.labels = labels;
+      for (int i = 0; i < ring.length; i++) {
+        ring[i] = new DDSketch(relativeAccuracy, maxBuckets);
+      }
+      rotated = clock.getAsLong();
+    }
+
+    public void observe(double value) {
+      final long now = clock.getAsLong();
+      synchronized (this) {
+        rotate(now);
+        ring[current].add(value);
+        count++;
+        sum += value;
+      }
+    }
+
+    public synchronized long count() {
+      return count;
+    }
+
+    public synchronized double sum() {
+      return sum;
+    }
+
+    /**
+     * Returns the observations of the current window as one sketch.
+     */
+    public @NotNull DDSketch snapshot() {
+      final long now = clock.getAsLong();
+      synchronized (this) {
+        rotate(now);
+        final DDSketch snapshot = ring[current].copy();
+        for (int i = 1; i < ring.length; i++) {
+          snapshot.merge(ring[(current + i) % ring.length]);
+        }
+        return snapshot;
+      }
+    }
+
+    private void rotate(long now) {
+      long elapsed = now - rotated;
+      if (elapsed < window) {
+        return;
+      }
+      if (elapsed >= window * ring.length) {
+        for (DDSketch sketch : ring) {
+          sketch.clear();
+        }
+        rotated = now;
+        return;
+      }
+      while (elapsed >= window) {
+        current = (current + 1) % ring.length;
+        ring[current].clear();
+        rotated += window;
+        elapsed -= window;
+      }
+    }
+  }
+
+  public static final class Builder {
+    private final @NotNull String name;
+    private final @NotNull String help;
+    private @NotNull String[] labelNames = new String[0];
+    private final @NotNull Set<Double> quantiles = new TreeSet<>();
+    private double relativeAccuracy = 0.01;
+    private int maxBuckets = 2048;
+    private long maxAge = TimeUnit.MINUTES.toNanos(10);
+    private int ageBuckets = 5;
+    private @NotNull LongSupplier clock = System::nanoTime;
+
+    private Builder(@NotNull String name, @NotNull String help) {
+      this.name = name;
+      this.help = help;
+    }
+
+    public @NotNull Builder labelNames(@NotNull String... labelNames) {
+      this.labelNames = labelNames.clone();
+      return this;
+    }
+
+    public @NotNull Builder quantile(double quantile) {
+      if (quantile < 0 || quantile > 1) {
+        throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+      }
+      quantiles.add(quantile);
+      return this;
+    }
+
+    public @NotNull Builder relativeAccuracy(double relativeAccuracy) {
+      if (!(relativeAccuracy > 0) || !(relativeAccuracy < 1)) {
+        throw new IllegalArgumentException("Relative accuracy must be between 0 and 1: " + relativeAccuracy);
+      }
+      this.relativeAccuracy = relativeAccuracy;
+      return this;
+    }
+
+    /**
+     * Bound on the counters of each sign in every window.
+     */
+    public @NotNull Builder maxBuckets(int maxBuckets) {
+      if (maxBuckets < 2) {
+        throw new IllegalArgumentException("At least two buckets are required: " + maxBuckets);
+      }
+      this.maxBuckets = maxBuckets;
+      return this;
+    }
+
+    public @NotNull Builder window(long maxAge, @NotNull TimeUnit unit, int ageBuckets) {
+      if (maxAge <= 0 || ageBuckets <= 0) {
+        throw new IllegalArgumentException("Window and its buckets must be positive: " + maxAge + ", " + ageBuckets);
+      }
+      this.maxAge = unit.toNanos(maxAge);
+      this.ageBuckets = ageBuckets;
+      return this;
+    }
+
+    @NotNull Builder clock(@NotNull LongSupplier clock) {
+      this.clock = clock;
+      return this;
+    }
+
+    public @NotNull SketchSummary create() {
+      return new SketchSummary(this);
+    }
+  }
+}
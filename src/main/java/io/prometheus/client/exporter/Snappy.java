@@ -0,0 +1,221 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Pure Java codec for the snappy block format, as required by the Prometheus remote-write protocol.
+ * The compressor is the classic greedy one: a hash table of 4-byte sequences within 64 KiB blocks.
+ */
+final class Snappy {
+  private static final int BLOCK_SIZE = 1 << 16;
+  private static final int HASH_BITS = 14;
+  private static final int MIN_MATCH = 4;
+  private static final int INPUT_MARGIN = 15;
+
+  private static final int LITERAL = 0;
+  private static final int COPY_1_BYTE_OFFSET = 1;
+  private static final int COPY_2_BYTE_OFFSET = 2;
+  /**
+   * Most bytes a byte of compressed input can yield, as a 3-byte copy yields at most 64 bytes.
+   */
+  private static final int MAX_EXPANSION = 22;
+
+  private Snappy() {
+  }
+
+  public static @NotNull byte[] compress(@NotNull byte[] input, int length) {
+    final Output output = new Output(32 + length + length / 6);
+    output.varint(length);
+    final int[] table = new int[1 << HASH_BITS];
+    for (int block = 0; block < length; block += BLOCK_SIZE) {
+      compressBlock(input, block, Math.min(length, block + BLOCK_SIZE), table, output);
+    }
+    return output.toByteArray();
+  }
+
+  public static @NotNull byte[] uncompress(@NotNull byte[] input) throws IOException {
+    int position = 0;
+    int length = 0;
+    for (int shift = 0; ; shift += 7) {
+      if (position >= input.length || shift > 28) {
+        throw new IOException("Malformed snappy length");
+      }
+      final int next = input[position++];
+      length |= (next & 0x7f) << shift;
+      if ((next & 0x80) == 0) {
+        break;
+      }
+    }
+    if (length < 0 || length > (long) (input.length - position) * MAX_EXPANSION) {
+      throw new IOException("Corrupt snappy input");
+    }
+    final byte[] output = new byte[length];
+    int written = 0;
+    try {
+      while (position < input.length) {
+        final int tag = input[position++] & 0xff;
+        switch (tag & 3) {
+          case LITERAL: {
+            int literal = tag >>> 2;
+            if (literal >= 60) {
+              final int bytes = literal - 59;
+              literal = 0;
+              for (int i = 0; i < bytes; i++) {
+                literal |= (input[position++] & 0xff) << (8 * i);
+              }
+            }
+            literal++;
+            System.arraycopy(input, position, output, written, literal);
+            position += literal;
+            written += literal;
+            continue;
+          }
+          case COPY_1_BYTE_OFFSET:
+            written = copy(output, written, ((tag >>> 5) << 8) | (input[position++] & 0xff), ((tag >>> 2) & 7) + 4);
+            continue;
+          case COPY_2_BYTE_OFFSET:
+            written = copy(output, written, (input[position] & 0xff) | (input[position + 1] & 0xff) << 8, (tag >>> 2) + 1);
+            position += 2;
+            continue;
+          default:
+            written = copy(output, written, readInt(input, position), (tag >>> 2) + 1);
+            position += 4;
+        }
+      }
+    } catch (IndexOutOfBoundsException e) {
+      throw new IOException("Malformed snappy block", e);
+    }
+    if (written != length) {
+      throw new IOException("Snappy block is truncated: " + written + " of " + length + " bytes");
+    }
+    return output;
+  }
+
+  private static int copy(@NotNull byte[] output, int written, int offset, int length) throws IOException {
+    if (offset <= 0 || offset > written) {
+      throw new IOException("Invalid snappy copy offset " + offset);
+    }
+    // copies may overlap their source, so go byte by byte
+    for (int i = 0; i < length; i++) {
+      output[written + i] = output[written - offset + i];
+    }
+    return written + length;
+  }
+
+  private static void compressBlock(@NotNull byte[] input, int start, int end, @NotNull int[] table, @NotNull Output output) {
+    int literal = start;
+    if (end - start >= INPUT_MARGIN) {
+      Arrays.fill(table, -1);
+      final int limit = end - MIN_MATCH;
+      int position = start;
+      while (position <= limit) {
+        final int sequence = readInt(input, position);
+        final int hash = (sequence * 0x1e35a7bd) >>> (32 - HASH_BITS);
+        final int candidate = table[hash];
+        table[hash] = position;
+        if (candidate < 0 || readInt(input, candidate) != sequence) {
+          position++;
+          continue;
+        }
+        int length = MIN_MATCH;
+        while (position + length < end && input[candidate + length] == input[position + length]) {
+          length++;
+        }
+        literal(input, literal, position - literal, output);
+        copy(position - candidate, length, output);
+        position += length;
+        literal = position;
+      }
+    }
+    literal(input, literal, end - literal, output);
+  }
+
+  private static void literal(@NotNull byte[] input, int offset, int length, @NotNull Output output) {
+    if (length == 0) {
+      return;
+    }
+    final int value = length - 1;
+    if (value < 60) {
+      output.write(LITERAL | value << 2);
+    } else if (value < 1 << 8) {
+      output.write(LITERAL | 60 << 2);
+      output.write(value);
+    } else {
+      output.write(LITERAL | 61 << 2);
+      output.write(value);
+      output.write(value >>> 8);
+    }
+    output.write(input, offset, length);
+  }
+
+  private static void copy(int offset, int length, @NotNull Output output) {
+    while (length >= 68) {
+      copy2(offset, 64, output);
+      length -= 64;
+    }
+    if (length > 64) {
+      copy2(offset, 60, output);
+      length -= 60;
+    }
+    if (length < 12 && offset < 2048) {
+      output.write(COPY_1_BYTE_OFFSET | (length - 4) << 2 | (offset >>> 8) << 5);
+      output.write(offset);
+    } else {
+      copy2(offset, length, output);
+    }
+  }
+
+  private static void copy2(int offset, int length, @NotNull Output output) {
+    output.write(COPY_2_BYTE_OFFSET | (length - 1) << 2);
+    output.write(offset);
+    output.write(offset >>> 8);
+  }
+
+  private static int readInt(@NotNull byte[] bytes, int offset) {
+    return (bytes[offset] & 0xff)
+        | (bytes[offset + 1] & 0xff) << 8
+        | (bytes[offset + 2] & 0xff) << 16
+        | (bytes[offset + 3] & 0xff) << 24;
+  }
+
+  private static final class Output {
+    private byte[] bytes;
+    private int size;
+
+    public Output(int capacity) {
+      bytes = new byte[capacity];
+    }
+
+    public void varint(int value) {
+      while ((value & ~0x7f) != 0) {
+        write((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      write(value);
+    }
+
+    public void write(int value) {
+      ensure(1);
+      bytes[size++] = (byte) value;
+    }
+
+    public void write(@NotNull byte[] source, int offset, int length) {
+      ensure(length);
+      System.arraycopy(source, offset, bytes, size, length);
+      size += length;
+    }
+
+    public @NotNull byte[] toByteArray() {
+      return Arrays.copyOf(bytes, size);
+    }
+
+    private void ensure(int length) {
+      if (size + length > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+      }
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * Fixed-size ring file of encoded scrape snapshots, memory-mapped so that appending costs a memory copy and the data
+ * survives a crash of the process. Records are 8-byte aligned, each one is a header (magic, length, sequence,
+ * timestamp, CRC32 of the payload) followed by the payload. Writing wraps to the beginning of the file once the end is
+ * reached, older records are overwritten and fail their checksum, so {@link #read} simply scans for valid records.
+ */
+public final class SnapshotArchive implements Closeable {
+  private static final int MAGIC = 0x50425341;
+  private static final int HEADER = 32;
+  private static final int ALIGNMENT = 8;
+
+  private static final int LENGTH_OFFSET = 4;
+  private static final int SEQUENCE_OFFSET = 8;
+  private static final int TIMESTAMP_OFFSET = 16;
+  private static final int CRC_OFFSET = 24;
+
+  private final @NotNull FileChannel channel;
+  private final @NotNull MappedByteBuffer buffer;
+  private final @NotNull AtomicBoolean busy = new AtomicBoolean();
+  private int position;
+  private long sequence;
+
+  public SnapshotArchive(@NotNull Path file, int size) throws IOException {
+    if (size < HEADER * 2) {
+      throw new IllegalArgumentException("Archive is too small: " + size);
+    }
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size - size % ALIGNMENT);
+    for (Snapshot snapshot : scan(buffer)) {
+      sequence = snapshot.sequence;
+      position = align(snapshot.offset + HEADER + snapshot.payload.remaining());
+    }
+  }
+
+  /**
+   * Starts a new record, or returns {@code null} if another one is being written at the moment.
+   * The record is committed by {@link Record#close()} and discarded by {@link Record#abort()}.
+   */
+  public @Nullable Record record(long timestamp) {
+    return busy.compareAndSet(false, true) ? new Record(timestamp) : null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    buffer.force();
+    channel.close();
+  }
+
+  public static @NotNull List<Snapshot> read(@NotNull Path file) throws IOException {
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, Files.size(file)));
+    }
+  }
+
+  private static @NotNull List<Snapshot> scan(@NotNull ByteBuffer buffer) {
+    final List<Snapshot> snapshots = new ArrayList<>();
+    final CRC32 crc = new CRC32();
+    int offset = 0;
+    while (offset + HEADER <= buffer.limit()) {
+      final int length = buffer.getInt(offset + LENGTH_OFFSET);
+      if (buffer.getInt(offset) != MAGIC || length < 0 || length > buffer.limit() - offset - HEADER) {
+        offset += ALIGNMENT;
+        continue;
+      }
+      final ByteBuffer payload = slice(buffer, offset + HEADER, length);
+      crc.reset();
+      crc.update(payload.duplicate());
+      if ((int) crc.getValue() != buffer.getInt(offset + CRC_OFFSET)) {
+        offset += ALIGNMENT;
+        continue;
+      }
+      snapshots.add(new Snapshot(offset, buffer.getLong(offset + SEQUENCE_OFFSET), buffer.getLong(offset + TIMESTAMP_OFFSET), payload));
+      offset = align(offset + HEADER + length);
+    }
+    snapshots.sort(Comparator.comparingLong(snapshot -> snapshot.sequence));
+    return snapshots;
+  }
+
+  private static @NotNull ByteBuffer slice(@NotNull ByteBuffer buffer, int offset, int length) {
+    final ByteBuffer duplicate = buffer.duplicate();
+    duplicate.position(offset).limit(offset + length);
+    return duplicate.slice();
+  }
+
+  private static int align(int offset) {
+    return (offset + ALIGNMENT - 1) & -ALIGNMENT;
+  }
+
+  public static final class Snapshot {
+    private final int offset;
+    private final long sequence;
+    private final long timestamp;
+    private final @NotNull ByteBuffer payload;
+
+    private Snapshot(int offset, long sequence, long timestamp, @NotNull ByteBuffer payload) {
+      this.offset = offset;
+      this.sequence = sequence;
+      this.timestamp = timestamp;
+      this.payload = payload;
+    }
+
+    public long timestamp() {
+      return timestamp;
+    }
+
+    public @NotNull ByteBuffer payload() {
+      return payload.asReadOnlyBuffer();
+    }
+
+    public @NotNull List<Collector.MetricFamilySamples> families() throws IOException {
+      return new ProtobufParser(payload()).families();
+    }
+  }
+
+  public final class Record extends OutputStream {
+    private final long timestamp;
+    private final @NotNull CRC32 crc = new CRC32();
+    private int start = position;
+    private int length;
+    private boolean done;
+
+    private Record(long timestamp) {
+      this.timestamp = timestamp;
+      if (start + HEADER > buffer.limit()) {
+        start = 0;
+      }
+      buffer.putInt(start, 0);
+    }
+
+    @Override
+    public void write(int value) {
+      write(new byte[]{(byte) value}, 0, 1);
+    }
+
+    @Override
+    public void write(@NotNull byte[] bytes, int offset, int count) {
+      if (done) {
+        return;
+      }
+      if (start + HEADER + length + count > buffer.limit() && !wrap(count)) {
+        finish();
+        return;
+      }
+      final ByteBuffer target = buffer.duplicate();
+      target.position(start + HEADER + length);
+      target.put(bytes, offset, count);
+      crc.update(bytes, offset, count);
+      length += count;
+    }
+
+    /**
+     * Commits the record, the magic is written last so that a torn record is never valid.
+     */
+    @Override
+    public void close() {
+      if (done) {
+        return;
+      }
+      buffer.putInt(start + LENGTH_OFFSET, length);
+      buffer.putLong(start + SEQUENCE_OFFSET, ++sequence);
+      buffer.putLong(start + TIMESTAMP_OFFSET, timestamp);
+      buffer.putInt(start + CRC_OFFSET, (int) crc.getValue());
+      buffer.putInt(start, MAGIC);
+      position = align(start + HEADER + length);
+      finish();
+    }
+
+    public void abort() {
+      finish();
+    }
+
+    /**
+     * Moves the record written so far to the beginning of the file, returns {@code false} if it would not fit anyway.
+     */
+    private boolean wrap(int count) {
+      if (start == 0 || HEADER + length + count > buffer.limit()) {
+        return false;
+      }
+      final ByteBuffer source = slice(buffer, start + HEADER, length);
+      final ByteBuffer target = buffer.duplicate();
+      target.position(HEADER);
+      target.put(source);
+      start = 0;
+      buffer.putInt(start, 0);
+      return true;
+    }
+
+    private void finish() {
+      if (!done) {
+        done = true;
+        busy.set(false);
+      }
+    }
+  }
+}
@@ -0,0 +1,377 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.CollectorRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pre-rendered scrapes kept in temporary files, so serving a scrape encodes nothing and, to sockets and Jetty, copies
+ * nothing into the heap.
+ * {@link #render} encodes the registries into a spare file and publishes it with an atomic swap, so readers never wait
+ * on the writer. Every file counts its readers, the current one holding a reference of its own; the one replaced is
+ * recycled as the next spare once its last reader is done, and a file is never rewritten while it is referenced, so a
+ * reader never sees a half-written snapshot. In steady state two files alternate; a new one is only created when the
+ * previous snapshot is still being streamed to a slow client or was mapped. The entity tag of a snapshot is digested
+ * while it is rendered, so conditional scrapes are answered without reading it.
+ * A snapshot goes to a channel with {@link FileChannel#transferTo}, which is {@code sendfile} for sockets, and to an
+ * output stream with a {@code sendContent(ByteBuffer)} method, as Jetty's has, as a read-only mapping of the file the
+ * container writes to the socket directly. Other streams get it through {@link Channels#newChannel}, which copies it
+ * into the heap in chunks of 8 KiB. A file which was mapped is closed rather than recycled, as a mapping cannot be
+ * released before it is collected and must not see the file rewritten.
+ * The files are deleted once closed, on Linux they are unlinked right away and never outlive the process.
+ */
+public final class SnapshotRenderer implements Closeable {
+  private static final @NotNull ClassValue<Method> SEND_CONTENT = new ClassValue<Method>() {
+    @Override
+    protected @Nullable Method computeValue(@NotNull Class<?> type) {
+      try {
+        return type.getMethod("sendContent", ByteBuffer.class);
+      } catch (NoSuchMethodException e) {
+        return null;
+      }
+    }
+  };
+
+  private final @NotNull List<CollectorRegistry> registries;
+  private final @NotNull Path directory;
+  private final @NotNull AtomicReference<Snapshot> current = new AtomicReference<>();
+  private final @NotNull AtomicReference<Snapshot> spare = new AtomicReference<>();
+  private final @NotNull ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+  private final @NotNull AtomicInteger files = new AtomicInteger();
+  private final @NotNull Runnable beforeRetain;
+  private volatile boolean closed;
+
+  public SnapshotRenderer(@NotNull CollectorRegistry registry, @NotNull Path directory) {
+    this(Collections.singletonList(registry), directory);
+  }
+
+  public SnapshotRenderer(@NotNull List<CollectorRegistry> registries, @NotNull Path directory) {
+    this(registries, directory, () -> {
+    });
+  }
+
+  /**
+   * @param beforeRetain runs between reading the current snapshot and retaining it, to test that race
+   */
+  SnapshotRenderer(@NotNull List<CollectorRegistry> registries, @NotNull Path directory, @NotNull Runnable beforeRetain) {
+    this.registries = new ArrayList<>(registries);
+    this.directory = directory;
+    this.beforeRetain = beforeRetain;
+  }
+
+  /**
+   * Encodes the registries into a new snapshot, which replaces the current one.
+   */
+  public synchronized void render() throws IOException {
+    if (closed) {
+      throw new IOException("Renderer is closed");
+    }
+    Snapshot snapshot = spare.getAndSet(null);
+    if (snapshot == null) {
+      final Path file = Files.createTempFile(directory, "metrics-", ".pb");
+      snapshot = new Snapshot(FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE));
+      files.incrementAndGet();
+    }
+    try {
+      snapshot.channel.truncate(0);
+      snapshot.channel.position(0);
+      buffer.clear();
+      final MessageDigest digest = ProtobufMetricsServlet.digest();
+      final OutputStream output = new DigestOutputStream(new ChannelOutputStream(snapshot.channel, buffer), digest);
+      new ProtobufFormatter(ProtobufMetricsServlet.metrics(registries, Collections.emptySet())).write(output);
+      output.flush();
+      snapshot.publish(System.currentTimeMillis(), ProtobufMetricsServlet.tag(digest.digest(), ""));
+    } catch (IOException | RuntimeException e) {
+      snapshot.close();
+      throw e;
+    }
+    final Snapshot previous = current.getAndSet(snapshot);
+    if (previous != null) {
+      previous.release();
+    }
+    if (closed) {
+      close();
+    }
+  }
+
+  /**
+   * Size of the current snapshot, or -1 if none was rendered.
+   */
+  public long size() {
+    final Snapshot snapshot = acquire();
+    if (snapshot == null) {
+      return -1;
+    }
+    try {
+      return snapshot.size;
+    } finally {
+      snapshot.release();
+    }
+  }
+
+  /**
+   * Time the current snapshot was rendered at, or -1 if none was rendered.
+   */
+  public long timestamp() {
+    final Snapshot snapshot = acquire();
+    if (snapshot == null) {
+      return -1;
+    }
+    try {
+      return snapshot.timestamp;
+    } finally {
+      snapshot.release();
+    }
+  }
+
+  /**
+   * Transfers the current snapshot to the channel, returns its size or -1 if none was rendered.
+   */
+  public long transferTo(@NotNull WritableByteChannel target) throws IOException {
+    final Snapshot snapshot = acquire();
+    if (snapshot == null) {
+      return -1;
+    }
+    try {
+      snapshot.transferTo(target);
+      return snapshot.size;
+    } finally {
+      snapshot.release();
+    }
+  }
+
+  /**
+   * Writes the current snapshot to the stream, returns its size or -1 if none was rendered.
+   */
+  public long writeTo(@NotNull OutputStream output) throws IOException {
+    return writeTo(output, null);
+  }
+
+  /**
+   * Writes the current snapshot to the stream unless the headers, set from its size and tag first, tell otherwise.
+   */
+  long writeTo(@NotNull OutputStream output, @Nullable Headers headers) throws IOException {
+    final Snapshot snapshot = acquire();
+    if (snapshot == null) {
+      return -1;
+    }
+    try {
+      if (headers != null && !headers.set(snapshot.size, snapshot.tag)) {
+        return snapshot.size;
+      }
+      final Method sendContent = SEND_CONTENT.get(output.getClass());
+      if (sendContent == null) {
+        snapshot.transferTo(Channels.newChannel(output));
+        return snapshot.size;
+      }
+      try {
+        sendContent.invoke(output, snapshot.mapping());
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      } catch (InvocationTargetException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+        throw new IllegalStateException(e.getCause());
+      }
+      return snapshot.size;
+    } finally {
+      snapshot.release();
+    }
+  }
+
+  /**
+   * Releases the current snapshot, whose file is closed once its last reader is done.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    final Snapshot previous = current.getAndSet(null);
+    if (previous != null) {
+      previous.release();
+    }
+    final Snapshot unused = spare.getAndSet(null);
+    if (unused != null) {
+      unused.close();
+    }
+  }
+
+  /**
+   * Number of files open: the current one, the spare and the ones retired but still read.
+   */
+  int files() {
+    return files.get();
+  }
+
+  /**
+   * References the current snapshot, or returns {@code null} if there is none. A snapshot read just before it was
+   * replaced may be released and recycled meanwhile; its count stays zero until it is published again, so the
+   * reference is then either taken on complete content or refused and taken on the current snapshot instead.
+   */
+  private @Nullable Snapshot acquire() {
+    while (true) {
+      final Snapshot snapshot = current.get();
+      if (snapshot == null) {
+        return null;
+      }
+      beforeRetain.run();
+      if (snapshot.retain()) {
+        return snapshot;
+      }
+    }
+  }
+
+  /**
+   * Headers of a response sending a snapshot.
+   */
+  interface Headers {
+    /**
+     * Sets the headers from the size and strong entity tag of the snapshot, returns whether its content is sent.
+     */
+    boolean set(long size, @NotNull String tag);
+  }
+
+  private final class Snapshot {
+    private final @NotNull FileChannel channel;
+    private final @NotNull AtomicInteger references = new AtomicInteger();
+    private long size;
+    private long timestamp;
+    private @NotNull String tag = "";
+    private volatile @Nullable MappedByteBuffer mapping;
+
+    public Snapshot(@NotNull FileChannel channel) {
+      this.channel = channel;
+    }
+
+    /**
+     * Makes the rendered content visible: the count is written last, and readers read it before the content.
+     */
+    public void publish(long timestamp, @NotNull String tag) throws IOException {
+      size = channel.size();
+      this.timestamp = timestamp;
+      this.tag = tag;
+      references.set(1);
+    }
+
+    public boolean retain() {
+      while (true) {
+        final int count = references.get();
+        if (count == 0) {
+          return false;
+        }
+        if (references.compareAndSet(count, count + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Drops a reference, the last one hands the file over as the next spare, or closes it if there is one already,
+     * the file was mapped or the renderer is closed.
+     */
+    public void release() {
+      if (references.decrementAndGet() != 0) {
+        return;
+      }
+      if (closed || mapping != null || !spare.compareAndSet(null, this)) {
+        close();
+        return;
+      }
+      if (closed && spare.compareAndSet(this, null)) {
+        close();
+      }
+    }
+
+    public void transferTo(@NotNull WritableByteChannel target) throws IOException {
+      for (long position = 0; position < size; ) {
+        position += channel.transferTo(position, size - position, target);
+      }
+    }
+
+    /**
+     * Read-only mapping of the whole file, created on first use.
+     */
+    public @NotNull ByteBuffer mapping() throws IOException {
+      MappedByteBuffer mapping = this.mapping;
+      if (mapping == null) {
+        mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        this.mapping = mapping;
+      }
+      return mapping.duplicate();
+    }
+
+    public void close() {
+      files.decrementAndGet();
+      try {
+        channel.close();
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  /**
+   * Writes to the channel through the direct buffer of the renderer, which the channel would otherwise copy into.
+   */
+  private static final class ChannelOutputStream extends OutputStream {
+    private final @NotNull FileChannel channel;
+    private final @NotNull ByteBuffer buffer;
+
+    public ChannelOutputStream(@NotNull FileChannel channel, @NotNull ByteBuffer buffer) {
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+      if (!buffer.hasRemaining()) {
+        drain();
+      }
+      buffer.put((byte) value);
+    }
+
+    @Override
+    public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+      while (length > 0) {
+        if (!buffer.hasRemaining()) {
+          drain();
+        }
+        final int count = Math.min(length, buffer.remaining());
+        buffer.put(bytes, offset, count);
+        offset += count;
+        length -= count;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      drain();
+    }
+
+    private void drain() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package io.prometheus.client.exporter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Atomic access to off-heap memory through {@code sun.misc.Unsafe}, which Java 8 offers no public replacement for.
+ * The method handles are bound once, so the JIT inlines them like direct calls. When {@code Unsafe} is not accessible
+ * {@link #AVAILABLE} is {@code false} and callers fall back to locking.
+ */
+final class UnsafeMemory {
+  public static final boolean AVAILABLE;
+
+  private static final @Nullable MethodHandle COMPARE_AND_SWAP_LONG;
+  private static final @Nullable MethodHandle GET_LONG_VOLATILE;
+  private static final @Nullable MethodHandle PUT_LONG_VOLATILE;
+  private static final @Nullable MethodHandle GET_LONG;
+  private static final long ADDRESS_OFFSET;
+
+  static {
+    MethodHandle compareAndSwap = null;
+    MethodHandle getVolatile = null;
+    MethodHandle putVolatile = null;
+    MethodHandle get = null;
+    long address = -1;
+    try {
+      final Class<?> type = Class.forName("sun.misc.Unsafe");
+      final Field field = type.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      final Object unsafe = field.get(null);
+      final MethodHandles.Lookup lookup = MethodHandles.lookup();
+      compareAndSwap = lookup.findVirtual(type, "compareAndSwapLong", MethodType.methodType(boolean.class, Object.class, long.class, long.class, long.class)).bindTo(unsafe);
+      getVolatile = lookup.findVirtual(type, "getLongVolatile", MethodType.methodType(long.class, Object.class, long.class)).bindTo(unsafe);
+      putVolatile = lookup.findVirtual(type, "putLongVolatile", MethodType.methodType(void.class, Object.class, long.class, long.class)).bindTo(unsafe);
+      get = lookup.findVirtual(type, "getLong", MethodType.methodType(long.class, Object.class, long.class)).bindTo(unsafe);
+      address = (long) lookup.findVirtual(type, "objectFieldOffset", MethodType.methodType(long.class, Field.class)).bindTo(unsafe)
+          .invoke(Buffer.class.getDeclaredField("address"));
+    } catch (Throwable e) {
+      compareAndSwap = null;
+    }
+    AVAILABLE = compareAndSwap != null;
+    COMPARE_AND_SWAP_LONG = compareAndSwap;
+    GET_LONG_VOLATILE = getVolatile;
+    PUT_LONG_VOLATILE = putVolatile;
+    GET_LONG = get;
+    ADDRESS_OFFSET = address;
+  }
+
+  private UnsafeMemory() {
+  }
+
+  public static long address(@NotNull ByteBuffer buffer) {
+    if (!buffer.isDirect()) {
+      throw new IllegalArgumentException("Buffer is not direct");
+    }
+    try {
+      return (long) handle(GET_LONG).invokeExact((Object) buffer, ADDRESS_OFFSET);
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public static boolean compareAndSwapLong(long address, long expected, long value) {
+    try {
+      return (boolean) handle(COMPARE_AND_SWAP_LONG).invokeExact((Object) null, address, expected, value);
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public static long getLongVolatile(long address) {
+    try {
+      return (long) handle(GET_LONG_VOLATILE).invokeExact((Object) null, address);
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public static void putLongVolatile(long address, long value) {
+    try {
+      handle(PUT_LONG_VOLATILE).invokeExact((Object) null, address, value);
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public static double addDouble(long address, double delta) {
+    while (true) {
+      final long current = getLongVolatile(address);
+      final double next = Double.longBitsToDouble(current) + delta;
+      if (compareAndSwapLong(address, current, Double.doubleToRawLongBits(next))) {
+        return next;
+      }
+    }
+  }
+
+  private static @NotNull MethodHandle handle(@Nullable MethodHandle handle) {
+    if (handle == null) {
+      throw new UnsupportedOperationException("sun.misc.Unsafe is not available");
+    }
+    return handle;
+  }
+}
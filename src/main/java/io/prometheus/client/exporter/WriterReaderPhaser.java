@@ -0,0 +1,37 @@
+package io.prometheus.client.exporter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets wait-free writers record into the active half of a double buffer while a reader swaps the halves and waits
+ * until no writer is left in the retired one, as HdrHistogram's phaser of the same name does.
+ * Writers enter by incrementing the start epoch, whose sign tells the phase, and leave by incrementing the end epoch
+ * of that phase. Flips are serialized by the caller.
+ */
+final class WriterReaderPhaser {
+  private final AtomicLong startEpoch = new AtomicLong();
+  private final AtomicLong evenEndEpoch = new AtomicLong();
+  private final AtomicLong oddEndEpoch = new AtomicLong(Long.MIN_VALUE);
+
+  long enter() {
+    return startEpoch.getAndIncrement();
+  }
+
+  void exit(long criticalValueAtEnter) {
+    (criticalValueAtEnter < 0 ? oddEndEpoch : evenEndEpoch).getAndIncrement();
+  }
+
+  /**
+   * Starts a new phase and waits until all writers that entered the previous one have left it.
+   */
+  void flip() {
+    final boolean nextPhaseIsEven = startEpoch.get() < 0;
+    final long initialStartValue = nextPhaseIsEven ? 0 : Long.MIN_VALUE;
+    (nextPhaseIsEven ? evenEndEpoch : oddEndEpoch).set(initialStartValue);
+    final long startValueAtFlip = startEpoch.getAndSet(initialStartValue);
+    final AtomicLong endEpoch = nextPhaseIsEven ? oddEndEpoch : evenEndEpoch;
+    while (endEpoch.get() != startValueAtFlip) {
+      Thread.yield();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class CompactFamilyTest {
+
+  @Test
+  public void series() {
+    final CompactCounter counter = new CompactCounter("requests", "help", "user", "path");
+    for (int i = 0; i < 100_000; i++) {
+      Assert.assertEquals(i, counter.series("user" + i, "/path" + i % 7));
+    }
+    for (int i = 0; i < 100_000; i += 997) {
+      Assert.assertEquals(i, counter.series("user" + i, "/path" + i % 7));
+    }
+    Assert.assertEquals(100_000, counter.size());
+  }
+
+  @Test
+  public void values() {
+    final CompactCounter counter = new CompactCounter("requests", "help", "path");
+    final int first = counter.series("/a");
+    counter.inc(first);
+    counter.inc(first, 2.5);
+    Assert.assertEquals(3.5, counter.get(first), 0);
+    Assert.assertEquals(0, counter.get(counter.series("/b")), 0);
+
+    final CompactGauge gauge = new CompactGauge("temperature", "help", "room");
+    final int room = gauge.series("kitchen");
+    gauge.set(room, 20);
+    gauge.inc(room, 1.5);
+    gauge.dec(room, 0.5);
+    Assert.assertEquals(21, gauge.get(room), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negative() {
+    final CompactCounter counter = new CompactCounter("requests", "help");
+    counter.inc(counter.series(), -1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknown() {
+    new CompactGauge("temperature", "help").set(0, 1);
+  }
+
+  @Test
+  public void concurrent() throws Exception {
+    final CompactCounter counter = new CompactCounter("requests", "help", "path");
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      threads.add(new Thread(() -> {
+        for (int j = 0; j < 20_000; j++) {
+          counter.inc(counter.series("/" + j % 10));
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertEquals(10, counter.size());
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(16_000, counter.get(counter.series("/" + i)), 0);
+    }
+  }
+
+  @Test
+  public void encode() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    final CompactGauge gauge = new CompactGauge("queue_size", "help", "queue", "shard").register(registry);
+    gauge.set(gauge.series("mail", "1"), 3);
+    gauge.set(gauge.series("sms", "2"), 5);
+
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(registry.metricFamilySamples()).write(output);
+    final List<Collector.MetricFamilySamples> families = new ProtobufParser(new ByteArrayInputStream(output.toByteArray())).families();
+
+    Assert.assertEquals(Collections.list(registry.metricFamilySamples()), families);
+    Assert.assertEquals(Collector.Type.GAUGE, families.get(0).type);
+    Assert.assertEquals(Arrays.asList("sms", "2"), families.get(0).samples.get(1).labelValues);
+    Assert.assertEquals(5, families.get(0).samples.get(1).value, 0);
+  }
+
+}
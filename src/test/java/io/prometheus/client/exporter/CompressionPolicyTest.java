@@ -0,0 +1,79 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+public final class CompressionPolicyTest {
+
+  @Test
+  public void client() {
+    final CompressionPolicy policy = new CompressionPolicy(CompressionPolicy.build(), () -> 1, System::nanoTime);
+    Assert.assertEquals(Deflater.NO_COMPRESSION, policy.level(null));
+    Assert.assertEquals(Deflater.NO_COMPRESSION, policy.level("deflate"));
+    Assert.assertEquals(Deflater.NO_COMPRESSION, policy.level("gzip;q=0.5, identity"));
+    Assert.assertEquals(Deflater.DEFAULT_COMPRESSION, policy.level("gzip, *;q=0"));
+    Assert.assertEquals(3, policy.decisions("identity", "client"));
+    Assert.assertEquals(1, policy.decisions("gzip", "client"));
+  }
+
+  @Test
+  public void size() {
+    final CompressionPolicy policy = new CompressionPolicy(CompressionPolicy.build().minSize(1000), () -> 0, System::nanoTime);
+    Assert.assertEquals(Deflater.DEFAULT_COMPRESSION, policy.level("gzip"));
+    policy.observed(999);
+    Assert.assertEquals(Deflater.NO_COMPRESSION, policy.level("gzip"));
+    policy.observed(1000);
+    Assert.assertEquals(Deflater.DEFAULT_COMPRESSION, policy.level("gzip"));
+    Assert.assertEquals(1, policy.decisions("identity", "size"));
+    Assert.assertEquals(2, policy.decisions("gzip", "default"));
+  }
+
+  @Test
+  public void load() {
+    final AtomicInteger samples = new AtomicInteger();
+    final double[] load = {0.2};
+    final AtomicLong clock = new AtomicLong();
+    final CompressionPolicy policy = new CompressionPolicy(CompressionPolicy.build().level(Deflater.BEST_COMPRESSION).loadInterval(1, TimeUnit.SECONDS),
+        () -> {
+          samples.incrementAndGet();
+          return load[0];
+        }, clock::get);
+    Assert.assertEquals(Deflater.BEST_COMPRESSION, policy.level("gzip"));
+
+    load[0] = 0.95;
+    Assert.assertEquals(Deflater.BEST_COMPRESSION, policy.level("gzip"));
+    Assert.assertEquals(1, samples.get());
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    Assert.assertEquals(Deflater.NO_COMPRESSION, policy.level("gzip"));
+    Assert.assertEquals(Deflater.BEST_COMPRESSION, policy.level("gzip, identity;q=0"));
+
+    load[0] = 0.7;
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    Assert.assertEquals(Deflater.BEST_SPEED, policy.level("gzip"));
+    Assert.assertEquals(3, samples.get());
+
+    Assert.assertEquals(1, policy.decisions("identity", "load"));
+    Assert.assertEquals(1, policy.decisions("gzip", "load"));
+    for (Collector.MetricFamilySamples family : policy.collect()) {
+      if (family.name.equals("protobuf_compression_level")) {
+        Assert.assertEquals(Deflater.BEST_SPEED, family.samples.get(0).value, 0);
+      } else if (family.name.equals("protobuf_compression_cpu_load")) {
+        Assert.assertEquals(0.7, family.samples.get(0).value, 0);
+      } else if (family.name.equals("protobuf_compression_decisions_total")) {
+        Assert.assertEquals(6, family.samples.size());
+      }
+    }
+  }
+
+  @Test
+  public void unavailableLoad() {
+    final CompressionPolicy policy = new CompressionPolicy(CompressionPolicy.build(), () -> -1, System::nanoTime);
+    Assert.assertEquals(Deflater.DEFAULT_COMPRESSION, policy.level("gzip"));
+  }
+}
@@ -0,0 +1,118 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.*;
+
+public final class DeltaStoreTest {
+
+  @Test
+  public void changes() {
+    final CollectorRegistry registry = new CollectorRegistry();
+    final Gauge gauge = Gauge.build("pool_size", "help").labelNames("pool").register(registry);
+    gauge.labels("a").set(1);
+    gauge.labels("b").set(2);
+    final Histogram histogram = Histogram.build("latency", "help").labelNames("path").buckets(1, 2).register(registry);
+    histogram.labels("/a").observe(0.5);
+    histogram.labels("/b").observe(0.5);
+    final DeltaStore store = new DeltaStore(10);
+
+    final DeltaStore.Delta full = store.delta(null, Collections.list(registry.metricFamilySamples()));
+    Assert.assertFalse(full.incremental);
+    Assert.assertEquals(2 + 2 * 5, samples(full).size());
+
+    final DeltaStore.Delta unchanged = store.delta(full.token, Collections.list(registry.metricFamilySamples()));
+    Assert.assertTrue(unchanged.incremental);
+    Assert.assertTrue(unchanged.families.isEmpty());
+    Assert.assertNotEquals(full.token, unchanged.token);
+
+    gauge.labels("b").set(3);
+    histogram.labels("/a").observe(1.5);
+    gauge.remove("a");
+    final DeltaStore.Delta changed = store.delta(unchanged.token, Collections.list(registry.metricFamilySamples()));
+    final List<Collector.MetricFamilySamples.Sample> samples = samples(changed);
+    Assert.assertEquals(1 + 5 + 1, samples.size());
+    for (Collector.MetricFamilySamples.Sample sample : samples) {
+      if (sample.name.startsWith("latency")) {
+        Assert.assertEquals("/a", sample.labelValues.get(0));
+      }
+    }
+    final Collector.MetricFamilySamples.Sample removed = samples.get(samples.size() - 1);
+    Assert.assertEquals(DeltaStore.REMOVED, removed.name);
+    Assert.assertEquals(Arrays.asList(DeltaStore.NAME_LABEL, "pool"), removed.labelNames);
+    Assert.assertEquals(Arrays.asList("pool_size", "a"), removed.labelValues);
+
+    Assert.assertFalse(store.delta(unchanged.token, Collections.list(registry.metricFamilySamples())).incremental);
+  }
+
+  @Test
+  public void eviction() {
+    final DeltaStore store = new DeltaStore(2);
+    final String first = store.delta(null, Collections.emptyList()).token;
+    final String second = store.delta(null, Collections.emptyList()).token;
+    store.delta(null, Collections.emptyList());
+    Assert.assertEquals(2, store.size());
+    Assert.assertTrue(store.delta(second, Collections.emptyList()).incremental);
+    Assert.assertFalse(store.delta(first, Collections.emptyList()).incremental);
+  }
+
+  @Test
+  public void servlet() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    final Gauge gauge = Gauge.build("pool_size", "help").labelNames("pool").register(registry);
+    gauge.labels("a").set(1);
+    gauge.labels("b").set(2);
+
+    final Server server = new Server(0);
+    final ServletContextHandler context = new ServletContextHandler();
+    context.setContextPath("/");
+    server.setHandler(context);
+    context.addServlet(new ServletHolder(ProtobufMetricsServlet.build().registry(registry).deltas(new DeltaStore(16)).create()), "/metrics");
+    server.start();
+    final HttpClient client = new HttpClient();
+    try {
+      client.start();
+      final String url = "http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/metrics";
+
+      Assert.assertNull(client.GET(url).getHeaders().get(ProtobufMetricsServlet.TOKEN_HEADER));
+      final ContentResponse first = client.GET(url + "?since=");
+      final String token = first.getHeaders().get(ProtobufMetricsServlet.TOKEN_HEADER);
+      Assert.assertNotNull(token);
+      Assert.assertNull(first.getHeaders().get(ProtobufMetricsServlet.SINCE_HEADER));
+      Assert.assertEquals(2, families(first).get(0).samples.size());
+
+      gauge.labels("b").set(5);
+      final ContentResponse second = client.GET(url + "?since=" + token);
+      Assert.assertEquals(token, second.getHeaders().get(ProtobufMetricsServlet.SINCE_HEADER));
+      final List<Collector.MetricFamilySamples.Sample> samples = families(second).get(0).samples;
+      Assert.assertEquals(1, samples.size());
+      Assert.assertEquals(5, samples.get(0).value, 0);
+    } finally {
+      client.stop();
+      server.stop();
+    }
+  }
+
+  private static @NotNull List<Collector.MetricFamilySamples.Sample> samples(@NotNull DeltaStore.Delta delta) {
+    final List<Collector.MetricFamilySamples.Sample> samples = new ArrayList<>();
+    delta.families.forEach(family -> samples.addAll(family.samples));
+    return samples;
+  }
+
+  private static @NotNull List<Collector.MetricFamilySamples> families(@NotNull ContentResponse response) throws Exception {
+    return new ProtobufParser(new ByteArrayInputStream(response.getContent())).families();
+  }
+}
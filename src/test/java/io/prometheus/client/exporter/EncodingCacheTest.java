@@ -0,0 +1,128 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+public final class EncodingCacheTest {
+
+  @Test
+  public void unchanged() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    final Gauge gauge = Gauge.build("config_value", "help").labelNames("key").register(registry);
+    gauge.labels("a").set(1);
+    final Counter counter = Counter.build("requests_total", "help").register(registry);
+    final EncodingCache cache = new EncodingCache(1 << 20);
+
+    final byte[] first = write(registry, cache);
+    Assert.assertArrayEquals(write(registry, null), first);
+    Assert.assertEquals(0, cache.hits());
+    Assert.assertEquals(2, cache.misses());
+
+    Assert.assertArrayEquals(first, write(registry, cache));
+    Assert.assertEquals(2, cache.hits());
+
+    counter.inc();
+    final byte[] changed = write(registry, cache);
+    Assert.assertArrayEquals(write(registry, null), changed);
+    Assert.assertEquals(3, cache.hits());
+    Assert.assertEquals(3, cache.misses());
+    Assert.assertEquals(0.5, cache.hitRatio(), 0);
+
+    gauge.labels("b").set(1);
+    Assert.assertArrayEquals(write(registry, null), write(registry, cache));
+    Assert.assertEquals(4, cache.misses());
+  }
+
+  @Test
+  public void fingerprint() {
+    final Collector.MetricFamilySamples.Sample sample = new Collector.MetricFamilySamples.Sample("a", Arrays.asList("x", "y"), Arrays.asList("1", "2"), 1);
+    final Collector.MetricFamilySamples.Sample swapped = new Collector.MetricFamilySamples.Sample("a", Arrays.asList("x", "y"), Arrays.asList("2", "1"), 1);
+    final Collector.MetricFamilySamples.Sample other = new Collector.MetricFamilySamples.Sample("a", Arrays.asList("x", "y"), Arrays.asList("1", "2"), 2);
+    Assert.assertEquals(EncodingCache.fingerprint(family(sample)), EncodingCache.fingerprint(family(sample)));
+    Assert.assertNotEquals(EncodingCache.fingerprint(family(sample)), EncodingCache.fingerprint(family(swapped)));
+    Assert.assertNotEquals(EncodingCache.fingerprint(family(sample)), EncodingCache.fingerprint(family(other)));
+  }
+
+  @Test
+  public void budget() {
+    final long retained = EncodingCache.retained(named("a"));
+    final EncodingCache cache = new EncodingCache(2 * (40 + retained) + 20);
+    cache.put(named("a"), 1, new byte[40]);
+    cache.put(named("b"), 1, new byte[40]);
+    Assert.assertNotNull(cache.get(named("a"), 1));
+    cache.put(named("c"), 1, new byte[40]);
+    Assert.assertEquals(2 * (40 + retained), cache.size());
+    Assert.assertNull(cache.get(named("b"), 1));
+    Assert.assertNotNull(cache.get(named("a"), 1));
+    cache.put(named("d"), 1, new byte[200]);
+    Assert.assertNull(cache.get(named("d"), 1));
+    cache.put(named("a"), 1, new byte[10]);
+    Assert.assertEquals(50 + 2 * retained, cache.size());
+
+    final CollectorRegistry registry = new CollectorRegistry();
+    cache.register(registry);
+    Assert.assertEquals(50 + 2 * retained, registry.getSampleValue("protobuf_encoding_cache_bytes"), 0);
+    Assert.assertEquals(2, registry.getSampleValue("protobuf_encoding_cache_misses_total"), 0);
+  }
+
+  @Test
+  public void retained() {
+    final Collector.MetricFamilySamples.Sample sample = new Collector.MetricFamilySamples.Sample("a", Collections.singletonList("x"), Collections.singletonList("1"), 1);
+    final Collector.MetricFamilySamples samples = new Collector.MetricFamilySamples("a", Collector.Type.GAUGE, "help", Collections.nCopies(1000, sample));
+    Assert.assertTrue(EncodingCache.retained(samples) > 1000 * EncodingCache.retained(family(sample)) / 2);
+
+    final EncodingCache cache = new EncodingCache(64 << 10);
+    cache.put(samples, 1, new byte[10]);
+    Assert.assertNull(cache.get(samples, 1));
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void collision() throws Exception {
+    Assert.assertEquals("Aa".hashCode(), "BB".hashCode());
+    final CollectorRegistry registry = new CollectorRegistry();
+    final Gauge gauge = Gauge.build("build_info", "help").labelNames("version").register(registry);
+    gauge.labels("Aa").set(1);
+    final EncodingCache cache = new EncodingCache(1 << 20);
+    write(registry, cache);
+
+    gauge.remove("Aa");
+    gauge.labels("BB").set(1);
+    final byte[] relabelled = write(registry, cache);
+    Assert.assertArrayEquals(write(registry, null), relabelled);
+    Assert.assertEquals(0, cache.hits());
+  }
+
+  @Test
+  public void same() {
+    final Collector.MetricFamilySamples.Sample zero = new Collector.MetricFamilySamples.Sample("a", Collections.emptyList(), Collections.emptyList(), 0.0);
+    final Collector.MetricFamilySamples.Sample negative = new Collector.MetricFamilySamples.Sample("a", Collections.emptyList(), Collections.emptyList(), -0.0);
+    final Collector.MetricFamilySamples.Sample nan = new Collector.MetricFamilySamples.Sample("a", Collections.emptyList(), Collections.emptyList(), Double.NaN);
+    Assert.assertFalse(EncodingCache.same(family(zero), family(negative)));
+    Assert.assertTrue(EncodingCache.same(family(nan), family(nan)));
+  }
+
+  private static @NotNull Collector.MetricFamilySamples named(@NotNull String name) {
+    return new Collector.MetricFamilySamples(name, Collector.Type.GAUGE, "help", Collections.emptyList());
+  }
+
+  private static @NotNull Collector.MetricFamilySamples family(@NotNull Collector.MetricFamilySamples.Sample sample) {
+    return new Collector.MetricFamilySamples("a", Collector.Type.GAUGE, "help", Collections.singletonList(sample));
+  }
+
+  private static @NotNull byte[] write(@NotNull CollectorRegistry registry, @Nullable EncodingCache cache) throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(registry.metricFamilySamples(), cache).write(output);
+    return output.toByteArray();
+  }
+}
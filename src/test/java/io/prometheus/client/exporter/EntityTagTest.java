@@ -0,0 +1,108 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Gauge;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class EntityTagTest {
+
+  @Test
+  public void notModified() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    final Gauge gauge = Gauge.build("test_gauge", "help").register(registry);
+    gauge.set(1);
+
+    final Server server = new Server(0);
+    final ServletContextHandler context = new ServletContextHandler();
+    context.setContextPath("/");
+    server.setHandler(context);
+    context.addServlet(new ServletHolder(ProtobufMetricsServlet.build().registry(registry).conditional().create()), "/metrics");
+    server.start();
+    final HttpClient client = new HttpClient();
+    try {
+      client.start();
+      final String url = "http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/metrics";
+
+      final ContentResponse first = client.GET(url);
+      Assert.assertEquals(HttpStatus.OK_200, first.getStatus());
+      final String tag = first.getHeaders().get(HttpHeader.ETAG);
+      Assert.assertNotNull(tag);
+      Assert.assertEquals(1, new ProtobufParser(new ByteArrayInputStream(first.getContent())).families().size());
+
+      final ContentResponse cached = client.newRequest(url).header(HttpHeader.IF_NONE_MATCH, "\"other\", " + tag).send();
+      Assert.assertEquals(HttpStatus.NOT_MODIFIED_304, cached.getStatus());
+      Assert.assertEquals(0, cached.getContent().length);
+      Assert.assertEquals(tag, cached.getHeaders().get(HttpHeader.ETAG));
+
+      gauge.set(2);
+      final ContentResponse changed = client.newRequest(url).header(HttpHeader.IF_NONE_MATCH, tag).send();
+      Assert.assertEquals(HttpStatus.OK_200, changed.getStatus());
+      Assert.assertNotEquals(tag, changed.getHeaders().get(HttpHeader.ETAG));
+      Assert.assertEquals(first.getContent().length, changed.getContent().length);
+    } finally {
+      client.stop();
+      server.stop();
+    }
+  }
+
+  @Test
+  public void snapshot() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    Gauge.build("test_gauge", "help").register(registry).set(1);
+    final Path directory = Files.createTempDirectory("snapshots");
+    final SnapshotRenderer snapshots = new SnapshotRenderer(registry, directory);
+    snapshots.render();
+
+    final Server server = new Server(0);
+    final ServletContextHandler context = new ServletContextHandler();
+    context.setContextPath("/");
+    server.setHandler(context);
+    context.addServlet(new ServletHolder(ProtobufMetricsServlet.build().registry(registry).conditional().create()), "/live");
+    context.addServlet(new ServletHolder(ProtobufMetricsServlet.build().registry(registry).snapshots(snapshots).conditional().create()), "/snapshot");
+    server.start();
+    final HttpClient client = new HttpClient();
+    try {
+      client.start();
+      final String url = "http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+
+      final ContentResponse live = client.GET(url + "/live");
+      final ContentResponse first = client.GET(url + "/snapshot");
+      Assert.assertEquals(HttpStatus.OK_200, first.getStatus());
+      Assert.assertArrayEquals(live.getContent(), first.getContent());
+      final String tag = first.getHeaders().get(HttpHeader.ETAG);
+      Assert.assertEquals(live.getHeaders().get(HttpHeader.ETAG), tag);
+
+      final ContentResponse cached = client.newRequest(url + "/snapshot").header(HttpHeader.IF_NONE_MATCH, tag).send();
+      Assert.assertEquals(HttpStatus.NOT_MODIFIED_304, cached.getStatus());
+      Assert.assertEquals(0, cached.getContent().length);
+    } finally {
+      client.stop();
+      server.stop();
+      snapshots.close();
+      Files.delete(directory);
+    }
+  }
+
+  @Test
+  public void matches() {
+    Assert.assertTrue(ProtobufMetricsServlet.matches("\"a\"", "\"a\""));
+    Assert.assertTrue(ProtobufMetricsServlet.matches("W/\"a\"", "\"a\""));
+    Assert.assertTrue(ProtobufMetricsServlet.matches("\"b\" , \"a\"", "\"a\""));
+    Assert.assertTrue(ProtobufMetricsServlet.matches("*", "\"a\""));
+    Assert.assertFalse(ProtobufMetricsServlet.matches("\"b\"", "\"a\""));
+    Assert.assertFalse(ProtobufMetricsServlet.matches(null, "\"a\""));
+  }
+}
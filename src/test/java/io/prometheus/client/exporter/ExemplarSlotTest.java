@@ -0,0 +1,106 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Metrics;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class ExemplarSlotTest {
+  private static final @NotNull LabelSet TRACE = LabelSet.of(new String[]{"trace_id"}, new String[]{"abc"});
+
+  @Test
+  public void sampling() {
+    final AtomicLong clock = new AtomicLong(1000);
+    final AtomicInteger built = new AtomicInteger();
+    final ExemplarSlot slot = new ExemplarSlot(1000, clock::get);
+    Assert.assertNull(slot.get());
+
+    Assert.assertTrue(slot.offer(1, () -> label(built, "first")));
+    clock.addAndGet(999);
+    Assert.assertFalse(slot.offer(2, () -> label(built, "second")));
+    Assert.assertEquals(1, built.get());
+    Assert.assertEquals(1, slot.get().value(), 0);
+    Assert.assertEquals(1000, slot.get().timestamp());
+
+    clock.addAndGet(1);
+    Assert.assertTrue(slot.offer(3, () -> label(built, "third")));
+    Assert.assertEquals("third", slot.get().labels().value(0));
+    Assert.assertEquals(2000, slot.get().timestamp());
+  }
+
+  @Test
+  public void encode() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    new ProtobufCollector() {
+      @Override
+      public void collect(@NotNull MetricsSink sink) {
+        sink.beginFamily("requests_total", "help", Type.COUNTER);
+        sink.exemplar(new Exemplar(1, 1_500, TRACE));
+        sink.created(-1);
+        sink.value(7);
+        sink.value(8);
+        sink.endFamily();
+        sink.beginFamily("latency", "help", Type.HISTOGRAM);
+        sink.bucket(0.1, 1);
+        sink.exemplar(new Exemplar(0.5, 2_000, TRACE));
+        sink.bucket(1, 2);
+        sink.bucket(Double.POSITIVE_INFINITY, 2);
+        sink.created(3_000);
+        sink.histogram(2, 0.55);
+        sink.endFamily();
+      }
+
+      @Override
+      public @NotNull List<MetricFamilySamples> describe() {
+        final List<MetricFamilySamples> families = new ArrayList<>();
+        families.add(new MetricFamilySamples("requests_total", Type.COUNTER, "help", Collections.emptyList()));
+        families.add(new MetricFamilySamples("latency", Type.HISTOGRAM, "help", Collections.emptyList()));
+        return families;
+      }
+    }.register(registry);
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(registry.metricFamilySamples()).write(output);
+    final ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+    final List<Metrics.MetricFamily> families = new ArrayList<>();
+    for (Metrics.MetricFamily family; (family = Metrics.MetricFamily.parseDelimitedFrom(input)) != null; ) {
+      families.add(family);
+    }
+    families.sort((left, right) -> left.getName().compareTo(right.getName()));
+
+    final Metrics.Histogram histogram = families.get(0).getMetric(0).getHistogram();
+    Assert.assertFalse(histogram.getBucket(0).hasExemplar());
+    final Metrics.Exemplar bucket = histogram.getBucket(1).getExemplar();
+    Assert.assertEquals(0.5, bucket.getValue(), 0);
+    Assert.assertEquals(2, bucket.getTimestamp().getSeconds());
+    Assert.assertEquals(0, bucket.getTimestamp().getNanos());
+    Assert.assertEquals("trace_id", bucket.getLabel(0).getName());
+    Assert.assertFalse(histogram.getBucket(2).hasExemplar());
+    Assert.assertEquals(0, histogram.getExemplarsCount());
+    Assert.assertEquals(3, histogram.getCreatedTimestamp().getSeconds());
+
+    final Metrics.Counter first = families.get(1).getMetric(0).getCounter();
+    Assert.assertEquals(7, first.getValue(), 0);
+    Assert.assertEquals(1, first.getExemplar().getTimestamp().getSeconds());
+    Assert.assertEquals(500_000_000, first.getExemplar().getTimestamp().getNanos());
+    Assert.assertEquals("abc", first.getExemplar().getLabel(0).getValue());
+    Assert.assertEquals(-1, first.getCreatedTimestamp().getSeconds());
+    Assert.assertEquals(999_000_000, first.getCreatedTimestamp().getNanos());
+    final Metrics.Counter second = families.get(1).getMetric(1).getCounter();
+    Assert.assertFalse(second.hasExemplar());
+    Assert.assertFalse(second.hasCreatedTimestamp());
+  }
+
+  private static @NotNull LabelSet label(@NotNull AtomicInteger built, @NotNull String value) {
+    built.incrementAndGet();
+    return LabelSet.of(new String[]{"trace_id"}, new String[]{value});
+  }
+}
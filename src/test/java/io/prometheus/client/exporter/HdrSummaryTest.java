@@ -0,0 +1,155 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class HdrSummaryTest {
+
+  @Test
+  public void buckets() {
+    final HdrSummary.Buckets buckets = new HdrSummary.Buckets(2, 1e-6, 1e4);
+    for (double value = 1e-6; value < 1e4; value *= 1.01) {
+      final double estimate = buckets.value(buckets.index(value));
+      Assert.assertEquals(value, estimate, value * 0.01);
+    }
+    Assert.assertEquals(0, buckets.index(0));
+    Assert.assertEquals(0, buckets.index(-1));
+    Assert.assertEquals(buckets.size - 1, buckets.index(1e9));
+  }
+
+  @Test
+  public void intervals() throws Exception {
+    final AtomicLong clock = new AtomicLong();
+    final HdrSummary summary = HdrSummary.build("latency", "help")
+        .quantile(0.5).quantile(0.99)
+        .interval(1, TimeUnit.SECONDS)
+        .clock(clock::get)
+        .create();
+    for (int i = 1; i <= 1000; i++) {
+      summary.observe(i / 1000.0);
+    }
+
+    List<Collector.MetricFamilySamples.Sample> samples = scrape(summary);
+    Assert.assertEquals(0.5, value(samples, "0.5"), 0.005);
+    Assert.assertEquals(0.99, value(samples, "0.99"), 0.01);
+    Assert.assertEquals(1000, samples.get(2).value, 0);
+    Assert.assertEquals(500.5, samples.get(3).value, 1e-9);
+
+    for (int i = 0; i < 100; i++) {
+      summary.observe(5);
+    }
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+    samples = scrape(summary);
+    Assert.assertEquals(0.5, value(samples, "0.5"), 0.005);
+    Assert.assertEquals(1100, samples.get(2).value, 0);
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+    samples = scrape(summary);
+    Assert.assertEquals(5, value(samples, "0.5"), 0.05);
+    Assert.assertEquals(1100, samples.get(2).value, 0);
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    samples = scrape(summary);
+    Assert.assertTrue(Double.isNaN(value(samples, "0.5")));
+    Assert.assertEquals(1100, samples.get(2).value, 0);
+  }
+
+  @Test
+  public void labels() throws Exception {
+    final HdrSummary summary = HdrSummary.build("latency", "help").labelNames("path").quantile(0.5).create();
+    summary.labels("/a").observe(1);
+    summary.labels("/b").observe(2);
+    Assert.assertSame(summary.labels("/a"), summary.labels("/a"));
+
+    final List<Collector.MetricFamilySamples.Sample> samples = scrape(summary);
+    Assert.assertEquals(6, samples.size());
+    for (Collector.MetricFamilySamples.Sample sample : samples) {
+      Assert.assertEquals("path", sample.labelNames.get(0));
+    }
+  }
+
+  @Test
+  public void concurrent() throws Exception {
+    final HdrSummary summary = HdrSummary.build("latency", "help").quantile(0.5).interval(1, TimeUnit.NANOSECONDS).create();
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      threads.add(new Thread(() -> {
+        for (int j = 0; j < 100_000; j++) {
+          summary.observe(0.001);
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    long observed = 0;
+    while (threads.stream().anyMatch(Thread::isAlive)) {
+      summary.collect(new MetricsSink() {
+        @Override
+        public void beginFamily(@NotNull String name, @NotNull String help, @NotNull Collector.Type type) {
+        }
+
+        @Override
+        public void label(@NotNull String name, @NotNull String value) {
+        }
+
+        @Override
+        public void value(double value) {
+        }
+
+        @Override
+        public void quantile(double quantile, double value) {
+        }
+
+        @Override
+        public void summary(long count, double sum) {
+        }
+
+        @Override
+        public void bucket(double upperBound, long cumulativeCount) {
+        }
+
+        @Override
+        public void histogram(long count, double sum) {
+        }
+
+        @Override
+        public void endFamily() {
+        }
+      });
+      observed++;
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertTrue(observed > 0);
+    Assert.assertEquals(400_000, summary.labels().count());
+  }
+
+  private static @NotNull List<Collector.MetricFamilySamples.Sample> scrape(@NotNull HdrSummary summary) throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    summary.register(registry);
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(registry.metricFamilySamples()).write(output);
+    final List<Collector.MetricFamilySamples> families = new ProtobufParser(new ByteArrayInputStream(output.toByteArray())).families();
+    Assert.assertEquals(Collector.Type.SUMMARY, families.get(0).type);
+    return families.get(0).samples;
+  }
+
+  private static double value(@NotNull List<Collector.MetricFamilySamples.Sample> samples, @NotNull String quantile) {
+    for (Collector.MetricFamilySamples.Sample sample : samples) {
+      if (sample.labelNames.contains("quantile") && sample.labelValues.get(sample.labelNames.indexOf("quantile")).equals(quantile)) {
+        return sample.value;
+      }
+    }
+    throw new AssertionError("No quantile " + quantile);
+  }
+}
@@ -0,0 +1,74 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Metrics;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class LabelSetTest {
+
+  @Test
+  public void interned() {
+    final LabelSet first = LabelSet.of(Arrays.asList("method", "path"), Arrays.asList("GET", "/"));
+    final LabelSet second = LabelSet.of(new String[]{"method", "path"}, new String[]{"GET", "/"});
+    Assert.assertSame(first, second);
+    Assert.assertSame(first, LabelSet.of(Collections.singletonList("method"), Collections.singletonList("GET")).with("path", "/"));
+    Assert.assertNotSame(first, LabelSet.of(Arrays.asList("method", "path"), Arrays.asList("GET", "/index")));
+    Assert.assertSame(LabelSet.EMPTY, LabelSet.of(new String[0], new String[0]));
+    Assert.assertEquals(Arrays.asList("GET", "/"), first.values());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void mismatch() {
+    LabelSet.of(Arrays.asList("method", "path"), Collections.singletonList("GET"));
+  }
+
+  @Test
+  public void encoded() {
+    final LabelSet labels = LabelSet.of(Arrays.asList("method", "path"), Arrays.asList("GET", "/\u043f"));
+    final Metrics.Metric metric = Metrics.Metric.newBuilder()
+        .addLabel(Metrics.LabelPair.newBuilder().setName("method").setValue("GET"))
+        .addLabel(Metrics.LabelPair.newBuilder().setName("path").setValue("/\u043f"))
+        .build();
+    Assert.assertArrayEquals(metric.toByteArray(), labels.encoded());
+    Assert.assertEquals(0, LabelSet.EMPTY.encoded().length);
+  }
+
+  @Test
+  public void sink() throws Exception {
+    final LabelSet labels = LabelSet.of(Arrays.asList("method", "path"), Arrays.asList("GET", "/"));
+    final CollectorRegistry registry = new CollectorRegistry();
+    new ProtobufCollector() {
+      @Override
+      public void collect(@NotNull MetricsSink sink) {
+        sink.beginFamily("requests", "help", Type.COUNTER);
+        sink.labels(labels);
+        sink.label("code", "200");
+        sink.value(3);
+        sink.labels(labels);
+        sink.value(1);
+        sink.endFamily();
+      }
+
+      @Override
+      public @NotNull List<MetricFamilySamples> describe() {
+        return Collections.singletonList(new MetricFamilySamples("requests", Type.COUNTER, "help", Collections.emptyList()));
+      }
+    }.register(registry);
+
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(registry.metricFamilySamples()).write(output);
+    final List<Collector.MetricFamilySamples> families = new ProtobufParser(new ByteArrayInputStream(output.toByteArray())).families();
+    Assert.assertEquals(Collections.list(registry.metricFamilySamples()), families);
+    Assert.assertEquals(Arrays.asList("method", "path", "code"), families.get(0).samples.get(0).labelNames);
+    Assert.assertEquals(Arrays.asList("GET", "/"), families.get(0).samples.get(1).labelValues);
+  }
+}
@@ -0,0 +1,194 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class MultiprocessCollectorTest {
+
+  @Rule
+  public final @NotNull TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void counter() throws Exception {
+    final Path directory = folder.getRoot().toPath();
+    try (final MultiprocessStore first = new MultiprocessStore(directory, "1");
+         final MultiprocessStore second = new MultiprocessStore(directory, "2")) {
+      first.counter("requests", "help", "path").labels("/a").inc(2);
+      second.counter("requests", "help", "path").labels("/a").inc(3);
+      second.counter("requests", "help", "path").labels("/b").inc();
+
+      final Map<String, Double> values = values(new MultiprocessCollector(directory).collect());
+      Assert.assertEquals(5, values.get("requests{path=/a}"), 0);
+      Assert.assertEquals(1, values.get("requests{path=/b}"), 0);
+    }
+  }
+
+  @Test
+  public void gauges() throws Exception {
+    final Path directory = folder.getRoot().toPath();
+    try (final MultiprocessStore first = new MultiprocessStore(directory, "1");
+         final MultiprocessStore second = new MultiprocessStore(directory, "2")) {
+      for (MultiprocessStore store : Arrays.asList(first, second)) {
+        final double value = store == first ? 4 : 7;
+        store.gauge("max", "help", MultiprocessStore.Aggregation.MAX).labels().set(value);
+        store.gauge("min", "help", MultiprocessStore.Aggregation.MIN).labels().set(value);
+        store.gauge("sum", "help", MultiprocessStore.Aggregation.SUM).labels().set(value);
+        store.gauge("all", "help", MultiprocessStore.Aggregation.ALL).labels().set(value);
+      }
+
+      final Map<String, Double> values = values(new MultiprocessCollector(directory).collect());
+      Assert.assertEquals(7, values.get("max{}"), 0);
+      Assert.assertEquals(4, values.get("min{}"), 0);
+      Assert.assertEquals(11, values.get("sum{}"), 0);
+      Assert.assertEquals(4, values.get("all{pid=1}"), 0);
+      Assert.assertEquals(7, values.get("all{pid=2}"), 0);
+    }
+  }
+
+  @Test
+  public void live() throws Exception {
+    final Path directory = folder.getRoot().toPath();
+    try (final MultiprocessStore alive = new MultiprocessStore(directory, "1")) {
+      alive.gauge("live", "help", MultiprocessStore.Aggregation.LIVE_SUM).labels().set(1);
+      alive.gauge("total", "help", MultiprocessStore.Aggregation.SUM).labels().set(1);
+      try (final MultiprocessStore dead = new MultiprocessStore(directory, "2")) {
+        dead.gauge("live", "help", MultiprocessStore.Aggregation.LIVE_SUM).labels().set(2);
+        dead.gauge("total", "help", MultiprocessStore.Aggregation.SUM).labels().set(2);
+      }
+
+      final Map<String, Double> values = values(new MultiprocessCollector(directory).collect());
+      Assert.assertEquals(1, values.get("live{}"), 0);
+      Assert.assertEquals(3, values.get("total{}"), 0);
+    }
+  }
+
+  @Test
+  public void histogram() throws Exception {
+    final Path directory = folder.getRoot().toPath();
+    try (final MultiprocessStore first = new MultiprocessStore(directory, "1");
+         final MultiprocessStore second = new MultiprocessStore(directory, "2")) {
+      first.histogram("latency", "help", new double[]{1, 5}).labels().observe(0.5);
+      second.histogram("latency", "help", new double[]{1, 5}).labels().observe(3);
+      second.histogram("latency", "help", new double[]{1, 5}).labels().observe(10);
+
+      final CollectorRegistry registry = new CollectorRegistry();
+      registry.register(new MultiprocessCollector(directory));
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      new ProtobufFormatter(registry.metricFamilySamples()).write(output);
+      final List<Collector.MetricFamilySamples> families = new ProtobufParser(new ByteArrayInputStream(output.toByteArray())).families();
+
+      Assert.assertEquals(1, families.size());
+      Assert.assertEquals(Collector.Type.HISTOGRAM, families.get(0).type);
+      final Map<String, Double> values = values(families);
+      Assert.assertEquals(1, values.get("latency_bucket{le=1.0}"), 0);
+      Assert.assertEquals(2, values.get("latency_bucket{le=5.0}"), 0);
+      Assert.assertEquals(3, values.get("latency_bucket{le=+Inf}"), 0);
+      Assert.assertEquals(3, values.get("latency_count{}"), 0);
+      Assert.assertEquals(13.5, values.get("latency_sum{}"), 0);
+    }
+  }
+
+  @Test
+  public void stale() throws Exception {
+    final Path directory = folder.getRoot().toPath();
+    final byte[] garbage = new byte[4096];
+    Arrays.fill(garbage, (byte) 0x7f);
+    Files.write(directory.resolve("1" + MultiprocessStore.SUFFIX), garbage);
+    try (final MultiprocessStore store = new MultiprocessStore(directory, "1", 256)) {
+      store.counter("requests", "help").labels().inc();
+      Assert.assertEquals(256, Files.size(directory.resolve("1" + MultiprocessStore.SUFFIX)));
+
+      final Map<String, Double> values = values(new MultiprocessCollector(directory).collect());
+      Assert.assertEquals(Collections.singletonMap("requests{}", 1.0), values);
+    }
+  }
+
+  @Test
+  public void truncated() throws Exception {
+    final Path directory = folder.getRoot().toPath();
+    final Path file = directory.resolve("1" + MultiprocessStore.SUFFIX);
+    try (final MultiprocessStore store = new MultiprocessStore(directory, "1", 256)) {
+      store.counter("first", "help").labels().inc();
+      store.counter("second_with_a_longer_name", "help").labels().inc();
+    }
+    for (long size = Files.size(file); size > MultiprocessStore.HEADER; size -= 4) {
+      try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        channel.truncate(size);
+      }
+      final Map<String, Double> values = values(new MultiprocessCollector(directory).collect());
+      Assert.assertTrue(values.size() <= 2);
+    }
+  }
+
+  @Test
+  public void chunks() throws Exception {
+    final Path directory = folder.getRoot().toPath();
+    try (final MultiprocessStore store = new MultiprocessStore(directory, "1", 256)) {
+      final MultiprocessStore.Counter counter = store.counter("chunked", "help", "id");
+      for (int i = 0; i < 100; i++) {
+        counter.labels(Integer.toString(i)).inc(i);
+      }
+
+      final Map<String, Double> values = values(new MultiprocessCollector(directory).collect());
+      Assert.assertEquals(100, values.size());
+      for (int i = 0; i < 100; i++) {
+        Assert.assertEquals(i, values.get("chunked{id=" + i + "}"), 0);
+      }
+    }
+  }
+
+  @Test
+  public void concurrent() throws Exception {
+    final Path directory = folder.getRoot().toPath();
+    try (final MultiprocessStore store = new MultiprocessStore(directory, "1")) {
+      final MultiprocessStore.Counter counter = store.counter("concurrent", "help");
+      final List<Thread> threads = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        threads.add(new Thread(() -> {
+          for (int j = 0; j < 10000; j++) {
+            counter.labels().inc();
+          }
+        }));
+      }
+      threads.forEach(Thread::start);
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      Assert.assertEquals(40000, counter.labels().get(), 0);
+      Assert.assertEquals(40000, values(new MultiprocessCollector(directory).collect()).get("concurrent{}"), 0);
+    }
+  }
+
+  private static @NotNull Map<String, Double> values(@NotNull List<Collector.MetricFamilySamples> families) {
+    final Map<String, Double> values = new HashMap<>();
+    for (Collector.MetricFamilySamples family : families) {
+      for (Collector.MetricFamilySamples.Sample sample : family.samples) {
+        final List<String> labels = new ArrayList<>();
+        for (int i = 0; i < sample.labelNames.size(); i++) {
+          labels.add(sample.labelNames.get(i) + "=" + sample.labelValues.get(i));
+        }
+        Collections.sort(labels);
+        values.put(sample.name + "{" + String.join(",", labels) + "}", sample.value);
+      }
+    }
+    return values;
+  }
+}
@@ -0,0 +1,145 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Metrics;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+public final class NativeHistogramTest {
+
+  @Test
+  public void index() {
+    Assert.assertEquals(0, NativeHistogram.index(1, 3));
+    Assert.assertEquals(8, NativeHistogram.index(2, 3));
+    Assert.assertEquals(9, NativeHistogram.index(Math.nextUp(2.0), 3));
+    Assert.assertEquals(-8, NativeHistogram.index(0.5, 3));
+    Assert.assertEquals(2, NativeHistogram.index(3, 0));
+    Assert.assertEquals(1, NativeHistogram.index(16, -2));
+    Assert.assertEquals(2, NativeHistogram.index(17, -2));
+    for (int schema = -4; schema <= 8; schema++) {
+      for (double value = 1e-9; value < 1e9; value *= 1.37) {
+        final int index = NativeHistogram.index(value, schema);
+        Assert.assertTrue(NativeHistogram.bound(index - 1, schema) < value);
+        Assert.assertTrue(NativeHistogram.bound(index, schema) >= value);
+      }
+    }
+  }
+
+  @Test
+  public void spans() throws Exception {
+    final NativeHistogram histogram = NativeHistogram.build("latency", "help").schema(0).zeroThreshold(0.001).create();
+    histogram.observe(0);
+    histogram.observe(0.0005);
+    histogram.observe(1);
+    histogram.observe(2);
+    histogram.observe(2);
+    histogram.observe(8);
+    histogram.observe(1024);
+    histogram.observe(-3);
+
+    final Metrics.Histogram encoded = encode(histogram).getMetric(0).getHistogram();
+    Assert.assertEquals(8, encoded.getSampleCount());
+    Assert.assertEquals(1034.0005, encoded.getSampleSum(), 1e-9);
+    Assert.assertEquals(0, encoded.getSchema());
+    Assert.assertEquals(0.001, encoded.getZeroThreshold(), 0);
+    Assert.assertEquals(2, encoded.getZeroCount());
+
+    final Map<Integer, Long> positive = counts(encoded.getPositiveSpanList(), encoded.getPositiveDeltaList());
+    final Map<Integer, Long> expected = new TreeMap<>();
+    expected.put(0, 1L);
+    expected.put(1, 2L);
+    expected.put(3, 1L);
+    expected.put(10, 1L);
+    Assert.assertEquals(expected, positive);
+    Assert.assertEquals(2, encoded.getPositiveSpanCount());
+    Assert.assertEquals(Collections.singletonMap(2, 1L), counts(encoded.getNegativeSpanList(), encoded.getNegativeDeltaList()));
+  }
+
+  @Test
+  public void reduce() throws Exception {
+    final NativeHistogram histogram = NativeHistogram.build("latency", "help").schema(8).maxBuckets(20).create();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.observe(i);
+    }
+    final NativeHistogram.Child child = histogram.labels();
+    Assert.assertTrue(child.schema() < 8);
+
+    final Metrics.Histogram encoded = encode(histogram).getMetric(0).getHistogram();
+    Assert.assertEquals(child.schema(), encoded.getSchema());
+    final Map<Integer, Long> counts = counts(encoded.getPositiveSpanList(), encoded.getPositiveDeltaList());
+    Assert.assertTrue(counts.values().stream().filter(count -> count > 0).count() <= 20);
+    Assert.assertEquals(1000, counts.values().stream().mapToLong(Long::longValue).sum());
+    for (int i = 1; i <= 1000; i++) {
+      final int index = NativeHistogram.index(i, encoded.getSchema());
+      Assert.assertTrue(counts.get(index) > 0);
+    }
+  }
+
+  @Test
+  public void samples() throws Exception {
+    final NativeHistogram histogram = NativeHistogram.build("latency", "help").labelNames("path").create();
+    histogram.labels("/a").observe(1);
+    histogram.labels("/a").observe(3);
+    final CollectorRegistry registry = new CollectorRegistry();
+    histogram.register(registry);
+
+    final List<Collector.MetricFamilySamples.Sample> samples = registry.metricFamilySamples().nextElement().samples;
+    Assert.assertEquals(3, samples.size());
+    Assert.assertEquals("latency_bucket", samples.get(0).name);
+    Assert.assertEquals(2, samples.get(0).value, 0);
+    Assert.assertEquals(2, samples.get(1).value, 0);
+    Assert.assertEquals(4, samples.get(2).value, 0);
+  }
+
+  @Test
+  public void exemplar() throws Exception {
+    final NativeHistogram histogram = NativeHistogram.build("latency", "help").exemplarInterval(1, TimeUnit.HOURS).create();
+    final long start = System.currentTimeMillis();
+    histogram.labels().observeWithExemplar(0.25, () -> LabelSet.of(new String[]{"trace_id"}, new String[]{"first"}));
+    histogram.labels().observeWithExemplar(0.5, () -> LabelSet.of(new String[]{"trace_id"}, new String[]{"second"}));
+
+    final Metrics.Histogram encoded = encode(histogram).getMetric(0).getHistogram();
+    Assert.assertEquals(2, encoded.getSampleCount());
+    Assert.assertEquals(1, encoded.getExemplarsCount());
+    Assert.assertEquals(0.25, encoded.getExemplars(0).getValue(), 0);
+    Assert.assertEquals("first", encoded.getExemplars(0).getLabel(0).getValue());
+    Assert.assertTrue(encoded.getCreatedTimestamp().getSeconds() >= start / 1000);
+    Assert.assertFalse(encoded.getBucket(0).hasExemplar());
+  }
+
+  private static @NotNull Metrics.MetricFamily encode(@NotNull NativeHistogram histogram) throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    histogram.register(registry);
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(registry.metricFamilySamples()).write(output);
+    final Metrics.MetricFamily family = Metrics.MetricFamily.parseDelimitedFrom(new ByteArrayInputStream(output.toByteArray()));
+    Assert.assertEquals(Metrics.MetricType.HISTOGRAM, family.getType());
+    return family;
+  }
+
+  private static @NotNull Map<Integer, Long> counts(@NotNull List<Metrics.BucketSpan> spans, @NotNull List<Long> deltas) {
+    final Map<Integer, Long> counts = new TreeMap<>();
+    int index = 0;
+    int position = 0;
+    long count = 0;
+    for (int i = 0; i < spans.size(); i++) {
+      index += spans.get(i).getOffset();
+      for (int j = 0; j < spans.get(i).getLength(); j++) {
+        count += deltas.get(position++);
+        if (count != 0) {
+          counts.put(index, count);
+        }
+        index++;
+      }
+    }
+    Assert.assertEquals(deltas.size(), position);
+    return counts;
+  }
+}
@@ -0,0 +1,87 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public final class ParallelEncodingTest {
+
+  @Test
+  public void ordered() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    for (int i = 0; i < 100; i++) {
+      final Gauge gauge = Gauge.build("gauge_" + i, "help").labelNames("index").register(registry);
+      for (int j = 0; j <= i; j++) {
+        gauge.labels(Integer.toString(j)).set(j);
+      }
+    }
+    Histogram.build("latency", "help").register(registry).observe(1);
+    final NativeHistogram histogram = NativeHistogram.build("native_latency", "help").create().register(registry);
+    histogram.observe(2);
+    new Collector() {
+      @Override
+      public @NotNull List<MetricFamilySamples> collect() {
+        final LabelSet[] dictionary = {LabelSet.of(new String[]{"path"}, new String[]{"/"})};
+        return Collections.singletonList(new SampleBatch("requests_total", Type.COUNTER, "help", dictionary).value(0, 5));
+      }
+    }.register(registry);
+
+    final byte[] expected = write(registry, null, null);
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final ParallelEncoding parallel = new ParallelEncoding(pool, 0);
+      Assert.assertArrayEquals(expected, write(registry, parallel, null));
+      Assert.assertArrayEquals(expected, write(registry, parallel, new EncodingCache(1 << 20)));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void threshold() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    Gauge.build("gauge", "help").register(registry).set(1);
+    final ParallelEncoding small = new ParallelEncoding(1 << 20);
+    Assert.assertFalse(small.enabled());
+    write(registry, small, null);
+    Assert.assertFalse(small.enabled());
+
+    final ParallelEncoding large = new ParallelEncoding(10);
+    write(registry, large, null);
+    Assert.assertTrue(large.enabled());
+    final byte[] bytes = write(registry, large, null);
+    Assert.assertArrayEquals(write(registry, null, null), bytes);
+    Assert.assertTrue(large.enabled());
+  }
+
+  @Test
+  public void filtered() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    for (int i = 0; i < 10; i++) {
+      Gauge.build("gauge_" + i, "help").register(registry).set(i);
+    }
+    final ParallelEncoding parallel = new ParallelEncoding(100);
+    write(registry, parallel, null);
+    Assert.assertTrue(parallel.enabled());
+
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(registry.filteredMetricFamilySamples(Collections.singleton("gauge_0")), null, parallel, false).write(output);
+    Assert.assertTrue(parallel.enabled());
+  }
+
+  private static @NotNull byte[] write(@NotNull CollectorRegistry registry, @Nullable ParallelEncoding parallel, @Nullable EncodingCache cache) throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(registry.metricFamilySamples(), cache, parallel).write(output);
+    return output.toByteArray();
+  }
+}
@@ -0,0 +1,116 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Gauge;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+public final class ParallelGzipOutputStreamTest {
+
+  @Test
+  public void blocks() throws Exception {
+    final byte[] data = data(1_000_000);
+    final ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      try (final ParallelGzipOutputStream output = new ParallelGzipOutputStream(compressed, pool, Deflater.DEFAULT_COMPRESSION, 32 * 1024)) {
+        output.write(data, 0, 10);
+        output.write(data[10]);
+        output.flush();
+        output.write(data, 11, data.length - 11);
+      }
+      Assert.assertArrayEquals(data, gunzip(compressed.toByteArray()));
+      Assert.assertTrue(compressed.size() < data.length / 4);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void empty() throws Exception {
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    new ParallelGzipOutputStream(compressed).close();
+    Assert.assertEquals(0, gunzip(compressed.toByteArray()).length);
+  }
+
+  @Test
+  public void servlet() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    Gauge.build("test_gauge", "help").register(registry).set(3);
+    final Server server = new Server(0);
+    final ServletContextHandler context = new ServletContextHandler();
+    context.setContextPath("/");
+    server.setHandler(context);
+    context.addServlet(new ServletHolder(ProtobufMetricsServlet.build().registry(registry).gzip().create()), "/metrics");
+    server.start();
+    try {
+      final URL url = new URL("http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/metrics");
+      final HttpURLConnection compressed = (HttpURLConnection) url.openConnection();
+      compressed.setRequestProperty("Accept-Encoding", "identity;q=0.5, gzip");
+      Assert.assertEquals("gzip", compressed.getHeaderField("Content-Encoding"));
+      final byte[] payload = gunzip(read(compressed.getInputStream()));
+      Assert.assertEquals(3, new ProtobufParser(new ByteArrayInputStream(payload)).families().get(0).samples.get(0).value, 0);
+
+      final HttpURLConnection plain = (HttpURLConnection) url.openConnection();
+      plain.setRequestProperty("Accept-Encoding", "gzip;q=0");
+      Assert.assertNull(plain.getHeaderField("Content-Encoding"));
+      Assert.assertArrayEquals(payload, read(plain.getInputStream()));
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void accepts() {
+    Assert.assertTrue(ProtobufMetricsServlet.accepts("gzip, deflate", "gzip"));
+    Assert.assertTrue(ProtobufMetricsServlet.accepts("GZIP;q=0.1", "gzip"));
+    Assert.assertTrue(ProtobufMetricsServlet.accepts("*", "gzip"));
+    Assert.assertFalse(ProtobufMetricsServlet.accepts("*, gzip;q=0", "gzip"));
+    Assert.assertFalse(ProtobufMetricsServlet.accepts("deflate", "gzip"));
+    Assert.assertFalse(ProtobufMetricsServlet.accepts(null, "gzip"));
+  }
+
+  /**
+   * Text with the repetitions of an exposition payload, so blocks profit from the dictionary.
+   */
+  private static @NotNull byte[] data(int size) {
+    final Random random = new Random(1);
+    final StringBuilder text = new StringBuilder(size);
+    while (text.length() < size) {
+      text.append("http_requests_total{path=\"/api/").append(random.nextInt(100)).append("\"} ").append(random.nextInt(10_000)).append('\n');
+    }
+    return text.substring(0, size).getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static @NotNull byte[] gunzip(@NotNull byte[] compressed) throws IOException {
+    return read(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+  }
+
+  private static @NotNull byte[] read(@NotNull InputStream input) throws IOException {
+    try (final InputStream stream = input) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[8192];
+      for (int read; (read = stream.read(buffer)) != -1; ) {
+        bytes.write(buffer, 0, read);
+      }
+      return bytes.toByteArray();
+    }
+  }
+}
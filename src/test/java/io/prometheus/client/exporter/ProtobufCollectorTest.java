@@ -0,0 +1,126 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class ProtobufCollectorTest {
+
+  @Test
+  public void encode() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    Counter.build("classic_total", "classic").register(registry).inc(7);
+    new TestCollector().register(registry);
+
+    final List<Collector.MetricFamilySamples> families = parse(write(registry.metricFamilySamples()));
+    families.sort(Comparator.comparing(family -> family.name));
+    Assert.assertEquals(Arrays.asList("classic_total", "test_counter", "test_gauge", "test_histogram", "test_summary", "test_untyped"),
+        families.stream().map(family -> family.name).collect(Collectors.toList()));
+    Assert.assertEquals(7, families.get(0).samples.get(0).value, 0);
+
+    final Collector.MetricFamilySamples counter = families.get(1);
+    Assert.assertEquals(Collector.Type.COUNTER, counter.type);
+    Assert.assertEquals(2, counter.samples.size());
+    Assert.assertEquals(Arrays.asList("method", "path"), counter.samples.get(1).labelNames);
+    Assert.assertEquals(Arrays.asList("POST", "/b"), counter.samples.get(1).labelValues);
+    Assert.assertEquals(2, counter.samples.get(1).value, 0);
+
+    Assert.assertEquals(new Collector.MetricFamilySamples.Sample("test_summary_sum", Collections.emptyList(), Collections.emptyList(), 42),
+        families.get(4).samples.get(3));
+    Assert.assertEquals(new Collector.MetricFamilySamples.Sample("test_histogram_bucket", Collections.singletonList("le"), Collections.singletonList("+Inf"), 5),
+        families.get(3).samples.get(2));
+  }
+
+  @Test
+  public void materialized() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    new TestCollector().register(registry);
+
+    final byte[] direct = write(registry.metricFamilySamples());
+    final List<Collector.MetricFamilySamples> collected = Collections.list(registry.metricFamilySamples());
+    Assert.assertEquals(parse(direct), collected);
+    Assert.assertArrayEquals(direct, write(Collections.enumeration(collected)));
+  }
+
+  @Test
+  public void filtered() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    new TestCollector().register(registry);
+
+    final List<Collector.MetricFamilySamples> families =
+        parse(write(registry.filteredMetricFamilySamples(Collections.singleton("test_gauge"))));
+    Assert.assertEquals(1, families.size());
+    Assert.assertEquals("test_gauge", families.get(0).name);
+    Assert.assertEquals(-1.5, families.get(0).samples.get(0).value, 0);
+  }
+
+  private static @NotNull byte[] write(@NotNull Enumeration<Collector.MetricFamilySamples> families) throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(families).write(output);
+    return output.toByteArray();
+  }
+
+  private static @NotNull List<Collector.MetricFamilySamples> parse(@NotNull byte[] bytes) throws Exception {
+    return new ProtobufParser(new ByteArrayInputStream(bytes)).families();
+  }
+
+  private static final class TestCollector extends ProtobufCollector {
+
+    @Override
+    public void collect(@NotNull MetricsSink sink) {
+      sink.beginFamily("test_counter", "counter", Type.COUNTER);
+      sink.label("method", "GET");
+      sink.label("path", "/a");
+      sink.value(1);
+      sink.label("method", "POST");
+      sink.label("path", "/b");
+      sink.value(2);
+      sink.endFamily();
+
+      sink.beginFamily("test_gauge", "gauge", Type.GAUGE);
+      sink.value(-1.5);
+      sink.endFamily();
+
+      sink.beginFamily("test_summary", "summary", Type.SUMMARY);
+      sink.quantile(0.5, 3);
+      sink.quantile(0.99, 10);
+      sink.summary(5, 42);
+      sink.endFamily();
+
+      sink.beginFamily("test_histogram", "histogram", Type.HISTOGRAM);
+      sink.bucket(1, 2);
+      sink.bucket(10, 4);
+      sink.bucket(Double.POSITIVE_INFINITY, 5);
+      sink.histogram(5, 20);
+      sink.endFamily();
+
+      sink.beginFamily("test_untyped", "untyped", Type.UNTYPED);
+      sink.label("instance", "\u043f\u0440\u0438");
+      sink.value(0.25);
+      sink.endFamily();
+    }
+
+    @Override
+    public @NotNull List<MetricFamilySamples> describe() {
+      return Arrays.asList(
+          new MetricFamilySamples("test_counter", Type.COUNTER, "counter", Collections.emptyList()),
+          new MetricFamilySamples("test_gauge", Type.GAUGE, "gauge", Collections.emptyList()),
+          new MetricFamilySamples("test_summary", Type.SUMMARY, "summary", Collections.emptyList()),
+          new MetricFamilySamples("test_histogram", Type.HISTOGRAM, "histogram", Collections.emptyList()),
+          new MetricFamilySamples("test_untyped", Type.UNTYPED, "untyped", Collections.emptyList())
+      );
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.Servlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public final class ProtobufFederationServletTest {
+  private static final @NotNull String PATH = "/metrics";
+
+  private final @NotNull List<Server> servers = new ArrayList<>();
+  private final @NotNull CollectorRegistry first = new CollectorRegistry();
+  private final @NotNull CollectorRegistry second = new CollectorRegistry();
+  private final @NotNull QueryServlet queries = new QueryServlet();
+
+  private int port;
+
+  @Before
+  public void setUp() throws Exception {
+    Counter.build("requests", "requests").labelNames("path").register(first).labels("/a").inc(1);
+    Counter.build("requests", "requests").labelNames("path").register(second).labels("/a").inc(2);
+    Gauge.build("only_second", "only second").register(second).set(7);
+    Counter.build("mixed", "counter").register(first).inc();
+    Gauge.build("mixed", "gauge").register(second).set(3);
+    Gauge.build("federation_upstream_up", "nested").labelNames("worker").register(second).labels("nested").set(1);
+
+    final Map<String, URL> upstreams = new LinkedHashMap<>();
+    upstreams.put("first", new URL("http://localhost:" + start(new ProtobufMetricsServlet(first)) + PATH));
+    upstreams.put("second", new URL("http://localhost:" + start(new ProtobufMetricsServlet(second)) + PATH));
+    upstreams.put("slow", new URL("http://localhost:" + start(new SlowServlet()) + PATH));
+    upstreams.put("query", new URL("http://localhost:" + start(queries) + PATH + "?instance=a"));
+    port = start(new ProtobufFederationServlet("worker", upstreams, 500, TimeUnit.MILLISECONDS));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (Server server : servers) {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void merge() throws Exception {
+    final Map<String, Collector.MetricFamilySamples> families = scrape("");
+
+    final Collector.MetricFamilySamples requests = families.get("requests");
+    Assert.assertEquals(Collector.Type.COUNTER, requests.type);
+    Assert.assertEquals(2, requests.samples.size());
+    for (Collector.MetricFamilySamples.Sample sample : requests.samples) {
+      Assert.assertEquals(Arrays.asList("path", "worker"), sample.labelNames);
+      Assert.assertEquals(sample.labelValues.get(1).equals("first") ? 1 : 2, sample.value, 0);
+    }
+
+    final Collector.MetricFamilySamples gauge = families.get("only_second");
+    Assert.assertEquals(Collections.singletonList("second"), gauge.samples.get(0).labelValues);
+  }
+
+  @Test
+  public void timeout() throws Exception {
+    final Map<String, Double> up = new HashMap<>();
+    for (Collector.MetricFamilySamples.Sample sample : scrape("").get("federation_upstream_up").samples) {
+      up.put(sample.labelValues.get(0), sample.value);
+    }
+    Assert.assertEquals(1, up.get("first"), 0);
+    Assert.assertEquals(1, up.get("second"), 0);
+    Assert.assertEquals(0, up.get("slow"), 0);
+  }
+
+  @Test
+  public void conflicts() throws Exception {
+    final List<String> names = new ArrayList<>();
+    for (Collector.MetricFamilySamples family : families("")) {
+      names.add(family.name);
+    }
+    Assert.assertEquals(1, Collections.frequency(names, "federation_upstream_up"));
+    final Map<String, Collector.MetricFamilySamples> families = scrape("");
+    Assert.assertEquals(4, families.get("federation_upstream_up").samples.size());
+
+    final Collector.MetricFamilySamples mixed = families.get("mixed");
+    Assert.assertEquals(Collector.Type.COUNTER, mixed.type);
+    Assert.assertEquals(1, mixed.samples.size());
+
+    final Map<String, Double> conflicts = new HashMap<>();
+    for (Collector.MetricFamilySamples.Sample sample : families.get("federation_type_conflicts").samples) {
+      conflicts.put(sample.labelValues.get(0), sample.value);
+    }
+    Assert.assertEquals(0, conflicts.get("first"), 0);
+    Assert.assertEquals(1, conflicts.get("second"), 0);
+    Assert.assertFalse(conflicts.containsKey("slow"));
+  }
+
+  @Test
+  public void filter() throws Exception {
+    final Map<String, Collector.MetricFamilySamples> families = scrape("?name[]=only_second");
+    Assert.assertFalse(families.containsKey("requests"));
+    Assert.assertTrue(families.containsKey("only_second"));
+    Assert.assertEquals(Collections.singletonList("instance=a&name%5B%5D=only_second"), queries.queries);
+  }
+
+  @Test
+  public void disconnect() throws Exception {
+    final CountDownLatch closed = new CountDownLatch(1);
+    try (final ServerSocket upstream = new ServerSocket(0)) {
+      final Thread trickle = new Thread(() -> {
+        try (final Socket socket = upstream.accept()) {
+          final InputStream input = socket.getInputStream();
+          final StringBuilder request = new StringBuilder();
+          while (request.indexOf("\r\n\r\n") < 0) {
+            request.append((char) input.read());
+          }
+          // answers like a server honouring the connection header of the request
+          final String connection = request.toString().toLowerCase(Locale.ROOT).contains("connection: close") ? "Connection: close\r\n" : "";
+          final OutputStream output = socket.getOutputStream();
+          output.write(("HTTP/1.1 200 OK\r\nContent-Type: " + ProtobufFormatter.CONTENT_TYPE + "\r\n" + connection
+              + "Content-Length: 100000\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+          while (true) {
+            output.write(0);
+            output.flush();
+            Thread.sleep(50);
+          }
+        } catch (IOException e) {
+          closed.countDown();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      trickle.setDaemon(true);
+      trickle.start();
+
+      port = start(new ProtobufFederationServlet("worker", Collections.singletonMap("trickle",
+          new URL("http://localhost:" + upstream.getLocalPort() + PATH)), 300, TimeUnit.MILLISECONDS));
+      Assert.assertEquals(0, scrape("").get("federation_upstream_up").samples.get(0).value, 0);
+      Assert.assertTrue(closed.await(3, TimeUnit.SECONDS));
+    }
+  }
+
+  private @NotNull Map<String, Collector.MetricFamilySamples> scrape(@NotNull String query) throws Exception {
+    final Map<String, Collector.MetricFamilySamples> families = new HashMap<>();
+    for (Collector.MetricFamilySamples family : families(query)) {
+      families.put(family.name, family);
+    }
+    return families;
+  }
+
+  private @NotNull List<Collector.MetricFamilySamples> families(@NotNull String query) throws Exception {
+    final HttpClient client = new HttpClient();
+    try {
+      client.start();
+      final ContentResponse response = client.GET("http://localhost:" + port + PATH + query);
+      Assert.assertEquals(HttpStatus.OK_200, response.getStatus());
+      return new ProtobufParser(new ByteArrayInputStream(response.getContent())).families();
+    } finally {
+      client.stop();
+    }
+  }
+
+  private int start(@NotNull Servlet servlet) throws Exception {
+    final Server server = new Server(0);
+    final ServletContextHandler context = new ServletContextHandler();
+    context.setContextPath("/");
+    server.setHandler(context);
+    context.addServlet(new ServletHolder(servlet), PATH);
+    server.start();
+    servers.add(server);
+    return ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+  }
+
+  private static final class SlowServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected void doGet(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response) {
+      try {
+        Thread.sleep(2000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static final class QueryServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    private final @NotNull List<String> queries = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected void doGet(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response) {
+      queries.add(request.getQueryString());
+      response.setContentType(ProtobufFormatter.CONTENT_TYPE);
+    }
+  }
+}
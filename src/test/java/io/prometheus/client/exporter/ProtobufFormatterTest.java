@@ -0,0 +1,93 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.*;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+
+public final class ProtobufFormatterTest {
+
+  @Test
+  public void generatedClassNotLoaded() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    Counter.build("requests_total", "help").labelNames("path").register(registry).labels("/").inc();
+    Gauge.build("temperature", "help").register(registry).set(21.5);
+    Summary.build("latency", "help").quantile(0.5, 0.01).register(registry).observe(2);
+    Histogram.build("size", "help").buckets(1, 10).register(registry).observe(5);
+
+    final RecordingClassLoader loader = new RecordingClassLoader(getClass().getClassLoader());
+    final Object formatter = loader.loadClass(ProtobufFormatter.class.getName())
+        .getConstructor(Enumeration.class)
+        .newInstance(registry.metricFamilySamples());
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    formatter.getClass().getMethod("write", OutputStream.class).invoke(formatter, output);
+
+    Assert.assertTrue(loader.loaded.contains(ProtobufEncoder.class.getName()));
+    for (String name : loader.loaded) {
+      Assert.assertFalse(name, name.startsWith(Metrics.class.getName()));
+    }
+
+    final ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+    final Map<String, Metrics.MetricFamily> families = new HashMap<>();
+    for (Metrics.MetricFamily family; (family = Metrics.MetricFamily.parseDelimitedFrom(input)) != null; ) {
+      families.put(family.getName(), family);
+    }
+    Assert.assertEquals(1, families.get("requests_total").getMetric(0).getCounter().getValue(), 0);
+    Assert.assertEquals("/", families.get("requests_total").getMetric(0).getLabel(0).getValue());
+    Assert.assertEquals(21.5, families.get("temperature").getMetric(0).getGauge().getValue(), 0);
+    Assert.assertEquals(2, families.get("latency").getMetric(0).getSummary().getQuantile(0).getValue(), 0);
+    final Metrics.Histogram histogram = families.get("size").getMetric(0).getHistogram();
+    Assert.assertEquals(1, histogram.getSampleCount());
+    Assert.assertEquals(3, histogram.getBucketCount());
+    Assert.assertEquals(1, histogram.getBucket(1).getCumulativeCount());
+    Assert.assertEquals(Double.POSITIVE_INFINITY, histogram.getBucket(2).getUpperBound(), 0);
+  }
+
+  /**
+   * Defines the exporter and the generated classes itself, so it sees which of them are loaded.
+   */
+  private static final class RecordingClassLoader extends ClassLoader {
+    private final @NotNull Set<String> loaded = new HashSet<>();
+
+    public RecordingClassLoader(@NotNull ClassLoader parent) {
+      super(parent);
+    }
+
+    @Override
+    protected @NotNull Class<?> loadClass(@NotNull String name, boolean resolve) throws ClassNotFoundException {
+      if (!name.startsWith(ProtobufFormatter.class.getPackage().getName()) && !name.startsWith(Metrics.class.getName())) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> type = findLoadedClass(name);
+        if (type == null) {
+          try (final InputStream input = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+            if (input == null) {
+              throw new ClassNotFoundException(name);
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            for (int read; (read = input.read(buffer)) != -1; ) {
+              bytes.write(buffer, 0, read);
+            }
+            type = defineClass(name, bytes.toByteArray(), 0, bytes.size());
+            loaded.add(name);
+          } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+          }
+        }
+        if (resolve) {
+          resolveClass(type);
+        }
+        return type;
+      }
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+public final class ProtobufHttpServerTest {
+
+  @Test
+  public void serve() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    Gauge.build("temperature", "help").register(registry).set(21.5);
+    Counter.build("requests_total", "help").register(registry).inc(3);
+    try (final ProtobufHttpServer server = ProtobufHttpServer.build().port(0).registry(registry).gzip().start()) {
+      final String address = "http://localhost:" + server.port() + "/metrics";
+
+      final HttpURLConnection plain = (HttpURLConnection) new URL(address).openConnection();
+      Assert.assertEquals(200, plain.getResponseCode());
+      Assert.assertEquals(ProtobufFormatter.CONTENT_TYPE, plain.getContentType());
+      Assert.assertNull(plain.getHeaderField("Content-Encoding"));
+      final byte[] payload = read(plain.getInputStream());
+      Assert.assertEquals(payload.length, plain.getContentLengthLong());
+      Assert.assertEquals(2, parse(payload).size());
+
+      final HttpURLConnection filtered = (HttpURLConnection) new URL(address + "?name%5B%5D=requests_total").openConnection();
+      filtered.setRequestProperty("Accept-Encoding", "gzip");
+      Assert.assertEquals("gzip", filtered.getHeaderField("Content-Encoding"));
+      final List<Collector.MetricFamilySamples> families = parse(read(new GZIPInputStream(filtered.getInputStream())));
+      Assert.assertEquals(1, families.size());
+      Assert.assertEquals(3, families.get(0).samples.get(0).value, 0);
+
+      final HttpURLConnection delete = (HttpURLConnection) new URL(address).openConnection();
+      delete.setRequestMethod("DELETE");
+      Assert.assertEquals(405, delete.getResponseCode());
+    }
+  }
+
+  @Test
+  public void errors() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    final AtomicBoolean failing = new AtomicBoolean();
+    new Collector() {
+      @Override
+      public @NotNull List<MetricFamilySamples> collect() {
+        if (failing.get()) {
+          throw new IllegalStateException("collection failed");
+        }
+        return Collections.emptyList();
+      }
+    }.register(registry);
+    try (final ProtobufHttpServer server = ProtobufHttpServer.build().port(0).registry(registry).start()) {
+      final String address = "http://localhost:" + server.port() + "/metrics";
+
+      final HttpURLConnection malformed = (HttpURLConnection) new URL(address + "?name%5B%5D=%zz").openConnection();
+      Assert.assertEquals(400, malformed.getResponseCode());
+
+      failing.set(true);
+      final HttpURLConnection failed = (HttpURLConnection) new URL(address).openConnection();
+      Assert.assertEquals(500, failed.getResponseCode());
+
+      failing.set(false);
+      final HttpURLConnection recovered = (HttpURLConnection) new URL(address).openConnection();
+      Assert.assertEquals(200, recovered.getResponseCode());
+    }
+  }
+
+  private static @NotNull List<Collector.MetricFamilySamples> parse(@NotNull byte[] payload) throws IOException {
+    return new ProtobufParser(new ByteArrayInputStream(payload)).families();
+  }
+
+  private static @NotNull byte[] read(@NotNull InputStream input) throws IOException {
+    try (final InputStream stream = input) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[8192];
+      for (int read; (read = stream.read(buffer)) != -1; ) {
+        bytes.write(buffer, 0, read);
+      }
+      return bytes.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package io.prometheus.client.exporter;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import io.prometheus.client.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+public final class ProtobufParserTest {
+  private final @NotNull CollectorRegistry registry = new CollectorRegistry();
+
+  @Before
+  public void setUp() {
+    Counter.build("test_counter", "counter help").labelNames("a", "b").register(registry).labels("x", "y").inc(3);
+    Gauge.build("test_gauge", "gauge help").register(registry).set(-1.5);
+    final Summary summary = Summary.build("test_summary", "summary help").quantile(0.5, 0.01).quantile(0.9, 0.01).labelNames("a").register(registry);
+    summary.labels("x").observe(1);
+    summary.labels("x").observe(2);
+    final Histogram histogram = Histogram.build("test_histogram", "histogram help").buckets(1, 10).labelNames("a").register(registry);
+    histogram.labels("x").observe(5);
+    histogram.labels("y").observe(50);
+  }
+
+  @Test
+  public void stream() throws Exception {
+    verify(new ProtobufParser(new ByteArrayInputStream(encode())).families());
+  }
+
+  @Test
+  public void buffer() throws Exception {
+    final byte[] bytes = encode();
+    final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes).flip();
+    verify(new ProtobufParser(ByteBuffer.wrap(bytes)).families());
+    verify(new ProtobufParser(direct).families());
+  }
+
+  @Test
+  public void interning() throws Exception {
+    final LabelInterner interner = new LabelInterner();
+    final List<Collector.MetricFamilySamples> first = new ProtobufParser(ByteBuffer.wrap(encode()), interner).families();
+    final List<Collector.MetricFamilySamples> second = new ProtobufParser(ByteBuffer.wrap(encode()), interner).families();
+    Assert.assertSame(label(first, "test_counter"), label(second, "test_counter"));
+  }
+
+  @Test
+  public void visitor() throws Exception {
+    final List<String> events = new ArrayList<>();
+    new ProtobufParser(ByteBuffer.wrap(encode())).readAll(new ProtobufParser.Visitor() {
+      @Override
+      public void beginFamily(@NotNull String name, @NotNull String help, @NotNull Collector.Type type) {
+        events.add("begin " + name);
+      }
+
+      @Override
+      public void sample(@NotNull String name, @NotNull List<String> labelNames, @NotNull List<String> labelValues, double value, @Nullable Long timestampMs) {
+        events.add("sample " + name);
+      }
+
+      @Override
+      public void endFamily() {
+        events.add("end");
+      }
+    });
+    Assert.assertEquals(4, events.stream().filter("end"::equals).count());
+    Assert.assertTrue(events.contains("sample test_histogram_bucket"));
+  }
+
+  @Test(expected = IOException.class)
+  public void lateName() throws Exception {
+    final ByteString metric = Metrics.Metric.newBuilder().setGauge(Metrics.Gauge.newBuilder().setValue(1)).build().toByteString();
+    final ByteString.Output family = ByteString.newOutput();
+    final CodedOutputStream coded = CodedOutputStream.newInstance(family);
+    coded.writeBytes(Metrics.MetricFamily.METRIC_FIELD_NUMBER, metric);
+    coded.writeString(Metrics.MetricFamily.NAME_FIELD_NUMBER, "late");
+    coded.flush();
+
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final CodedOutputStream delimited = CodedOutputStream.newInstance(output);
+    delimited.writeBytesNoTag(family.toByteString());
+    delimited.flush();
+    new ProtobufParser(ByteBuffer.wrap(output.toByteArray())).families();
+  }
+
+  private @NotNull byte[] encode() throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(registry.metricFamilySamples()).write(output);
+    return output.toByteArray();
+  }
+
+  private void verify(@NotNull List<Collector.MetricFamilySamples> actual) {
+    final List<Collector.MetricFamilySamples> expected = Collections.list(registry.metricFamilySamples());
+    Assert.assertEquals(expected.size(), actual.size());
+    for (Collector.MetricFamilySamples family : expected) {
+      final Collector.MetricFamilySamples parsed = actual.stream()
+          .filter(candidate -> candidate.name.equals(family.name))
+          .findFirst()
+          .orElseThrow(AssertionError::new);
+      Assert.assertEquals(family.type, parsed.type);
+      Assert.assertEquals(family.help, parsed.help);
+      Assert.assertEquals(new HashSet<>(family.samples), new HashSet<>(parsed.samples));
+    }
+  }
+
+  private static @NotNull String label(@NotNull List<Collector.MetricFamilySamples> families, @NotNull String name) {
+    return families.stream()
+        .filter(family -> family.name.equals(name))
+        .findFirst()
+        .orElseThrow(AssertionError::new)
+        .samples.get(0).labelValues.get(0);
+  }
+}
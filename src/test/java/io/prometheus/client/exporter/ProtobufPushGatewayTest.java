@@ -0,0 +1,183 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Gauge;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+public final class ProtobufPushGatewayTest {
+  private final @NotNull GatewayServlet gateway = new GatewayServlet();
+  private final @NotNull CollectorRegistry registry = new CollectorRegistry();
+
+  private Server server;
+  private URL address;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new Server(0);
+    final ServletContextHandler context = new ServletContextHandler();
+    context.setContextPath("/");
+    server.setHandler(context);
+    context.addServlet(new ServletHolder(gateway), "/*");
+    server.start();
+    address = new URL("http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort());
+
+    Gauge.build("test_gauge", "help").register(registry).set(42);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.stop();
+  }
+
+  @Test
+  public void batch() throws Exception {
+    try (final ProtobufPushGateway client = new ProtobufPushGateway(address)) {
+      for (int i = 0; i < 10; i++) {
+        Assert.assertTrue(client.push(registry, "job", Collections.singletonMap("instance", "host/" + i)));
+      }
+      Assert.assertTrue(client.delete("job", Collections.emptyMap()));
+      Assert.assertTrue(client.flush(10, TimeUnit.SECONDS));
+      Assert.assertEquals(0, client.dropped());
+    }
+    Assert.assertEquals(11, gateway.requests.size());
+    Assert.assertEquals("PUT /metrics/job/job/instance/host%2F0", gateway.requests.get(0));
+    Assert.assertEquals("DELETE /metrics/job/job", gateway.requests.get(10));
+    Assert.assertEquals(42, gateway.values.get(0), 0);
+  }
+
+  @Test
+  public void gzip() throws Exception {
+    try (final ProtobufPushGateway client = new ProtobufPushGateway(address, true, 16, 1, 10, TimeUnit.MILLISECONDS)) {
+      client.pushAdd(registry, "job", Collections.emptyMap());
+      Assert.assertTrue(client.flush(10, TimeUnit.SECONDS));
+    }
+    Assert.assertEquals(Collections.singletonList("POST /metrics/job/job"), gateway.requests);
+    Assert.assertEquals(42, gateway.values.get(0), 0);
+  }
+
+  @Test
+  public void retry() throws Exception {
+    gateway.failures.set(2);
+    try (final ProtobufPushGateway client = new ProtobufPushGateway(address, false, 16, 3, 10, TimeUnit.MILLISECONDS)) {
+      client.push(registry, "job", Collections.emptyMap());
+      Assert.assertTrue(client.flush(10, TimeUnit.SECONDS));
+      Assert.assertEquals(0, client.dropped());
+    }
+    Assert.assertEquals(1, gateway.requests.size());
+  }
+
+  @Test
+  public void exhausted() throws Exception {
+    gateway.failures.set(Integer.MAX_VALUE);
+    try (final ProtobufPushGateway client = new ProtobufPushGateway(address, false, 16, 2, 10, TimeUnit.MILLISECONDS)) {
+      client.push(registry, "job", Collections.emptyMap());
+      Assert.assertTrue(client.flush(10, TimeUnit.SECONDS));
+      Assert.assertEquals(1, client.dropped());
+    }
+  }
+
+  @Test
+  public void malformed() throws Exception {
+    try (final ServerSocket listener = new ServerSocket(0)) {
+      final Thread garbage = new Thread(() -> {
+        while (!listener.isClosed()) {
+          try (final Socket socket = listener.accept()) {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+            for (String line; (line = reader.readLine()) != null && !line.isEmpty(); ) {
+              // request head
+            }
+            socket.getOutputStream().write("HTTP/1.1 OK fine\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            socket.getOutputStream().flush();
+          } catch (IOException ignored) {
+          }
+        }
+      });
+      garbage.setDaemon(true);
+      garbage.start();
+      try (final ProtobufPushGateway client = new ProtobufPushGateway(new URL("http://localhost:" + listener.getLocalPort()), false, 16, 2, 10, TimeUnit.MILLISECONDS)) {
+        client.delete("job", Collections.emptyMap());
+        Assert.assertTrue(client.flush(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, client.dropped());
+        client.delete("job", Collections.emptyMap());
+        Assert.assertTrue(client.flush(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, client.dropped());
+      }
+    }
+  }
+
+  @Test
+  public void serverName() throws Exception {
+    try (final ServerSocket listener = new ServerSocket(0)) {
+      final AtomicReference<String> hello = new AtomicReference<>();
+      final Thread server = new Thread(() -> {
+        try (final Socket socket = listener.accept()) {
+          final byte[] bytes = new byte[4096];
+          final int read = socket.getInputStream().read(bytes);
+          hello.set(new String(bytes, 0, Math.max(read, 0), StandardCharsets.ISO_8859_1));
+        } catch (IOException ignored) {
+        }
+      });
+      server.start();
+      try (final ProtobufPushGateway client = new ProtobufPushGateway(new URL("https://localhost:" + listener.getLocalPort()), false, 16, 1, 10, TimeUnit.MILLISECONDS)) {
+        client.delete("job", Collections.emptyMap());
+        server.join(10_000);
+        Assert.assertTrue(client.flush(10, TimeUnit.SECONDS));
+      }
+      Assert.assertTrue(hello.get().contains("localhost"));
+    }
+  }
+
+  private static final class GatewayServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    private final @NotNull List<String> requests = new CopyOnWriteArrayList<>();
+    private final @NotNull List<Double> values = new CopyOnWriteArrayList<>();
+    private final @NotNull AtomicInteger failures = new AtomicInteger();
+
+    @Override
+    protected void service(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response) throws IOException {
+      if (failures.getAndDecrement() > 0) {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        return;
+      }
+      requests.add(request.getMethod() + ' ' + request.getRequestURI());
+      if (request.getContentLength() > 0) {
+        Assert.assertEquals(ProtobufFormatter.CONTENT_TYPE, request.getContentType());
+        final InputStream input = "gzip".equals(request.getHeader("Content-Encoding"))
+            ? new GZIPInputStream(request.getInputStream())
+            : request.getInputStream();
+        for (Collector.MetricFamilySamples family : new ProtobufParser(input).families()) {
+          values.add(family.samples.get(0).value);
+        }
+      }
+      response.setStatus(HttpServletResponse.SC_ACCEPTED);
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package io.prometheus.client.exporter;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public final class ProtobufRemoteWriterTest {
+  private final @NotNull ReceiverServlet receiver = new ReceiverServlet();
+  private final @NotNull CollectorRegistry registry = new CollectorRegistry();
+
+  private Server server;
+  private URL endpoint;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new Server(0);
+    final ServletContextHandler context = new ServletContextHandler();
+    context.setContextPath("/");
+    server.setHandler(context);
+    context.addServlet(new ServletHolder(receiver), "/write");
+    server.start();
+    endpoint = new URL("http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/write");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.stop();
+  }
+
+  @Test
+  public void series() throws Exception {
+    Counter.build("requests", "help").labelNames("path", "method").register(registry).labels("/a", "GET").inc(3);
+    Histogram.build("latency", "help").buckets(1).register(registry).observe(0.5);
+
+    try (final ProtobufRemoteWriter writer = new ProtobufRemoteWriter(endpoint)) {
+      writer.write(registry.metricFamilySamples(), 1000);
+      Assert.assertTrue(writer.flush(10, TimeUnit.SECONDS));
+    }
+
+    Assert.assertEquals(1, receiver.requests);
+    final Map<String, Double> series = new HashMap<>();
+    for (Series item : receiver.series) {
+      Assert.assertEquals(1000, item.timestamp);
+      series.put(String.join(",", item.labels), item.value);
+    }
+    Assert.assertEquals(3, series.get("__name__=requests,method=GET,path=/a"), 0);
+    Assert.assertEquals(1, series.get("__name__=latency_bucket,le=1.0"), 0);
+    Assert.assertEquals(1, series.get("__name__=latency_bucket,le=+Inf"), 0);
+    Assert.assertEquals(1, series.get("__name__=latency_count"), 0);
+    Assert.assertEquals(0.5, series.get("__name__=latency_sum"), 0);
+  }
+
+  @Test
+  public void split() throws Exception {
+    final Counter counter = Counter.build("requests", "help").labelNames("id").register(registry);
+    for (int i = 0; i < 1000; i++) {
+      counter.labels(Integer.toString(i)).inc();
+    }
+
+    try (final ProtobufRemoteWriter writer = new ProtobufRemoteWriter(endpoint, 4096, 1)) {
+      writer.write(registry);
+      Assert.assertTrue(writer.flush(10, TimeUnit.SECONDS));
+    }
+
+    Assert.assertTrue(receiver.requests > 1);
+    Assert.assertEquals(1000, receiver.series.size());
+  }
+
+  @Test
+  public void snappy() throws Exception {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final byte[] noise = new byte[100_000];
+    random.nextBytes(noise);
+    roundTrip(noise);
+
+    final StringBuilder text = new StringBuilder();
+    while (text.length() < 200_000) {
+      text.append("requests_total{path=\"/").append(random.nextInt(100)).append("\"} ");
+    }
+    final byte[] repetitive = text.toString().getBytes(StandardCharsets.UTF_8);
+    Assert.assertTrue(roundTrip(repetitive) < repetitive.length / 3);
+
+    roundTrip(new byte[0]);
+    roundTrip(new byte[]{1, 2, 3});
+    roundTrip(new byte[1000]);
+  }
+
+  @Test
+  public void corrupt() {
+    for (byte[] input : Arrays.asList(new byte[]{(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07}, new byte[]{(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f, 0})) {
+      try {
+        Snappy.uncompress(input);
+        Assert.fail();
+      } catch (IOException e) {
+        Assert.assertEquals("Corrupt snappy input", e.getMessage());
+      }
+    }
+  }
+
+  private static int roundTrip(@NotNull byte[] bytes) throws IOException {
+    final byte[] compressed = Snappy.compress(bytes, bytes.length);
+    Assert.assertArrayEquals(bytes, Snappy.uncompress(compressed));
+    return compressed.length;
+  }
+
+  private static final class Series {
+    private final @NotNull List<String> labels = new ArrayList<>();
+    private double value;
+    private long timestamp;
+  }
+
+  private static final class ReceiverServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    private final @NotNull List<Series> series = new CopyOnWriteArrayList<>();
+    private volatile int requests;
+
+    @Override
+    protected void doPost(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response) throws IOException {
+      Assert.assertEquals("snappy", request.getHeader("Content-Encoding"));
+      Assert.assertEquals(ProtobufRemoteWriter.CONTENT_TYPE, request.getContentType());
+      final CodedInputStream input = CodedInputStream.newInstance(Snappy.uncompress(read(request.getInputStream())));
+      while (!input.isAtEnd()) {
+        input.readTag();
+        final int limit = input.pushLimit(input.readRawVarint32());
+        final Series item = new Series();
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+          final int inner = input.pushLimit(input.readRawVarint32());
+          if (WireFormat.getTagFieldNumber(tag) == 1) {
+            input.readTag();
+            final String name = input.readString();
+            input.readTag();
+            item.labels.add(name + '=' + input.readString());
+          } else {
+            input.readTag();
+            item.value = input.readDouble();
+            input.readTag();
+            item.timestamp = input.readInt64();
+          }
+          input.popLimit(inner);
+        }
+        input.popLimit(limit);
+        series.add(item);
+      }
+      requests++;
+      response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    private static @NotNull byte[] read(@NotNull InputStream input) throws IOException {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final byte[] chunk = new byte[8192];
+      int read;
+      while ((read = input.read(chunk)) != -1) {
+        bytes.write(chunk, 0, read);
+      }
+      return bytes.toByteArray();
+    }
+  }
+}
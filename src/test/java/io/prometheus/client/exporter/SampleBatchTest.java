@@ -0,0 +1,95 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class SampleBatchTest {
+  private static final @NotNull LabelSet[] DICTIONARY = {
+      LabelSet.of(Collections.singletonList("path"), Collections.singletonList("/a")),
+      LabelSet.of(Collections.singletonList("path"), Collections.singletonList("/b"))
+  };
+
+  @Test
+  public void samples() {
+    final SampleBatch batch = histogram();
+    Assert.assertEquals(8, batch.samples.size());
+    Assert.assertEquals(new Collector.MetricFamilySamples.Sample("latency_bucket", Arrays.asList("path", "le"), Arrays.asList("/a", "+Inf"), 3),
+        batch.samples.get(1));
+    Assert.assertEquals(new Collector.MetricFamilySamples.Sample("latency_sum", Collections.singletonList("path"), Collections.singletonList("/b"), 0.5),
+        batch.samples.get(7));
+  }
+
+  @Test
+  public void encode() throws Exception {
+    final List<Collector.MetricFamilySamples> batches = Arrays.asList(gauge(), histogram(), summary());
+    final List<Collector.MetricFamilySamples> classic = new ArrayList<>();
+    for (Collector.MetricFamilySamples batch : batches) {
+      classic.add(new Collector.MetricFamilySamples(batch.name, batch.type, batch.help, new ArrayList<>(batch.samples)));
+    }
+    Assert.assertArrayEquals(write(classic), write(batches));
+  }
+
+  @Test
+  public void filtered() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry(true);
+    new Collector() {
+      @Override
+      public @NotNull List<MetricFamilySamples> collect() {
+        return Arrays.asList(gauge(), histogram());
+      }
+    }.register(registry);
+
+    final List<Collector.MetricFamilySamples> families = Collections.list(registry.filteredMetricFamilySamples(Collections.singleton("latency_count")));
+    Assert.assertEquals(1, families.size());
+    Assert.assertEquals(Arrays.asList(
+        new Collector.MetricFamilySamples.Sample("latency_count", Collections.singletonList("path"), Collections.singletonList("/a"), 3),
+        new Collector.MetricFamilySamples.Sample("latency_count", Collections.singletonList("path"), Collections.singletonList("/b"), 1)
+    ), families.get(0).samples);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknown() {
+    new SampleBatch("size", Collector.Type.GAUGE, "help", DICTIONARY).value(2, 1);
+  }
+
+  private static @NotNull byte[] write(@NotNull List<Collector.MetricFamilySamples> families) throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(Collections.enumeration(families)).write(output);
+    return output.toByteArray();
+  }
+
+  private static @NotNull SampleBatch gauge() {
+    return new SampleBatch("size", Collector.Type.GAUGE, "help", DICTIONARY)
+        .value(0, 10)
+        .value(1, 20);
+  }
+
+  private static @NotNull SampleBatch histogram() {
+    return new SampleBatch("latency", Collector.Type.HISTOGRAM, "help", DICTIONARY)
+        .bucket(0, 1, 2)
+        .bucket(0, Double.POSITIVE_INFINITY, 3)
+        .count(0, 3)
+        .sum(0, 4.5)
+        .bucket(1, 1, 1)
+        .bucket(1, Double.POSITIVE_INFINITY, 1)
+        .count(1, 1)
+        .sum(1, 0.5);
+  }
+
+  private static @NotNull SampleBatch summary() {
+    return new SampleBatch("duration", Collector.Type.SUMMARY, "help", DICTIONARY)
+        .quantile(1, 0.5, 0.25)
+        .quantile(1, 0.99, 0.75)
+        .count(1, 10)
+        .sum(1, 3);
+  }
+}
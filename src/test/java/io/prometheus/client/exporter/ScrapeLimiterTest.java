@@ -0,0 +1,137 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class ScrapeLimiterTest {
+
+  @Test
+  public void timeout() {
+    final ScrapeLimiter limiter = ScrapeLimiter.build().queue(1).maxWait(50, TimeUnit.MILLISECONDS).create();
+    Assert.assertTrue(limiter.acquire());
+    Assert.assertFalse(limiter.acquire());
+    Assert.assertEquals(1, value(limiter, "protobuf_scrape_rejections_total", 1), 0);
+    limiter.release();
+    Assert.assertTrue(limiter.acquire());
+    Assert.assertEquals(1, limiter.rejected());
+  }
+
+  @Test
+  public void queueFull() throws Exception {
+    final ScrapeLimiter limiter = ScrapeLimiter.build().queue(1).maxWait(10, TimeUnit.SECONDS).create();
+    Assert.assertTrue(limiter.acquire());
+    final AtomicBoolean admitted = new AtomicBoolean();
+    final Thread queued = new Thread(() -> admitted.set(limiter.acquire()));
+    queued.start();
+    while (value(limiter, "protobuf_scrapes_waiting", 0) == 0) {
+      Thread.sleep(1);
+    }
+    Assert.assertFalse(limiter.acquire());
+    Assert.assertEquals(1, value(limiter, "protobuf_scrape_rejections_total", 0), 0);
+    limiter.release();
+    queued.join();
+    Assert.assertTrue(admitted.get());
+    Assert.assertEquals(2, value(limiter, "protobuf_scrape_queue_seconds", 0), 0);
+    Assert.assertEquals(1, value(limiter, "protobuf_scrapes_in_flight", 0), 0);
+  }
+
+  @Test
+  public void servlet() throws Exception {
+    final CountDownLatch scraping = new CountDownLatch(1);
+    final CountDownLatch finish = new CountDownLatch(1);
+    final AtomicReference<String> thread = new AtomicReference<>();
+    final CollectorRegistry registry = new CollectorRegistry();
+    new Collector() {
+      @Override
+      public @NotNull List<MetricFamilySamples> collect() {
+        thread.set(Thread.currentThread().getName());
+        scraping.countDown();
+        try {
+          finish.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return Collections.emptyList();
+      }
+    }.register(registry);
+    final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "scrape-executor"));
+    final ScrapeLimiter limiter = ScrapeLimiter.build().status(429).queue(1).maxWait(10, TimeUnit.SECONDS).executor(executor).create();
+    final Server server = new Server(0);
+    final ServletContextHandler context = new ServletContextHandler();
+    context.setContextPath("/");
+    server.setHandler(context);
+    final ServletHolder holder = new ServletHolder(ProtobufMetricsServlet.build().registry(registry).limiter(limiter).create());
+    holder.setAsyncSupported(true);
+    context.addServlet(holder, "/metrics");
+    server.start();
+    try {
+      final URL url = new URL("http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/metrics");
+      final AtomicReference<Integer> first = new AtomicReference<>();
+      final Thread running = scrape(url, first);
+      scraping.await();
+      final AtomicReference<Integer> second = new AtomicReference<>();
+      final Thread queued = scrape(url, second);
+      while (value(limiter, "protobuf_scrapes_waiting", 0) < 1) {
+        Thread.sleep(10);
+      }
+
+      final HttpURLConnection rejected = (HttpURLConnection) url.openConnection();
+      Assert.assertEquals(429, rejected.getResponseCode());
+      Assert.assertEquals("10", rejected.getHeaderField("Retry-After"));
+
+      finish.countDown();
+      running.join();
+      queued.join();
+      Assert.assertEquals(200, (int) first.get());
+      Assert.assertEquals(200, (int) second.get());
+      Assert.assertEquals("scrape-executor", thread.get());
+      Assert.assertEquals(1, limiter.rejected());
+      Assert.assertEquals(0, value(limiter, "protobuf_scrapes_waiting", 0), 0);
+    } finally {
+      server.stop();
+      executor.shutdown();
+    }
+  }
+
+  private static @NotNull Thread scrape(@NotNull URL url, @NotNull AtomicReference<Integer> status) {
+    final Thread thread = new Thread(() -> {
+      try {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        status.set(connection.getResponseCode());
+        connection.getInputStream().close();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    thread.start();
+    return thread;
+  }
+
+  private static double value(@NotNull ScrapeLimiter limiter, @NotNull String name, int sample) {
+    for (Collector.MetricFamilySamples family : limiter.collect()) {
+      if (family.name.equals(name)) {
+        return family.samples.get(sample).value;
+      }
+    }
+    throw new AssertionError(name);
+  }
+}
@@ -0,0 +1,199 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class SketchSummaryTest {
+
+  @Test
+  public void accuracy() {
+    final DDSketch sketch = new DDSketch(0.01, 2048);
+    final double[] values = new double[100_000];
+    final Random random = new Random(1);
+    for (int i = 0; i < values.length; i++) {
+      values[i] = Math.exp(random.nextGaussian() * 3);
+      sketch.add(values[i]);
+    }
+    Arrays.sort(values);
+    for (double quantile : new double[]{0, 0.1, 0.5, 0.9, 0.99, 0.999, 1}) {
+      final double expected = values[(int) (quantile * (values.length - 1))];
+      Assert.assertEquals(expected, sketch.quantile(quantile), expected * 0.01);
+    }
+    Assert.assertEquals(values.length, sketch.count());
+  }
+
+  @Test
+  public void signs() {
+    final DDSketch sketch = new DDSketch(0.01, 2048);
+    for (int i = -50; i <= 50; i++) {
+      sketch.add(i);
+    }
+    Assert.assertEquals(-50, sketch.quantile(0), 0.5);
+    Assert.assertEquals(0, sketch.quantile(0.5), 0);
+    Assert.assertEquals(25, sketch.quantile(0.75), 0.25);
+    Assert.assertEquals(50, sketch.quantile(1), 0.5);
+    Assert.assertTrue(Double.isNaN(new DDSketch(0.01, 16).quantile(0.5)));
+  }
+
+  @Test
+  public void merge() {
+    final DDSketch first = new DDSketch(0.02, 1024);
+    final DDSketch second = new DDSketch(0.02, 1024);
+    final DDSketch all = new DDSketch(0.02, 1024);
+    for (int i = 1; i <= 1000; i++) {
+      (i % 3 == 0 ? first : second).add(i * 0.001);
+      all.add(i * 0.001);
+    }
+    first.merge(second);
+    Assert.assertEquals(all.count(), first.count());
+    Assert.assertEquals(all.sum(), first.sum(), 1e-9);
+    for (double quantile = 0; quantile <= 1; quantile += 0.05) {
+      Assert.assertEquals(all.quantile(quantile), first.quantile(quantile), 0);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void incompatible() {
+    new DDSketch(0.01, 16).merge(new DDSketch(0.02, 16));
+  }
+
+  @Test
+  public void bounded() {
+    final DDSketch sketch = new DDSketch(0.01, 128);
+    for (double value = 1e-9; value < 1e9; value *= 1.001) {
+      sketch.add(value);
+    }
+    Assert.assertTrue(sketch.buckets() <= 2 * 128);
+    Assert.assertEquals(1e9, sketch.quantile(1), 1e9 * 0.01);
+    Assert.assertEquals(5e8, sketch.quantile(0.9999), 5e8);
+  }
+
+  @Test
+  public void window() {
+    final AtomicLong clock = new AtomicLong();
+    final SketchSummary summary = SketchSummary.build("latency", "help")
+        .quantile(0.5)
+        .window(10, TimeUnit.SECONDS, 5)
+        .clock(clock::get)
+        .create();
+    final SketchSummary.Child child = summary.labels();
+    child.observe(1);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+    child.observe(3);
+    child.observe(3);
+    Assert.assertEquals(3, child.snapshot().quantile(0.5), 0.03);
+    Assert.assertEquals(3, child.snapshot().count());
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(7));
+    Assert.assertEquals(2, child.snapshot().count());
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+    Assert.assertEquals(0, child.snapshot().count());
+    Assert.assertEquals(3, child.count());
+    Assert.assertEquals(7, child.sum(), 0);
+  }
+
+  @Test
+  public void registries() throws Exception {
+    final CollectorRegistry first = new CollectorRegistry();
+    final CollectorRegistry second = new CollectorRegistry();
+    final SketchSummary a = SketchSummary.build("latency", "help").labelNames("path").quantile(0.5).create().register(first);
+    final SketchSummary b = SketchSummary.build("latency", "help").labelNames("path").quantile(0.5).create().register(second);
+    for (int i = 0; i < 100; i++) {
+      a.labels("/").observe(1);
+    }
+    for (int i = 0; i < 300; i++) {
+      b.labels("/").observe(10);
+    }
+    b.labels("/other").observe(5);
+
+    final Server server = new Server(0);
+    final ServletContextHandler context = new ServletContextHandler();
+    context.setContextPath("/");
+    server.setHandler(context);
+    context.addServlet(new ServletHolder(ProtobufMetricsServlet.build().registry(first).registry(second).create()), "/metrics");
+    server.start();
+    final HttpClient client = new HttpClient();
+    try {
+      client.start();
+      final ContentResponse response = client.GET("http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/metrics");
+      final List<Collector.MetricFamilySamples> families = new ProtobufParser(new ByteArrayInputStream(response.getContent())).families();
+      Assert.assertEquals(1, families.size());
+      final List<Collector.MetricFamilySamples.Sample> samples = families.get(0).samples;
+      Assert.assertEquals(6, samples.size());
+      Assert.assertEquals(Arrays.asList("/", "0.5"), samples.get(0).labelValues);
+      Assert.assertEquals(10, samples.get(0).value, 0.1);
+      Assert.assertEquals(400, samples.get(1).value, 0);
+      Assert.assertEquals(3100, samples.get(2).value, 0);
+    } finally {
+      client.stop();
+      server.stop();
+    }
+  }
+
+  @Test
+  public void shared() throws Exception {
+    final CollectorRegistry first = new CollectorRegistry();
+    final CollectorRegistry second = new CollectorRegistry();
+    final CollectorRegistry third = new CollectorRegistry();
+    final SketchSummary a = SketchSummary.build("latency", "help").quantile(0.5).create();
+    a.register(first);
+    a.register(second);
+    final SketchSummary b = SketchSummary.build("latency", "help").quantile(0.5).create().register(third);
+    a.observe(1);
+    b.observe(2);
+    b.observe(3);
+
+    List<Collector.MetricFamilySamples> families = write(first, second);
+    Assert.assertEquals(1, families.size());
+    Assert.assertEquals(1, families.get(0).samples.get(1).value, 0);
+
+    families = write(first, second, third);
+    Assert.assertEquals(1, families.size());
+    Assert.assertEquals(3, families.get(0).samples.get(1).value, 0);
+    Assert.assertEquals(6, families.get(0).samples.get(2).value, 0);
+  }
+
+  @Test
+  public void mismatched() throws Exception {
+    final CollectorRegistry first = new CollectorRegistry();
+    final CollectorRegistry second = new CollectorRegistry();
+    final CollectorRegistry third = new CollectorRegistry();
+    final SketchSummary a = SketchSummary.build("latency", "help").quantile(0.5).create().register(first);
+    final SketchSummary b = SketchSummary.build("latency", "help").quantile(0.5).relativeAccuracy(0.05).create().register(second);
+    final SketchSummary c = SketchSummary.build("latency", "help").quantile(0.9).create().register(third);
+    a.observe(1);
+    b.observe(2);
+    c.observe(3);
+
+    final List<Collector.MetricFamilySamples> families = write(first, second, third);
+    Assert.assertEquals(3, families.size());
+    Assert.assertEquals(Arrays.asList("0.5", "0.5", "0.9"), Arrays.asList(
+        families.get(0).samples.get(0).labelValues.get(0), families.get(1).samples.get(0).labelValues.get(0), families.get(2).samples.get(0).labelValues.get(0)));
+    Assert.assertEquals(3, families.get(2).samples.get(0).value, 0.1);
+  }
+
+  private static @NotNull List<Collector.MetricFamilySamples> write(@NotNull CollectorRegistry... registries) throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(ProtobufMetricsServlet.metrics(Arrays.asList(registries), Collections.emptySet())).write(output);
+    return new ProtobufParser(new ByteArrayInputStream(output.toByteArray())).families();
+  }
+}
@@ -0,0 +1,117 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Gauge;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+public final class SnapshotArchiveTest {
+
+  @Rule
+  public final @NotNull TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void ring() throws Exception {
+    final Path file = folder.getRoot().toPath().resolve("ring");
+    try (final SnapshotArchive archive = new SnapshotArchive(file, 1024)) {
+      for (int i = 0; i < 50; i++) {
+        append(archive, i, "snapshot number " + i);
+      }
+    }
+
+    final List<SnapshotArchive.Snapshot> snapshots = SnapshotArchive.read(file);
+    Assert.assertTrue(snapshots.size() > 5);
+    Assert.assertTrue(snapshots.size() < 50);
+    for (int i = 0; i < snapshots.size(); i++) {
+      final int expected = 50 - snapshots.size() + i;
+      Assert.assertEquals(expected, snapshots.get(i).timestamp());
+      Assert.assertEquals("snapshot number " + expected, text(snapshots.get(i).payload()));
+    }
+  }
+
+  @Test
+  public void reopen() throws Exception {
+    final Path file = folder.getRoot().toPath().resolve("reopen");
+    try (final SnapshotArchive archive = new SnapshotArchive(file, 4096)) {
+      append(archive, 1, "first");
+    }
+    try (final SnapshotArchive archive = new SnapshotArchive(file, 4096)) {
+      append(archive, 2, "second");
+    }
+    final List<SnapshotArchive.Snapshot> snapshots = SnapshotArchive.read(file);
+    Assert.assertEquals(2, snapshots.size());
+    Assert.assertEquals("first", text(snapshots.get(0).payload()));
+    Assert.assertEquals("second", text(snapshots.get(1).payload()));
+  }
+
+  @Test
+  public void oversized() throws Exception {
+    final Path file = folder.getRoot().toPath().resolve("oversized");
+    try (final SnapshotArchive archive = new SnapshotArchive(file, 256)) {
+      append(archive, 1, "small");
+      append(archive, 2, new String(new char[500]));
+      Assert.assertNotNull(archive.record(3));
+    }
+    Assert.assertEquals(1, SnapshotArchive.read(file).size());
+  }
+
+  @Test
+  public void servlet() throws Exception {
+    final Path file = folder.getRoot().toPath().resolve("servlet");
+    final CollectorRegistry registry = new CollectorRegistry();
+    Gauge.build("test_gauge", "help").register(registry).set(3);
+
+    try (final SnapshotArchive archive = new SnapshotArchive(file, 1 << 20)) {
+      final Server server = new Server(0);
+      final ServletContextHandler context = new ServletContextHandler();
+      context.setContextPath("/");
+      server.setHandler(context);
+      context.addServlet(new ServletHolder(ProtobufMetricsServlet.build().registry(registry).archive(archive).create()), "/metrics");
+      server.start();
+      final HttpClient client = new HttpClient();
+      try {
+        client.start();
+        final String url = "http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/metrics";
+        client.GET(url);
+        client.GET(url);
+        client.GET(url + "?name[]=test_gauge");
+      } finally {
+        client.stop();
+        server.stop();
+      }
+    }
+
+    final List<SnapshotArchive.Snapshot> snapshots = SnapshotArchive.read(file);
+    Assert.assertEquals(2, snapshots.size());
+    final List<Collector.MetricFamilySamples> families = snapshots.get(1).families();
+    Assert.assertEquals("test_gauge", families.get(0).name);
+    Assert.assertEquals(3, families.get(0).samples.get(0).value, 0);
+  }
+
+  private static void append(@NotNull SnapshotArchive archive, long timestamp, @NotNull String text) {
+    final SnapshotArchive.Record record = archive.record(timestamp);
+    Assert.assertNotNull(record);
+    final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    record.write(bytes, 0, bytes.length / 2);
+    record.write(bytes, bytes.length / 2, bytes.length - bytes.length / 2);
+    record.close();
+  }
+
+  private static @NotNull String text(@NotNull ByteBuffer payload) {
+    return StandardCharsets.UTF_8.decode(payload).toString();
+  }
+}
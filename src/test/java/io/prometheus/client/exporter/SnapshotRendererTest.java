@@ -0,0 +1,349 @@
+package io.prometheus.client.exporter;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Gauge;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+public final class SnapshotRendererTest {
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void render() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    final Gauge gauge = Gauge.build("temperature", "help").labelNames("room").register(registry);
+    gauge.labels("kitchen").set(21.5);
+    final Path directory = folder.getRoot().toPath();
+    final SnapshotRenderer renderer = new SnapshotRenderer(registry, directory);
+    Assert.assertEquals(-1, renderer.writeTo(new ByteArrayOutputStream()));
+
+    renderer.render();
+    final byte[] first = encode(registry);
+    Assert.assertEquals(first.length, renderer.size());
+    gauge.labels("hall").set(19);
+    Assert.assertArrayEquals(first, written(renderer));
+
+    renderer.render();
+    final byte[] second = encode(registry);
+    Assert.assertArrayEquals(second, written(renderer));
+    final ByteArrayOutputStream transferred = new ByteArrayOutputStream();
+    Assert.assertEquals(second.length, renderer.transferTo(Channels.newChannel(transferred)));
+    Assert.assertArrayEquals(second, transferred.toByteArray());
+    Assert.assertTrue(files(directory) <= 1);
+
+    renderer.close();
+    Assert.assertEquals(-1, renderer.size());
+    Assert.assertEquals(0, files(directory));
+  }
+
+  @Test
+  public void servlet() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    final Gauge gauge = Gauge.build("temperature", "help").register(registry);
+    gauge.set(21.5);
+    try (final SnapshotRenderer renderer = new SnapshotRenderer(registry, folder.getRoot().toPath())) {
+      final Server server = new Server(0);
+      final ServletContextHandler context = new ServletContextHandler();
+      context.setContextPath("/");
+      server.setHandler(context);
+      context.addServlet(new ServletHolder(ProtobufMetricsServlet.build().registry(registry).snapshots(renderer).create()), "/metrics");
+      server.start();
+      try {
+        final URL url = new URL("http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/metrics");
+        final byte[] rendered = encode(registry);
+        renderer.render();
+        gauge.set(0);
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        Assert.assertEquals(rendered.length, connection.getContentLengthLong());
+        Assert.assertArrayEquals(rendered, read(connection.getInputStream()));
+
+        final HttpURLConnection filtered = (HttpURLConnection) new URL(url + "?name[]=temperature").openConnection();
+        Assert.assertArrayEquals(encode(registry), read(filtered.getInputStream()));
+      } finally {
+        server.stop();
+      }
+    }
+  }
+
+  @Test
+  public void recycle() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    final Gauge gauge = Gauge.build("temperature", "help").register(registry);
+    try (final SnapshotRenderer renderer = new SnapshotRenderer(registry, folder.getRoot().toPath())) {
+      for (int i = 0; i < 10; i++) {
+        gauge.set(i);
+        renderer.render();
+      }
+      Assert.assertEquals(2, renderer.files());
+
+      final byte[] held = encode(registry);
+      final CountDownLatch reading = new CountDownLatch(1);
+      final CountDownLatch resume = new CountDownLatch(1);
+      final ByteArrayOutputStream slow = new ByteArrayOutputStream() {
+        @Override
+        public synchronized void write(@NotNull byte[] bytes, int offset, int length) {
+          reading.countDown();
+          try {
+            resume.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          super.write(bytes, offset, length);
+        }
+      };
+      final Thread reader = new Thread(() -> {
+        try {
+          renderer.writeTo(slow);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      reader.start();
+      reading.await();
+      for (int i = 0; i < 10; i++) {
+        gauge.set(100 + i);
+        renderer.render();
+        Assert.assertArrayEquals(encode(registry), written(renderer));
+      }
+      Assert.assertEquals(3, renderer.files());
+      resume.countDown();
+      reader.join();
+      Assert.assertArrayEquals(held, slow.toByteArray());
+      Assert.assertEquals(2, renderer.files());
+    }
+  }
+
+  /**
+   * A reader pauses after reading the current snapshot, which is then retired, recycled and half rewritten; the reader
+   * must not take it but the snapshot which replaced it.
+   */
+  @Test
+  public void staleReader() throws Exception {
+    final CountDownLatch read = new CountDownLatch(1);
+    final CountDownLatch retain = new CountDownLatch(1);
+    final AtomicBoolean first = new AtomicBoolean(true);
+    final CountDownLatch writing = new CountDownLatch(1);
+    final CountDownLatch write = new CountDownLatch(1);
+    final AtomicBoolean block = new AtomicBoolean();
+    final AtomicLong value = new AtomicLong(1);
+    final CollectorRegistry registry = new CollectorRegistry();
+    new Collector() {
+      @Override
+      public @NotNull List<MetricFamilySamples> collect() {
+        if (block.get()) {
+          writing.countDown();
+          await(write);
+        }
+        return Collections.singletonList(new MetricFamilySamples("value", Type.GAUGE, "help", Collections.singletonList(
+            new MetricFamilySamples.Sample("value", Collections.emptyList(), Collections.emptyList(), value.get()))));
+      }
+    }.register(registry);
+    try (final SnapshotRenderer renderer = new SnapshotRenderer(Collections.singletonList(registry), folder.getRoot().toPath(), () -> {
+      if (first.compareAndSet(true, false)) {
+        read.countDown();
+        await(retain);
+      }
+    })) {
+      renderer.render();
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      final Thread reader = new Thread(() -> {
+        try {
+          renderer.writeTo(output);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      reader.start();
+      read.await();
+
+      value.set(2);
+      renderer.render();
+      final byte[] replacement = encode(registry);
+      block.set(true);
+      final Thread writer = new Thread(() -> {
+        try {
+          renderer.render();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      writer.start();
+      writing.await();
+
+      retain.countDown();
+      reader.join(5000);
+      Assert.assertFalse(reader.isAlive());
+      Assert.assertArrayEquals(replacement, output.toByteArray());
+      block.set(false);
+      write.countDown();
+      writer.join();
+    }
+  }
+
+  /**
+   * Renders snapshots of different sizes while readers check that each one they get is whole, in the manner of
+   * jcstress: every snapshot has {@code value % 50 + 1} samples, all of them holding the value.
+   */
+  @Test
+  public void concurrentReaders() throws Exception {
+    final AtomicLong value = new AtomicLong();
+    final CollectorRegistry registry = new CollectorRegistry();
+    new Collector() {
+      @Override
+      public @NotNull List<MetricFamilySamples> collect() {
+        final long current = value.get();
+        final List<MetricFamilySamples.Sample> samples = new ArrayList<>();
+        for (int i = 0; i <= current % 50; i++) {
+          samples.add(new MetricFamilySamples.Sample("stress", Collections.singletonList("index"), Collections.singletonList(Integer.toString(i)), current));
+        }
+        return Collections.singletonList(new MetricFamilySamples("stress", Type.GAUGE, "help", samples));
+      }
+    }.register(registry);
+    try (final SnapshotRenderer renderer = new SnapshotRenderer(registry, folder.getRoot().toPath())) {
+      renderer.render();
+      final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+      final AtomicReference<Throwable> failure = new AtomicReference<>();
+      final AtomicLong reads = new AtomicLong();
+      final List<Thread> threads = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        threads.add(new Thread(() -> {
+          try {
+            while (System.nanoTime() < deadline) {
+              final ByteArrayOutputStream output = new ByteArrayOutputStream();
+              renderer.writeTo(output);
+              final List<Collector.MetricFamilySamples> families = new ProtobufParser(new ByteArrayInputStream(output.toByteArray())).families();
+              Assert.assertEquals(1, families.size());
+              final List<Collector.MetricFamilySamples.Sample> samples = families.get(0).samples;
+              final double rendered = samples.get(0).value;
+              Assert.assertEquals((long) rendered % 50 + 1, samples.size());
+              for (Collector.MetricFamilySamples.Sample sample : samples) {
+                Assert.assertEquals(rendered, sample.value, 0);
+              }
+              reads.incrementAndGet();
+            }
+          } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+          }
+        }));
+      }
+      threads.forEach(Thread::start);
+      while (System.nanoTime() < deadline) {
+        value.incrementAndGet();
+        renderer.render();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      if (failure.get() != null) {
+        throw new AssertionError(failure.get());
+      }
+      Assert.assertTrue(reads.get() > 0);
+      Assert.assertEquals(2, renderer.files());
+    }
+  }
+
+  @Test
+  public void mapped() throws Exception {
+    final CollectorRegistry registry = new CollectorRegistry();
+    final Gauge gauge = Gauge.build("temperature", "help").register(registry);
+    gauge.set(1);
+    final SnapshotRenderer renderer = new SnapshotRenderer(registry, folder.getRoot().toPath());
+    renderer.render();
+    final byte[] first = encode(registry);
+    final MappingOutputStream output = new MappingOutputStream();
+    Assert.assertEquals(first.length, renderer.writeTo(output));
+
+    gauge.set(2);
+    renderer.render();
+    renderer.render();
+    final byte[] mapped = new byte[output.content.remaining()];
+    output.content.get(mapped);
+    Assert.assertArrayEquals(first, mapped);
+    Assert.assertEquals(2, renderer.files());
+    renderer.close();
+  }
+
+  private static void await(@NotNull CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static @NotNull byte[] encode(@NotNull CollectorRegistry registry) throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ProtobufFormatter(registry.metricFamilySamples()).write(output);
+    return output.toByteArray();
+  }
+
+  private static @NotNull byte[] written(@NotNull SnapshotRenderer renderer) throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    Assert.assertEquals(renderer.size(), renderer.writeTo(output));
+    return output.toByteArray();
+  }
+
+  private static long files(@NotNull Path directory) throws IOException {
+    try (final Stream<Path> files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+
+  private static @NotNull byte[] read(@NotNull InputStream input) throws IOException {
+    try (final InputStream stream = input) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[8192];
+      for (int read; (read = stream.read(buffer)) != -1; ) {
+        bytes.write(buffer, 0, read);
+      }
+      return bytes.toByteArray();
+    }
+  }
+
+  /**
+   * Keeps the buffer it is given, as Jetty's output streams send it.
+   */
+  public static final class MappingOutputStream extends OutputStream {
+    private @NotNull ByteBuffer content = ByteBuffer.allocate(0);
+
+    public void sendContent(@NotNull ByteBuffer content) {
+      this.content = content;
+    }
+
+    @Override
+    public void write(int value) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}